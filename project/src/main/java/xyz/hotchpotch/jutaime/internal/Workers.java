@@ -0,0 +1,199 @@
+package xyz.hotchpotch.jutaime.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * 処理を複数のデーモン・スレッドで並列に実行し、全てのスレッドの終了を待つためのユーティリティです。<br>
+ * {@link xyz.hotchpotch.jutaime.throwable.ConcurrentTestee} などの並列実行ドライバが共通に利用します。<br>
+ * <br>
+ * このクラスは公開 API ではありません。<br>
+ * 
+ * @since 1.5.0
+ * @author nmby
+ */
+public final class Workers {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+    
+    /**
+     * {@code threads} 個のデーモン・スレッドで {@code task} を並列に実行し、全てのスレッドの終了を待ちます。<br>
+     * {@code task} には各スレッドのインデックス（{@code 0} から {@code threads - 1}）が渡されます。
+     * スレッド名は {@code "jutaime-<name>-<通番>-<インデックス>"} となります。<br>
+     * いずれかのスレッドで例外またはエラーがスローされた場合は、全てのスレッドの終了後に、最初にスローされたものをスローします。<br>
+     * 
+     * @param name スレッド名に含める名前
+     * @param threads スレッドの数
+     * @param task 各スレッドで実行する処理
+     * @throws NullPointerException {@code name}、{@code task} のいずれかが {@code null} の場合
+     * @throws IllegalArgumentException {@code threads} が {@code 1} 未満の場合
+     */
+    public static void run(String name, int threads, IntConsumer task) {
+        Objects.requireNonNull(name);
+        Objects.requireNonNull(task);
+        if (threads < 1) {
+            throw new IllegalArgumentException(String.valueOf(threads));
+        }
+        
+        AtomicReference<Throwable> aborted = new AtomicReference<>();
+        Thread[] workers = new Thread[threads];
+        int id = SEQUENCE.incrementAndGet();
+        for (int i = 0; i < threads; i++) {
+            int index = i;
+            workers[i] = new Thread(() -> {
+                try {
+                    task.accept(index);
+                } catch (Throwable t) {
+                    aborted.compareAndSet(null, t);
+                }
+            }, String.format("jutaime-%s-%d-%d", name, id, i));
+            workers[i].setDaemon(true);
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        join(workers);
+        
+        // IntConsumer はチェック例外をスローできないため、実行時例外かエラーのいずれかである。
+        Throwable t = aborted.get();
+        if (t instanceof Error) {
+            throw (Error) t;
+        } else if (t != null) {
+            throw (RuntimeException) t;
+        }
+    }
+    
+    /**
+     * ケース番号 {@code 0} 以上 {@code cases} 未満の全てのケースを、{@code threads} 個のデーモン・スレッドで並列に処理します。<br>
+     * 各スレッドは、そのスレッド上で {@code factory} から処理をひとつ作成し、
+     * 未処理のケースを {@code chunk} 個ずつ取得して、ケース番号の昇順にその処理を適用します。
+     * このため、各処理はスレッドに固有の状態を同期なしに保持することができます。<br>
+     * いずれかの処理が例外またはエラーをスローした場合は、残りのケースの処理を中止し、
+     * 全てのスレッドの終了後に、最初にスローされたものをスローします。<br>
+     * 
+     * @param <W> 処理の型
+     * @param name スレッド名に含める名前
+     * @param threads スレッドの数
+     * @param cases ケースの数
+     * @param chunk 各スレッドが一度に取得するケースの数
+     * @param factory 各スレッドで用いる処理を作成する関数
+     * @return 各スレッドで作成された処理の、スレッドのインデックス順のリスト。
+     *         全てのスレッドの終了後に返されるため、各処理が保持する状態は同期なしに参照できます。
+     * @throws NullPointerException {@code name}、{@code factory} のいずれかが {@code null} の場合
+     * @throws IllegalArgumentException {@code threads} または {@code chunk} が {@code 1} 未満の場合、{@code cases} が負の場合
+     */
+    public static <W extends LongConsumer> List<W> forEachCase(
+            String name, int threads, long cases, int chunk, Supplier<? extends W> factory) {
+        
+        Objects.requireNonNull(name);
+        Objects.requireNonNull(factory);
+        if (threads < 1) {
+            throw new IllegalArgumentException(String.valueOf(threads));
+        }
+        if (cases < 0) {
+            throw new IllegalArgumentException(String.valueOf(cases));
+        }
+        if (chunk < 1) {
+            throw new IllegalArgumentException(String.valueOf(chunk));
+        }
+        
+        AtomicLong next = new AtomicLong();
+        AtomicReference<Throwable> aborted = new AtomicReference<>();
+        AtomicReferenceArray<W> created = new AtomicReferenceArray<>(threads);
+        run(name, threads, index -> {
+            try {
+                W worker = factory.get();
+                created.set(index, worker);
+                while (aborted.get() == null) {
+                    long from = next.getAndAdd(chunk);
+                    if (cases <= from) {
+                        return;
+                    }
+                    long to = Math.min(cases, from + chunk);
+                    for (long caseNumber = from; caseNumber < to; caseNumber++) {
+                        worker.accept(caseNumber);
+                    }
+                }
+            } catch (Throwable t) {
+                // 他のスレッドに中止を知らせたうえで、そのままスローする。
+                aborted.compareAndSet(null, t);
+                throw t;
+            }
+        });
+        
+        List<W> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            workers.add(created.get(i));
+        }
+        return workers;
+    }
+    
+    /**
+     * 各スレッドが保持する要素のリストを併合し、{@code order} の順に先頭から最大 {@code limit} 個を返します。<br>
+     * 各スレッドがケース番号の小さい不合格を保持している場合、それらを併合すれば全体でケース番号の小さいものが得られます。<br>
+     * 
+     * @param <T> 要素の型
+     * @param lists 各スレッドが保持する要素のリスト
+     * @param order 要素の順序
+     * @param limit 返す要素の最大数
+     * @return 併合した要素の変更不可能なリスト
+     */
+    public static <T> List<T> merge(List<? extends List<? extends T>> lists, Comparator<? super T> order, int limit) {
+        Objects.requireNonNull(lists);
+        Objects.requireNonNull(order);
+        
+        List<T> merged = new ArrayList<>();
+        for (List<? extends T> list : lists) {
+            merged.addAll(list);
+        }
+        merged.sort(order);
+        if (limit < merged.size()) {
+            merged = new ArrayList<>(merged.subList(0, limit));
+        }
+        return Collections.unmodifiableList(merged);
+    }
+    
+    /**
+     * 全てのスレッドの終了を待ちます。<br>
+     * 待機中に割り込まれた場合も待機を継続し、復帰前に割り込み状態を再設定します。<br>
+     * 
+     * @param threads 終了を待つスレッド
+     * @throws NullPointerException {@code threads} またはその要素が {@code null} の場合
+     */
+    public static void join(Thread... threads) {
+        boolean interrupted = false;
+        try {
+            for (Thread thread : threads) {
+                while (true) {
+                    try {
+                        thread.join();
+                        break;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private Workers() {
+    }
+}
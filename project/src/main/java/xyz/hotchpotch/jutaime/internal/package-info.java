@@ -0,0 +1,8 @@
+/**
+ * jUtaime の各パッケージが内部で共通に利用するクラスを提供します。<br>
+ * このパッケージのクラスは公開 API ではありません。予告なく変更または削除されることがあるため、利用者が直接使用してはなりません。<br>
+ * 
+ * @since 1.5.0
+ * @author nmby
+ */
+package xyz.hotchpotch.jutaime.internal;
@@ -0,0 +1,341 @@
+package xyz.hotchpotch.jutaime.serializable;
+
+import java.util.Arrays;
+
+/**
+ * 2つのバイト配列の差分を求め、16進表示形式で出力するためのクラスです。<br>
+ * 差分は Myers の O(ND) アルゴリズムの線形空間版によって求めます。
+ * ここで N は2つの配列の長さの和、D は最小編集距離（挿入および削除されるバイト数の和）です。
+ * 作業領域は D に比例する大きさしか使用しないため、数メガバイトのバイト配列でも、差分が小さければ高速に比較できます。<br>
+ * <br>
+ * 求めた差分は、一致、削除、挿入の3種類の区間の列として保持します。<br>
+ * 
+ * @see STUtil#diff(byte[], byte[])
+ * @since 1.5.0
+ * @author nmby
+ */
+/*package*/ final class ByteDiff {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /*package*/ static final int EQUAL = 0;
+    /*package*/ static final int DELETE = 1;
+    /*package*/ static final int INSERT = 2;
+    
+    /** 1行に表示するバイト数 */
+    private static final int BYTES_PER_LINE = 16;
+    
+    private static final char[] MARKS = { ' ', '-', '+' };
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final byte[] a;
+    private final byte[] b;
+    
+    // 区間の列。区間ごとに種類、a 上の開始位置、b 上の開始位置、長さの4要素を保持する。
+    private int[] runs = new int[64];
+    private int count;
+    private long distance;
+    
+    // 中央スネークの探索に用いる作業領域。対角線 k の値を k + center の位置に保持する。
+    private int[] forward = new int[0];
+    private int[] backward = new int[0];
+    private int center;
+    
+    // 中央スネークの探索結果
+    private int snakeX0;
+    private int snakeY0;
+    private int snakeX1;
+    private int snakeY1;
+    
+    /**
+     * 2つのバイト配列の差分を求めます。<br>
+     * 
+     * @param a 変更前のバイト配列
+     * @param b 変更後のバイト配列
+     */
+    /*package*/ ByteDiff(byte[] a, byte[] b) {
+        assert a != null;
+        assert b != null;
+        
+        this.a = a;
+        this.b = b;
+        compare(0, a.length, 0, b.length);
+        
+        // 作業領域は差分を求め終えた後は不要である。
+        forward = null;
+        backward = null;
+    }
+    
+    /**
+     * 最小編集距離、すなわち削除されたバイト数と挿入されたバイト数の和を返します。<br>
+     * 
+     * @return 最小編集距離
+     */
+    /*package*/ long distance() {
+        return distance;
+    }
+    
+    /**
+     * 区間の数を返します。<br>
+     * 
+     * @return 区間の数
+     */
+    /*package*/ int runCount() {
+        return count;
+    }
+    
+    /**
+     * 区間の情報を返します。<br>
+     * 
+     * @param i 区間の番号
+     * @return 種類、変更前の配列上の開始位置、変更後の配列上の開始位置、長さからなる配列
+     */
+    /*package*/ int[] run(int i) {
+        assert 0 <= i && i < count;
+        return Arrays.copyOfRange(runs, i * 4, i * 4 + 4);
+    }
+    
+    /**
+     * {@code a[aLo, aHi)} と {@code b[bLo, bHi)} の差分を求め、区間の列に追加します。<br>
+     */
+    private void compare(int aLo, int aHi, int bLo, int bHi) {
+        // 共通の先頭部分と末尾部分を取り除く。
+        int prefix = 0;
+        while (aLo + prefix < aHi && bLo + prefix < bHi && a[aLo + prefix] == b[bLo + prefix]) {
+            prefix++;
+        }
+        add(EQUAL, aLo, bLo, prefix);
+        aLo += prefix;
+        bLo += prefix;
+        
+        int suffix = 0;
+        while (aLo < aHi - suffix && bLo < bHi - suffix && a[aHi - suffix - 1] == b[bHi - suffix - 1]) {
+            suffix++;
+        }
+        aHi -= suffix;
+        bHi -= suffix;
+        
+        if (aLo == aHi) {
+            add(INSERT, aLo, bLo, bHi - bLo);
+        } else if (bLo == bHi) {
+            add(DELETE, aLo, bLo, aHi - aLo);
+        } else {
+            // ここでは編集距離は 2 以上であるため、中央スネークの前後はともに元の問題より小さくなる。
+            middleSnake(aLo, aHi, bLo, bHi);
+            int x0 = snakeX0;
+            int y0 = snakeY0;
+            int x1 = snakeX1;
+            int y1 = snakeY1;
+            compare(aLo, x0, bLo, y0);
+            add(EQUAL, x0, y0, x1 - x0);
+            compare(x1, aHi, y1, bHi);
+        }
+        
+        add(EQUAL, aHi, bHi, suffix);
+    }
+    
+    /**
+     * {@code a[aLo, aHi)} と {@code b[bLo, bHi)} の最短編集経路の中央にあるスネークを求めます。<br>
+     * 前方と後方から同時に探索し、両者が重なった箇所のスネークの始点と終点を {@code snakeX0} などに設定します。<br>
+     */
+    private void middleSnake(int aLo, int aHi, int bLo, int bHi) {
+        int n = aHi - aLo;
+        int m = bHi - bLo;
+        int delta = n - m;
+        boolean odd = (delta & 1) != 0;
+        int maxD = (n + m + 1) / 2;
+        
+        ensureCapacity(1);
+        forward[center + 1] = 0;
+        backward[center + 1] = 0;
+        
+        for (int d = 0; d <= maxD; d++) {
+            ensureCapacity(d + 1);
+            int[] vf = forward;
+            int[] vb = backward;
+            int c = center;
+            
+            // 前方探索。vf[k] は対角線 k (= x - y) 上で到達できる最も遠い x である。
+            for (int k = -d; k <= d; k += 2) {
+                int x = (k == -d || (k != d && vf[c + k - 1] < vf[c + k + 1])) ? vf[c + k + 1] : vf[c + k - 1] + 1;
+                int y = x - k;
+                int x0 = x;
+                int y0 = y;
+                while (x < n && y < m && a[aLo + x] == b[bLo + y]) {
+                    x++;
+                    y++;
+                }
+                vf[c + k] = x;
+                
+                int r = delta - k;
+                if (odd && -(d - 1) <= r && r <= d - 1 && n <= x + vb[c + r]) {
+                    setSnake(aLo + x0, bLo + y0, aLo + x, bLo + y);
+                    return;
+                }
+            }
+            
+            // 後方探索。末尾から逆向きにたどった座標で、前方探索と同じ処理を行う。
+            for (int k = -d; k <= d; k += 2) {
+                int x = (k == -d || (k != d && vb[c + k - 1] < vb[c + k + 1])) ? vb[c + k + 1] : vb[c + k - 1] + 1;
+                int y = x - k;
+                int x0 = x;
+                int y0 = y;
+                while (x < n && y < m && a[aHi - x - 1] == b[bHi - y - 1]) {
+                    x++;
+                    y++;
+                }
+                vb[c + k] = x;
+                
+                int f = delta - k;
+                if (!odd && -d <= f && f <= d && n <= x + vf[c + f]) {
+                    setSnake(aHi - x, bHi - y, aHi - x0, bHi - y0);
+                    return;
+                }
+            }
+        }
+        throw new AssertionError();
+    }
+    
+    private void setSnake(int x0, int y0, int x1, int y1) {
+        snakeX0 = x0;
+        snakeY0 = y0;
+        snakeX1 = x1;
+        snakeY1 = y1;
+    }
+    
+    /**
+     * 作業領域が対角線 {@code -d}～{@code d} を保持できるようにします。<br>
+     * 拡張する場合は、既存の値を保ったまま中央に配置し直します。<br>
+     */
+    private void ensureCapacity(int d) {
+        if (d < center) {
+            return;
+        }
+        int newCenter = Math.max(d + 1, center * 2);
+        int[] newForward = new int[newCenter * 2 + 1];
+        int[] newBackward = new int[newCenter * 2 + 1];
+        System.arraycopy(forward, 0, newForward, newCenter - center, forward.length);
+        System.arraycopy(backward, 0, newBackward, newCenter - center, backward.length);
+        forward = newForward;
+        backward = newBackward;
+        center = newCenter;
+    }
+    
+    /**
+     * 区間を追加します。直前の区間と種類が同じ場合は、直前の区間を延長します。<br>
+     */
+    private void add(int kind, int aStart, int bStart, int length) {
+        if (length == 0) {
+            return;
+        }
+        if (kind != EQUAL) {
+            distance += length;
+        }
+        if (0 < count && runs[(count - 1) * 4] == kind) {
+            runs[(count - 1) * 4 + 3] += length;
+            return;
+        }
+        
+        // 削除と挿入が隣接する場合は、削除を先に置く。
+        if (kind == DELETE && 0 < count && runs[(count - 1) * 4] == INSERT) {
+            if (1 < count && runs[(count - 2) * 4] == DELETE) {
+                runs[(count - 2) * 4 + 3] += length;
+                runs[(count - 1) * 4 + 1] += length;
+                return;
+            }
+            ensureRuns();
+            int p = (count - 1) * 4;
+            System.arraycopy(runs, p, runs, p + 4, 4);
+            runs[p] = DELETE;
+            runs[p + 1] = aStart;
+            runs[p + 2] = runs[p + 6];
+            runs[p + 3] = length;
+            runs[p + 5] += length;
+            count++;
+            return;
+        }
+        
+        ensureRuns();
+        int p = count * 4;
+        runs[p] = kind;
+        runs[p + 1] = aStart;
+        runs[p + 2] = bStart;
+        runs[p + 3] = length;
+        count++;
+    }
+    
+    private void ensureRuns() {
+        if (runs.length < (count + 1) * 4) {
+            runs = Arrays.copyOf(runs, runs.length * 2);
+        }
+    }
+    
+    /**
+     * 差分を16進表示形式で出力します。<br>
+     * 変更された区間の前後 {@code context} バイトの一致区間とともに、変更箇所ごとのまとまり（ハンク）として出力します。
+     * 前後の文脈が重なるハンクは一つにまとめます。<br>
+     * <br>
+     * 各ハンクは、変更前と変更後の配列上の範囲を示す見出し行と、最大16バイトずつの内容行からなります。
+     * 内容行は、種類を表す記号（一致は空白、削除は {@code -}、挿入は {@code +}）、
+     * 配列上の位置（削除と一致は変更前、挿入は変更後の配列上の位置）、16進表示形式の内容からなります。<br>
+     * 
+     * 行は改行文字 {@code '\n'} で区切ります。<br>
+     * 
+     * @param context 変更箇所の前後に出力する一致区間のバイト数
+     * @return 差分を表す文字列（差分がない場合は空文字列）
+     */
+    /*package*/ String render(int context) {
+        assert 0 <= context;
+        
+        StringBuilder str = new StringBuilder();
+        int i = 0;
+        while (i < count) {
+            if (runs[i * 4] == EQUAL) {
+                i++;
+                continue;
+            }
+            
+            // ハンクに含める区間の範囲 [first, last] を求める。間の一致区間が文脈の2倍以下なら同じハンクとする。
+            int first = i;
+            int last = i;
+            while (last + 1 < count) {
+                int next = last + 1;
+                if (runs[next * 4] != EQUAL) {
+                    last = next;
+                } else if (next + 1 < count && runs[next * 4 + 3] <= context * 2) {
+                    last = next + 1;
+                } else {
+                    break;
+                }
+            }
+            
+            int lead = 0 < first ? Math.min(context, runs[(first - 1) * 4 + 3]) : 0;
+            int trail = last + 1 < count ? Math.min(context, runs[(last + 1) * 4 + 3]) : 0;
+            int aStart = runs[first * 4 + 1] - lead;
+            int bStart = runs[first * 4 + 2] - lead;
+            int aEnd = last + 1 < count ? runs[(last + 1) * 4 + 1] + trail : a.length;
+            int bEnd = last + 1 < count ? runs[(last + 1) * 4 + 2] + trail : b.length;
+            
+            str.append(String.format("@@ -%08x,%d +%08x,%d @@\n", aStart, aEnd - aStart, bStart, bEnd - bStart));
+            appendLines(str, EQUAL, aStart, lead);
+            for (int j = first; j <= last; j++) {
+                int kind = runs[j * 4];
+                appendLines(str, kind, kind == INSERT ? runs[j * 4 + 2] : runs[j * 4 + 1], runs[j * 4 + 3]);
+            }
+            appendLines(str, EQUAL, aEnd - trail, trail);
+            
+            i = last + 1;
+        }
+        return str.toString();
+    }
+    
+    private void appendLines(StringBuilder str, int kind, int start, int length) {
+        byte[] bytes = kind == INSERT ? b : a;
+        for (int p = start; p < start + length; p += BYTES_PER_LINE) {
+            str.append(MARKS[kind]).append(' ').append(String.format("%08x", p)).append(' ');
+            HexCodec.appendTo(str, bytes, p, Math.min(BYTES_PER_LINE, start + length - p), false);
+            str.append('\n');
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package xyz.hotchpotch.jutaime.serializable;
+
+import java.util.Arrays;
+
+/**
+ * バイト配列内の部分配列を検索および置換するためのクラスです。<br>
+ * 検索には Boyer-Moore-Horspool 法を用いるため、バイト配列を16進表示形式の文字列に変換することなく、
+ * 配列上で直接、部分配列の位置を特定することができます。<br>
+ * 一致箇所は {@link String#replace(CharSequence, CharSequence)} と同様に、先頭から順に重なりなく検出されます。<br>
+ * <br>
+ * このクラスのインスタンスは不変であり、スレッドセーフです。<br>
+ * 
+ * @since 1.5.0
+ * @author nmby
+ */
+/*package*/ final class BytePattern {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /** 全ての一致箇所を置換することを表す値 */
+    /*package*/ static final int ALL = 0;
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final byte[] pattern;
+    
+    // 検索窓の末尾のバイト値ごとの移動量。長さ 1 のパターンでは不要のため null とする。
+    private final int[] shift;
+    
+    /**
+     * @param pattern 検索対象の部分配列（長さ 1 以上）
+     */
+    /*package*/ BytePattern(byte[] pattern) {
+        assert pattern != null;
+        assert 0 < pattern.length;
+        
+        this.pattern = pattern.clone();
+        
+        if (1 < pattern.length) {
+            int last = pattern.length - 1;
+            shift = new int[256];
+            Arrays.fill(shift, pattern.length);
+            for (int i = 0; i < last; i++) {
+                shift[pattern[i] & 0xff] = last - i;
+            }
+        } else {
+            shift = null;
+        }
+    }
+    
+    /**
+     * バイト配列の {@code from} 以降で最初に現れる一致箇所の位置を返します。<br>
+     * 
+     * @param bytes 検索対象のバイト配列
+     * @param from 検索を開始する位置
+     * @return 一致箇所の先頭の位置（見つからない場合は {@code -1}）
+     */
+    /*package*/ int indexOf(byte[] bytes, int from) {
+        assert bytes != null;
+        assert 0 <= from;
+        
+        int last = pattern.length - 1;
+        int end = bytes.length - last;
+        
+        if (shift == null) {
+            byte b = pattern[0];
+            for (int i = from; i < end; i++) {
+                if (bytes[i] == b) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        
+        byte tail = pattern[last];
+        int i = from;
+        while (i < end) {
+            byte b = bytes[i + last];
+            if (b == tail) {
+                int j = last - 1;
+                while (0 <= j && bytes[i + j] == pattern[j]) {
+                    j--;
+                }
+                if (j < 0) {
+                    return i;
+                }
+            }
+            i += shift[b & 0xff];
+        }
+        return -1;
+    }
+    
+    /**
+     * バイト配列内の一致箇所を {@code replacement} で置換した新たな配列を返します。元の配列は変更しません。<br>
+     * 
+     * @param original 置換前のバイト配列
+     * @param replacement 置換後の部分配列
+     * @param nth 置換する一致箇所の順番（{@code 1} 以上）。{@link #ALL} の場合は全ての一致箇所を置換します。
+     * @return 置換後のバイト配列（一致箇所がない場合は {@code original} のコピー）
+     */
+    /*package*/ byte[] replace(byte[] original, byte[] replacement, int nth) {
+        assert original != null;
+        assert replacement != null;
+        assert 0 <= nth;
+        
+        // 一致箇所を先に全て特定し、結果の配列を一度だけ確保する。
+        int[] positions = new int[8];
+        int count = 0;
+        int ordinal = 0;
+        int i = indexOf(original, 0);
+        while (0 <= i) {
+            ordinal++;
+            if (nth == ALL || nth == ordinal) {
+                if (count == positions.length) {
+                    positions = Arrays.copyOf(positions, count * 2);
+                }
+                positions[count++] = i;
+                if (nth != ALL) {
+                    break;
+                }
+            }
+            i = indexOf(original, i + pattern.length);
+        }
+        
+        if (count == 0) {
+            return original.clone();
+        }
+        
+        byte[] replaced = new byte[original.length + count * (replacement.length - pattern.length)];
+        int src = 0;
+        int dst = 0;
+        for (int k = 0; k < count; k++) {
+            int len = positions[k] - src;
+            System.arraycopy(original, src, replaced, dst, len);
+            dst += len;
+            System.arraycopy(replacement, 0, replaced, dst, replacement.length);
+            dst += replacement.length;
+            src = positions[k] + pattern.length;
+        }
+        System.arraycopy(original, src, replaced, dst, original.length - src);
+        return replaced;
+    }
+}
@@ -0,0 +1,365 @@
+package xyz.hotchpotch.jutaime.serializable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.LongConsumer;
+
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+
+import xyz.hotchpotch.jutaime.internal.Workers;
+import xyz.hotchpotch.jutaime.throwable.Testee;
+
+/**
+ * シリアライズ形式の全ての切り詰めと、全ての 1 バイトの置換について、デシリアライズ結果を網羅的に検査するドライバです。<br>
+ * 次の例のように、デシリアライズ結果を表す {@link Testee} に対する {@code Matcher} を指定して実行します。<br>
+ * <pre>
+ *     CorruptionSweep sweep = CorruptionSweep.of(new Point(1, 2));
+ *     CorruptionSweep.Report truncations = sweep.truncations(raise(FailToDeserializeException.class));
+ *     assertThat(truncations.toString(), truncations.isSuccessful(), is(true));
+ *     CorruptionSweep.Report substitutions = sweep.substitutions(anyOf(raiseNothing(), raise(FailToDeserializeException.class)));
+ *     assertThat(substitutions.toString(), substitutions.isSuccessful(), is(true));
+ * </pre>
+ * <br>
+ * {@link #truncations(Matcher)} は、長さ {@code n} のバイト配列の長さ {@code 0} から {@code n - 1} までの全ての接頭辞を検査します。
+ * {@link #substitutions(Matcher)} は、全ての位置について、その位置のバイトを元の値以外の 255 通りの値に置き換えたものを検査します。<br>
+ * ケースは全てのプロセッサ（または {@link #threads(int)} で指定された数のスレッド）で並列に実行されます。
+ * 各ワーカー・スレッドはバイト配列の複製をひとつだけ保持し、置換はその複製上で直接行い、デシリアライズの後に元に戻します。
+ * 切り詰めは、複製の先頭から指定された長さまでを {@link SerializationSession#read(byte[], int, int)} で読み込むことで行います。
+ * このため、ケースごとにバイト配列の複製を作成することはありません。<br>
+ * <br>
+ * 置換したバイト列の中には、配列の要素数などが大きな値となり、デシリアライズ時に大きなメモリ割り当てを引き起こすものが含まれる可能性があります。<br>
+ * <br>
+ * このクラスのインスタンスは不変であり、スレッドセーフです。<br>
+ * 
+ * @see STUtil#read(byte[], int, int)
+ * @since 1.5.0
+ * @author nmby
+ */
+public final class CorruptionSweep {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /**
+     * ひとつのケースの不合格を表します。<br>
+     * 
+     * @since 1.5.0
+     * @author nmby
+     */
+    public static final class Failure {
+        
+        private final long caseNumber;
+        private final int offset;
+        private final int value;
+        private final Testee<?> testee;
+        private final String mismatch;
+        
+        private Failure(long caseNumber, int offset, int value, Testee<?> testee, String mismatch) {
+            this.caseNumber = caseNumber;
+            this.offset = offset;
+            this.value = value;
+            this.testee = testee;
+            this.mismatch = mismatch;
+        }
+        
+        /**
+         * ケースの位置を返します。<br>
+         * 切り詰めの場合は切り詰めた後の長さ、置換の場合は置換した位置です。<br>
+         * 
+         * @return ケースの位置
+         */
+        public int offset() {
+            return offset;
+        }
+        
+        /**
+         * 置換後のバイトの値を返します。<br>
+         * 
+         * @return 置換後のバイトの値（{@code 0} から {@code 255}。切り詰めの場合は {@code -1}）
+         */
+        public int value() {
+            return value;
+        }
+        
+        /**
+         * デシリアライズ結果を返します。<br>
+         * 
+         * @return デシリアライズ結果
+         */
+        public Testee<?> testee() {
+            return testee;
+        }
+        
+        @Override
+        public String toString() {
+            return value < 0
+                    ? String.format("truncated to %d bytes: %s", offset, mismatch)
+                    : String.format("0x%04x -> %02x: %s", offset, value, mismatch);
+        }
+    }
+    
+    /**
+     * 検査の実行結果です。<br>
+     * 
+     * @since 1.5.0
+     * @author nmby
+     */
+    public static final class Report {
+        
+        private final long cases;
+        private final long failureCount;
+        private final List<Integer> failedOffsets;
+        private final List<Failure> failures;
+        private final Duration elapsedTime;
+        
+        private Report(long cases, long failureCount, List<Integer> failedOffsets, List<Failure> failures, Duration elapsedTime) {
+            this.cases = cases;
+            this.failureCount = failureCount;
+            this.failedOffsets = failedOffsets;
+            this.failures = failures;
+            this.elapsedTime = elapsedTime;
+        }
+        
+        /**
+         * 実行したケースの数を返します。<br>
+         * 
+         * @return ケースの数
+         */
+        public long cases() {
+            return cases;
+        }
+        
+        /**
+         * 不合格となったケースの数を返します。<br>
+         * 
+         * @return 不合格の数
+         */
+        public long failureCount() {
+            return failureCount;
+        }
+        
+        /**
+         * 不合格となったケースの位置（{@link Failure#offset()}）を、重複なく昇順に返します。
+         * {@link #failures()} と異なり、全ての不合格の位置を含みます。<br>
+         * 
+         * @return 位置の変更不能なリスト
+         */
+        public List<Integer> failedOffsets() {
+            return failedOffsets;
+        }
+        
+        /**
+         * 不合格となったケースのうち、位置の小さいものから最大 {@link CorruptionSweep#maxFailures(int)} 件を返します。<br>
+         * 
+         * @return 不合格の変更不能なリスト
+         */
+        public List<Failure> failures() {
+            return failures;
+        }
+        
+        /**
+         * 実行に要した時間を返します。<br>
+         * 
+         * @return 実行に要した時間
+         */
+        public Duration elapsedTime() {
+            return elapsedTime;
+        }
+        
+        /**
+         * 全てのケースが合格したかを返します。<br>
+         * 
+         * @return 不合格がない場合は {@code true}
+         */
+        public boolean isSuccessful() {
+            return failureCount == 0;
+        }
+        
+        @Override
+        public String toString() {
+            StringBuilder str = new StringBuilder();
+            str.append(String.format("%d cases, %d failed in %s", cases, failureCount, elapsedTime));
+            if (!failedOffsets.isEmpty()) {
+                str.append("\nfailed offsets: ").append(failedOffsets);
+            }
+            for (Failure failure : failures) {
+                str.append('\n').append(failure);
+            }
+            return str.toString();
+        }
+    }
+    
+    private static final int CHUNK = 256;
+    
+    /** ひとつの位置あたりの置換の数 */
+    private static final int ALTERNATIVES = 255;
+    
+    /**
+     * オブジェクトをシリアライズし、その結果を検査の対象とするドライバを返します。<br>
+     * 
+     * @param obj シリアライズ対象のオブジェクト（{@code null} が許容されます）
+     * @return ドライバ
+     * @throws FailToSerializeException シリアライズの過程で何らかの例外が発生した場合
+     */
+    public static CorruptionSweep of(Object obj) {
+        return new CorruptionSweep(STUtil.write(obj), Runtime.getRuntime().availableProcessors(), 10);
+    }
+    
+    /**
+     * 指定されたバイト配列を検査の対象とするドライバを返します。<br>
+     * 
+     * @param bytes 検査の対象とするバイト配列
+     * @return ドライバ
+     * @throws NullPointerException {@code bytes} が {@code null} の場合
+     */
+    public static CorruptionSweep ofSerialized(byte[] bytes) {
+        Objects.requireNonNull(bytes);
+        return new CorruptionSweep(bytes.clone(), Runtime.getRuntime().availableProcessors(), 10);
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final byte[] bytes;
+    private final int threads;
+    private final int maxFailures;
+    
+    private CorruptionSweep(byte[] bytes, int threads, int maxFailures) {
+        assert bytes != null;
+        this.bytes = bytes;
+        this.threads = threads;
+        this.maxFailures = maxFailures;
+    }
+    
+    /**
+     * 並列に実行するスレッドの数を指定したドライバを返します。<br>
+     * 既定値は {@link Runtime#availableProcessors()} です。<br>
+     * 
+     * @param threads スレッドの数
+     * @return スレッドの数を指定したドライバ
+     * @throws IllegalArgumentException {@code threads} が {@code 1} 未満の場合
+     */
+    public CorruptionSweep threads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException(String.valueOf(threads));
+        }
+        return new CorruptionSweep(bytes, threads, maxFailures);
+    }
+    
+    /**
+     * {@link Report#failures()} に含める不合格の最大数を指定したドライバを返します。<br>
+     * 既定値は {@code 10} です。不合格の数（{@link Report#failureCount()}）と位置（{@link Report#failedOffsets()}）は、この値によらず全て数えられます。<br>
+     * 
+     * @param maxFailures 不合格の最大数
+     * @return 不合格の最大数を指定したドライバ
+     * @throws IllegalArgumentException {@code maxFailures} が負の場合
+     */
+    public CorruptionSweep maxFailures(int maxFailures) {
+        if (maxFailures < 0) {
+            throw new IllegalArgumentException(String.valueOf(maxFailures));
+        }
+        return new CorruptionSweep(bytes, threads, maxFailures);
+    }
+    
+    /**
+     * バイト配列の全ての切り詰め（長さ {@code 0} から {@code n - 1} までの接頭辞）について、デシリアライズ結果を検査します。<br>
+     * {@code matcher} 自体が例外をスローした場合は、実行を中止してその例外をスローします。<br>
+     * 
+     * @param matcher デシリアライズ結果を検査する {@code Matcher}
+     * @return 実行結果
+     * @throws NullPointerException {@code matcher} が {@code null} の場合
+     */
+    public Report truncations(Matcher<? super Testee<?>> matcher) {
+        Objects.requireNonNull(matcher);
+        return run(matcher, false);
+    }
+    
+    /**
+     * バイト配列の全ての位置について、その位置のバイトを元の値以外の 255 通りの値に置き換えたもののデシリアライズ結果を検査します。<br>
+     * {@code matcher} 自体が例外をスローした場合は、実行を中止してその例外をスローします。<br>
+     * 
+     * @param matcher デシリアライズ結果を検査する {@code Matcher}
+     * @return 実行結果
+     * @throws NullPointerException {@code matcher} が {@code null} の場合
+     */
+    public Report substitutions(Matcher<? super Testee<?>> matcher) {
+        Objects.requireNonNull(matcher);
+        return run(matcher, true);
+    }
+    
+    private Report run(Matcher<? super Testee<?>> matcher, boolean substitutes) {
+        long cases = substitutes ? (long) bytes.length * ALTERNATIVES : bytes.length;
+        long start = System.nanoTime();
+        List<Worker> workers = Workers.forEachCase("sweep", threads, cases, CHUNK, () -> new Worker(matcher, substitutes));
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        
+        long failureCount = 0;
+        BitSet offsets = new BitSet();
+        List<List<Failure>> failureLists = new ArrayList<>();
+        for (Worker worker : workers) {
+            failureCount += worker.failureCount;
+            offsets.or(worker.offsets);
+            failureLists.add(worker.failures);
+        }
+        List<Failure> failures = Workers.merge(failureLists, (f1, f2) -> Long.compare(f1.caseNumber, f2.caseNumber), maxFailures);
+        List<Integer> failedOffsets = new ArrayList<>();
+        for (int offset = offsets.nextSetBit(0); 0 <= offset; offset = offsets.nextSetBit(offset + 1)) {
+            failedOffsets.add(offset);
+        }
+        return new Report(cases, failureCount, Collections.unmodifiableList(failedOffsets), failures, elapsed);
+    }
+    
+    /**
+     * ひとつのワーカー・スレッドでケースを実行する処理です。<br>
+     * ワーカー・スレッド上で作成され、バイト配列の複製をひとつだけ保持し、置換はその上で直接行って元に戻します。<br>
+     */
+    private class Worker implements LongConsumer {
+        
+        private final Matcher<? super Testee<?>> matcher;
+        private final boolean substitutes;
+        private final byte[] buf = bytes.clone();
+        private final SerializationSession session = SerializationSession.current();
+        
+        // 以下はワーカー・スレッドのみが書き込み、スレッドの終了後に読み込まれる。
+        private long failureCount;
+        private final BitSet offsets = new BitSet();
+        private final List<Failure> failures = new ArrayList<>();
+        
+        private Worker(Matcher<? super Testee<?>> matcher, boolean substitutes) {
+            this.matcher = matcher;
+            this.substitutes = substitutes;
+        }
+        
+        @Override
+        public void accept(long caseNumber) {
+            if (substitutes) {
+                int offset = (int) (caseNumber / ALTERNATIVES);
+                int value = (bytes[offset] ^ (1 + (int) (caseNumber % ALTERNATIVES))) & 0xff;
+                buf[offset] = (byte) value;
+                check(Testee.of(() -> session.read(buf, 0, buf.length)), caseNumber, offset, value);
+                buf[offset] = bytes[offset];
+            } else {
+                int length = (int) caseNumber;
+                check(Testee.of(() -> session.read(buf, 0, length)), caseNumber, length, -1);
+            }
+        }
+        
+        private void check(Testee<?> testee, long caseNumber, int offset, int value) {
+            if (matcher.matches(testee)) {
+                return;
+            }
+            failureCount++;
+            offsets.set(offset);
+            
+            // 保持する不合格は、このワーカーの中でケース番号の小さいものに限る。ケース番号は昇順に処理される。
+            if (failures.size() < maxFailures) {
+                StringDescription mismatch = new StringDescription();
+                matcher.describeMismatch(testee, mismatch);
+                failures.add(new Failure(caseNumber, offset, value, testee, mismatch.toString()));
+            }
+        }
+    }
+}
@@ -0,0 +1,458 @@
+package xyz.hotchpotch.jutaime.serializable;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.io.UTFDataFormatException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * シリアライズ形式の互換性を検証するための、ゴールデンファイルのアーカイブです。<br>
+ * クラス名とバージョンの組ごとに、{@link STUtil#write(Object)} の出力をひとつのファイルにまとめて格納します。<br>
+ * <br>
+ * アーカイブは {@link Builder} を用いて作成し、{@link #open(Path)} で開きます。
+ * 開かれたアーカイブはメモリマップされ、各エントリのバイト列はヒープに複製されることなくデシリアライズされます。
+ * マッピングは {@code GoldenArchive} とそのエントリが到達不能となりガベージコレクションされるまで解放されないため、
+ * Windows などの環境では、それまでの間アーカイブファイルを削除したり上書きしたりできないことがあります。
+ * また、{@link #verify()} を用いると、アーカイブ内の全てのエントリが現在のクラスでデシリアライズできることを並列に検証できます。<br>
+ * <pre>
+ *     // ゴールデンファイルの作成
+ *     GoldenArchive.builder()
+ *             .add(1, new MyClass("foo"))
+ *             .add(2, new MyOtherClass(123))
+ *             .writeTo(path);
+ * 
+ *     // 現在のクラスとの互換性の検証
+ *     GoldenArchive archive = GoldenArchive.open(path);
+ *     assertThat(archive.verify().isEmpty(), is(true));
+ *     assertThat(archive.entry(MyClass.class, 1).read(), is(new MyClass("foo")));
+ * </pre>
+ * アーカイブの形式は次のとおりです。数値はいずれもビッグエンディアンです。<br>
+ * <pre>
+ *     magic   : 4 バイト  "JUGA"
+ *     format  : 2 バイト  形式のバージョン（1）
+ *     count   : 4 バイト  エントリ数
+ *     index   : エントリ数分の { クラス名（修正 UTF-8 形式）, バージョン（4 バイト）, 開始位置（4 バイト）, 長さ（4 バイト） }
+ *     data    : 各エントリのシリアライズ形式
+ * </pre>
+ * インデックスはクラス名、バージョンの順に整列されます。<br>
+ * <br>
+ * このクラスのインスタンスは不変であり、スレッドセーフです。<br>
+ * 
+ * @since 1.5.0
+ * @author nmby
+ */
+public final class GoldenArchive {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private static final byte[] MAGIC = { 'J', 'U', 'G', 'A' };
+    private static final short FORMAT = 1;
+    
+    /** magic, format, count の合計バイト数 */
+    private static final int HEADER_LENGTH = MAGIC.length + 2 + 4;
+    
+    /** インデックスの各エントリのうち、クラス名以外の部分のバイト数 */
+    private static final int INDEX_FIXED_LENGTH = 4 + 4 + 4;
+    
+    /**
+     * アーカイブ内のひとつのエントリを表します。<br>
+     * エントリのバイト列は、メモリマップされたアーカイブを直接参照します。<br>
+     * <br>
+     * このクラスのインスタンスは不変であり、スレッドセーフです。<br>
+     * 
+     * @since 1.5.0
+     * @author nmby
+     */
+    public static final class Entry {
+        private final String className;
+        private final int version;
+        private final ByteBuffer bytes;
+        
+        private Entry(String className, int version, ByteBuffer bytes) {
+            assert className != null;
+            assert bytes != null;
+            assert bytes.isReadOnly();
+            
+            this.className = className;
+            this.version = version;
+            this.bytes = bytes;
+        }
+        
+        /**
+         * このエントリのクラス名を返します。<br>
+         * 
+         * @return このエントリのクラス名
+         */
+        public String className() {
+            return className;
+        }
+        
+        /**
+         * このエントリのバージョンを返します。<br>
+         * 
+         * @return このエントリのバージョン
+         */
+        public int version() {
+            return version;
+        }
+        
+        /**
+         * このエントリのシリアライズ形式のバイト数を返します。<br>
+         * 
+         * @return このエントリのシリアライズ形式のバイト数
+         */
+        public int size() {
+            return bytes.capacity();
+        }
+        
+        /**
+         * このエントリのシリアライズ形式を、読み取り専用のバッファとして返します。<br>
+         * 返されるバッファはアーカイブを直接参照しており、位置は {@code 0}、リミットは {@link #size()} です。<br>
+         * 
+         * @return このエントリのシリアライズ形式を参照する読み取り専用のバッファ
+         */
+        public ByteBuffer bytes() {
+            return bytes.duplicate();
+        }
+        
+        /**
+         * このエントリのシリアライズ形式をデシリアライズすることによって得られるオブジェクトを返します。<br>
+         * バイト列はヒープに複製されることなく、アーカイブから直接読み込まれます。<br>
+         * 
+         * @param <T> 戻り値のオブジェクトの型
+         * @return このエントリをデシリアライズすることにより得られるオブジェクト
+         * @throws FailToDeserializeException デシリアライズの過程で何らかの例外が発生した場合
+         * @see STUtil#read(ByteBuffer)
+         */
+        public <T> T read() {
+            return STUtil.read(bytes.duplicate());
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%s#%d (%d bytes)", className, version, size());
+        }
+    }
+    
+    /**
+     * {@link GoldenArchive} を作成するためのビルダーです。<br>
+     * 同じクラス名とバージョンの組を重複して追加することはできません。<br>
+     * <br>
+     * このクラスはスレッドセーフではありません。<br>
+     * 
+     * @since 1.5.0
+     * @author nmby
+     */
+    public static final class Builder {
+        private final Map<String, Map<Integer, byte[]>> entries = new TreeMap<>();
+        
+        private Builder() {
+        }
+        
+        /**
+         * サンプルオブジェクトをシリアライズし、そのクラス名と指定されたバージョンのエントリとして追加します。<br>
+         * 
+         * @param version バージョン（{@code 0} 以上）
+         * @param sample サンプルオブジェクト
+         * @return このビルダー
+         * @throws NullPointerException {@code sample} が {@code null} の場合
+         * @throws IllegalArgumentException {@code version} が負の場合、または同じクラス名とバージョンのエントリが既に追加されている場合
+         * @throws FailToSerializeException シリアライズの過程で何らかの例外が発生した場合
+         */
+        public Builder add(int version, Object sample) {
+            Objects.requireNonNull(sample);
+            return add(sample.getClass().getName(), version, STUtil.write(sample));
+        }
+        
+        /**
+         * シリアライズ済みのバイト配列を、指定されたクラス名とバージョンのエントリとして追加します。<br>
+         * 
+         * @param className クラス名
+         * @param version バージョン（{@code 0} 以上）
+         * @param serialized シリアライズ済みのバイト配列
+         * @return このビルダー
+         * @throws NullPointerException {@code className}、{@code serialized} のいずれかが {@code null} の場合
+         * @throws IllegalArgumentException {@code version} が負の場合、または同じクラス名とバージョンのエントリが既に追加されている場合
+         */
+        public Builder add(String className, int version, byte[] serialized) {
+            Objects.requireNonNull(className);
+            Objects.requireNonNull(serialized);
+            if (version < 0) {
+                throw new IllegalArgumentException(String.valueOf(version));
+            }
+            
+            Map<Integer, byte[]> versions = entries.computeIfAbsent(className, k -> new TreeMap<>());
+            if (versions.containsKey(version)) {
+                throw new IllegalArgumentException(className + "#" + version);
+            }
+            versions.put(version, serialized.clone());
+            return this;
+        }
+        
+        /**
+         * 追加されたエントリをアーカイブとしてファイルに書き込みます。<br>
+         * ファイルが既に存在する場合は上書きされます。<br>
+         * 
+         * @param path 書き込み先のファイル
+         * @throws NullPointerException {@code path} が {@code null} の場合
+         * @throws IOException 入出力エラーが発生した場合、またはアーカイブの大きさが 2GB を超える場合
+         */
+        public void writeTo(Path path) throws IOException {
+            Objects.requireNonNull(path);
+            
+            // インデックスの大きさを確定させるため、クラス名を先に符号化しておく。
+            Map<String, byte[]> names = new TreeMap<>();
+            long dataOffset = HEADER_LENGTH;
+            int count = 0;
+            for (Map.Entry<String, Map<Integer, byte[]>> e : entries.entrySet()) {
+                ByteArrayOutputStream bos = new ByteArrayOutputStream();
+                new DataOutputStream(bos).writeUTF(e.getKey());
+                names.put(e.getKey(), bos.toByteArray());
+                dataOffset += (long) (bos.size() + INDEX_FIXED_LENGTH) * e.getValue().size();
+                count += e.getValue().size();
+            }
+            
+            long offset = dataOffset;
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+                out.write(MAGIC);
+                out.writeShort(FORMAT);
+                out.writeInt(count);
+                for (Map.Entry<String, Map<Integer, byte[]>> e : entries.entrySet()) {
+                    for (Map.Entry<Integer, byte[]> v : e.getValue().entrySet()) {
+                        if (Integer.MAX_VALUE < offset + v.getValue().length) {
+                            throw new IOException("archive too large");
+                        }
+                        out.write(names.get(e.getKey()));
+                        out.writeInt(v.getKey());
+                        out.writeInt((int) offset);
+                        out.writeInt(v.getValue().length);
+                        offset += v.getValue().length;
+                    }
+                }
+                assert out.size() == dataOffset;
+                
+                for (Map<Integer, byte[]> versions : entries.values()) {
+                    for (byte[] bytes : versions.values()) {
+                        out.write(bytes);
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * 新たなビルダーを返します。<br>
+     * 
+     * @return 新たなビルダー
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    /**
+     * アーカイブファイルをメモリマップして開きます。<br>
+     * インデックスはこの時点で読み込まれ、各エントリのバイト列はマップされたファイルを直接参照します。<br>
+     * マッピングは明示的に解放できず、返されたアーカイブとそのエントリ（{@link Entry#bytes()} が返したバッファを含む）が
+     * ガベージコレクションされるまで維持されます。<br>
+     * 
+     * @param path アーカイブファイル
+     * @return 開かれたアーカイブ
+     * @throws NullPointerException {@code path} が {@code null} の場合
+     * @throws StreamCorruptedException ファイルの内容がアーカイブの形式に従っていない場合
+     * @throws IOException 入出力エラーが発生した場合
+     */
+    public static GoldenArchive open(Path path) throws IOException {
+        Objects.requireNonNull(path);
+        
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (Integer.MAX_VALUE < channel.size()) {
+                throw new StreamCorruptedException("archive too large");
+            }
+            // マッピングはチャネルを閉じた後も有効である。
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        
+        try {
+            return new GoldenArchive(path, parse(mapped.asReadOnlyBuffer()));
+        } catch (UTFDataFormatException | BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            StreamCorruptedException sce = new StreamCorruptedException(path.toString());
+            sce.initCause(e);
+            throw sce;
+        }
+    }
+    
+    private static List<Entry> parse(ByteBuffer archive) throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+        archive.get(magic);
+        short format = archive.getShort();
+        if (!Arrays.equals(magic, MAGIC) || format != FORMAT) {
+            throw new StreamCorruptedException(String.format("invalid archive header : %s, %d",
+                    STUtil.toHexString(magic), format));
+        }
+        int count = archive.getInt();
+        if (count < 0) {
+            throw new StreamCorruptedException(String.valueOf(count));
+        }
+        
+        List<Entry> entries = new ArrayList<>(Math.min(count, archive.remaining() / INDEX_FIXED_LENGTH));
+        for (int i = 0; i < count; i++) {
+            String className = readUTF(archive);
+            int version = archive.getInt();
+            int offset = archive.getInt();
+            int length = archive.getInt();
+            if (offset < 0 || length < 0) {
+                throw new StreamCorruptedException(String.format("offset : %d, length : %d", offset, length));
+            }
+            
+            // ファイルの範囲外を指す値は、ByteBuffer#limit が IllegalArgumentException で検出する。
+            ByteBuffer bytes = archive.duplicate();
+            bytes.limit(offset + length).position(offset);
+            entries.add(new Entry(className, version, bytes.slice()));
+        }
+        return entries;
+    }
+    
+    private static String readUTF(ByteBuffer archive) throws IOException {
+        int length = archive.getShort() & 0xffff;
+        byte[] utf = new byte[2 + length];
+        utf[0] = (byte) (length >>> 8);
+        utf[1] = (byte) length;
+        archive.get(utf, 2, length);
+        return new DataInputStream(new ByteArrayInputStream(utf)).readUTF();
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final Path path;
+    private final List<Entry> entries;
+    
+    private GoldenArchive(Path path, List<Entry> entries) {
+        assert path != null;
+        assert entries != null;
+        
+        this.path = path;
+        this.entries = Collections.unmodifiableList(entries);
+    }
+    
+    /**
+     * アーカイブ内の全てのエントリを、クラス名、バージョンの順に整列された変更不能なリストとして返します。<br>
+     * 
+     * @return アーカイブ内の全てのエントリ
+     */
+    public List<Entry> entries() {
+        return entries;
+    }
+    
+    /**
+     * 指定されたクラス名とバージョンのエントリを返します。<br>
+     * 
+     * @param className クラス名
+     * @param version バージョン
+     * @return 指定されたクラス名とバージョンのエントリ
+     * @throws NullPointerException {@code className} が {@code null} の場合
+     * @throws NoSuchElementException 指定されたクラス名とバージョンのエントリが存在しない場合
+     */
+    public Entry entry(String className, int version) {
+        Objects.requireNonNull(className);
+        
+        for (Entry entry : entries) {
+            if (entry.className.equals(className) && entry.version == version) {
+                return entry;
+            }
+        }
+        throw new NoSuchElementException(className + "#" + version);
+    }
+    
+    /**
+     * 指定されたクラスとバージョンのエントリを返します。<br>
+     * 
+     * @param type クラス
+     * @param version バージョン
+     * @return 指定されたクラスとバージョンのエントリ
+     * @throws NullPointerException {@code type} が {@code null} の場合
+     * @throws NoSuchElementException 指定されたクラスとバージョンのエントリが存在しない場合
+     */
+    public Entry entry(Class<?> type, int version) {
+        Objects.requireNonNull(type);
+        return entry(type.getName(), version);
+    }
+    
+    /**
+     * アーカイブ内の全てのエントリが、現在のクラスでデシリアライズできることを並列に検証します。<br>
+     * デシリアライズに失敗したエントリと、デシリアライズされたオブジェクトのクラス名がエントリのクラス名と異なるエントリが、失敗として報告されます。<br>
+     * {@link VirtualMachineError} を除く全ての例外およびエラーは、そのエントリの失敗として報告されます。<br>
+     * 
+     * @return 失敗したエントリとその原因の、エントリの順に整列された変更不能なマップ（全て成功した場合は空のマップ）
+     */
+    public Map<Entry, Throwable> verify() {
+        return verify((entry, obj) -> {
+        });
+    }
+    
+    /**
+     * アーカイブ内の全てのエントリが、現在のクラスでデシリアライズでき、かつ {@code checker} による検査に合格することを並列に検証します。<br>
+     * {@code checker} はエントリとデシリアライズされたオブジェクトを受け取り、検査に不合格の場合は例外または {@link AssertionError} をスローします。
+     * {@code checker} は複数のスレッドから同時に呼び出される可能性があります。<br>
+     * {@link VirtualMachineError} を除く全ての例外およびエラーは、そのエントリの失敗として報告されます。<br>
+     * 
+     * @param checker エントリとデシリアライズされたオブジェクトを検査する {@code BiConsumer}
+     * @return 失敗したエントリとその原因の、エントリの順に整列された変更不能なマップ（全て成功した場合は空のマップ）
+     * @throws NullPointerException {@code checker} が {@code null} の場合
+     */
+    public Map<Entry, Throwable> verify(BiConsumer<? super Entry, Object> checker) {
+        Objects.requireNonNull(checker);
+        
+        Map<Entry, Throwable> failures = new ConcurrentHashMap<>();
+        entries.parallelStream().forEach(entry -> {
+            try {
+                Object obj = entry.read();
+                if (obj != null && !obj.getClass().getName().equals(entry.className)) {
+                    throw new AssertionError(String.format("expected %s but was %s",
+                            entry.className, obj.getClass().getName()));
+                }
+                checker.accept(entry, obj);
+            } catch (VirtualMachineError e) {
+                throw e;
+            } catch (Throwable t) {
+                // LinkageError などのエラーも、残りのエントリの検証を中止せずにそのエントリの失敗として記録する。
+                failures.put(entry, t);
+            }
+        });
+        
+        Map<Entry, Throwable> ordered = new LinkedHashMap<>();
+        for (Entry entry : entries) {
+            if (failures.containsKey(entry)) {
+                ordered.put(entry, failures.get(entry));
+            }
+        }
+        return Collections.unmodifiableMap(ordered);
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s (%d entries)", path, entries.size());
+    }
+}
@@ -0,0 +1,344 @@
+package xyz.hotchpotch.jutaime.serializable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * バイト列と16進表示形式の文字列を相互に変換するためのユーティリティクラスです。<br>
+ * 16進表示形式については {@link STUtil} の説明を参照してください。<br>
+ * <br>
+ * 変換は参照テーブルを用いて1バイトずつ行われ、書式文字列や正規表現は使用しません。
+ * また、変換元と変換先にストリームを指定できるため、大きなバイト列を一つの巨大な文字列として保持することなく変換することができます。<br>
+ * 次の例のように、{@link #hexView(byte[])} を利用すると、文字列を作成せずにバイト配列を16進表示形式の文字列として扱うことができます。<br>
+ * <pre>
+ *     CharSequence hex = HexCodec.hexView(STUtil.write(obj));
+ *     assertThat(hex.subSequence(0, 11).toString(), is("ac ed 00 05"));
+ * </pre>
+ * 
+ * @see STUtil#toHexString(byte[])
+ * @see STUtil#hexToBytes(String)
+ * @since 1.5.0
+ * @author nmby
+ */
+public final class HexCodec {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private static final char[] DIGITS = "0123456789abcdef".toCharArray();
+    
+    /** 16進数字の値を保持するテーブル。16進表示形式で許容されない文字は {@code -1} */
+    private static final byte[] VALUES = new byte[128];
+    
+    static {
+        Arrays.fill(VALUES, (byte) -1);
+        for (int i = 0; i < DIGITS.length; i++) {
+            VALUES[DIGITS[i]] = (byte) i;
+        }
+    }
+    
+    private static final int BUFFER_SIZE = 8192;
+    
+    /**
+     * 16進表示形式の文字列の、指定された位置の文字を返します。<br>
+     */
+    private static char charAt(byte[] bytes, int index) {
+        int b = bytes[index / 3] & 0xff;
+        switch (index % 3) {
+        case 0:
+            return DIGITS[b >>> 4];
+        case 1:
+            return DIGITS[b & 0x0f];
+        default:
+            return ' ';
+        }
+    }
+    
+    private static int valueOf(char c) {
+        return c < VALUES.length ? VALUES[c] : -1;
+    }
+    
+    /**
+     * バイト数 {@code n} のバイト列を表す16進表示形式の文字列の長さを返します。<br>
+     */
+    private static int hexLength(int n) {
+        assert 0 <= n;
+        if (Integer.MAX_VALUE / 3 < n) {
+            throw new IllegalArgumentException(String.valueOf(n));
+        }
+        return n == 0 ? 0 : n * 3 - 1;
+    }
+    
+    /**
+     * バイト列を16進表示形式に変換してバッファに追記します。<br>
+     * 
+     * @param chunk 追記先のバッファ
+     * @param bytes バイト配列
+     * @param offset 変換する範囲の開始位置
+     * @param length 変換するバイト数
+     * @param leading 先頭のバイトの前に区切り文字を追記する場合は {@code true}
+     */
+    /*package*/ static void appendTo(StringBuilder chunk, byte[] bytes, int offset, int length, boolean leading) {
+        for (int i = offset; i < offset + length; i++) {
+            if (leading || offset < i) {
+                chunk.append(' ');
+            }
+            chunk.append(DIGITS[(bytes[i] & 0xff) >>> 4]).append(DIGITS[bytes[i] & 0x0f]);
+        }
+    }
+    
+    /**
+     * バイト配列を16進表示形式の文字列に変換します。<br>
+     * 
+     * @param bytes バイト配列
+     * @return 16進表示形式の文字列（{@code bytes} が長さ 0 の配列の場合は空文字列）
+     * @throws NullPointerException {@code bytes} が {@code null} の場合
+     * @throws IllegalArgumentException 16進表示形式の文字列の長さが {@code int} の範囲を超える場合
+     */
+    public static String encode(byte[] bytes) {
+        Objects.requireNonNull(bytes);
+        
+        char[] chars = new char[hexLength(bytes.length)];
+        for (int i = 0, j = 0; i < bytes.length; i++) {
+            if (0 < i) {
+                chars[j++] = ' ';
+            }
+            chars[j++] = DIGITS[(bytes[i] & 0xff) >>> 4];
+            chars[j++] = DIGITS[bytes[i] & 0x0f];
+        }
+        return new String(chars);
+    }
+    
+    /**
+     * バイト配列の指定された範囲を16進表示形式の文字列に変換し、{@code out} に追記します。<br>
+     * 変換は一定の大きさのバッファ単位で逐次行われるため、変換結果全体をひとつの文字列として作成することはありません。<br>
+     * 
+     * @param bytes バイト配列
+     * @param offset 変換する範囲の開始位置
+     * @param length 変換するバイト数
+     * @param out 追記先
+     * @throws NullPointerException {@code bytes}、{@code out} のいずれかが {@code null} の場合
+     * @throws IndexOutOfBoundsException {@code offset} と {@code length} が {@code bytes} の範囲外を示す場合
+     * @throws IOException 追記先への出力で入出力エラーが発生した場合
+     */
+    public static void encode(byte[] bytes, int offset, int length, Appendable out) throws IOException {
+        Objects.requireNonNull(bytes);
+        Objects.requireNonNull(out);
+        if (offset < 0 || length < 0 || bytes.length - offset < length) {
+            throw new IndexOutOfBoundsException(String.format("offset : %d, length : %d", offset, length));
+        }
+        
+        StringBuilder chunk = new StringBuilder(Math.min(length, BUFFER_SIZE) * 3);
+        for (int i = 0; i < length; i += BUFFER_SIZE) {
+            chunk.setLength(0);
+            appendTo(chunk, bytes, offset + i, Math.min(BUFFER_SIZE, length - i), 0 < i);
+            out.append(chunk);
+        }
+    }
+    
+    /**
+     * 入力ストリームから読み込んだバイト列を16進表示形式の文字列に変換し、{@code out} に追記します。<br>
+     * 入力ストリームは末尾まで読み込まれますが、クローズされません。
+     * 変換は一定の大きさのバッファ単位で逐次行われるため、入力全体をメモリ上に保持することはありません。<br>
+     * 
+     * @param in 入力ストリーム
+     * @param out 追記先
+     * @return 変換したバイト数
+     * @throws NullPointerException {@code in}、{@code out} のいずれかが {@code null} の場合
+     * @throws IOException 入出力エラーが発生した場合
+     */
+    public static long encode(InputStream in, Appendable out) throws IOException {
+        Objects.requireNonNull(in);
+        Objects.requireNonNull(out);
+        
+        byte[] buf = new byte[BUFFER_SIZE];
+        StringBuilder chunk = new StringBuilder(BUFFER_SIZE * 3);
+        long total = 0;
+        int n;
+        while ((n = in.read(buf)) != -1) {
+            chunk.setLength(0);
+            appendTo(chunk, buf, 0, n, 0 < total);
+            out.append(chunk);
+            total += n;
+        }
+        return total;
+    }
+    
+    /**
+     * 16進表示形式の文字列をバイト配列に変換します。<br>
+     * 
+     * @param hex 16進表示形式の文字列
+     * @return バイト配列（{@code hex} が空の場合は長さ 0 の配列）
+     * @throws NumberFormatException {@code hex} が16進表示形式ではない場合（{@code null} の場合を含みます）
+     */
+    public static byte[] decode(CharSequence hex) {
+        if (hex == null || !isHexFormat(hex)) {
+            throw new NumberFormatException(String.valueOf(hex));
+        }
+        
+        byte[] bytes = new byte[(hex.length() + 1) / 3];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (VALUES[hex.charAt(i * 3)] << 4 | VALUES[hex.charAt(i * 3 + 1)]);
+        }
+        return bytes;
+    }
+    
+    /**
+     * {@code reader} から読み込んだ16進表示形式の文字列をバイト列に変換し、{@code out} に出力します。<br>
+     * {@code reader} は末尾まで読み込まれますが、クローズされません。
+     * 変換は一定の大きさのバッファ単位で逐次行われるため、入力全体をメモリ上に保持することはありません。<br>
+     * 入力が16進表示形式でないことが判明した時点で例外をスローします。
+     * その場合、それまでに変換されたバイト列は {@code out} に出力済みの場合があります。<br>
+     * 
+     * @param reader 16進表示形式の文字列を読み込む {@code Reader}
+     * @param out 出力ストリーム
+     * @return 変換したバイト数
+     * @throws NullPointerException {@code reader}、{@code out} のいずれかが {@code null} の場合
+     * @throws NumberFormatException 入力が16進表示形式ではない場合
+     * @throws IOException 入出力エラーが発生した場合
+     */
+    public static long decode(Reader reader, OutputStream out) throws IOException {
+        Objects.requireNonNull(reader);
+        Objects.requireNonNull(out);
+        
+        char[] chars = new char[BUFFER_SIZE];
+        byte[] bytes = new byte[BUFFER_SIZE];
+        int filled = 0;
+        long total = 0;
+        
+        // 入力全体における文字の位置を 3 で割った余りにより、次に期待される文字（上位桁、下位桁、区切り文字）を判断する。
+        long position = 0;
+        int high = 0;
+        int n;
+        while ((n = reader.read(chars)) != -1) {
+            for (int i = 0; i < n; i++, position++) {
+                char c = chars[i];
+                int phase = (int) (position % 3);
+                if (phase == 2) {
+                    if (c != ' ') {
+                        throw new NumberFormatException(String.format("invalid char '%c' at %d", c, position));
+                    }
+                    continue;
+                }
+                int value = valueOf(c);
+                if (value < 0) {
+                    throw new NumberFormatException(String.format("invalid char '%c' at %d", c, position));
+                }
+                if (phase == 0) {
+                    high = value;
+                } else {
+                    bytes[filled++] = (byte) (high << 4 | value);
+                    if (filled == bytes.length) {
+                        out.write(bytes, 0, filled);
+                        total += filled;
+                        filled = 0;
+                    }
+                }
+            }
+        }
+        if (position % 3 != 2 && position != 0) {
+            throw new NumberFormatException(String.format("unexpected end of input at %d", position));
+        }
+        out.write(bytes, 0, filled);
+        return total + filled;
+    }
+    
+    /**
+     * バイト配列を16進表示形式の文字列として参照する {@link CharSequence} を返します。<br>
+     * 返される {@code CharSequence} は文字列を保持せず、各文字を要求に応じて {@code bytes} から算出します。
+     * このため、巨大なバイト配列を少ないメモリ消費で参照、比較、出力することができます。
+     * {@link CharSequence#subSequence(int, int)} も同様に、文字列を作成しないビューを返します。<br>
+     * 返される {@code CharSequence} は {@code bytes} を複製せずに参照するため、{@code bytes} の変更が反映されます。<br>
+     * 
+     * @param bytes バイト配列
+     * @return {@code bytes} を16進表示形式の文字列として参照する {@code CharSequence}
+     * @throws NullPointerException {@code bytes} が {@code null} の場合
+     * @throws IllegalArgumentException 16進表示形式の文字列の長さが {@code int} の範囲を超える場合
+     */
+    public static CharSequence hexView(byte[] bytes) {
+        Objects.requireNonNull(bytes);
+        return new HexView(bytes, 0, hexLength(bytes.length));
+    }
+    
+    /**
+     * 文字列が16進表示形式かを返します。<br>
+     * 
+     * @param hex 検査対象の文字列
+     * @return {@code hex} が16進表示形式の場合は {@code true}（空の場合は {@code true}）
+     */
+    /*package*/ static boolean isHexFormat(CharSequence hex) {
+        assert hex != null;
+        
+        int length = hex.length();
+        if (length == 0) {
+            return true;
+        }
+        if (length % 3 != 2) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = hex.charAt(i);
+            if (i % 3 == 2 ? c != ' ' : valueOf(c) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * バイト配列を16進表示形式の文字列として参照する {@code CharSequence} の実装です。<br>
+     * {@code start} と {@code end} は、バイト配列全体を表す16進表示形式の文字列における範囲を表します。<br>
+     */
+    private static final class HexView implements CharSequence {
+        private final byte[] bytes;
+        private final int start;
+        private final int end;
+        
+        private HexView(byte[] bytes, int start, int end) {
+            assert bytes != null;
+            assert 0 <= start && start <= end;
+            
+            this.bytes = bytes;
+            this.start = start;
+            this.end = end;
+        }
+        
+        @Override
+        public int length() {
+            return end - start;
+        }
+        
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || length() <= index) {
+                throw new IndexOutOfBoundsException(String.valueOf(index));
+            }
+            return HexCodec.charAt(bytes, start + index);
+        }
+        
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end < start || length() < end) {
+                throw new IndexOutOfBoundsException(String.format("start : %d, end : %d", start, end));
+            }
+            return new HexView(bytes, this.start + start, this.start + end);
+        }
+        
+        @Override
+        public String toString() {
+            char[] chars = new char[length()];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = HexCodec.charAt(bytes, start + i);
+            }
+            return new String(chars);
+        }
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private HexCodec() {
+    }
+}
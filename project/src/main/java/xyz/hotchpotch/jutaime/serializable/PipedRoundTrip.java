@@ -0,0 +1,207 @@
+package xyz.hotchpotch.jutaime.serializable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import xyz.hotchpotch.jutaime.internal.Workers;
+
+/**
+ * 容量が一定のパイプを介して、シリアライズとデシリアライズを並行して行うためのユーティリティです。<br>
+ * シリアライズは専用のスレッドで行い、デシリアライズは呼び出し元スレッドで行います。
+ * シリアライズ形式の全体を保持することがないため、シリアライズ形式の大きさにかかわらず、パイプに要するメモリは一定です。<br>
+ * 
+ * @see STUtil#writeAndReadStreaming(Object, int)
+ * @since 1.5.0
+ * @author nmby
+ */
+/*package*/ final class PipedRoundTrip {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+    
+    /**
+     * 読み込み側がパイプを閉じたために書き込めなかったことを表す例外です。<br>
+     * シリアライズ自体の失敗と区別するために用います。<br>
+     */
+    private static class ReaderClosedException extends IOException {
+        private ReaderClosedException() {
+            super("pipe closed by reader");
+        }
+    }
+    
+    /**
+     * 容量が一定のリング・バッファによるパイプです。<br>
+     * 書き込み側はバッファが満杯の間、読み込み側はバッファが空の間、待機します。<br>
+     */
+    private static final class Pipe {
+        private final byte[] buf;
+        private int head;
+        private int count;
+        private boolean writerClosed;
+        private boolean writerFailed;
+        private boolean readerClosed;
+        
+        private Pipe(int capacity) {
+            buf = new byte[capacity];
+        }
+        
+        private synchronized void write(byte[] b, int off, int len) throws IOException {
+            while (0 < len) {
+                while (count == buf.length && !readerClosed) {
+                    await();
+                }
+                if (readerClosed) {
+                    throw new ReaderClosedException();
+                }
+                int tail = (head + count) % buf.length;
+                int n = Math.min(len, Math.min(buf.length - count, buf.length - tail));
+                System.arraycopy(b, off, buf, tail, n);
+                count += n;
+                off += n;
+                len -= n;
+                notifyAll();
+            }
+        }
+        
+        private synchronized int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (count == 0 && !writerClosed) {
+                await();
+            }
+            if (count == 0) {
+                if (writerFailed) {
+                    throw new IOException("pipe closed by failed writer");
+                }
+                return -1;
+            }
+            int n = Math.min(len, Math.min(count, buf.length - head));
+            System.arraycopy(buf, head, b, off, n);
+            head = (head + n) % buf.length;
+            count -= n;
+            notifyAll();
+            return n;
+        }
+        
+        private synchronized void closeWriter(boolean failed) {
+            writerClosed = true;
+            writerFailed = failed;
+            notifyAll();
+        }
+        
+        private synchronized void closeReader() {
+            readerClosed = true;
+            notifyAll();
+        }
+        
+        private void await() throws InterruptedIOException {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }
+        
+        private OutputStream output() {
+            return new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    Pipe.this.write(new byte[] { (byte) b }, 0, 1);
+                }
+                
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    Pipe.this.write(b, off, len);
+                }
+            };
+        }
+        
+        private InputStream input() {
+            return new InputStream() {
+                @Override
+                public int read() throws IOException {
+                    byte[] b = new byte[1];
+                    return Pipe.this.read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+                }
+                
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    return Pipe.this.read(b, off, len);
+                }
+            };
+        }
+    }
+    
+    /**
+     * オブジェクトを容量 {@code capacity} のパイプに書き込みながら、並行して読み込んで得られるオブジェクトを返します。<br>
+     * 
+     * @param <T> オブジェクトの型
+     * @param obj シリアライズ対象のオブジェクト（{@code null} が許容されます）
+     * @param capacity パイプの容量（バイト数）
+     * @return 読み込んだオブジェクト
+     * @throws FailToSerializeException シリアライズの過程で何らかの例外が発生した場合
+     * @throws FailToDeserializeException デシリアライズの過程で何らかの例外が発生した場合
+     */
+    @SuppressWarnings("unchecked")
+    /*package*/ static <T> T writeAndRead(T obj, int capacity) {
+        assert 0 < capacity;
+        
+        Pipe pipe = new Pipe(capacity);
+        Throwable[] writerFailure = new Throwable[1];
+        Thread writer = new Thread(() -> {
+            boolean completed = false;
+            try (ObjectOutputStream oos = new ObjectOutputStream(pipe.output())) {
+                oos.writeObject(obj);
+                oos.flush();
+                completed = true;
+            } catch (Throwable t) {
+                writerFailure[0] = t;
+            } finally {
+                pipe.closeWriter(!completed);
+            }
+        }, String.format("jutaime-pipe-%d", SEQUENCE.incrementAndGet()));
+        writer.setDaemon(true);
+        writer.start();
+        
+        Object result = null;
+        Throwable readerFailure = null;
+        try {
+            InputStream in = pipe.input();
+            result = new ObjectInputStream(in).readObject();
+            
+            byte[] rest = new byte[Math.min(capacity, 8192)];
+            while (in.read(rest, 0, rest.length) != -1) {
+                // 書き込み側が待機したままとならないよう、残りを読み捨てる。
+            }
+        } catch (Throwable t) {
+            readerFailure = t;
+        } finally {
+            pipe.closeReader();
+        }
+        Workers.join(writer);
+        
+        // 読み込み側の失敗がシリアライズの失敗に起因する場合もあるため、シリアライズの失敗を優先して報告する。
+        // ただし、読み込み側がパイプを閉じたことによる書き込みの失敗は、シリアライズの失敗とはみなさない。
+        Throwable t = writerFailure[0];
+        if (t != null && !(t instanceof ReaderClosedException)) {
+            throw new FailToSerializeException(t);
+        }
+        if (readerFailure != null) {
+            throw new FailToDeserializeException(readerFailure);
+        }
+        return (T) result;
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private PipedRoundTrip() {
+    }
+}
@@ -1,14 +1,17 @@
 package xyz.hotchpotch.jutaime.serializable;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
 import java.util.Arrays;
 import java.util.Objects;
 import java.util.function.Function;
 
+import xyz.hotchpotch.jutaime.serializable.stream.ReadBudget;
+
 /**
  * JUnit4でのシリアライズ／デシリアライズに関するテストを効率化するための機能を提供するユーティリティクラスです。<br>
  * 本クラスが提供するユーティリティメソッドは、大きく次の3つに分類されます。<br>
@@ -43,9 +46,6 @@ public class STUtil {
     
     // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
     
-    /** オブジェクトをシリアライズした際に先頭に現れる固定バイト配列 */
-    private static final byte[] OBJECT_HEADER = { (byte) 0xac, (byte) 0xed, 0x00, 0x05 };
-    
     // **** オブジェクトのシリアライズ／デシリアライズに関するユーティリティ ****
     
     /**
@@ -55,18 +55,10 @@ public class STUtil {
      * @return {@code obj} をシリアライズすることによって得られるバイト配列
      * @throws FailToSerializeException シリアライズの過程で何らかの例外が発生した場合
      * @see ObjectOutputStream#writeObject(Object)
+     * @see SerializationSession#write(Object)
      */
     public static byte[] write(Object obj) {
-        try (ByteArrayOutputStream bos = new ByteArrayOutputStream();
-                ObjectOutputStream oos = new ObjectOutputStream(bos)) {
-                
-            oos.writeObject(obj);
-            oos.flush(); // 要るのかよく分からないが、念のため実行する。
-            return bos.toByteArray();
-            
-        } catch (Exception e) {
-            throw new FailToSerializeException(e);
-        }
+        return SerializationSession.current().write(obj);
     }
     
     /**
@@ -78,19 +70,100 @@ public class STUtil {
      * @throws NullPointerException {@code bytes} が {@code null} の場合
      * @throws FailToDeserializeException デシリアライズの過程で何らかの例外が発生した場合
      * @see ObjectInputStream#readObject()
+     * @see SerializationSession#read(byte[])
      */
-    @SuppressWarnings("unchecked")
     public static <T> T read(byte[] bytes) {
         Objects.requireNonNull(bytes);
-        
-        try (ByteArrayInputStream bis = new ByteArrayInputStream(bytes);
-                ObjectInputStream ois = new ObjectInputStream(bis)) {
-                
-            return (T) ois.readObject();
-            
-        } catch (Exception e) {
-            throw new FailToDeserializeException(e);
-        }
+        return SerializationSession.current().read(bytes);
+    }
+    
+    /**
+     * 資源の上限の範囲内で、バイト配列をデシリアライズすることによって得られるオブジェクトを返します。<br>
+     * デシリアライズに要した資源の量が必要な場合は、{@link ReadBudget#read(byte[])} を利用してください。<br>
+     * 
+     * @param <T> 戻り値のオブジェクトの型
+     * @param bytes バイト配列
+     * @param budget 資源の上限
+     * @return バイト配列をデシリアライズすることにより得られるオブジェクト
+     * @throws NullPointerException {@code bytes}、{@code budget} のいずれかが {@code null} の場合
+     * @throws FailToDeserializeException 資源の上限を超えた場合、その他デシリアライズの過程で何らかの例外が発生した場合
+     * @see ReadBudget#read(byte[])
+     * @since 1.5.0
+     */
+    public static <T> T read(byte[] bytes, ReadBudget budget) {
+        Objects.requireNonNull(bytes);
+        Objects.requireNonNull(budget);
+        return budget.<T> read(bytes).value();
+    }
+    
+    /**
+     * オブジェクトをシリアライズし、その結果を {@code dst} の現在の位置から直接書き込みます。<br>
+     * 正常に終了した場合、{@code dst} の位置は書き込まれたバイト数だけ進みます。<br>
+     * 
+     * @param obj シリアライズ対象のオブジェクト（{@code null} が許容されます）
+     * @param dst 書き込み先のバッファ（ダイレクトバッファが許容されます）
+     * @return 書き込まれたバイト数
+     * @throws NullPointerException {@code dst} が {@code null} の場合
+     * @throws ReadOnlyBufferException {@code dst} が読み取り専用の場合
+     * @throws FailToSerializeException シリアライズの過程で何らかの例外が発生した場合
+     *                                  （{@code dst} の残りの容量が不足した場合を含みます）
+     * @see SerializationSession#write(Object, ByteBuffer)
+     * @since 1.5.0
+     */
+    public static int write(Object obj, ByteBuffer dst) {
+        Objects.requireNonNull(dst);
+        return SerializationSession.current().write(obj, dst);
+    }
+    
+    /**
+     * オブジェクトをシリアライズすることによって得られるバイト配列の長さを返します。<br>
+     * シリアライズの結果を保持せずにバイト数のみを数えるため、{@code write(obj).length} よりも少ないメモリで処理できます。<br>
+     * 
+     * @param obj シリアライズ対象のオブジェクト（{@code null} が許容されます）
+     * @return {@code obj} をシリアライズすることによって得られるバイト配列の長さ
+     * @throws FailToSerializeException シリアライズの過程で何らかの例外が発生した場合
+     * @see SerializationSession#size(Object)
+     * @see SerializedSize
+     * @since 1.5.0
+     */
+    public static long size(Object obj) {
+        return SerializationSession.current().size(obj);
+    }
+    
+    /**
+     * バイト配列の指定された範囲を、複製することなくデシリアライズすることによって得られるオブジェクトを返します。<br>
+     * 
+     * @param <T> 戻り値のオブジェクトの型
+     * @param bytes バイト配列
+     * @param offset デシリアライズする範囲の開始位置
+     * @param length デシリアライズする範囲のバイト数
+     * @return バイト配列の指定された範囲をデシリアライズすることにより得られるオブジェクト
+     * @throws NullPointerException {@code bytes} が {@code null} の場合
+     * @throws IndexOutOfBoundsException {@code offset} と {@code length} が {@code bytes} の範囲外を示す場合
+     * @throws FailToDeserializeException デシリアライズの過程で何らかの例外が発生した場合
+     * @see SerializationSession#read(byte[], int, int)
+     * @since 1.5.0
+     */
+    public static <T> T read(byte[] bytes, int offset, int length) {
+        Objects.requireNonNull(bytes);
+        return SerializationSession.current().read(bytes, offset, length);
+    }
+    
+    /**
+     * {@code src} の現在の位置から、シリアライズされたオブジェクトをひとつ、複製することなくデシリアライズします。<br>
+     * 正常に終了した場合、{@code src} の位置はデシリアライズしたオブジェクトの末尾まで進みます。<br>
+     * 
+     * @param <T> 戻り値のオブジェクトの型
+     * @param src 読み込み元のバッファ（ダイレクトバッファやメモリマップされたバッファが許容されます）
+     * @return デシリアライズすることにより得られるオブジェクト
+     * @throws NullPointerException {@code src} が {@code null} の場合
+     * @throws FailToDeserializeException デシリアライズの過程で何らかの例外が発生した場合
+     * @see SerializationSession#read(ByteBuffer)
+     * @since 1.5.0
+     */
+    public static <T> T read(ByteBuffer src) {
+        Objects.requireNonNull(src);
+        return SerializationSession.current().read(src);
     }
     
     /**
@@ -103,9 +176,48 @@ public class STUtil {
      * @throws FailToDeserializeException デシリアライズの過程で何らかの例外が発生した場合
      * @see #write(Object)
      * @see #read(byte[])
+     * @see SerializationSession#writeAndRead(Object)
      */
     public static <T> T writeAndRead(T obj) {
-        return writeModifyAndRead(obj, Function.identity());
+        return SerializationSession.current().writeAndRead(obj);
+    }
+    
+    /**
+     * オブジェクトを容量 64 KiB のパイプを介してシリアライズしながら、並行してデシリアライズすることによって得られるオブジェクトを返します。<br>
+     * 
+     * @param <T> シリアライズ対象および戻り値のオブジェクトの型
+     * @param obj シリアライズ対象のオブジェクト（{@code null} が許容されます）
+     * @return {@code obj} をシリアライズしながらデシリアライズすることによって得られるオブジェクト
+     * @throws FailToSerializeException シリアライズの過程で何らかの例外が発生した場合
+     * @throws FailToDeserializeException デシリアライズの過程で何らかの例外が発生した場合
+     * @see #writeAndReadStreaming(Object, int)
+     * @since 1.5.0
+     */
+    public static <T> T writeAndReadStreaming(T obj) {
+        return PipedRoundTrip.writeAndRead(obj, 64 * 1024);
+    }
+    
+    /**
+     * オブジェクトを容量が一定のパイプを介してシリアライズしながら、並行してデシリアライズすることによって得られるオブジェクトを返します。<br>
+     * シリアライズは新たなスレッドで行い、デシリアライズは呼び出し元スレッドで行います。
+     * {@link #writeAndRead(Object)} と異なりシリアライズ形式の全体を保持しないため、
+     * 大きなオブジェクト・グラフであっても、シリアライズ形式のために必要なメモリは {@code bufferSize} バイトで一定です。<br>
+     * シリアライズの過程で例外が発生した場合は、デシリアライズ側で発生した例外によらず {@link FailToSerializeException} をスローします。<br>
+     * 
+     * @param <T> シリアライズ対象および戻り値のオブジェクトの型
+     * @param obj シリアライズ対象のオブジェクト（{@code null} が許容されます）
+     * @param bufferSize パイプの容量（バイト数）
+     * @return {@code obj} をシリアライズしながらデシリアライズすることによって得られるオブジェクト
+     * @throws IllegalArgumentException {@code bufferSize} が {@code 1} 未満の場合
+     * @throws FailToSerializeException シリアライズの過程で何らかの例外が発生した場合
+     * @throws FailToDeserializeException デシリアライズの過程で何らかの例外が発生した場合
+     * @since 1.5.0
+     */
+    public static <T> T writeAndReadStreaming(T obj, int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException(String.valueOf(bufferSize));
+        }
+        return PipedRoundTrip.writeAndRead(obj, bufferSize);
     }
     
     /**
@@ -120,6 +232,7 @@ public class STUtil {
      * @throws FailToDeserializeException デシリアライズの過程で何らかの例外が発生した場合
      * @see #write(Object)
      * @see #read(byte[])
+     * @see TamperSuite
      */
     public static <T> T writeModifyAndRead(Object obj, Function<byte[], byte[]> modifier) {
         Objects.requireNonNull(modifier);
@@ -247,12 +360,7 @@ public class STUtil {
      * @throws FailToSerializeException シリアライズの過程で何らかの例外が発生した場合
      */
     public static byte[] bytes(Object obj) {
-        byte[] bytes = write(obj);
-        
-        assert bytes != null;
-        assert Arrays.equals(OBJECT_HEADER, Arrays.copyOf(bytes, OBJECT_HEADER.length));
-        
-        return Arrays.copyOfRange(bytes, OBJECT_HEADER.length, bytes.length);
+        return SerializationSession.current().writeBody(obj);
     }
     
     // **** バイト配列の加工、およびバイト配列と16進表示形式文字列の変換に関するユーティリティ ****
@@ -264,7 +372,7 @@ public class STUtil {
      * <br>
      * <table border="1">
      *   <caption>置換例１</caption>
-     *   <tr><th>{@code bytes}</th><td><code>{ 0x01, 0x01, 0x01, 0x01, 0x01, 0x01 }</code></td></tr>
+     *   <tr><th>{@code original}</th><td><code>{ 0x01, 0x01, 0x01, 0x01, 0x01, 0x01 }</code></td></tr>
      *   <tr><th>{@code target}</th><td><code>{ 0x01, 0x01 }</code></td></tr>
      *   <tr><th>{@code replacement}</th><td><code>{ 0x01 }</code></td></tr>
      *   <tr><th>結果</th><td><code>{ 0x01, 0x01, 0x01 }</code></td></tr>
@@ -272,26 +380,90 @@ public class STUtil {
      * <br>
      * <table border="1">
      *   <caption>置換例２</caption>
-     *   <tr><th>{@code bytes}</th><td><code>{ 0x01, 0x01, 0x01 }</code></td></tr>
+     *   <tr><th>{@code original}</th><td><code>{ 0x01, 0x01, 0x01 }</code></td></tr>
      *   <tr><th>{@code target}</th><td><code>{ 0x01, 0x01 }</code></td></tr>
      *   <tr><th>{@code replacement}</th><td><code>{ 0x02 }</code></td></tr>
      *   <tr><th>結果</th><td><code>{ 0x02, 0x01 }</code> （<code>{ 0x01, 0x02 }</code> ではない）</td></tr>
      * </table>
      * <br>
-     * {@code target} が長さ 0 の配列の場合、何も置換を行わず、{@code bytes} のコピーを返します。<br>
+     * {@code target} が長さ 0 の配列の場合、何も置換を行わず、{@code original} のコピーを返します。<br>
      * 
      * @param original 置換前のバイト配列
      * @param target 置換対象の部分配列
      * @param replacement 置換後の部分配列
      * @return 置換後のバイト配列
-     * @throws NullPointerException {@code bytes}、{@code target}、{@code replacement} のいずれかが {@code null} の場合
+     * @throws NullPointerException {@code original}、{@code target}、{@code replacement} のいずれかが {@code null} の場合
      */
     public static byte[] replace(byte[] original, byte[] target, byte[] replacement) {
         Objects.requireNonNull(original);
         Objects.requireNonNull(target);
         Objects.requireNonNull(replacement);
         
-        return replace(original, toHexString(target), toHexString(replacement));
+        return replace(original, target, replacement, BytePattern.ALL);
+    }
+    
+    /**
+     * バイト配列内の {@code target} と最初に一致する部分配列を {@code replacement} で置換した新たな配列を返します。
+     * 元の配列は変更しません。<br>
+     * <br>
+     * {@code target} が長さ 0 の配列の場合、および一致する部分配列がない場合は、何も置換を行わず、{@code original} のコピーを返します。<br>
+     * 
+     * @param original 置換前のバイト配列
+     * @param target 置換対象の部分配列
+     * @param replacement 置換後の部分配列
+     * @return 置換後のバイト配列
+     * @throws NullPointerException {@code original}、{@code target}、{@code replacement} のいずれかが {@code null} の場合
+     * @since 1.5.0
+     */
+    public static byte[] replaceFirst(byte[] original, byte[] target, byte[] replacement) {
+        return replaceNth(original, target, replacement, 1);
+    }
+    
+    /**
+     * バイト配列内の {@code target} と {@code nth} 番目に一致する部分配列を {@code replacement} で置換した新たな配列を返します。
+     * 元の配列は変更しません。<br>
+     * 一致箇所は {@link #replace(byte[], byte[], byte[])} と同様に、バイト配列の先頭から重なりなく数えます。<br>
+     * <br>
+     * <table border="1">
+     *   <caption>置換例</caption>
+     *   <tr><th>{@code original}</th><td><code>{ 0x01, 0x01, 0x01, 0x01, 0x01 }</code></td></tr>
+     *   <tr><th>{@code target}</th><td><code>{ 0x01, 0x01 }</code></td></tr>
+     *   <tr><th>{@code replacement}</th><td><code>{ 0x02 }</code></td></tr>
+     *   <tr><th>{@code nth}</th><td>{@code 2}</td></tr>
+     *   <tr><th>結果</th><td><code>{ 0x01, 0x01, 0x02, 0x01 }</code></td></tr>
+     * </table>
+     * <br>
+     * {@code target} が長さ 0 の配列の場合、および {@code nth} 番目の一致箇所がない場合は、何も置換を行わず、{@code original} のコピーを返します。<br>
+     * 
+     * @param original 置換前のバイト配列
+     * @param target 置換対象の部分配列
+     * @param replacement 置換後の部分配列
+     * @param nth 置換する一致箇所の順番（最初の一致箇所を {@code 1} とします）
+     * @return 置換後のバイト配列
+     * @throws NullPointerException {@code original}、{@code target}、{@code replacement} のいずれかが {@code null} の場合
+     * @throws IllegalArgumentException {@code nth} が {@code 1} 未満の場合
+     * @since 1.5.0
+     */
+    public static byte[] replaceNth(byte[] original, byte[] target, byte[] replacement, int nth) {
+        Objects.requireNonNull(original);
+        Objects.requireNonNull(target);
+        Objects.requireNonNull(replacement);
+        if (nth < 1) {
+            throw new IllegalArgumentException(String.valueOf(nth));
+        }
+        
+        return replace(original, target, replacement, nth);
+    }
+    
+    private static byte[] replace(byte[] original, byte[] target, byte[] replacement, int nth) {
+        assert original != null;
+        assert target != null;
+        assert replacement != null;
+        
+        if (target.length == 0) {
+            return Arrays.copyOf(original, original.length);
+        }
+        return new BytePattern(target).replace(original, replacement, nth);
     }
     
     /**
@@ -301,7 +473,7 @@ public class STUtil {
      * <br>
      * <table border="1">
      *   <caption>置換例１</caption>
-     *   <tr><th>{@code bytes}</th><td><code>{ 0x01, 0x01, 0x01, 0x01, 0x01, 0x01 }</code></td></tr>
+     *   <tr><th>{@code original}</th><td><code>{ 0x01, 0x01, 0x01, 0x01, 0x01, 0x01 }</code></td></tr>
      *   <tr><th>{@code target}</th><td>{@code "01 01"}</td></tr>
      *   <tr><th>{@code replacement}</th><td>{@code "01"}</td></tr>
      *   <tr><th>結果</th><td><code>{ 0x01, 0x01, 0x01 }</code></td></tr>
@@ -309,19 +481,19 @@ public class STUtil {
      * <br>
      * <table border="1">
      *   <caption>置換例２</caption>
-     *   <tr><th>{@code bytes}</th><td><code>{ 0x01, 0x01, 0x01 }</code></td></tr>
+     *   <tr><th>{@code original}</th><td><code>{ 0x01, 0x01, 0x01 }</code></td></tr>
      *   <tr><th>{@code target}</th><td>{@code "01 01"}</td></tr>
      *   <tr><th>{@code replacement}</th><td>{@code "02"}</td></tr>
      *   <tr><th>結果</th><td><code>{ 0x02, 0x01 }</code> （<code>{ 0x01, 0x02 }</code> ではない）</td></tr>
      * </table>
      * <br>
-     * {@code target} が空文字列の場合、何も置換を行わず、{@code bytes} のコピーを返します。<br>
+     * {@code target} が空文字列の場合、何も置換を行わず、{@code original} のコピーを返します。<br>
      * 
      * @param original 置換前のバイト配列
      * @param target 置換対象の部分配列を表す16進表示形式の文字列
      * @param replacement 置換後の部分配列を表す16進表示形式の文字列
      * @return 置換後のバイト配列
-     * @throws NullPointerException {@code bytes} が {@code null} の場合
+     * @throws NullPointerException {@code original} が {@code null} の場合
      * @throws NumberFormatException {@code target}、{@code replacement} のいずれかが16進表示形式でない場合
      * @see String#replace(CharSequence, CharSequence)
      */
@@ -331,17 +503,7 @@ public class STUtil {
             throw new NumberFormatException(String.format("target : %s, replacement : %s", target, replacement));
         }
         
-        if ("".equals(target)) {
-            return Arrays.copyOf(original, original.length);
-        }
-        
-        String hexStr = toHexString(original);
-        String hexStr2 = normalize(hexStr.replace(target, replacement));
-        return hexToBytes(hexStr2);
-    }
-    
-    private static String normalize(String hexStr) {
-        return hexStr.trim().replaceAll("[ ]{2,}", " ");
+        return replace(original, hexToBytes(target), hexToBytes(replacement), BytePattern.ALL);
     }
     
     /**
@@ -362,25 +524,67 @@ public class STUtil {
         return marged;
     }
     
+    /**
+     * 2つのバイト配列の差分を16進表示形式で表した文字列を返します。<br>
+     * 変更箇所の前後16バイトを文脈として含めます。詳細は {@link #diff(byte[], byte[], int)} を参照してください。<br>
+     * 
+     * @param expected 変更前（期待値）のバイト配列
+     * @param actual 変更後（実際の値）のバイト配列
+     * @return 差分を表す文字列（差分がない場合は空文字列）
+     * @throws NullPointerException {@code expected}、{@code actual} のいずれかが {@code null} の場合
+     * @since 1.5.0
+     */
+    public static String diff(byte[] expected, byte[] actual) {
+        return diff(expected, actual, 16);
+    }
+    
+    /**
+     * 2つのバイト配列の差分を16進表示形式で表した文字列を返します。<br>
+     * 差分は、{@code expected} を {@code actual} に変換するために削除および挿入するバイト数の和が最小となるように求めます。
+     * 計算には Myers の O(ND) アルゴリズム（N は2つの配列の長さの和、D は差分のバイト数）の線形空間版を用いるため、
+     * 数メガバイトのバイト配列でも、差分が小さければ高速に比較できます。<br>
+     * <br>
+     * 差分は、変更箇所ごとのまとまり（ハンク）として出力されます。次は {@code context} が {@code 2} の場合の出力例です。<br>
+     * <pre>
+     * &#64;&#64; -00000004,6 +00000004,5 &#64;&#64;
+     *   00000004 74 00
+     * - 00000006 03 61 62 63
+     * + 00000006 02 78 79
+     * </pre>
+     * 見出し行は、変更前と変更後の配列上でのハンクの開始位置（16進数）とバイト数を示します。
+     * 内容行は最大16バイトずつ出力され、種類を表す記号（一致は空白、削除は {@code -}、挿入は {@code +}）、
+     * 配列上の位置（挿入は変更後、それ以外は変更前の配列上の位置）、16進表示形式の内容からなります。
+     * 前後の文脈が重なるハンクは一つにまとめられます。行は改行文字 {@code '\n'} で区切られます。<br>
+     * 
+     * @param expected 変更前（期待値）のバイト配列
+     * @param actual 変更後（実際の値）のバイト配列
+     * @param context 変更箇所の前後に出力する一致部分のバイト数
+     * @return 差分を表す文字列（差分がない場合は空文字列）
+     * @throws NullPointerException {@code expected}、{@code actual} のいずれかが {@code null} の場合
+     * @throws IllegalArgumentException {@code context} が負の場合
+     * @since 1.5.0
+     */
+    public static String diff(byte[] expected, byte[] actual, int context) {
+        Objects.requireNonNull(expected);
+        Objects.requireNonNull(actual);
+        if (context < 0) {
+            throw new IllegalArgumentException(String.valueOf(context));
+        }
+        
+        return new ByteDiff(expected, actual).render(context);
+    }
+    
     /**
      * バイト配列を16進表示形式の文字列に変換します。<br>
      * 
      * @param bytes バイト配列
      * @return 16進表示形式の文字列（{@code bytes} が長さ 0 の配列の場合は空文字列）
      * @throws NullPointerException {@code bytes} が {@code null} の場合
+     * @see HexCodec#encode(byte[], int, int, Appendable)
+     * @see HexCodec#hexView(byte[])
      */
     public static String toHexString(byte[] bytes) {
-        Objects.requireNonNull(bytes);
-        
-        StringBuilder str = new StringBuilder();
-        for (byte b : bytes) {
-            str.append(String.format(" %02x", b));
-        }
-        if (0 < bytes.length) {
-            str.deleteCharAt(0);
-        }
-        
-        return str.toString();
+        return HexCodec.encode(bytes);
     }
     
     /**
@@ -389,23 +593,10 @@ public class STUtil {
      * @param hexStr 16進表示形式の文字列
      * @return バイト配列（{@code hexStr} が空文字列の場合は長さ 0 の配列）
      * @throws NumberFormatException {@code hexStr} が16進表示形式ではない場合
+     * @see HexCodec#decode(java.io.Reader, java.io.OutputStream)
      */
     public static byte[] hexToBytes(String hexStr) {
-        if (!isHexFormat(hexStr)) {
-            throw new NumberFormatException(hexStr);
-        }
-        if ("".equals(hexStr)) {
-            return new byte[] {};
-        }
-        
-        // byte と java.util.stream.Stream の相性が非常に悪いので、ループで処理することにする。
-        String[] hexes = hexStr.split(" ");
-        byte[] bytes = new byte[hexes.length];
-        for (int i = 0; i < hexes.length; i++) {
-            bytes[i] = (byte) Integer.parseInt(hexes[i], 16);
-        }
-        
-        return bytes;
+        return HexCodec.decode(hexStr);
     }
     
     /**
@@ -430,7 +621,7 @@ public class STUtil {
      *         （空文字列の場合は {@code true}、{@code null} の場合は {@code false}）
      */
     private static boolean isHexFormat(String hexStr) {
-        return hexStr != null && hexStr.matches("^$|^[0-9a-f]{2}( [0-9a-f]{2})*$");
+        return hexStr != null && HexCodec.isHexFormat(hexStr);
     }
     
     // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
@@ -0,0 +1,618 @@
+package xyz.hotchpotch.jutaime.serializable;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamConstants;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * シリアライズ／デシリアライズに用いるバッファとストリームを再利用するためのセッションです。<br>
+ * {@link STUtil#write(Object)}、{@link STUtil#read(byte[])}、{@link STUtil#writeAndRead(Object)} は、
+ * 呼び出し元スレッドのセッションを利用して処理を行います。<br>
+ * <br>
+ * セッションはスレッドごとにひとつ保持され、{@link #current()} により取得できます。
+ * セッションは {@link ObjectOutputStream} と {@link ObjectInputStream} をひと組ずつ保持し、
+ * 処理のたびにストリームのリセットを行うことで、各処理を新たなストリームで行った場合と同じ結果を得ます。
+ * このため、大量のオブジェクトを繰り返しシリアライズ／デシリアライズする場合も、
+ * バッファやストリームを処理のたびに生成することはありません。<br>
+ * 処理中に例外が発生した場合、そのセッションのストリームは破棄され、次回の処理時に再生成されます。<br>
+ * <br>
+ * このクラスはスレッドセーフではありません。
+ * セッションは、それを保持するスレッドからのみ利用することができます。<br>
+ * シリアライズ対象のオブジェクトの {@code writeObject} メソッドなどから再帰的に呼び出された場合は、
+ * 一時的なセッションを生成して処理を行います。<br>
+ * 
+ * @see STUtil#writeAndRead(Object)
+ * @since 1.5.0
+ * @author nmby
+ */
+public final class SerializationSession {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /** オブジェクトをシリアライズした際に先頭に現れる固定バイト配列 */
+    private static final byte[] OBJECT_HEADER = { (byte) 0xac, (byte) 0xed, 0x00, 0x05 };
+    
+    private static final int INITIAL_CAPACITY = 1024;
+    
+    /** 処理後もセッションに保持するバッファの最大サイズ。これを超えたバッファは処理後に解放します。 */
+    private static final int MAX_RETAINED_CAPACITY = 1 << 20;
+    
+    private static final ThreadLocal<SerializationSession> SESSIONS = ThreadLocal.withInitial(SerializationSession::new);
+    
+    /**
+     * 呼び出し元スレッドのセッションを返します。<br>
+     * 
+     * @return 呼び出し元スレッドのセッション
+     */
+    public static SerializationSession current() {
+        return SESSIONS.get();
+    }
+    
+    /**
+     * 内部配列を公開する、再利用可能な出力先です。<br>
+     * {@link java.io.ByteArrayOutputStream} と異なり、書き込まれた内容を複製せずに参照できます。<br>
+     * {@code target} が設定されている場合は、内部配列ではなく {@code target} に直接書き込みます。
+     * {@code target} の容量が不足した場合は例外をスローせずに {@code overflowed} を設定し、以降の書き込みを破棄します。
+     * シリアライズの過程で発生した本来の例外を、{@link ObjectOutputStream} による例外情報の書き込みで隠さないためです。<br>
+     * {@code discarding} が設定されている場合は、書き込まれた内容を保持せずにバイト数のみを数えます。<br>
+     */
+    private static final class Buffer extends OutputStream {
+        private byte[] buf = new byte[INITIAL_CAPACITY];
+        private int count;
+        private ByteBuffer target;
+        private boolean overflowed;
+        private boolean discarding;
+        private long discarded;
+        
+        private void ensureCapacity(int required) {
+            if (buf.length < required) {
+                buf = Arrays.copyOf(buf, Math.max(required, buf.length * 2));
+            }
+        }
+        
+        @Override
+        public void write(int b) {
+            if (discarding) {
+                discarded++;
+                return;
+            }
+            if (target != null) {
+                if (!overflowed && target.hasRemaining()) {
+                    target.put((byte) b);
+                } else {
+                    overflowed = true;
+                }
+                return;
+            }
+            ensureCapacity(count + 1);
+            buf[count++] = (byte) b;
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (discarding) {
+                discarded += len;
+                return;
+            }
+            if (target != null) {
+                if (!overflowed && len <= target.remaining()) {
+                    target.put(b, off, len);
+                } else {
+                    overflowed = true;
+                }
+                return;
+            }
+            ensureCapacity(count + len);
+            System.arraycopy(b, off, buf, count, len);
+            count += len;
+        }
+    }
+    
+    /**
+     * 任意のバイト配列の範囲または {@link ByteBuffer} の残りの部分を、必要に応じて先頭に1バイトを付加して読み込ませる、再利用可能な入力元です。<br>
+     * いずれの場合も、読み込み元の内容を複製しません。<br>
+     */
+    private static final class Input extends InputStream {
+        private int prefix = -1;
+        private byte[] src;
+        private int pos;
+        private int limit;
+        private ByteBuffer buffer;
+        
+        private void set(int prefix, byte[] src, int offset, int length) {
+            this.prefix = prefix;
+            this.src = src;
+            this.pos = offset;
+            this.limit = offset + length;
+            this.buffer = null;
+        }
+        
+        /**
+         * {@code buffer} の残りの部分を読み込み元に設定します。<br>
+         * 内部配列にアクセスできるバッファの場合は、内部配列を直接読み込みます。<br>
+         */
+        private void set(ByteBuffer buffer) {
+            if (buffer.hasArray()) {
+                set(-1, buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            } else {
+                set(-1, null, 0, 0);
+                this.buffer = buffer;
+            }
+        }
+        
+        /**
+         * 読み込み元の現在の位置を返します。<br>
+         */
+        private int position() {
+            return buffer == null ? pos : buffer.position();
+        }
+        
+        @Override
+        public int read() {
+            if (0 <= prefix) {
+                int b = prefix;
+                prefix = -1;
+                return b;
+            }
+            if (buffer != null) {
+                return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+            }
+            return pos < limit ? src[pos++] & 0xff : -1;
+        }
+        
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (0 <= prefix) {
+                b[off] = (byte) read();
+                return 1;
+            }
+            if (buffer != null) {
+                if (!buffer.hasRemaining()) {
+                    return -1;
+                }
+                int n = Math.min(len, buffer.remaining());
+                buffer.get(b, off, n);
+                return n;
+            }
+            if (limit <= pos) {
+                return -1;
+            }
+            int n = Math.min(len, limit - pos);
+            System.arraycopy(src, pos, b, off, n);
+            pos += n;
+            return n;
+        }
+        
+        @Override
+        public int available() {
+            return (0 <= prefix ? 1 : 0) + (buffer == null ? limit - pos : buffer.remaining());
+        }
+    }
+    
+    /**
+     * 新たなストリームを用いてデシリアライズします。<br>
+     * 先頭の固定バイト配列が正しくない場合のエラー報告を、{@link ObjectInputStream} と一致させるために用います。<br>
+     */
+    private static Object readFresh(InputStream in) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream ois = new ObjectInputStream(in)) {
+            return ois.readObject();
+        }
+    }
+    
+    private static boolean hasHeader(byte[] bytes, int offset, int length) {
+        if (length < OBJECT_HEADER.length) {
+            return false;
+        }
+        for (int i = 0; i < OBJECT_HEADER.length; i++) {
+            if (bytes[offset + i] != OBJECT_HEADER[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static boolean hasHeader(ByteBuffer buffer) {
+        if (buffer.remaining() < OBJECT_HEADER.length) {
+            return false;
+        }
+        for (int i = 0; i < OBJECT_HEADER.length; i++) {
+            if (buffer.get(buffer.position() + i) != OBJECT_HEADER[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final Thread owner;
+    private final Buffer out = new Buffer();
+    private final Input in = new Input();
+    private ObjectOutputStream oos;
+    private ObjectInputStream ois;
+    private boolean busy;
+    
+    private SerializationSession() {
+        owner = Thread.currentThread();
+    }
+    
+    private void checkOwner() {
+        if (Thread.currentThread() != owner) {
+            throw new IllegalStateException(String.valueOf(Thread.currentThread()));
+        }
+    }
+    
+    /**
+     * 出力ストリームを返します。<br>
+     * ストリームヘッダはここで一度だけ書き込まれ、以降はバッファから除かれます。<br>
+     */
+    private ObjectOutputStream oos() throws IOException {
+        if (oos == null) {
+            oos = new ObjectOutputStream(out);
+            oos.flush();
+            out.count = 0;
+        }
+        return oos;
+    }
+    
+    /**
+     * 入力ストリームを返します。<br>
+     * ストリームヘッダは固定バイト配列を読み込ませることで処理します。<br>
+     */
+    private ObjectInputStream ois() throws IOException {
+        if (ois == null) {
+            in.set(-1, OBJECT_HEADER, 0, OBJECT_HEADER.length);
+            ois = new ObjectInputStream(in);
+        }
+        return ois;
+    }
+    
+    /**
+     * オブジェクトをシリアライズしてバッファに書き込みます。<br>
+     * 書き込まれる内容は、新たなストリームで書き込んだ場合の先頭の固定バイト配列以降の部分と一致します。<br>
+     */
+    private void writeObject(Object obj) throws IOException {
+        out.count = 0;
+        ObjectOutputStream oos = oos();
+        oos.writeObject(obj);
+        oos.flush();
+    }
+    
+    /**
+     * 処理の後始末を行います。<br>
+     * 正常終了した場合は、ストリームをリセットして直前の処理で扱ったオブジェクトへの参照を解放します。
+     * 異常終了した場合は、ストリームを破棄します。<br>
+     */
+    private void release(boolean completed) {
+        out.target = null;
+        out.overflowed = false;
+        out.discarding = false;
+        out.discarded = 0;
+        if (completed) {
+            try {
+                if (oos != null) {
+                    oos.reset();
+                    oos.flush();
+                }
+                if (ois != null) {
+                    // ブロックデータモードの ObjectInputStream は、プリミティブデータの読み込み時に TC_RESET を処理する。
+                    in.set(ObjectStreamConstants.TC_RESET, null, 0, 0);
+                    if (ois.read() != -1) {
+                        throw new AssertionError();
+                    }
+                }
+            } catch (IOException e) {
+                oos = null;
+                ois = null;
+            }
+        } else {
+            oos = null;
+            ois = null;
+        }
+        out.count = 0;
+        if (MAX_RETAINED_CAPACITY < out.buf.length) {
+            out.buf = new byte[INITIAL_CAPACITY];
+        }
+        in.set(-1, null, 0, 0);
+        busy = false;
+    }
+    
+    /**
+     * オブジェクトをシリアライズすることによって得られるバイト配列を返します。<br>
+     * 結果は {@link STUtil#write(Object)} と同じです。<br>
+     * 
+     * @param obj シリアライズ対象のオブジェクト（{@code null} が許容されます）
+     * @return {@code obj} をシリアライズすることによって得られるバイト配列
+     * @throws IllegalStateException このセッションを保持するスレッド以外から呼び出された場合
+     * @throws FailToSerializeException シリアライズの過程で何らかの例外が発生した場合
+     */
+    public byte[] write(Object obj) {
+        return write(obj, true);
+    }
+    
+    /**
+     * オブジェクトをシリアライズすることによって得られるバイト配列から、先頭の固定 4 バイトを除いた配列を返します。<br>
+     * 結果は {@link STUtil#bytes(Object)} と同じです。<br>
+     */
+    /*package*/ byte[] writeBody(Object obj) {
+        return write(obj, false);
+    }
+    
+    private byte[] write(Object obj, boolean withHeader) {
+        checkOwner();
+        if (busy) {
+            return new SerializationSession().write(obj, withHeader);
+        }
+        
+        busy = true;
+        boolean completed = false;
+        try {
+            writeObject(obj);
+            int headerLength = withHeader ? OBJECT_HEADER.length : 0;
+            byte[] bytes = new byte[headerLength + out.count];
+            System.arraycopy(OBJECT_HEADER, 0, bytes, 0, headerLength);
+            System.arraycopy(out.buf, 0, bytes, headerLength, out.count);
+            completed = true;
+            return bytes;
+        
+        } catch (Exception e) {
+            throw new FailToSerializeException(e);
+        } finally {
+            release(completed);
+        }
+    }
+    
+    /**
+     * オブジェクトをシリアライズし、その結果を {@code dst} の現在の位置から直接書き込みます。<br>
+     * 書き込まれる内容は {@link #write(Object)} が返すバイト配列と同じです。
+     * 中間のバイト配列を生成しないため、ダイレクトバッファを指定することで、シリアライズ結果をヒープ外に書き込むことができます。<br>
+     * 正常に終了した場合、{@code dst} の位置は書き込まれたバイト数だけ進みます。
+     * 例外が発生した場合、{@code dst} の位置は元に戻されますが、位置以降の内容は不定となります。<br>
+     * 
+     * @param obj シリアライズ対象のオブジェクト（{@code null} が許容されます）
+     * @param dst 書き込み先のバッファ
+     * @return 書き込まれたバイト数
+     * @throws NullPointerException {@code dst} が {@code null} の場合
+     * @throws ReadOnlyBufferException {@code dst} が読み取り専用の場合
+     * @throws IllegalStateException このセッションを保持するスレッド以外から呼び出された場合
+     * @throws FailToSerializeException シリアライズの過程で何らかの例外が発生した場合
+     *                                  （{@code dst} の残りの容量が不足した場合を含みます）
+     * @since 1.5.0
+     */
+    public int write(Object obj, ByteBuffer dst) {
+        Objects.requireNonNull(dst);
+        if (dst.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        checkOwner();
+        if (busy) {
+            return new SerializationSession().write(obj, dst);
+        }
+        
+        busy = true;
+        boolean completed = false;
+        int start = dst.position();
+        try {
+            // ストリームヘッダをセッションのバッファに書き込ませるため、ストリームの生成は出力先の切り替え前に行う。
+            ObjectOutputStream oos = oos();
+            out.target = dst;
+            dst.put(OBJECT_HEADER);
+            oos.writeObject(obj);
+            oos.flush();
+            if (out.overflowed) {
+                throw new BufferOverflowException();
+            }
+            completed = true;
+            return dst.position() - start;
+        
+        } catch (Exception e) {
+            dst.position(start);
+            throw new FailToSerializeException(e);
+        } finally {
+            release(completed);
+        }
+    }
+    
+    /**
+     * オブジェクトをシリアライズすることによって得られるバイト配列の長さを返します。<br>
+     * 結果は {@link #write(Object)} が返すバイト配列の長さと同じです。
+     * ただし、シリアライズの結果をバッファに保持せずにバイト数のみを数えるため、
+     * シリアライズ形式の大きさにかかわらず、必要なメモリは一定です。<br>
+     * 
+     * @param obj シリアライズ対象のオブジェクト（{@code null} が許容されます）
+     * @return {@code obj} をシリアライズすることによって得られるバイト配列の長さ
+     * @throws IllegalStateException このセッションを保持するスレッド以外から呼び出された場合
+     * @throws FailToSerializeException シリアライズの過程で何らかの例外が発生した場合
+     * @since 1.5.0
+     */
+    public long size(Object obj) {
+        checkOwner();
+        if (busy) {
+            return new SerializationSession().size(obj);
+        }
+        
+        busy = true;
+        boolean completed = false;
+        try {
+            // ストリームヘッダをセッションのバッファに書き込ませるため、ストリームの生成は出力先の切り替え前に行う。
+            ObjectOutputStream oos = oos();
+            out.discarding = true;
+            oos.writeObject(obj);
+            oos.flush();
+            completed = true;
+            return OBJECT_HEADER.length + out.discarded;
+        
+        } catch (Exception e) {
+            throw new FailToSerializeException(e);
+        } finally {
+            release(completed);
+        }
+    }
+    
+    /**
+     * バイト配列をデシリアライズすることによって得られるオブジェクトを返します。<br>
+     * 結果は {@link STUtil#read(byte[])} と同じです。<br>
+     * 
+     * @param <T> 戻り値のオブジェクトの型
+     * @param bytes バイト配列
+     * @return バイト配列をデシリアライズすることにより得られるオブジェクト
+     * @throws NullPointerException {@code bytes} が {@code null} の場合
+     * @throws IllegalStateException このセッションを保持するスレッド以外から呼び出された場合
+     * @throws FailToDeserializeException デシリアライズの過程で何らかの例外が発生した場合
+     */
+    public <T> T read(byte[] bytes) {
+        Objects.requireNonNull(bytes);
+        return read(bytes, 0, bytes.length);
+    }
+    
+    /**
+     * バイト配列の指定された範囲をデシリアライズすることによって得られるオブジェクトを返します。<br>
+     * 指定された範囲は複製されずに直接読み込まれます。<br>
+     * 
+     * @param <T> 戻り値のオブジェクトの型
+     * @param bytes バイト配列
+     * @param offset デシリアライズする範囲の開始位置
+     * @param length デシリアライズする範囲のバイト数
+     * @return バイト配列の指定された範囲をデシリアライズすることにより得られるオブジェクト
+     * @throws NullPointerException {@code bytes} が {@code null} の場合
+     * @throws IndexOutOfBoundsException {@code offset} と {@code length} が {@code bytes} の範囲外を示す場合
+     * @throws IllegalStateException このセッションを保持するスレッド以外から呼び出された場合
+     * @throws FailToDeserializeException デシリアライズの過程で何らかの例外が発生した場合
+     * @since 1.5.0
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T read(byte[] bytes, int offset, int length) {
+        Objects.requireNonNull(bytes);
+        if (offset < 0 || length < 0 || bytes.length - offset < length) {
+            throw new IndexOutOfBoundsException(String.format("offset : %d, length : %d", offset, length));
+        }
+        checkOwner();
+        if (busy) {
+            return new SerializationSession().read(bytes, offset, length);
+        }
+        
+        busy = true;
+        boolean completed = false;
+        try {
+            Object obj;
+            if (!hasHeader(bytes, offset, length)) {
+                obj = readFresh(new ByteArrayInputStream(bytes, offset, length));
+            } else {
+                ObjectInputStream ois = ois();
+                in.set(-1, bytes, offset + OBJECT_HEADER.length, length - OBJECT_HEADER.length);
+                obj = ois.readObject();
+            }
+            completed = true;
+            return (T) obj;
+        
+        } catch (Exception e) {
+            throw new FailToDeserializeException(e);
+        } finally {
+            release(completed);
+        }
+    }
+    
+    /**
+     * {@code src} の現在の位置から、シリアライズされたオブジェクトをひとつデシリアライズします。<br>
+     * バッファの内容は複製されずに直接読み込まれます。
+     * このため、ダイレクトバッファやメモリマップされたファイルの内容を、ヒープに複製することなくデシリアライズできます。<br>
+     * 正常に終了した場合、{@code src} の位置はデシリアライズしたオブジェクトの末尾まで進みます。
+     * このため、{@link #write(Object, ByteBuffer)} で連続して書き込まれた複数のオブジェクトを、順にデシリアライズすることができます。
+     * 例外が発生した場合、{@code src} の位置は変更されません。<br>
+     * 
+     * @param <T> 戻り値のオブジェクトの型
+     * @param src 読み込み元のバッファ
+     * @return デシリアライズすることにより得られるオブジェクト
+     * @throws NullPointerException {@code src} が {@code null} の場合
+     * @throws IllegalStateException このセッションを保持するスレッド以外から呼び出された場合
+     * @throws FailToDeserializeException デシリアライズの過程で何らかの例外が発生した場合
+     * @since 1.5.0
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T read(ByteBuffer src) {
+        Objects.requireNonNull(src);
+        checkOwner();
+        if (busy) {
+            return new SerializationSession().read(src);
+        }
+        
+        busy = true;
+        boolean completed = false;
+        try {
+            ByteBuffer view = src.slice();
+            Object obj;
+            if (!hasHeader(view)) {
+                Input fresh = new Input();
+                fresh.set(view);
+                obj = readFresh(fresh);
+            } else {
+                ObjectInputStream ois = ois();
+                view.position(OBJECT_HEADER.length);
+                in.set(view);
+                int start = in.position();
+                obj = ois.readObject();
+                src.position(src.position() + OBJECT_HEADER.length + in.position() - start);
+            }
+            completed = true;
+            return (T) obj;
+        
+        } catch (Exception e) {
+            throw new FailToDeserializeException(e);
+        } finally {
+            release(completed);
+        }
+    }
+    
+    /**
+     * オブジェクトをシリアライズしたのちデシリアライズすることによって得られるオブジェクトを返します。<br>
+     * 結果は {@link STUtil#writeAndRead(Object)} と同じです。
+     * シリアライズ結果はセッションのバッファから直接デシリアライズされるため、バイト配列は生成されません。<br>
+     * 
+     * @param <T> シリアライズ対象および戻り値のオブジェクトの型
+     * @param obj シリアライズ対象のオブジェクト（{@code null} が許容されます）
+     * @return {@code obj} をシリアライズしたのちデシリアライズすることによって得られるオブジェクト
+     * @throws IllegalStateException このセッションを保持するスレッド以外から呼び出された場合
+     * @throws FailToSerializeException シリアライズの過程で何らかの例外が発生した場合
+     * @throws FailToDeserializeException デシリアライズの過程で何らかの例外が発生した場合
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T writeAndRead(T obj) {
+        checkOwner();
+        if (busy) {
+            return new SerializationSession().writeAndRead(obj);
+        }
+        
+        busy = true;
+        boolean completed = false;
+        try {
+            try {
+                writeObject(obj);
+            } catch (Exception e) {
+                throw new FailToSerializeException(e);
+            }
+            try {
+                ObjectInputStream ois = ois();
+                in.set(-1, out.buf, 0, out.count);
+                T read = (T) ois.readObject();
+                completed = true;
+                return read;
+            } catch (Exception e) {
+                throw new FailToDeserializeException(e);
+            }
+        } finally {
+            release(completed);
+        }
+    }
+}
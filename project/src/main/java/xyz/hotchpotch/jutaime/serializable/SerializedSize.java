@@ -0,0 +1,121 @@
+package xyz.hotchpotch.jutaime.serializable;
+
+import java.util.Objects;
+
+import org.hamcrest.BaseMatcher;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+
+/**
+ * オブジェクトをシリアライズすることによって得られるバイト配列の長さを検査する {@code Matcher} です。<br>
+ * 次の例のように、シリアライズ形式の大きさの上限を検査するテストに利用できます。<br>
+ * <pre>
+ *     assertThat(orderEvent, serializedSizeAtMost(400));
+ *     assertThat(orderEvent, serializedSize(lessThan(400)));
+ * </pre>
+ * シリアライズの結果はバッファに保持せずにバイト数のみを数えるため（{@link STUtil#size(Object)}）、
+ * 大量のオブジェクトを検査する場合も、シリアライズ形式の大きさにかかわらず、必要なメモリは一定です。<br>
+ * シリアライズの過程で例外が発生した場合は、不合格と判定します。<br>
+ * <br>
+ * このクラスは不変であり、スレッドセーフです。<br>
+ * 
+ * @see STUtil#size(Object)
+ * @since 1.5.0
+ * @author nmby
+ */
+public class SerializedSize extends BaseMatcher<Object> {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /**
+     * オブジェクトをシリアライズすることによって得られるバイト配列の長さが、指定された値以下であることを検査する {@code Matcher} オブジェクトを返します。<br>
+     * 
+     * @param maxBytes 許容されるバイト数の上限
+     * @return シリアライズ形式の長さが {@code maxBytes} 以下であることを検査する {@code Matcher}
+     * @throws IllegalArgumentException {@code maxBytes} が負の場合
+     */
+    public static Matcher<Object> serializedSizeAtMost(int maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException(String.valueOf(maxBytes));
+        }
+        return new SerializedSize(maxBytes, null);
+    }
+    
+    /**
+     * オブジェクトをシリアライズすることによって得られるバイト配列の長さを、指定された {@code Matcher} で検査する {@code Matcher} オブジェクトを返します。<br>
+     * バイト数が {@link Integer#MAX_VALUE} を超える場合は、{@code sizeMatcher} を適用せずに不合格と判定します。<br>
+     * 
+     * @param sizeMatcher バイト数を検査する {@code Matcher}
+     * @return シリアライズ形式の長さを {@code sizeMatcher} で検査する {@code Matcher}
+     * @throws NullPointerException {@code sizeMatcher} が {@code null} の場合
+     */
+    public static Matcher<Object> serializedSize(Matcher<? super Integer> sizeMatcher) {
+        Objects.requireNonNull(sizeMatcher);
+        return new SerializedSize(-1, sizeMatcher);
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    // sizeMatcher が null の場合は maxBytes により判定する。
+    private final int maxBytes;
+    private final Matcher<? super Integer> sizeMatcher;
+    
+    private SerializedSize(int maxBytes, Matcher<? super Integer> sizeMatcher) {
+        assert sizeMatcher != null || 0 <= maxBytes;
+        this.maxBytes = maxBytes;
+        this.sizeMatcher = sizeMatcher;
+    }
+    
+    private boolean matchesSize(long size) {
+        if (sizeMatcher == null) {
+            return size <= maxBytes;
+        }
+        return size <= Integer.MAX_VALUE && sizeMatcher.matches((int) size);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean matches(Object item) {
+        try {
+            return matchesSize(STUtil.size(item));
+        } catch (FailToSerializeException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void describeMismatch(Object item, Description description) {
+        long size;
+        try {
+            size = STUtil.size(item);
+        } catch (FailToSerializeException e) {
+            description.appendText(String.format("failed to serialize: %s", e.getCause()));
+            return;
+        }
+        if (sizeMatcher != null && size <= Integer.MAX_VALUE) {
+            description.appendText("serialized size ");
+            sizeMatcher.describeMismatch((int) size, description);
+        } else {
+            description.appendText(String.format("serialized size was %d bytes", size));
+        }
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void describeTo(Description description) {
+        if (description != null) {
+            if (sizeMatcher == null) {
+                description.appendText(String.format("serialized size at most %d bytes", maxBytes));
+            } else {
+                description.appendText("serialized size ").appendDescriptionOf(sizeMatcher);
+            }
+        }
+    }
+}
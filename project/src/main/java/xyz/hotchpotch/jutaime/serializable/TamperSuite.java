@@ -0,0 +1,351 @@
+package xyz.hotchpotch.jutaime.serializable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+
+import xyz.hotchpotch.jutaime.internal.Workers;
+import xyz.hotchpotch.jutaime.throwable.Testee;
+
+/**
+ * オブジェクトを一度だけシリアライズし、そのバイト配列に名前付きの改竄を複数加えて、それぞれのデシリアライズ結果を検査するドライバです。<br>
+ * 次の例のように、同じオブジェクトに対する {@link STUtil#writeModifyAndRead(Object, Function)} の繰り返しを置き換えることができます。<br>
+ * <pre>
+ *     TamperSuite.Report report = TamperSuite.of(new Point(1000, 2000))
+ *             .modifier("negative x", bytes -&gt; STUtil.replace(bytes, STUtil.bytes(1000), STUtil.bytes(-1000)))
+ *             .modifier("renamed class", StreamEditor.create().renameClass(Point.class.getName(), "Point2"))
+ *             .modifier("empty", bytes -&gt; new byte[0], raise(FailToDeserializeException.class))
+ *             .run(raise(FailToDeserializeException.class).rootCause(InvalidObjectException.class));
+ *     assertThat(report.toString(), report.isSuccessful(), is(true));
+ * </pre>
+ * <br>
+ * 各改竄は、シリアライズ結果のそれぞれ独立した複製に対して行われるため、改竄処理はバイト配列を直接書き換えても構いません。
+ * 改竄とデシリアライズは全てのプロセッサ（または {@link #threads(int)} で指定された数のスレッド）で並列に実行されます。
+ * このため、改竄処理はスレッドセーフである必要があります。<br>
+ * デシリアライズ結果は {@link Testee} として、改竄ごとに指定された {@code Matcher}（指定されていない場合は {@link #run(Matcher)} の引数）で検査されます。
+ * 改竄処理自体が例外またはエラーをスローした場合は、その改竄は不合格となります。
+ * ただし、{@link StackOverflowError} を除く {@link VirtualMachineError} は、実行を中止してスローされます。
+ * 全ての改竄を実行したのちに、不合格となった全ての改竄を {@link Report} として返します。<br>
+ * <br>
+ * このクラスのインスタンスは不変であり、スレッドセーフです。<br>
+ * 
+ * @see STUtil#writeModifyAndRead(Object, Function)
+ * @since 1.5.0
+ * @author nmby
+ */
+public final class TamperSuite {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /**
+     * ひとつの改竄の不合格を表します。<br>
+     * 
+     * @since 1.5.0
+     * @author nmby
+     */
+    public static final class Failure {
+        
+        private final String name;
+        private final byte[] bytes;
+        private final Testee<?> testee;
+        private final String mismatch;
+        
+        private Failure(String name, byte[] bytes, Testee<?> testee, String mismatch) {
+            this.name = name;
+            this.bytes = bytes;
+            this.testee = testee;
+            this.mismatch = mismatch;
+        }
+        
+        /**
+         * 改竄の名前を返します。<br>
+         * 
+         * @return 改竄の名前
+         */
+        public String name() {
+            return name;
+        }
+        
+        /**
+         * 改竄されたバイト配列の複製を返します。<br>
+         * 
+         * @return 改竄されたバイト配列（改竄処理が例外をスローした場合、または {@code null} を返した場合は {@code null}）
+         */
+        public byte[] bytes() {
+            return bytes == null ? null : bytes.clone();
+        }
+        
+        /**
+         * デシリアライズ結果を返します。<br>
+         * 
+         * @return デシリアライズ結果（改竄処理が例外をスローした場合は {@code null}）
+         */
+        public Testee<?> testee() {
+            return testee;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%s: %s", name, mismatch);
+        }
+    }
+    
+    /**
+     * {@link TamperSuite#run(Matcher)} の実行結果です。<br>
+     * 
+     * @since 1.5.0
+     * @author nmby
+     */
+    public static final class Report {
+        
+        private final int modifiers;
+        private final List<Failure> failures;
+        private final Duration elapsedTime;
+        
+        private Report(int modifiers, List<Failure> failures, Duration elapsedTime) {
+            this.modifiers = modifiers;
+            this.failures = failures;
+            this.elapsedTime = elapsedTime;
+        }
+        
+        /**
+         * 実行した改竄の数を返します。<br>
+         * 
+         * @return 改竄の数
+         */
+        public int modifiers() {
+            return modifiers;
+        }
+        
+        /**
+         * 不合格となった全ての改竄を、改竄の登録順に返します。<br>
+         * 
+         * @return 不合格の変更不能なリスト
+         */
+        public List<Failure> failures() {
+            return failures;
+        }
+        
+        /**
+         * 実行に要した時間を返します。<br>
+         * 
+         * @return 実行に要した時間
+         */
+        public Duration elapsedTime() {
+            return elapsedTime;
+        }
+        
+        /**
+         * 全ての改竄が合格したかを返します。<br>
+         * 
+         * @return 不合格がない場合は {@code true}
+         */
+        public boolean isSuccessful() {
+            return failures.isEmpty();
+        }
+        
+        @Override
+        public String toString() {
+            StringBuilder str = new StringBuilder();
+            str.append(String.format("%d modifiers, %d failed in %s", modifiers, failures.size(), elapsedTime));
+            for (Failure failure : failures) {
+                str.append('\n').append(failure);
+            }
+            return str.toString();
+        }
+    }
+    
+    /**
+     * 名前付きの改竄です。{@code expected} が {@code null} の場合は {@link TamperSuite#run(Matcher)} の引数で検査します。<br>
+     */
+    private static final class Modifier {
+        private final String name;
+        private final Function<byte[], byte[]> function;
+        private final Matcher<? super Testee<?>> expected;
+        
+        private Modifier(String name, Function<byte[], byte[]> function, Matcher<? super Testee<?>> expected) {
+            this.name = name;
+            this.function = function;
+            this.expected = expected;
+        }
+    }
+    
+    /**
+     * オブジェクトをシリアライズし、その結果を改竄の対象とするドライバを返します。<br>
+     * 
+     * @param obj シリアライズ対象のオブジェクト（{@code null} が許容されます）
+     * @return 改竄が登録されていないドライバ
+     * @throws FailToSerializeException シリアライズの過程で何らかの例外が発生した場合
+     */
+    public static TamperSuite of(Object obj) {
+        return new TamperSuite(STUtil.write(obj));
+    }
+    
+    /**
+     * 指定されたバイト配列を改竄の対象とするドライバを返します。<br>
+     * 
+     * @param bytes 改竄の対象とするバイト配列
+     * @return 改竄が登録されていないドライバ
+     * @throws NullPointerException {@code bytes} が {@code null} の場合
+     */
+    public static TamperSuite ofSerialized(byte[] bytes) {
+        Objects.requireNonNull(bytes);
+        return new TamperSuite(bytes.clone());
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final byte[] bytes;
+    private final List<Modifier> modifiers;
+    private final int threads;
+    
+    private TamperSuite(byte[] bytes) {
+        assert bytes != null;
+        this.bytes = bytes;
+        this.modifiers = Collections.emptyList();
+        this.threads = Runtime.getRuntime().availableProcessors();
+    }
+    
+    private TamperSuite(TamperSuite base, List<Modifier> modifiers, int threads) {
+        this.bytes = base.bytes;
+        this.modifiers = modifiers;
+        this.threads = threads;
+    }
+    
+    /**
+     * 名前付きの改竄を追加したドライバを返します。
+     * この改竄の結果は {@link #run(Matcher)} の引数で検査されます。<br>
+     * 
+     * @param name 改竄の名前
+     * @param modifier バイト配列を改竄する {@code Function}
+     * @return 改竄を追加したドライバ
+     * @throws NullPointerException {@code name}、{@code modifier} のいずれかが {@code null} の場合
+     * @throws IllegalArgumentException 同じ名前の改竄が既に登録されている場合
+     */
+    public TamperSuite modifier(String name, Function<byte[], byte[]> modifier) {
+        Objects.requireNonNull(name);
+        Objects.requireNonNull(modifier);
+        return add(new Modifier(name, modifier, null));
+    }
+    
+    /**
+     * 名前付きの改竄を、その結果を検査する {@code Matcher} とともに追加したドライバを返します。<br>
+     * 
+     * @param name 改竄の名前
+     * @param modifier バイト配列を改竄する {@code Function}
+     * @param expected この改竄のデシリアライズ結果を検査する {@code Matcher}
+     * @return 改竄を追加したドライバ
+     * @throws NullPointerException {@code name}、{@code modifier}、{@code expected} のいずれかが {@code null} の場合
+     * @throws IllegalArgumentException 同じ名前の改竄が既に登録されている場合
+     */
+    public TamperSuite modifier(String name, Function<byte[], byte[]> modifier, Matcher<? super Testee<?>> expected) {
+        Objects.requireNonNull(name);
+        Objects.requireNonNull(modifier);
+        Objects.requireNonNull(expected);
+        return add(new Modifier(name, modifier, expected));
+    }
+    
+    private TamperSuite add(Modifier modifier) {
+        for (Modifier existing : modifiers) {
+            if (existing.name.equals(modifier.name)) {
+                throw new IllegalArgumentException(modifier.name);
+            }
+        }
+        List<Modifier> added = new ArrayList<>(modifiers);
+        added.add(modifier);
+        return new TamperSuite(this, Collections.unmodifiableList(added), threads);
+    }
+    
+    /**
+     * 並列に実行するスレッドの数を指定したドライバを返します。<br>
+     * 既定値は {@link Runtime#availableProcessors()} です。
+     * 改竄の数がスレッドの数より少ない場合は、改竄の数のスレッドで実行します。<br>
+     * 
+     * @param threads スレッドの数
+     * @return スレッドの数を指定したドライバ
+     * @throws IllegalArgumentException {@code threads} が {@code 1} 未満の場合
+     */
+    public TamperSuite threads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException(String.valueOf(threads));
+        }
+        return new TamperSuite(this, modifiers, threads);
+    }
+    
+    /**
+     * 登録された全ての改竄を実行し、それぞれのデシリアライズ結果を検査します。<br>
+     * {@code matcher} 自体が例外をスローした場合は、実行を中止してその例外をスローします。<br>
+     * 
+     * @param matcher 検査のための {@code Matcher} が個別に指定されていない改竄の、デシリアライズ結果を検査する {@code Matcher}
+     * @return 実行結果
+     * @throws NullPointerException {@code matcher} が {@code null} の場合
+     */
+    public Report run(Matcher<? super Testee<?>> matcher) {
+        Objects.requireNonNull(matcher);
+        
+        Failure[] results = new Failure[modifiers.size()];
+        long start = System.nanoTime();
+        Workers.<LongConsumer> forEachCase("tamper", Math.max(1, Math.min(threads, results.length)), results.length, 1, () -> {
+            SerializationSession session = SerializationSession.current();
+            return index -> {
+                Modifier modifier = modifiers.get((int) index);
+                results[(int) index] = apply(modifier, modifier.expected == null ? matcher : modifier.expected, session);
+            };
+        });
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        
+        // 全てのワーカー・スレッドの終了後に復帰するため、各ワーカーによる results への書き込みは可視となっている。
+        List<Failure> failures = new ArrayList<>();
+        for (Failure failure : results) {
+            if (failure != null) {
+                failures.add(failure);
+            }
+        }
+        return new Report(modifiers.size(), Collections.unmodifiableList(failures), elapsed);
+    }
+    
+    /**
+     * ひとつの改竄を実行して検査します。<br>
+     * 
+     * @return 不合格の場合はその内容、合格の場合は {@code null}
+     */
+    private Failure apply(Modifier modifier, Matcher<? super Testee<?>> matcher, SerializationSession session) {
+        byte[] modified;
+        try {
+            modified = modifier.function.apply(bytes.clone());
+        } catch (Throwable t) {
+            // 改竄処理の誤りによる StackOverflowError や AssertionError も、残りの改竄を中止せずにその改竄の不合格として記録する。
+            if (t instanceof VirtualMachineError && !(t instanceof StackOverflowError)) {
+                throw (VirtualMachineError) t;
+            }
+            return new Failure(modifier.name, null, null, String.format("modifier threw %s", t));
+        }
+        if (modified == null) {
+            return new Failure(modifier.name, null, null, "modifier returned null");
+        }
+        
+        Testee<Object> testee = Testee.of(() -> session.read(modified));
+        if (matcher.matches(testee)) {
+            return null;
+        }
+        StringDescription mismatch = new StringDescription();
+        matcher.describeMismatch(testee, mismatch);
+        return new Failure(modifier.name, modified, testee, mismatch.toString());
+    }
+    
+    @Override
+    public String toString() {
+        List<String> names = new ArrayList<>();
+        for (Modifier modifier : modifiers) {
+            names.add(modifier.name);
+        }
+        return String.format("TamperSuite %s", names);
+    }
+}
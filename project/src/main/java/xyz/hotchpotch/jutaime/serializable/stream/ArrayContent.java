@@ -0,0 +1,106 @@
+package xyz.hotchpotch.jutaime.serializable.stream;
+
+import java.io.ObjectStreamConstants;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 配列（{@link ObjectStreamConstants#TC_ARRAY}）を表すノードです。<br>
+ * プリミティブ型の配列の要素は複製されず、ストリーム内の位置のみを保持します。<br>
+ * 
+ * @since 1.5.0
+ * @author nmby
+ */
+public final class ArrayContent extends HandledContent {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final Content classDescContent;
+    private final char componentType;
+    private final int size;
+    private final int dataOffset;
+    private List<Content> elements = Collections.emptyList();
+    
+    /*package*/ ArrayContent(int offset, Content classDescContent, int handle, char componentType, int size, int dataOffset) {
+        super(ObjectStreamConstants.TC_ARRAY, offset, handle);
+        assert classDescContent != null;
+        this.classDescContent = classDescContent;
+        this.componentType = componentType;
+        this.size = size;
+        this.dataOffset = dataOffset;
+    }
+    
+    /*package*/ void elements(List<Content> elements) {
+        this.elements = Collections.unmodifiableList(elements);
+    }
+    
+    /**
+     * この配列のクラス記述子を表す要素（{@link ClassDescContent} または {@link ReferenceContent}）を返します。<br>
+     * 
+     * @return クラス記述子を表す要素
+     */
+    public Content classDescContent() {
+        return classDescContent;
+    }
+    
+    /**
+     * この配列のクラス記述子を返します。参照は解決されます。<br>
+     * 
+     * @return クラス記述子
+     */
+    public ClassDescContent classDesc() {
+        return ClassDescContent.resolve(classDescContent);
+    }
+    
+    /**
+     * この配列の要素の型コード（{@code 'B'}、{@code 'I'}、{@code 'L'}、{@code '['} など）を返します。<br>
+     * 
+     * @return 要素の型コード
+     */
+    public char componentType() {
+        return componentType;
+    }
+    
+    /**
+     * この配列の要素数を返します。<br>
+     * 
+     * @return 要素数
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * 最初の要素の位置を返します。<br>
+     * 
+     * @return 最初の要素の位置
+     */
+    public int dataOffset() {
+        return dataOffset;
+    }
+    
+    /**
+     * 参照型の配列の要素を返します。<br>
+     * 
+     * @return 要素の変更不能なリスト（プリミティブ型の配列の場合は空のリスト）
+     */
+    public List<Content> elements() {
+        return elements;
+    }
+    
+    @Override
+    public List<Content> children() {
+        List<Content> children = new ArrayList<>(1 + elements.size());
+        children.add(classDescContent);
+        children.addAll(elements);
+        return Collections.unmodifiableList(children);
+    }
+    
+    @Override
+    /*package*/ String summary() {
+        return String.format("%s %s[%d]", super.summary(), classDesc().name(), size);
+    }
+}
@@ -0,0 +1,48 @@
+package xyz.hotchpotch.jutaime.serializable.stream;
+
+import java.io.ObjectStreamConstants;
+
+/**
+ * ブロックデータ（{@link ObjectStreamConstants#TC_BLOCKDATA}、{@link ObjectStreamConstants#TC_BLOCKDATALONG}）を表すノードです。<br>
+ * データ部分は複製されず、ストリーム内の位置と長さのみを保持します。<br>
+ * 
+ * @since 1.5.0
+ * @author nmby
+ */
+public final class BlockDataContent extends Content {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final int dataOffset;
+    
+    /*package*/ BlockDataContent(byte tag, int offset, int dataOffset, int dataLength) {
+        super(tag, offset);
+        this.dataOffset = dataOffset;
+        end(dataOffset + dataLength);
+    }
+    
+    /**
+     * データ部分の開始位置を返します。<br>
+     * 
+     * @return データ部分の開始位置
+     */
+    public int dataOffset() {
+        return dataOffset;
+    }
+    
+    /**
+     * データ部分のバイト数を返します。<br>
+     * 
+     * @return データ部分のバイト数
+     */
+    public int dataLength() {
+        return end() - dataOffset;
+    }
+    
+    @Override
+    /*package*/ String summary() {
+        return String.format("%s %d bytes", super.summary(), dataLength());
+    }
+}
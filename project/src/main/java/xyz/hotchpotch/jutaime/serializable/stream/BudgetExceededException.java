@@ -0,0 +1,64 @@
+package xyz.hotchpotch.jutaime.serializable.stream;
+
+import java.io.InvalidObjectException;
+
+/**
+ * デシリアライズが {@link ReadBudget} で指定された資源の上限を超えたことを表す例外です。<br>
+ * {@link ReadBudget#read(byte[])} は、この例外を cause として保持する
+ * {@link xyz.hotchpotch.jutaime.serializable.FailToDeserializeException FailToDeserializeException} をスローします。<br>
+ * 
+ * @since 1.5.0
+ * @author nmby
+ */
+public class BudgetExceededException extends InvalidObjectException {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final ReadBudget.Resource resource;
+    private final long limit;
+    private final long actual;
+    
+    /**
+     * 資源の上限を超えたことを表す例外を生成します。<br>
+     * 
+     * @param resource 上限を超えた資源
+     * @param limit 資源の上限
+     * @param actual 上限を超えた時点での資源の消費量
+     */
+    /*package*/ BudgetExceededException(ReadBudget.Resource resource, long limit, long actual) {
+        super(String.format("%s: %d > %d", resource, actual, limit));
+        this.resource = resource;
+        this.limit = limit;
+        this.actual = actual;
+    }
+    
+    /**
+     * 上限を超えた資源を返します。<br>
+     * 
+     * @return 上限を超えた資源
+     */
+    public ReadBudget.Resource resource() {
+        return resource;
+    }
+    
+    /**
+     * 資源の上限を返します。{@link ReadBudget.Resource#TIME} の場合の単位はミリ秒です。<br>
+     * 
+     * @return 資源の上限
+     */
+    public long limit() {
+        return limit;
+    }
+    
+    /**
+     * 上限を超えた時点での資源の消費量を返します。{@link ReadBudget.Resource#TIME} の場合の単位はミリ秒です。<br>
+     * {@link ReadBudget.Resource#DEPTH} の場合は、上限を超えた時点で検査を中止するため、{@code limit() + 1} となります。<br>
+     * 
+     * @return 資源の消費量
+     */
+    public long actual() {
+        return actual;
+    }
+}
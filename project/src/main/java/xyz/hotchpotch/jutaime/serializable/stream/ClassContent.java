@@ -0,0 +1,50 @@
+package xyz.hotchpotch.jutaime.serializable.stream;
+
+import java.io.ObjectStreamConstants;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link Class} オブジェクト（{@link ObjectStreamConstants#TC_CLASS}）を表すノードです。<br>
+ * 
+ * @since 1.5.0
+ * @author nmby
+ */
+public final class ClassContent extends HandledContent {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final Content classDescContent;
+    
+    /*package*/ ClassContent(int offset, Content classDescContent, int handle) {
+        super(ObjectStreamConstants.TC_CLASS, offset, handle);
+        assert classDescContent != null;
+        this.classDescContent = classDescContent;
+        end(classDescContent.end());
+    }
+    
+    /**
+     * クラス記述子を表す要素（{@link ClassDescContent}、{@link ReferenceContent}、{@link NullContent} のいずれか）を返します。<br>
+     * 
+     * @return クラス記述子を表す要素
+     */
+    public Content classDescContent() {
+        return classDescContent;
+    }
+    
+    /**
+     * クラス記述子を返します。参照は解決されます。<br>
+     * 
+     * @return クラス記述子
+     */
+    public ClassDescContent classDesc() {
+        return ClassDescContent.resolve(classDescContent);
+    }
+    
+    @Override
+    public List<Content> children() {
+        return Collections.singletonList(classDescContent);
+    }
+}
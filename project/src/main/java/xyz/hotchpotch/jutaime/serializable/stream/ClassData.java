@@ -0,0 +1,133 @@
+package xyz.hotchpotch.jutaime.serializable.stream;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * オブジェクトのクラス階層のうち、ひとつのクラスに対応するクラスデータを表します。<br>
+ * クラスデータは、フィールドの値と、{@code writeObject} メソッドや {@code writeExternal} メソッドが書き込んだオブジェクト注釈から成ります。<br>
+ * 
+ * @since 1.5.0
+ * @author nmby
+ */
+public final class ClassData {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final ClassDescContent classDesc;
+    private final int offset;
+    private final List<FieldValue> values;
+    private final int valuesEnd;
+    private final List<Content> annotations;
+    private final int end;
+    
+    /*package*/ ClassData(ClassDescContent classDesc, int offset, List<FieldValue> values, int valuesEnd,
+            List<Content> annotations, int end) {
+        
+        assert classDesc != null;
+        assert values != null;
+        assert annotations != null;
+        
+        this.classDesc = classDesc;
+        this.offset = offset;
+        this.values = Collections.unmodifiableList(values);
+        this.valuesEnd = valuesEnd;
+        this.annotations = Collections.unmodifiableList(annotations);
+        this.end = end;
+    }
+    
+    /**
+     * このクラスデータに対応するクラス記述子を返します。<br>
+     * 
+     * @return クラス記述子
+     */
+    public ClassDescContent classDesc() {
+        return classDesc;
+    }
+    
+    /**
+     * このクラスデータの、ストリーム内での開始位置を返します。<br>
+     * 
+     * @return このクラスデータの開始位置
+     */
+    public int offset() {
+        return offset;
+    }
+    
+    /**
+     * このクラスデータの、ストリーム内での終了位置を返します。<br>
+     * オブジェクト注釈を持つ場合は、注釈の終わりを表す {@code TC_ENDBLOCKDATA} の直後の位置です。<br>
+     * 
+     * @return このクラスデータの終了位置
+     */
+    public int end() {
+        return end;
+    }
+    
+    /**
+     * フィールドの値を、ストリーム内での出現順に返します。<br>
+     * 
+     * @return フィールドの値の変更不能なリスト
+     */
+    public List<FieldValue> values() {
+        return values;
+    }
+    
+    /**
+     * 指定された名前のフィールドの値を返します。<br>
+     * 
+     * @param fieldName フィールド名
+     * @return フィールドの値（存在しない場合は {@code null}）
+     */
+    public FieldValue value(String fieldName) {
+        for (FieldValue value : values) {
+            if (value.field().name().equals(fieldName)) {
+                return value;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * フィールドの値の終了位置を返します。オブジェクト注釈を持つ場合は、その開始位置でもあります。<br>
+     * 
+     * @return フィールドの値の終了位置
+     */
+    public int valuesEnd() {
+        return valuesEnd;
+    }
+    
+    /**
+     * オブジェクト注釈を持つか（クラスが {@code writeObject} メソッドを持つか、ブロックデータモードの {@code Externalizable} であるか）を返します。<br>
+     * 
+     * @return オブジェクト注釈を持つ場合は {@code true}
+     */
+    public boolean hasAnnotations() {
+        return valuesEnd < end;
+    }
+    
+    /**
+     * オブジェクト注釈の要素を返します。<br>
+     * 
+     * @return オブジェクト注釈の要素の変更不能なリスト（オブジェクト注釈を持たない場合は空のリスト）
+     */
+    public List<Content> annotations() {
+        return annotations;
+    }
+    
+    /*package*/ void addChildrenTo(List<Content> children) {
+        for (FieldValue value : values) {
+            if (value.content() != null) {
+                children.add(value.content());
+            }
+        }
+        children.addAll(annotations);
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s %s", classDesc.name(), values);
+    }
+}
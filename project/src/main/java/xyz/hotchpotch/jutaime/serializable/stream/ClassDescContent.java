@@ -0,0 +1,227 @@
+package xyz.hotchpotch.jutaime.serializable.stream;
+
+import java.io.ObjectStreamConstants;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * クラス記述子（{@link ObjectStreamConstants#TC_CLASSDESC}、{@link ObjectStreamConstants#TC_PROXYCLASSDESC}）を表すノードです。<br>
+ * プロキシクラスの記述子の場合、クラス名とシリアルバージョン UID の代わりにインタフェース名を保持し、フィールドを持ちません。<br>
+ * 
+ * @since 1.5.0
+ * @author nmby
+ */
+public final class ClassDescContent extends HandledContent {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /**
+     * クラス記述子、クラス記述子への参照、または {@code null} 参照を表す要素から、クラス記述子を返します。<br>
+     * 
+     * @param content クラス記述子、クラス記述子への参照、または {@code null} 参照を表す要素
+     * @return クラス記述子（{@code null} 参照の場合は {@code null}）
+     * @throws MalformedStreamException {@code content} がいずれでもない場合
+     */
+    /*package*/ static ClassDescContent resolve(Content content) {
+        assert content != null;
+        
+        if (content instanceof NullContent) {
+            return null;
+        }
+        Content target = content instanceof ReferenceContent ? ((ReferenceContent) content).target() : content;
+        if (target instanceof ClassDescContent) {
+            return (ClassDescContent) target;
+        }
+        throw new MalformedStreamException(content.offset(), "class descriptor expected but was " + nameOf(target.tag()));
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final String name;
+    private final long serialVersionUID;
+    private final List<String> interfaces;
+    private int flagsOffset = -1;
+    private byte flags;
+    private List<FieldDesc> fields = Collections.emptyList();
+    private List<Content> annotations;
+    private Content superClassDescContent;
+    
+    /*package*/ ClassDescContent(int offset, int handle, String name, long serialVersionUID) {
+        super(ObjectStreamConstants.TC_CLASSDESC, offset, handle);
+        assert name != null;
+        this.name = name;
+        this.serialVersionUID = serialVersionUID;
+        this.interfaces = Collections.emptyList();
+    }
+    
+    /*package*/ ClassDescContent(int offset, int handle, List<String> interfaces) {
+        super(ObjectStreamConstants.TC_PROXYCLASSDESC, offset, handle);
+        assert interfaces != null;
+        this.name = null;
+        this.serialVersionUID = 0L;
+        this.interfaces = Collections.unmodifiableList(interfaces);
+        this.flags = ObjectStreamConstants.SC_SERIALIZABLE;
+    }
+    
+    /*package*/ void flags(int flagsOffset, byte flags) {
+        this.flagsOffset = flagsOffset;
+        this.flags = flags;
+    }
+    
+    /*package*/ void fields(List<FieldDesc> fields) {
+        this.fields = Collections.unmodifiableList(fields);
+    }
+    
+    /*package*/ void annotations(List<Content> annotations) {
+        this.annotations = Collections.unmodifiableList(annotations);
+    }
+    
+    /*package*/ void superClassDescContent(Content superClassDescContent) {
+        this.superClassDescContent = superClassDescContent;
+    }
+    
+    /**
+     * プロキシクラスの記述子であるかを返します。<br>
+     * 
+     * @return プロキシクラスの記述子の場合は {@code true}
+     */
+    public boolean isProxy() {
+        return tag() == ObjectStreamConstants.TC_PROXYCLASSDESC;
+    }
+    
+    /**
+     * クラス名を返します。<br>
+     * 
+     * @return クラス名（プロキシクラスの記述子の場合は {@code null}）
+     */
+    public String name() {
+        return name;
+    }
+    
+    /**
+     * シリアルバージョン UID を返します。<br>
+     * 
+     * @return シリアルバージョン UID（プロキシクラスの記述子の場合は {@code 0}）
+     */
+    public long serialVersionUID() {
+        return serialVersionUID;
+    }
+    
+    /**
+     * プロキシクラスが実装するインタフェースの名前を返します。<br>
+     * 
+     * @return インタフェース名の変更不能なリスト（プロキシクラスの記述子でない場合は空のリスト）
+     */
+    public List<String> interfaces() {
+        return interfaces;
+    }
+    
+    /**
+     * クラス記述子のフラグ（{@link ObjectStreamConstants#SC_SERIALIZABLE} などの組み合わせ）を返します。<br>
+     * 
+     * @return クラス記述子のフラグ
+     */
+    public byte flags() {
+        return flags;
+    }
+    
+    /**
+     * フラグの位置を返します。<br>
+     * 
+     * @return フラグの位置（プロキシクラスの記述子の場合は {@code -1}）
+     */
+    public int flagsOffset() {
+        return flagsOffset;
+    }
+    
+    /**
+     * フィールド記述子を、ストリーム内での出現順に返します。<br>
+     * 
+     * @return フィールド記述子の変更不能なリスト
+     */
+    public List<FieldDesc> fields() {
+        return fields;
+    }
+    
+    /**
+     * 指定された名前のフィールド記述子を返します。<br>
+     * 
+     * @param fieldName フィールド名
+     * @return フィールド記述子（存在しない場合は {@code null}）
+     */
+    public FieldDesc field(String fieldName) {
+        for (FieldDesc field : fields) {
+            if (field.name().equals(fieldName)) {
+                return field;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * クラス注釈（{@code annotateClass} または {@code annotateProxyClass} で書き込まれた要素）を返します。<br>
+     * 
+     * @return クラス注釈の変更不能なリスト
+     */
+    public List<Content> annotations() {
+        return annotations;
+    }
+    
+    /**
+     * スーパークラスの記述子を表す要素（{@link ClassDescContent}、{@link ReferenceContent}、{@link NullContent} のいずれか）を返します。<br>
+     * 
+     * @return スーパークラスの記述子を表す要素
+     */
+    public Content superClassDescContent() {
+        return superClassDescContent;
+    }
+    
+    /**
+     * スーパークラスの記述子を返します。参照は解決されます。<br>
+     * 
+     * @return スーパークラスの記述子（存在しない場合は {@code null}）
+     * @throws MalformedStreamException このクラス記述子の構文解析が完了する前に参照された場合
+     */
+    public ClassDescContent superClassDesc() {
+        if (superClassDescContent == null) {
+            throw new MalformedStreamException(offset(), "incomplete class descriptor");
+        }
+        return resolve(superClassDescContent);
+    }
+    
+    /**
+     * このクラスとそのスーパークラスの記述子を、最上位のスーパークラスから順に返します。<br>
+     * クラスデータはこの順序でストリームに現れます。<br>
+     * 
+     * @return クラス記述子のリスト
+     */
+    /*package*/ List<ClassDescContent> hierarchy() {
+        List<ClassDescContent> hierarchy = new ArrayList<>();
+        for (ClassDescContent desc = this; desc != null; desc = desc.superClassDesc()) {
+            hierarchy.add(desc);
+        }
+        Collections.reverse(hierarchy);
+        return hierarchy;
+    }
+    
+    @Override
+    public List<Content> children() {
+        List<Content> children = new ArrayList<>();
+        for (FieldDesc field : fields) {
+            if (field.typeContent() != null) {
+                children.add(field.typeContent());
+            }
+        }
+        children.addAll(annotations);
+        children.add(superClassDescContent);
+        return Collections.unmodifiableList(children);
+    }
+    
+    @Override
+    /*package*/ String summary() {
+        return isProxy()
+                ? String.format("%s %s", super.summary(), interfaces)
+                : String.format("%s %s (suid %d, flags 0x%02x)", super.summary(), name, serialVersionUID, flags);
+    }
+}
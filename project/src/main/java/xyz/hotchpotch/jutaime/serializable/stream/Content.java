@@ -0,0 +1,138 @@
+package xyz.hotchpotch.jutaime.serializable.stream;
+
+import java.io.ObjectStreamConstants;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 直列化ストリーム内のひとつの要素（文法上の content）を表す構文木のノードです。<br>
+ * 全てのノードは、ストリーム内での開始位置と終了位置を保持します。<br>
+ * <br>
+ * このクラスのインスタンスは、構文解析の完了後は不変であり、スレッドセーフです。<br>
+ * 
+ * @since 1.5.0
+ * @author nmby
+ */
+public abstract class Content {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /**
+     * タイプコードの名前を返します。<br>
+     * 
+     * @param tag タイプコード
+     * @return タイプコードの名前（例えば {@code "TC_OBJECT"}）
+     */
+    /*package*/ static String nameOf(byte tag) {
+        switch (tag) {
+        case ObjectStreamConstants.TC_NULL:
+            return "TC_NULL";
+        case ObjectStreamConstants.TC_REFERENCE:
+            return "TC_REFERENCE";
+        case ObjectStreamConstants.TC_CLASSDESC:
+            return "TC_CLASSDESC";
+        case ObjectStreamConstants.TC_OBJECT:
+            return "TC_OBJECT";
+        case ObjectStreamConstants.TC_STRING:
+            return "TC_STRING";
+        case ObjectStreamConstants.TC_ARRAY:
+            return "TC_ARRAY";
+        case ObjectStreamConstants.TC_CLASS:
+            return "TC_CLASS";
+        case ObjectStreamConstants.TC_BLOCKDATA:
+            return "TC_BLOCKDATA";
+        case ObjectStreamConstants.TC_ENDBLOCKDATA:
+            return "TC_ENDBLOCKDATA";
+        case ObjectStreamConstants.TC_RESET:
+            return "TC_RESET";
+        case ObjectStreamConstants.TC_BLOCKDATALONG:
+            return "TC_BLOCKDATALONG";
+        case ObjectStreamConstants.TC_EXCEPTION:
+            return "TC_EXCEPTION";
+        case ObjectStreamConstants.TC_LONGSTRING:
+            return "TC_LONGSTRING";
+        case ObjectStreamConstants.TC_PROXYCLASSDESC:
+            return "TC_PROXYCLASSDESC";
+        case ObjectStreamConstants.TC_ENUM:
+            return "TC_ENUM";
+        default:
+            return String.format("0x%02x", tag);
+        }
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final byte tag;
+    private final int offset;
+    private int end;
+    
+    /*package*/ Content(byte tag, int offset) {
+        this.tag = tag;
+        this.offset = offset;
+    }
+    
+    /**
+     * この要素のタイプコード（例えば {@link ObjectStreamConstants#TC_OBJECT}）を返します。<br>
+     * 
+     * @return この要素のタイプコード
+     */
+    public byte tag() {
+        return tag;
+    }
+    
+    /**
+     * この要素の、ストリーム内での開始位置（タイプコードの位置）を返します。<br>
+     * 
+     * @return この要素の開始位置
+     */
+    public int offset() {
+        return offset;
+    }
+    
+    /**
+     * この要素の、ストリーム内での終了位置（この要素の直後の位置）を返します。<br>
+     * 
+     * @return この要素の終了位置
+     */
+    public int end() {
+        return end;
+    }
+    
+    /**
+     * この要素のバイト数を返します。<br>
+     * 
+     * @return この要素のバイト数
+     */
+    public int length() {
+        return end - offset;
+    }
+    
+    /*package*/ void end(int end) {
+        assert offset < end;
+        this.end = end;
+    }
+    
+    /**
+     * この要素に直接含まれる要素を、ストリーム内での出現順に返します。<br>
+     * {@link ReferenceContent} の参照先は含まれません。<br>
+     * 
+     * @return この要素に直接含まれる要素の変更不能なリスト
+     */
+    public List<Content> children() {
+        return Collections.emptyList();
+    }
+    
+    /**
+     * この要素の概要を、子要素を含めずに一行で表す文字列を返します。<br>
+     * 
+     * @return この要素の概要
+     */
+    /*package*/ String summary() {
+        return nameOf(tag);
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s [%d, %d)", summary(), offset, end);
+    }
+}
@@ -0,0 +1,512 @@
+package xyz.hotchpotch.jutaime.serializable.stream;
+
+import static java.io.ObjectStreamConstants.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import xyz.hotchpotch.jutaime.serializable.stream.StreamEditor.ClassEdits;
+import xyz.hotchpotch.jutaime.serializable.stream.StreamEditor.Edit;
+import xyz.hotchpotch.jutaime.serializable.stream.StreamEditor.Kind;
+
+/**
+ * 構文木を走査し、編集計画を適用しながら直列化ストリームを書き出します。<br>
+ * 編集されない部分は元のバイト配列から範囲ごとに複製します。
+ * ハンドル番号は書き出した順に振り直し、参照は参照先の要素に振り直されたハンドル番号で書き出します。<br>
+ * <br>
+ * このクラスはスレッドセーフではありません。<br>
+ * 
+ * @since 1.5.0
+ * @author nmby
+ */
+/*package*/ final class Emitter {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /**
+     * フィールドの出力上の並びにおけるひとつの位置を表します。<br>
+     * 元のフィールド（{@code original}）と、そのフィールドまたは追加されたフィールドに対する編集（{@code edit}）のいずれかまたは両方を持ちます。<br>
+     */
+    private static final class Slot {
+        private final FieldDesc original;
+        private final int originalIndex;
+        private final Edit edit;
+        
+        private Slot(FieldDesc original, int originalIndex, Edit edit) {
+            this.original = original;
+            this.originalIndex = originalIndex;
+            this.edit = edit;
+        }
+        
+        private char type() {
+            return original != null ? original.type() : edit.type;
+        }
+        
+        private boolean isPrimitive() {
+            return 0 < FieldDesc.sizeOf(type());
+        }
+        
+        private String name() {
+            return original != null ? original.name() : edit.fieldName;
+        }
+    }
+    
+    /**
+     * 値が型コードの表すプリミティブ型のフィールドに設定可能であるかを返します。<br>
+     */
+    /*package*/ static boolean isPrimitiveValue(char type, Object value) {
+        switch (type) {
+        case 'Z':
+            return value instanceof Boolean;
+        case 'C':
+            return value instanceof Character;
+        case 'B':
+        case 'S':
+        case 'I':
+        case 'J':
+            return value instanceof Byte || value instanceof Short || value instanceof Integer || value instanceof Long;
+        case 'F':
+        case 'D':
+            return value instanceof Number;
+        default:
+            return false;
+        }
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final byte[] src;
+    private final Map<String, ClassEdits> plan;
+    
+    // 現在適用している編集計画。差し込む値を書き出す間は空となる。
+    private Map<String, ClassEdits> index;
+    private final Map<HandledContent, Integer> handles = new IdentityHashMap<>();
+    private final Map<ClassDescContent, List<Slot>> layouts = new IdentityHashMap<>();
+    private final Set<Edit> matched = Collections.newSetFromMap(new IdentityHashMap<>());
+    private int nextHandle = baseWireHandle;
+    private byte[] buf;
+    private int count;
+    
+    /*package*/ Emitter(byte[] src, Map<String, ClassEdits> index) {
+        assert src != null;
+        assert index != null;
+        
+        this.src = src;
+        this.plan = index;
+        this.index = index;
+        this.buf = new byte[src.length + (src.length >>> 4) + 64];
+    }
+    
+    /**
+     * 適用された編集を返します。<br>
+     */
+    /*package*/ Set<Edit> matched() {
+        return matched;
+    }
+    
+    /*package*/ byte[] emit(SerialStream stream) {
+        assert stream.bytes() == src;
+        
+        copy(src, 0, 4);
+        for (Content content : stream.contents()) {
+            emit(content, src);
+        }
+        return count == buf.length ? buf : Arrays.copyOf(buf, count);
+    }
+    
+    /**
+     * 要素を書き出します。<br>
+     * 
+     * @param content 書き出す要素
+     * @param source {@code content} を構文解析したバイト配列
+     */
+    private void emit(Content content, byte[] source) {
+        switch (content.tag()) {
+        case TC_NULL:
+        case TC_BLOCKDATA:
+        case TC_BLOCKDATALONG:
+            copy(source, content.offset(), content.length());
+            return;
+        
+        case TC_RESET:
+            copy(source, content.offset(), content.length());
+            nextHandle = baseWireHandle;
+            return;
+        
+        case TC_REFERENCE: {
+            HandledContent target = ((ReferenceContent) content).target();
+            Integer handle = handles.get(target);
+            if (handle != null) {
+                writeByte(TC_REFERENCE);
+                writeInt(handle);
+            } else {
+                // 参照先が削除されている場合は、この位置に参照先を書き出す。
+                emit(target, source);
+            }
+            return;
+        }
+        
+        case TC_STRING:
+        case TC_LONGSTRING:
+            assign((HandledContent) content);
+            copy(source, content.offset(), content.length());
+            return;
+        
+        case TC_CLASSDESC:
+        case TC_PROXYCLASSDESC:
+            emitClassDesc((ClassDescContent) content, source);
+            return;
+        
+        case TC_OBJECT: {
+            ObjectContent object = (ObjectContent) content;
+            writeByte(TC_OBJECT);
+            emit(object.classDescContent(), source);
+            assign(object);
+            for (ClassData data : object.classData()) {
+                emitClassData(data, source);
+            }
+            return;
+        }
+        
+        case TC_ARRAY: {
+            ArrayContent array = (ArrayContent) content;
+            writeByte(TC_ARRAY);
+            emit(array.classDescContent(), source);
+            assign(array);
+            if (0 < FieldDesc.sizeOf(array.componentType())) {
+                copy(source, array.dataOffset() - 4, array.end() - array.dataOffset() + 4);
+            } else {
+                writeInt(array.size());
+                for (Content element : array.elements()) {
+                    emit(element, source);
+                }
+            }
+            return;
+        }
+        
+        case TC_ENUM: {
+            EnumContent e = (EnumContent) content;
+            writeByte(TC_ENUM);
+            emit(e.classDescContent(), source);
+            assign(e);
+            emit(e.constantNameContent(), source);
+            return;
+        }
+        
+        case TC_CLASS: {
+            ClassContent c = (ClassContent) content;
+            writeByte(TC_CLASS);
+            emit(c.classDescContent(), source);
+            assign(c);
+            return;
+        }
+        
+        case TC_EXCEPTION:
+            writeByte(TC_EXCEPTION);
+            nextHandle = baseWireHandle;
+            emit(((ExceptionContent) content).exception(), source);
+            nextHandle = baseWireHandle;
+            return;
+        
+        default:
+            throw new AssertionError(content);
+        }
+    }
+    
+    private void assign(HandledContent content) {
+        handles.put(content, nextHandle++);
+    }
+    
+    private void emitClassDesc(ClassDescContent desc, byte[] source) {
+        if (desc.isProxy()) {
+            writeByte(TC_PROXYCLASSDESC);
+            assign(desc);
+            writeInt(desc.interfaces().size());
+            for (String name : desc.interfaces()) {
+                writeUTF(name);
+            }
+        
+        } else {
+            ClassEdits classEdits = index.get(desc.name());
+            writeByte(TC_CLASSDESC);
+            writeUTF(rename(desc.name()));
+            if (classEdits != null && classEdits.serialVersionUID != null) {
+                matched.add(classEdits.serialVersionUID);
+                writeLong(classEdits.serialVersionUID.serialVersionUID);
+            } else {
+                writeLong(desc.serialVersionUID());
+            }
+            assign(desc);
+            writeByte(desc.flags());
+            
+            List<Slot> layout = layout(desc);
+            writeShort(layout.size());
+            for (Slot slot : layout) {
+                writeByte((byte) slot.type());
+                writeUTF(slot.name());
+                if (slot.isPrimitive()) {
+                    continue;
+                }
+                if (slot.original == null) {
+                    writeByte(TC_STRING);
+                    writeUTF(slot.edit.signature);
+                    nextHandle++;
+                } else if (slot.original.typeContent() instanceof StringContent) {
+                    StringContent signature = (StringContent) slot.original.typeContent();
+                    String renamed = renameSignature(signature.value());
+                    assign(signature);
+                    if (renamed.equals(signature.value())) {
+                        copy(source, signature.offset(), signature.length());
+                    } else {
+                        writeByte(TC_STRING);
+                        writeUTF(renamed);
+                    }
+                } else {
+                    emit(slot.original.typeContent(), source);
+                }
+            }
+        }
+        
+        for (Content annotation : desc.annotations()) {
+            emit(annotation, source);
+        }
+        writeByte(TC_ENDBLOCKDATA);
+        emit(desc.superClassDescContent(), source);
+    }
+    
+    /**
+     * クラス記述子の、編集後のフィールドの並びを返します。<br>
+     */
+    private List<Slot> layout(ClassDescContent desc) {
+        List<Slot> layout = layouts.get(desc);
+        if (layout != null) {
+            return layout;
+        }
+        
+        List<FieldDesc> fields = desc.fields();
+        ClassEdits classEdits = desc.name() == null ? null : index.get(desc.name());
+        layout = new ArrayList<>(fields.size());
+        if (classEdits == null) {
+            for (int i = 0; i < fields.size(); i++) {
+                layout.add(new Slot(fields.get(i), i, null));
+            }
+            layouts.put(desc, layout);
+            return layout;
+        }
+        
+        if (!classEdits.additions.isEmpty() && (desc.flags() & SC_EXTERNALIZABLE) != 0) {
+            throw new IllegalArgumentException("cannot add fields to externalizable class: " + desc.name());
+        }
+        List<Edit> additions = classEdits.additions;
+        int a = 0;
+        for (int i = 0; i < fields.size(); i++) {
+            FieldDesc field = fields.get(i);
+            Edit edit = classEdits.fields.get(field.name());
+            if (edit != null && edit.kind == Kind.ADD_FIELD) {
+                throw new IllegalArgumentException("field already exists: " + edit);
+            }
+            while (a < additions.size() && StreamEditor.compareFields(
+                    additions.get(a).signature.length() == 1, additions.get(a).fieldName,
+                    field.isPrimitive(), field.name()) < 0) {
+                matched.add(additions.get(a));
+                layout.add(new Slot(null, -1, additions.get(a++)));
+            }
+            if (edit != null && edit.kind == Kind.DROP_FIELD) {
+                matched.add(edit);
+                continue;
+            }
+            layout.add(new Slot(field, i, edit));
+        }
+        while (a < additions.size()) {
+            matched.add(additions.get(a));
+            layout.add(new Slot(null, -1, additions.get(a++)));
+        }
+        layouts.put(desc, layout);
+        return layout;
+    }
+    
+    private void emitClassData(ClassData data, byte[] source) {
+        ClassDescContent desc = data.classDesc();
+        if ((desc.flags() & SC_EXTERNALIZABLE) == 0) {
+            for (Slot slot : layout(desc)) {
+                if (slot.edit != null) {
+                    matched.add(slot.edit);
+                    emitValue(slot, slot.edit.value);
+                } else {
+                    FieldValue value = data.values().get(slot.originalIndex);
+                    if (value.content() == null) {
+                        copy(source, value.offset(), value.end() - value.offset());
+                    } else {
+                        emit(value.content(), source);
+                    }
+                }
+            }
+        }
+        if (data.hasAnnotations()) {
+            for (Content annotation : data.annotations()) {
+                emit(annotation, source);
+            }
+            writeByte(TC_ENDBLOCKDATA);
+        }
+    }
+    
+    private void emitValue(Slot slot, Object value) {
+        char type = slot.type();
+        if (!slot.isPrimitive()) {
+            if (value == null) {
+                writeByte(TC_NULL);
+            } else {
+                // 差し込む値には編集計画を適用しない。値が編集対象のクラスのインスタンスを含む場合に、
+                // 同じ編集が値の中に繰り返し適用され続けることを防ぐためである。
+                index = Collections.emptyMap();
+                try {
+                    emit(slot.edit.spliceContent(), slot.edit.splice.bytes());
+                } finally {
+                    index = plan;
+                }
+            }
+            return;
+        }
+        if (!isPrimitiveValue(type, value)) {
+            throw new IllegalArgumentException(String.format("%s (%c) : %s", slot.edit, type, value));
+        }
+        switch (type) {
+        case 'Z':
+            writeByte((byte) ((Boolean) value ? 1 : 0));
+            break;
+        case 'C':
+            writeShort((Character) value);
+            break;
+        case 'B':
+            writeByte(((Number) value).byteValue());
+            break;
+        case 'S':
+            writeShort(((Number) value).shortValue());
+            break;
+        case 'I':
+            writeInt(((Number) value).intValue());
+            break;
+        case 'J':
+            writeLong(((Number) value).longValue());
+            break;
+        case 'F':
+            writeInt(Float.floatToIntBits(((Number) value).floatValue()));
+            break;
+        case 'D':
+            writeLong(Double.doubleToLongBits(((Number) value).doubleValue()));
+            break;
+        default:
+            throw new AssertionError(type);
+        }
+    }
+    
+    /**
+     * クラス名の変更を適用したクラス名を返します。配列のクラス名の場合は、要素のクラス名の変更を適用します。<br>
+     */
+    private String rename(String name) {
+        int dims = 0;
+        while (dims < name.length() && name.charAt(dims) == '[') {
+            dims++;
+        }
+        if (dims == 0) {
+            ClassEdits classEdits = index.get(name);
+            if (classEdits == null || classEdits.rename == null) {
+                return name;
+            }
+            matched.add(classEdits.rename);
+            return classEdits.rename.newName;
+        }
+        if (name.length() < dims + 2 || name.charAt(dims) != 'L' || name.charAt(name.length() - 1) != ';') {
+            return name;
+        }
+        String element = name.substring(dims + 1, name.length() - 1);
+        String renamed = rename(element);
+        return renamed.equals(element) ? name : name.substring(0, dims + 1) + renamed + ";";
+    }
+    
+    /**
+     * クラス名の変更を適用したフィールドのシグネチャを返します。<br>
+     */
+    private String renameSignature(String signature) {
+        int dims = 0;
+        while (dims < signature.length() && signature.charAt(dims) == '[') {
+            dims++;
+        }
+        if (signature.length() < dims + 2 || signature.charAt(dims) != 'L' || signature.charAt(signature.length() - 1) != ';') {
+            return signature;
+        }
+        String element = signature.substring(dims + 1, signature.length() - 1).replace('/', '.');
+        String renamed = rename(element);
+        return renamed.equals(element) ? signature : signature.substring(0, dims + 1) + renamed.replace('.', '/') + ";";
+    }
+    
+    private void ensureCapacity(int required) {
+        if (buf.length < required) {
+            buf = Arrays.copyOf(buf, Math.max(required, buf.length * 2));
+        }
+    }
+    
+    private void copy(byte[] source, int offset, int length) {
+        ensureCapacity(count + length);
+        System.arraycopy(source, offset, buf, count, length);
+        count += length;
+    }
+    
+    private void writeByte(byte b) {
+        ensureCapacity(count + 1);
+        buf[count++] = b;
+    }
+    
+    private void writeShort(int v) {
+        ensureCapacity(count + 2);
+        buf[count++] = (byte) (v >>> 8);
+        buf[count++] = (byte) v;
+    }
+    
+    private void writeInt(int v) {
+        ensureCapacity(count + 4);
+        buf[count++] = (byte) (v >>> 24);
+        buf[count++] = (byte) (v >>> 16);
+        buf[count++] = (byte) (v >>> 8);
+        buf[count++] = (byte) v;
+    }
+    
+    private void writeLong(long v) {
+        writeInt((int) (v >>> 32));
+        writeInt((int) v);
+    }
+    
+    /**
+     * 文字列を、長さを表す 2 バイトに続けて修正 UTF-8 形式で書き出します。<br>
+     */
+    private void writeUTF(String str) {
+        int length = 0;
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            length += c != 0 && c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+        }
+        if (0xffff < length) {
+            throw new IllegalArgumentException("string too long: " + length);
+        }
+        writeShort(length);
+        ensureCapacity(count + length);
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (c != 0 && c < 0x80) {
+                buf[count++] = (byte) c;
+            } else if (c < 0x800) {
+                buf[count++] = (byte) (0xc0 | (c >> 6));
+                buf[count++] = (byte) (0x80 | (c & 0x3f));
+            } else {
+                buf[count++] = (byte) (0xe0 | (c >> 12));
+                buf[count++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                buf[count++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package xyz.hotchpotch.jutaime.serializable.stream;
+
+import java.io.ObjectStreamConstants;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 列挙定数（{@link ObjectStreamConstants#TC_ENUM}）を表すノードです。<br>
+ * 
+ * @since 1.5.0
+ * @author nmby
+ */
+public final class EnumContent extends HandledContent {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final Content classDescContent;
+    private Content constantNameContent;
+    
+    /*package*/ EnumContent(int offset, Content classDescContent, int handle) {
+        super(ObjectStreamConstants.TC_ENUM, offset, handle);
+        assert classDescContent != null;
+        this.classDescContent = classDescContent;
+    }
+    
+    /*package*/ void constantNameContent(Content constantNameContent) {
+        this.constantNameContent = constantNameContent;
+    }
+    
+    /**
+     * この列挙定数のクラス記述子を表す要素（{@link ClassDescContent} または {@link ReferenceContent}）を返します。<br>
+     * 
+     * @return クラス記述子を表す要素
+     */
+    public Content classDescContent() {
+        return classDescContent;
+    }
+    
+    /**
+     * この列挙定数のクラス記述子を返します。参照は解決されます。<br>
+     * 
+     * @return クラス記述子
+     */
+    public ClassDescContent classDesc() {
+        return ClassDescContent.resolve(classDescContent);
+    }
+    
+    /**
+     * 列挙定数の名前を表す要素（{@link StringContent} または {@link ReferenceContent}）を返します。<br>
+     * 
+     * @return 列挙定数の名前を表す要素
+     */
+    public Content constantNameContent() {
+        return constantNameContent;
+    }
+    
+    /**
+     * 列挙定数の名前を返します。<br>
+     * 
+     * @return 列挙定数の名前
+     */
+    public String constantName() {
+        return StringContent.valueOf(constantNameContent);
+    }
+    
+    @Override
+    public List<Content> children() {
+        return Collections.unmodifiableList(Arrays.asList(classDescContent, constantNameContent));
+    }
+    
+    @Override
+    /*package*/ String summary() {
+        return String.format("%s %s.%s", super.summary(), classDesc().name(), constantName());
+    }
+}
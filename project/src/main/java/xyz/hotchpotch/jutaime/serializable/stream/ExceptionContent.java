@@ -0,0 +1,42 @@
+package xyz.hotchpotch.jutaime.serializable.stream;
+
+import java.io.ObjectStreamConstants;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 書き込み中に発生した例外（{@link ObjectStreamConstants#TC_EXCEPTION}）を表すノードです。<br>
+ * この要素の前後で、ハンドルはリセットされます。<br>
+ * 
+ * @since 1.5.0
+ * @author nmby
+ */
+public final class ExceptionContent extends Content {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final Content exception;
+    
+    /*package*/ ExceptionContent(int offset, Content exception) {
+        super(ObjectStreamConstants.TC_EXCEPTION, offset);
+        assert exception != null;
+        this.exception = exception;
+        end(exception.end());
+    }
+    
+    /**
+     * 発生した例外を表す要素を返します。<br>
+     * 
+     * @return 発生した例外を表す要素
+     */
+    public Content exception() {
+        return exception;
+    }
+    
+    @Override
+    public List<Content> children() {
+        return Collections.singletonList(exception);
+    }
+}
@@ -0,0 +1,127 @@
+package xyz.hotchpotch.jutaime.serializable.stream;
+
+/**
+ * クラス記述子に含まれるフィールド記述子を表します。<br>
+ * 
+ * @since 1.5.0
+ * @author nmby
+ */
+public final class FieldDesc {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /**
+     * 型コードが表すプリミティブ型のバイト数を返します。<br>
+     * 
+     * @param type 型コード
+     * @return プリミティブ型のバイト数（参照型の場合は {@code 0}、不正な型コードの場合は {@code -1}）
+     */
+    /*package*/ static int sizeOf(char type) {
+        switch (type) {
+        case 'B':
+        case 'Z':
+            return 1;
+        case 'C':
+        case 'S':
+            return 2;
+        case 'I':
+        case 'F':
+            return 4;
+        case 'J':
+        case 'D':
+            return 8;
+        case 'L':
+        case '[':
+            return 0;
+        default:
+            return -1;
+        }
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final int offset;
+    private final int end;
+    private final char type;
+    private final String name;
+    private final Content typeContent;
+    
+    /*package*/ FieldDesc(int offset, int end, char type, String name, Content typeContent) {
+        assert name != null;
+        assert (sizeOf(type) == 0) == (typeContent != null);
+        
+        this.offset = offset;
+        this.end = end;
+        this.type = type;
+        this.name = name;
+        this.typeContent = typeContent;
+    }
+    
+    /**
+     * このフィールド記述子の、ストリーム内での開始位置（型コードの位置）を返します。<br>
+     * 
+     * @return このフィールド記述子の開始位置
+     */
+    public int offset() {
+        return offset;
+    }
+    
+    /**
+     * このフィールド記述子の、ストリーム内での終了位置を返します。<br>
+     * 
+     * @return このフィールド記述子の終了位置
+     */
+    public int end() {
+        return end;
+    }
+    
+    /**
+     * このフィールドの型コード（{@code 'B'}、{@code 'I'}、{@code 'L'}、{@code '['} など）を返します。<br>
+     * 
+     * @return このフィールドの型コード
+     */
+    public char type() {
+        return type;
+    }
+    
+    /**
+     * このフィールドがプリミティブ型であるかを返します。<br>
+     * 
+     * @return プリミティブ型の場合は {@code true}
+     */
+    public boolean isPrimitive() {
+        return typeContent == null;
+    }
+    
+    /**
+     * このフィールドの名前を返します。<br>
+     * 
+     * @return このフィールドの名前
+     */
+    public String name() {
+        return name;
+    }
+    
+    /**
+     * このフィールドの型を表すシグネチャ（例えば {@code "I"}、{@code "Ljava/lang/String;"}）を返します。<br>
+     * 
+     * @return このフィールドの型を表すシグネチャ
+     */
+    public String signature() {
+        return isPrimitive() ? String.valueOf(type) : StringContent.valueOf(typeContent);
+    }
+    
+    /**
+     * 参照型のフィールドの場合、型のシグネチャを表す要素（{@link StringContent} または {@link ReferenceContent}）を返します。<br>
+     * 
+     * @return 型のシグネチャを表す要素（プリミティブ型の場合は {@code null}）
+     */
+    public Content typeContent() {
+        return typeContent;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s %s", signature(), name);
+    }
+}
@@ -0,0 +1,114 @@
+package xyz.hotchpotch.jutaime.serializable.stream;
+
+/**
+ * クラスデータに含まれるひとつのフィールドの値を表します。<br>
+ * プリミティブ型のフィールドの値は、ストリーム上のビット列として保持されます。<br>
+ * 
+ * @since 1.5.0
+ * @author nmby
+ */
+public final class FieldValue {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final FieldDesc field;
+    private final int offset;
+    private final int end;
+    private final long bits;
+    private final Content content;
+    
+    /*package*/ FieldValue(FieldDesc field, int offset, long bits) {
+        assert field != null;
+        assert field.isPrimitive();
+        
+        this.field = field;
+        this.offset = offset;
+        this.end = offset + FieldDesc.sizeOf(field.type());
+        this.bits = bits;
+        this.content = null;
+    }
+    
+    /*package*/ FieldValue(FieldDesc field, Content content) {
+        assert field != null;
+        assert !field.isPrimitive();
+        assert content != null;
+        
+        this.field = field;
+        this.offset = content.offset();
+        this.end = content.end();
+        this.bits = 0L;
+        this.content = content;
+    }
+    
+    /**
+     * このフィールドの記述子を返します。<br>
+     * 
+     * @return このフィールドの記述子
+     */
+    public FieldDesc field() {
+        return field;
+    }
+    
+    /**
+     * この値の、ストリーム内での開始位置を返します。<br>
+     * 
+     * @return この値の開始位置
+     */
+    public int offset() {
+        return offset;
+    }
+    
+    /**
+     * この値の、ストリーム内での終了位置を返します。<br>
+     * 
+     * @return この値の終了位置
+     */
+    public int end() {
+        return end;
+    }
+    
+    /**
+     * プリミティブ型のフィールドの値を、対応するラッパークラスのインスタンスとして返します。<br>
+     * 
+     * @return プリミティブ型のフィールドの値
+     * @throws IllegalStateException 参照型のフィールドの場合
+     */
+    public Object primitiveValue() {
+        switch (field.type()) {
+        case 'B':
+            return (byte) bits;
+        case 'Z':
+            return bits != 0;
+        case 'C':
+            return (char) bits;
+        case 'S':
+            return (short) bits;
+        case 'I':
+            return (int) bits;
+        case 'F':
+            return Float.intBitsToFloat((int) bits);
+        case 'J':
+            return bits;
+        case 'D':
+            return Double.longBitsToDouble(bits);
+        default:
+            throw new IllegalStateException(field.toString());
+        }
+    }
+    
+    /**
+     * 参照型のフィールドの値を表す要素を返します。<br>
+     * 
+     * @return 参照型のフィールドの値を表す要素（プリミティブ型のフィールドの場合は {@code null}）
+     */
+    public Content content() {
+        return content;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s = %s", field, content == null ? primitiveValue() : content.summary());
+    }
+}
@@ -0,0 +1,36 @@
+package xyz.hotchpotch.jutaime.serializable.stream;
+
+/**
+ * ストリーム内で新たなハンドルが割り当てられる要素（オブジェクト、クラス、配列、文字列、列挙定数、クラス記述子）を表すノードです。<br>
+ * 
+ * @since 1.5.0
+ * @author nmby
+ */
+public abstract class HandledContent extends Content {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final int handle;
+    
+    /*package*/ HandledContent(byte tag, int offset, int handle) {
+        super(tag, offset);
+        this.handle = handle;
+    }
+    
+    /**
+     * この要素に割り当てられたハンドル番号を返します。<br>
+     * ハンドル番号は {@link java.io.ObjectStreamConstants#baseWireHandle} から始まる、ストリーム上の値そのものです。<br>
+     * 
+     * @return この要素のハンドル番号
+     */
+    public int handle() {
+        return handle;
+    }
+    
+    @Override
+    /*package*/ String summary() {
+        return String.format("%s 0x%08x", super.summary(), handle);
+    }
+}
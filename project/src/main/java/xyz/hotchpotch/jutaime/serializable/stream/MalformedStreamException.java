@@ -0,0 +1,36 @@
+package xyz.hotchpotch.jutaime.serializable.stream;
+
+/**
+ * バイト列が Java オブジェクト直列化ストリームの文法に従っていないことを表す実行時例外です。<br>
+ * 
+ * @since 1.5.0
+ * @author nmby
+ */
+public class MalformedStreamException extends IllegalArgumentException {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final int offset;
+    
+    /**
+     * 文法に従っていない位置と詳細メッセージを指定して例外を生成します。<br>
+     * 
+     * @param offset 文法に従っていない位置
+     * @param message 詳細メッセージ
+     */
+    public MalformedStreamException(int offset, String message) {
+        super(String.format("offset %d: %s", offset, message));
+        this.offset = offset;
+    }
+    
+    /**
+     * 文法に従っていない位置を返します。<br>
+     * 
+     * @return 文法に従っていない位置
+     */
+    public int offset() {
+        return offset;
+    }
+}
@@ -0,0 +1,762 @@
+package xyz.hotchpotch.jutaime.serializable.stream;
+
+import java.io.ObjectStreamConstants;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.LongConsumer;
+
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+
+import xyz.hotchpotch.jutaime.internal.Workers;
+import xyz.hotchpotch.jutaime.serializable.STUtil;
+import xyz.hotchpotch.jutaime.serializable.SerializationSession;
+import xyz.hotchpotch.jutaime.throwable.Testee;
+
+/**
+ * シード・オブジェクトのシリアライズ形式を変異させたバイト列を多数生成し、それらのデシリアライズ結果を検査するファジング・エンジンです。<br>
+ * 次の例のように、デシリアライズ結果を表す {@link Testee} に対する {@code Matcher} を指定して実行します。<br>
+ * <pre>
+ *     MutationFuzzer.Report report = MutationFuzzer.of(seed)
+ *             .cases(1_000_000)
+ *             .run(anyOf(raiseNothing(), raise(FailToDeserializeException.class)));
+ *     assertThat(report.toString(), report.failureCount(), is(0L));
+ * </pre>
+ * <br>
+ * 各ケースでは {@link Mutation} のいずれかひとつの変異を加えます。
+ * ハンドルの破壊と長さ接頭辞の増大は、シードのバイト列を {@link SerialStream} として構文解析して得られた位置に対して行われます。<br>
+ * ケースは全てのプロセッサ（または {@link #threads(int)} で指定された数のスレッド）で並列に実行されます。
+ * 各ワーカー・スレッドはシードの複製をひとつだけ保持し、変異はその複製上で直接行い、デシリアライズの後に元に戻します。
+ * デシリアライズには各スレッドの {@link SerializationSession} を用い、変異したバイト列の複製は作成しません。<br>
+ * <br>
+ * 各ケースの変異は、乱数の種とケース番号のみから決定されます。
+ * このため、スレッド数やスケジューリングによらず同じバイト列が検査され、{@link #mutate(long)} によって任意のケースの入力を再現できます。
+ * デシリアライズの結果も、メモリ不足などの実行環境に依存する失敗が生じない限り、スレッド数によらず同じとなります。<br>
+ * <br>
+ * 既定では、配列の要素数を {@code 65536} を超えて増やす変異は加えません。
+ * すなわち、{@link Mutation#LENGTH_INFLATION} による増分は {@code 65536} 以下に制限され、
+ * {@link Mutation#BIT_FLIP} と {@link Mutation#BYTE_SUBSTITUTION} は配列の要素数の上位 2 バイトを対象としません。
+ * 巨大な配列の割り当てによる {@link OutOfMemoryError} は JDK の挙動でありシードの不具合ではないため、
+ * 冒頭の例のような {@code Matcher} で検査する場合に誤って不合格となることを避けるためです。
+ * 巨大な長さによる変異は {@link #hugeLengths(boolean)} で有効にできます。<br>
+ * ただし、{@code readObject} メソッドが読み込んだ値に基づいて行うメモリ割り当て（例えば {@link java.util.ArrayList} の
+ * {@code size} フィールドに基づく内部配列）は制限の対象となりません。<br>
+ * <br>
+ * このクラスのインスタンスは不変であり、スレッドセーフです。<br>
+ * 
+ * @since 1.5.0
+ * @author nmby
+ */
+public final class MutationFuzzer {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /**
+     * シリアライズ形式に加える変異の種類です。<br>
+     * 
+     * @since 1.5.0
+     * @author nmby
+     */
+    public enum Mutation {
+        
+        /** 任意の位置の1ビットを反転させます。 */
+        BIT_FLIP,
+        
+        /** 任意の位置の1バイトを別の値に置き換えます。 */
+        BYTE_SUBSTITUTION,
+        
+        /** バイト列を任意の長さに切り詰めます。 */
+        TRUNCATION,
+        
+        /** 参照（{@link ObjectStreamConstants#TC_REFERENCE}）のハンドルを、別の既存のハンドル、未割り当てのハンドル、または任意の値に置き換えます。 */
+        HANDLE_CORRUPTION,
+        
+        /** 文字列、ブロックデータ、配列の長さ接頭辞を、元の値より大きな値に置き換えます。 */
+        LENGTH_INFLATION;
+    }
+    
+    /**
+     * 検査に合格しなかったケースを表します。<br>
+     * 
+     * @since 1.5.0
+     * @author nmby
+     */
+    public static final class Failure {
+        
+        private final long caseNumber;
+        private final String mutation;
+        private final byte[] bytes;
+        private final Testee<?> testee;
+        private final String mismatch;
+        
+        private Failure(long caseNumber, String mutation, byte[] bytes, Testee<?> testee, String mismatch) {
+            this.caseNumber = caseNumber;
+            this.mutation = mutation;
+            this.bytes = bytes;
+            this.testee = testee;
+            this.mismatch = mismatch;
+        }
+        
+        /**
+         * ケース番号を返します。<br>
+         * 
+         * @return ケース番号
+         */
+        public long caseNumber() {
+            return caseNumber;
+        }
+        
+        /**
+         * 加えられた変異の説明を返します。<br>
+         * 
+         * @return 変異の説明（例：{@code "BIT_FLIP at 0x0012 (bit 3)"}）
+         */
+        public String mutation() {
+            return mutation;
+        }
+        
+        /**
+         * デシリアライズされたバイト列の複製を返します。<br>
+         * 
+         * @return 変異したバイト列の複製
+         */
+        public byte[] bytes() {
+            return bytes.clone();
+        }
+        
+        /**
+         * デシリアライズ結果を表す、実行済みの {@link Testee} を返します。<br>
+         * 
+         * @return 実行済みの {@code Testee}
+         */
+        public Testee<?> testee() {
+            return testee;
+        }
+        
+        /**
+         * 次の形式の文字列を返します。
+         * <pre>    "case 123: BIT_FLIP at 0x0012 (bit 3): <i>不一致の説明</i>"</pre>
+         * 
+         * @return 文字列表現
+         */
+        @Override
+        public String toString() {
+            return String.format("case %d: %s: %s", caseNumber, mutation, mismatch);
+        }
+    }
+    
+    /**
+     * ファジングの実行結果です。<br>
+     * 
+     * @since 1.5.0
+     * @author nmby
+     */
+    public static final class Report {
+        
+        private final long cases;
+        private final long failureCount;
+        private final List<Failure> failures;
+        private final Duration elapsedTime;
+        
+        private Report(long cases, long failureCount, List<Failure> failures, Duration elapsedTime) {
+            this.cases = cases;
+            this.failureCount = failureCount;
+            this.failures = failures;
+            this.elapsedTime = elapsedTime;
+        }
+        
+        /**
+         * 実行したケースの数を返します。<br>
+         * 
+         * @return ケースの数
+         */
+        public long cases() {
+            return cases;
+        }
+        
+        /**
+         * 検査に合格しなかったケースの数を返します。<br>
+         * 
+         * @return 不合格のケースの数
+         */
+        public long failureCount() {
+            return failureCount;
+        }
+        
+        /**
+         * 検査に合格しなかったケースのうち、ケース番号の小さいものから最大 {@link MutationFuzzer#maxFailures(int)} 件を返します。<br>
+         * 
+         * @return 不合格のケースのケース番号順の変更不可能なリスト
+         */
+        public List<Failure> failures() {
+            return failures;
+        }
+        
+        /**
+         * 全てのケースの実行に要した経過時間を返します。<br>
+         * 
+         * @return 経過時間
+         */
+        public Duration elapsedTime() {
+            return elapsedTime;
+        }
+        
+        /**
+         * 全てのケースが検査に合格したかを返します。<br>
+         * 
+         * @return 全てのケースが合格した場合は {@code true}
+         */
+        public boolean isSuccessful() {
+            return failureCount == 0;
+        }
+        
+        /**
+         * 次の形式の文字列を返します。不合格のケースは1行にひとつずつ続けて出力されます。
+         * <pre>    "1000000 cases, 2 failed in PT4.5S"</pre>
+         * 
+         * @return 文字列表現
+         */
+        @Override
+        public String toString() {
+            StringBuilder str = new StringBuilder();
+            str.append(String.format("%d cases, %d failed in %s", cases, failureCount, elapsedTime));
+            for (Failure failure : failures) {
+                str.append('\n').append(failure);
+            }
+            return str.toString();
+        }
+    }
+    
+    /** ワーカー・スレッドが一度に取得するケースの数 */
+    private static final int CHUNK = 256;
+    
+    private static final Mutation[] NO_MUTATIONS = {};
+    
+    private static final int[] NO_SITES = {};
+    
+    /** 巨大な長さによる変異を行わない場合の、{@link Mutation#LENGTH_INFLATION} による増分の上限 */
+    private static final int MAX_INFLATION = 1 << 16;
+    
+    /**
+     * シード・オブジェクトから {@code MutationFuzzer} を作成します。<br>
+     * シード・オブジェクトは {@link STUtil#write(Object)} によってシリアライズされます。<br>
+     * 
+     * @param seed シード・オブジェクト
+     * @return 新たな {@code MutationFuzzer}
+     * @throws xyz.hotchpotch.jutaime.serializable.FailToSerializeException シリアライズに失敗した場合
+     */
+    public static MutationFuzzer of(Object seed) {
+        return new MutationFuzzer(STUtil.write(seed));
+    }
+    
+    /**
+     * シリアライズ形式のバイト列から {@code MutationFuzzer} を作成します。<br>
+     * 
+     * @param bytes シード・オブジェクトのシリアライズ形式
+     * @return 新たな {@code MutationFuzzer}
+     * @throws NullPointerException {@code bytes} が {@code null} の場合
+     * @throws MalformedStreamException {@code bytes} が直列化ストリームの文法に従っていない場合
+     */
+    public static MutationFuzzer ofSerialized(byte[] bytes) {
+        Objects.requireNonNull(bytes);
+        return new MutationFuzzer(bytes.clone());
+    }
+    
+    /**
+     * 64ビット値を撹拌します（SplitMix64 の最終段）。<br>
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+    
+    /**
+     * {@code 0} 以上 {@code bound} 未満の値を返します。<br>
+     */
+    private static int below(long random, int bound) {
+        assert 0 < bound;
+        return (int) ((random >>> 33) % bound);
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final byte[] seed;
+    
+    // 参照のハンドルの位置
+    private final int[] handleSites;
+    
+    // 長さ接頭辞の位置と幅（バイト数）。幅が負の場合は符号なしの値を表す。
+    private final int[] lengthSites;
+    private final int[] lengthWidths;
+    
+    // 配列の要素数の上位 2 バイトの位置（昇順）
+    private final int[] arraySizeHighBytes;
+    
+    // ストリーム内で割り当てられたハンドルの数
+    private final int handles;
+    
+    private final Mutation[] mutations;
+    private final long cases;
+    private final int threads;
+    private final long randomSeed;
+    private final int maxFailures;
+    private final boolean hugeLengths;
+    
+    private MutationFuzzer(byte[] seed) {
+        assert seed != null;
+        
+        this.seed = seed;
+        
+        List<Content> contents = new ArrayList<>();
+        SerialStream.parse(seed).walk(contents::add);
+        
+        List<int[]> lengths = new ArrayList<>();
+        List<Integer> arraySizes = new ArrayList<>();
+        int[] refs = new int[8];
+        int refCount = 0;
+        int handleCount = 0;
+        for (Content content : contents) {
+            if (content instanceof HandledContent) {
+                handleCount = Math.max(handleCount, ((HandledContent) content).handle() - ObjectStreamConstants.baseWireHandle + 1);
+            }
+            if (content instanceof ReferenceContent) {
+                if (refCount == refs.length) {
+                    refs = Arrays.copyOf(refs, refCount * 2);
+                }
+                refs[refCount++] = content.offset() + 1;
+            
+            } else if (content instanceof StringContent) {
+                StringContent str = (StringContent) content;
+                lengths.add(str.tag() == ObjectStreamConstants.TC_STRING
+                        ? new int[] { str.utfOffset() - 2, -2 }
+                        : new int[] { str.utfOffset() - 8, 8 });
+            
+            } else if (content instanceof BlockDataContent) {
+                BlockDataContent block = (BlockDataContent) content;
+                lengths.add(block.tag() == ObjectStreamConstants.TC_BLOCKDATA
+                        ? new int[] { block.dataOffset() - 1, -1 }
+                        : new int[] { block.dataOffset() - 4, 4 });
+            
+            } else if (content instanceof ArrayContent) {
+                int pos = ((ArrayContent) content).dataOffset() - 4;
+                lengths.add(new int[] { pos, 4 });
+                arraySizes.add(pos);
+            }
+        }
+        
+        handleSites = Arrays.copyOf(refs, refCount);
+        lengthSites = new int[lengths.size()];
+        lengthWidths = new int[lengths.size()];
+        for (int i = 0; i < lengths.size(); i++) {
+            lengthSites[i] = lengths.get(i)[0];
+            lengthWidths[i] = lengths.get(i)[1];
+        }
+        arraySizeHighBytes = new int[arraySizes.size() * 2];
+        for (int i = 0; i < arraySizes.size(); i++) {
+            arraySizeHighBytes[i * 2] = arraySizes.get(i);
+            arraySizeHighBytes[i * 2 + 1] = arraySizes.get(i) + 1;
+        }
+        Arrays.sort(arraySizeHighBytes);
+        handles = handleCount;
+        
+        mutations = Mutation.values();
+        cases = 100_000;
+        threads = Runtime.getRuntime().availableProcessors();
+        randomSeed = 0;
+        maxFailures = 10;
+        hugeLengths = false;
+    }
+    
+    private MutationFuzzer(MutationFuzzer base, Mutation[] mutations, long cases, int threads, long randomSeed,
+            int maxFailures, boolean hugeLengths) {
+        seed = base.seed;
+        handleSites = base.handleSites;
+        lengthSites = base.lengthSites;
+        lengthWidths = base.lengthWidths;
+        arraySizeHighBytes = base.arraySizeHighBytes;
+        handles = base.handles;
+        
+        this.mutations = mutations;
+        this.cases = cases;
+        this.threads = threads;
+        this.randomSeed = randomSeed;
+        this.maxFailures = maxFailures;
+        this.hugeLengths = hugeLengths;
+    }
+    
+    /**
+     * 加える変異の種類を指定した新たな {@code MutationFuzzer} を返します。
+     * 既定では全ての種類の変異を加えます。<br>
+     * シードに該当する位置が存在しない種類（例えば参照を含まないシードに対する {@link Mutation#HANDLE_CORRUPTION}）は無視されます。<br>
+     * 
+     * @param first 変異の種類
+     * @param rest 変異の種類
+     * @return 新たな {@code MutationFuzzer}
+     * @throws NullPointerException {@code first}、{@code rest} のいずれか、または {@code rest} の要素が {@code null} の場合
+     */
+    public MutationFuzzer mutations(Mutation first, Mutation... rest) {
+        Set<Mutation> set = EnumSet.of(first, rest);
+        return new MutationFuzzer(this, set.toArray(NO_MUTATIONS), cases, threads, randomSeed, maxFailures, hugeLengths);
+    }
+    
+    /**
+     * 実行するケースの数を指定した新たな {@code MutationFuzzer} を返します。既定値は {@code 100000} です。<br>
+     * 
+     * @param cases ケースの数
+     * @return 新たな {@code MutationFuzzer}
+     * @throws IllegalArgumentException {@code cases} が負の場合
+     */
+    public MutationFuzzer cases(long cases) {
+        if (cases < 0) {
+            throw new IllegalArgumentException(String.valueOf(cases));
+        }
+        return new MutationFuzzer(this, mutations, cases, threads, randomSeed, maxFailures, hugeLengths);
+    }
+    
+    /**
+     * ケースを実行するスレッドの数を指定した新たな {@code MutationFuzzer} を返します。既定値は利用可能なプロセッサの数です。<br>
+     * 
+     * @param threads スレッドの数
+     * @return 新たな {@code MutationFuzzer}
+     * @throws IllegalArgumentException {@code threads} が {@code 1} 未満の場合
+     */
+    public MutationFuzzer threads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException(String.valueOf(threads));
+        }
+        return new MutationFuzzer(this, mutations, cases, threads, randomSeed, maxFailures, hugeLengths);
+    }
+    
+    /**
+     * 変異を決定する乱数の種を指定した新たな {@code MutationFuzzer} を返します。既定値は {@code 0} です。<br>
+     * 
+     * @param randomSeed 乱数の種
+     * @return 新たな {@code MutationFuzzer}
+     */
+    public MutationFuzzer randomSeed(long randomSeed) {
+        return new MutationFuzzer(this, mutations, cases, threads, randomSeed, maxFailures, hugeLengths);
+    }
+    
+    /**
+     * {@link Report#failures()} に保持する不合格のケースの最大数を指定した新たな {@code MutationFuzzer} を返します。既定値は {@code 10} です。<br>
+     * 
+     * @param maxFailures 保持する不合格のケースの最大数
+     * @return 新たな {@code MutationFuzzer}
+     * @throws IllegalArgumentException {@code maxFailures} が負の場合
+     */
+    public MutationFuzzer maxFailures(int maxFailures) {
+        if (maxFailures < 0) {
+            throw new IllegalArgumentException(String.valueOf(maxFailures));
+        }
+        return new MutationFuzzer(this, mutations, cases, threads, randomSeed, maxFailures, hugeLengths);
+    }
+    
+    /**
+     * 配列の要素数を巨大な値にする変異を加えるかを指定した新たな {@code MutationFuzzer} を返します。既定値は {@code false} です。<br>
+     * {@code true} を指定した場合、{@link Mutation#LENGTH_INFLATION} は長さ接頭辞を取り得る最大の値に置き換えることがあり、
+     * {@link Mutation#BIT_FLIP} と {@link Mutation#BYTE_SUBSTITUTION} は配列の要素数の全てのバイトを対象とします。
+     * このため、デシリアライズ時に {@link OutOfMemoryError} が発生することがあり、
+     * 利用可能なメモリが並列に実行されるケースの間で競合するため、その発生はスレッド数やスケジューリングに依存します。<br>
+     * 
+     * @param hugeLengths 巨大な長さによる変異を加える場合は {@code true}
+     * @return 新たな {@code MutationFuzzer}
+     */
+    public MutationFuzzer hugeLengths(boolean hugeLengths) {
+        return new MutationFuzzer(this, mutations, cases, threads, randomSeed, maxFailures, hugeLengths);
+    }
+    
+    /**
+     * 指定されたケースで用いられる、変異したバイト列を返します。<br>
+     * 
+     * @param caseNumber ケース番号
+     * @return 変異したバイト列
+     * @throws IllegalArgumentException {@code caseNumber} が負の場合
+     */
+    public byte[] mutate(long caseNumber) {
+        if (caseNumber < 0) {
+            throw new IllegalArgumentException(String.valueOf(caseNumber));
+        }
+        byte[] buf = seed.clone();
+        int length = mutate(caseNumber, buf, null);
+        return Arrays.copyOf(buf, length);
+    }
+    
+    /**
+     * 全てのケースを並列に実行し、各ケースのデシリアライズ結果を {@code matcher} で検査します。<br>
+     * 各ケースのデシリアライズは、変異したバイト列を {@link SerializationSession#read(byte[], int, int)} で読み込む
+     * {@link Testee} として表され、{@code matcher} の評価時に実行されます。<br>
+     * {@code matcher} が例外またはエラーをスローした場合は、残りのケースの実行を中止し、その例外またはエラーをスローします。<br>
+     * 
+     * @param matcher デシリアライズ結果を検査する {@code Matcher}
+     * @return 実行結果
+     * @throws NullPointerException {@code matcher} が {@code null} の場合
+     */
+    public Report run(Matcher<? super Testee<?>> matcher) {
+        Objects.requireNonNull(matcher);
+        
+        long start = System.nanoTime();
+        List<Worker> workers = Workers.forEachCase("fuzzer", threads, cases, CHUNK, () -> new Worker(matcher));
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        
+        long failureCount = 0;
+        List<List<Failure>> failureLists = new ArrayList<>();
+        for (Worker worker : workers) {
+            failureCount += worker.failureCount;
+            failureLists.add(worker.failures);
+        }
+        List<Failure> failures = Workers.merge(failureLists, (f1, f2) -> Long.compare(f1.caseNumber, f2.caseNumber), maxFailures);
+        return new Report(cases, failureCount, failures, elapsed);
+    }
+    
+    /**
+     * ケースの変異を {@code buf} に加え、デシリアライズするバイト数を返します。<br>
+     * {@code buf} はシードと同じ内容でなければなりません。変異した範囲は {@link #restore(byte[], long)} によって元に戻すことができます。<br>
+     * 
+     * @param caseNumber ケース番号
+     * @param buf シードと同じ内容のバッファ
+     * @param description 変異の説明の追記先（不要な場合は {@code null}）
+     * @return デシリアライズするバイト数
+     */
+    private int mutate(long caseNumber, byte[] buf, StringBuilder description) {
+        long r1 = mix(randomSeed + caseNumber * 0x9e3779b97f4a7c15L);
+        long r2 = mix(r1 + 0x9e3779b97f4a7c15L);
+        long r3 = mix(r2 + 0x9e3779b97f4a7c15L);
+        Mutation mutation = mutationOf(r1);
+        if (mutation == null || seed.length == 0) {
+            return seed.length;
+        }
+        
+        switch (mutation) {
+        case BIT_FLIP: {
+            int pos = position(r2);
+            int bit = below(r3, 8);
+            buf[pos] ^= 1 << bit;
+            if (description != null) {
+                description.append(String.format("%s at 0x%04x (bit %d)", mutation, pos, bit));
+            }
+            return seed.length;
+        }
+        case BYTE_SUBSTITUTION: {
+            int pos = position(r2);
+            buf[pos] ^= 1 + below(r3, 255);
+            if (description != null) {
+                description.append(String.format("%s at 0x%04x (%02x -> %02x)", mutation, pos, seed[pos], buf[pos]));
+            }
+            return seed.length;
+        }
+        case TRUNCATION: {
+            int length = below(r2, seed.length);
+            if (description != null) {
+                description.append(String.format("%s to %d bytes", mutation, length));
+            }
+            return length;
+        }
+        case HANDLE_CORRUPTION: {
+            int pos = handleSites[below(r2, handleSites.length)];
+            int handle;
+            switch (below(r3, 3)) {
+            case 0:
+                handle = ObjectStreamConstants.baseWireHandle + below(mix(r3), handles);
+                break;
+            case 1:
+                handle = ObjectStreamConstants.baseWireHandle + handles + below(mix(r3), 16);
+                break;
+            default:
+                handle = (int) mix(r3);
+                break;
+            }
+            putInt(buf, pos, handle);
+            if (description != null) {
+                description.append(String.format("%s at 0x%04x (-> 0x%08x)", mutation, pos, handle));
+            }
+            return seed.length;
+        }
+        case LENGTH_INFLATION: {
+            int site = below(r2, lengthSites.length);
+            int pos = lengthSites[site];
+            int width = lengthWidths[site];
+            long original = getLength(seed, pos, width);
+            long max = width < 0 ? (1L << (-width * 8)) - 1 : width == 4 ? Integer.MAX_VALUE : Long.MAX_VALUE;
+            long inflated;
+            switch (below(r3, 3)) {
+            case 0:
+                inflated = original + 1;
+                break;
+            case 1:
+                inflated = original + 1 + below(mix(r3), 256);
+                break;
+            default:
+                inflated = hugeLengths ? max : original + 1 + below(mix(r3), MAX_INFLATION);
+                break;
+            }
+            inflated = Math.min(inflated, max);
+            putLength(buf, pos, width, inflated);
+            if (description != null) {
+                description.append(String.format("%s at 0x%04x (%d -> %d)", mutation, pos, original, inflated));
+            }
+            return seed.length;
+        }
+        default:
+            throw new AssertionError(mutation);
+        }
+    }
+    
+    /**
+     * 乱数値から変異の種類を選択します。シードに該当する位置が存在しない種類は除外します。<br>
+     * 
+     * @return 変異の種類（選択可能な種類がない場合は {@code null}）
+     */
+    private Mutation mutationOf(long random) {
+        int available = 0;
+        for (Mutation mutation : mutations) {
+            if (isApplicable(mutation)) {
+                available++;
+            }
+        }
+        if (available == 0) {
+            return null;
+        }
+        int n = below(random, available);
+        for (Mutation mutation : mutations) {
+            if (isApplicable(mutation) && n-- == 0) {
+                return mutation;
+            }
+        }
+        throw new AssertionError();
+    }
+    
+    /**
+     * 乱数値から {@link Mutation#BIT_FLIP} と {@link Mutation#BYTE_SUBSTITUTION} の対象位置を選択します。
+     * 巨大な長さによる変異を加えない場合は、配列の要素数の上位 2 バイトを除外します。<br>
+     */
+    private int position(long random) {
+        int[] excluded = hugeLengths ? NO_SITES : arraySizeHighBytes;
+        int pos = below(random, seed.length - excluded.length);
+        
+        // 除外する位置は昇順に並んでいるため、選択した位置以下のものの数だけずらせばよい。
+        for (int e : excluded) {
+            if (pos < e) {
+                break;
+            }
+            pos++;
+        }
+        return pos;
+    }
+    
+    private boolean isApplicable(Mutation mutation) {
+        switch (mutation) {
+        case HANDLE_CORRUPTION:
+            return 0 < handleSites.length;
+        case LENGTH_INFLATION:
+            return 0 < lengthSites.length;
+        default:
+            return true;
+        }
+    }
+    
+    /**
+     * {@link #mutate(long, byte[], StringBuilder)} によって変異した範囲を、シードの内容に戻します。<br>
+     */
+    private void restore(byte[] buf, long caseNumber) {
+        long r1 = mix(randomSeed + caseNumber * 0x9e3779b97f4a7c15L);
+        long r2 = mix(r1 + 0x9e3779b97f4a7c15L);
+        Mutation mutation = mutationOf(r1);
+        if (mutation == null || seed.length == 0) {
+            return;
+        }
+        
+        switch (mutation) {
+        case BIT_FLIP:
+        case BYTE_SUBSTITUTION: {
+            int pos = position(r2);
+            buf[pos] = seed[pos];
+            return;
+        }
+        case HANDLE_CORRUPTION: {
+            int pos = handleSites[below(r2, handleSites.length)];
+            System.arraycopy(seed, pos, buf, pos, 4);
+            return;
+        }
+        case LENGTH_INFLATION: {
+            int site = below(r2, lengthSites.length);
+            System.arraycopy(seed, lengthSites[site], buf, lengthSites[site], Math.abs(lengthWidths[site]));
+            return;
+        }
+        default:
+            return;
+        }
+    }
+    
+    private static void putInt(byte[] buf, int pos, int value) {
+        buf[pos] = (byte) (value >>> 24);
+        buf[pos + 1] = (byte) (value >>> 16);
+        buf[pos + 2] = (byte) (value >>> 8);
+        buf[pos + 3] = (byte) value;
+    }
+    
+    private static long getLength(byte[] buf, int pos, int width) {
+        int n = Math.abs(width);
+        long value = 0;
+        for (int i = 0; i < n; i++) {
+            value = (value << 8) | (buf[pos + i] & 0xff);
+        }
+        return width == 4 ? (int) value : value;
+    }
+    
+    private static void putLength(byte[] buf, int pos, int width, long value) {
+        int n = Math.abs(width);
+        for (int i = 0; i < n; i++) {
+            buf[pos + i] = (byte) (value >>> ((n - 1 - i) * 8));
+        }
+    }
+    
+    /**
+     * ひとつのワーカー・スレッドでケースを実行する処理です。<br>
+     * ワーカー・スレッド上で作成され、シードの複製をひとつだけ保持し、各ケースの変異をその上で直接加えて元に戻します。<br>
+     */
+    private class Worker implements LongConsumer {
+        
+        private final Matcher<? super Testee<?>> matcher;
+        private final byte[] buf = seed.clone();
+        private final SerializationSession session = SerializationSession.current();
+        
+        // 以下はワーカー・スレッドのみが書き込み、スレッドの終了後に読み込まれる。
+        private long failureCount;
+        private final List<Failure> failures = new ArrayList<>();
+        
+        private Worker(Matcher<? super Testee<?>> matcher) {
+            this.matcher = matcher;
+        }
+        
+        @Override
+        public void accept(long caseNumber) {
+            int length = mutate(caseNumber, buf, null);
+            Testee<Object> testee = Testee.of(() -> session.read(buf, 0, length));
+            boolean matched = matcher.matches(testee);
+            if (!matched) {
+                fail(caseNumber, buf, length, testee);
+            }
+            restore(buf, caseNumber);
+        }
+        
+        private void fail(long caseNumber, byte[] buf, int length, Testee<?> testee) {
+            failureCount++;
+            
+            // 保持する不合格は、このワーカーの中でケース番号の小さいものに限る。ケース番号は昇順に処理される。
+            if (failures.size() < maxFailures) {
+                StringBuilder description = new StringBuilder();
+                byte[] bytes = seed.clone();
+                mutate(caseNumber, bytes, description);
+                StringDescription mismatch = new StringDescription();
+                matcher.describeMismatch(testee, mismatch);
+                failures.add(new Failure(caseNumber, description.toString(), Arrays.copyOf(bytes, length), testee, mismatch.toString()));
+            }
+        }
+    }
+}
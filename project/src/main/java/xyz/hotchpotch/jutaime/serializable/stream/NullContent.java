@@ -0,0 +1,21 @@
+package xyz.hotchpotch.jutaime.serializable.stream;
+
+import java.io.ObjectStreamConstants;
+
+/**
+ * {@code null} 参照（{@link ObjectStreamConstants#TC_NULL}）を表すノードです。<br>
+ * 
+ * @since 1.5.0
+ * @author nmby
+ */
+public final class NullContent extends Content {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /*package*/ NullContent(int offset) {
+        super(ObjectStreamConstants.TC_NULL, offset);
+        end(offset + 1);
+    }
+}
@@ -0,0 +1,108 @@
+package xyz.hotchpotch.jutaime.serializable.stream;
+
+import java.io.ObjectStreamConstants;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * オブジェクト（{@link ObjectStreamConstants#TC_OBJECT}）を表すノードです。<br>
+ * クラスデータは、最上位のスーパークラスから順に保持されます。<br>
+ * 
+ * @since 1.5.0
+ * @author nmby
+ */
+public final class ObjectContent extends HandledContent {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final Content classDescContent;
+    private List<ClassData> classData;
+    
+    /*package*/ ObjectContent(int offset, Content classDescContent, int handle) {
+        super(ObjectStreamConstants.TC_OBJECT, offset, handle);
+        assert classDescContent != null;
+        this.classDescContent = classDescContent;
+    }
+    
+    /*package*/ void classData(List<ClassData> classData) {
+        this.classData = Collections.unmodifiableList(classData);
+    }
+    
+    /**
+     * このオブジェクトのクラス記述子を表す要素（{@link ClassDescContent} または {@link ReferenceContent}）を返します。<br>
+     * 
+     * @return クラス記述子を表す要素
+     */
+    public Content classDescContent() {
+        return classDescContent;
+    }
+    
+    /**
+     * このオブジェクトのクラス記述子を返します。参照は解決されます。<br>
+     * 
+     * @return クラス記述子
+     */
+    public ClassDescContent classDesc() {
+        return ClassDescContent.resolve(classDescContent);
+    }
+    
+    /**
+     * クラスデータを、最上位のスーパークラスから順に返します。<br>
+     * 
+     * @return クラスデータの変更不能なリスト
+     */
+    public List<ClassData> classData() {
+        return classData;
+    }
+    
+    /**
+     * 指定されたクラスのクラスデータを返します。<br>
+     * 
+     * @param className クラス名
+     * @return クラスデータ（存在しない場合は {@code null}）
+     */
+    public ClassData classData(String className) {
+        for (ClassData data : classData) {
+            if (className.equals(data.classDesc().name())) {
+                return data;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * 指定された名前のフィールドの値を返します。<br>
+     * 同名のフィールドが複数のクラスに存在する場合は、最も下位のクラスのフィールドの値を返します。<br>
+     * 
+     * @param fieldName フィールド名
+     * @return フィールドの値（存在しない場合は {@code null}）
+     */
+    public FieldValue value(String fieldName) {
+        for (int i = classData.size() - 1; 0 <= i; i--) {
+            FieldValue value = classData.get(i).value(fieldName);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+    
+    @Override
+    public List<Content> children() {
+        List<Content> children = new ArrayList<>();
+        children.add(classDescContent);
+        for (ClassData data : classData) {
+            data.addChildrenTo(children);
+        }
+        return Collections.unmodifiableList(children);
+    }
+    
+    @Override
+    /*package*/ String summary() {
+        ClassDescContent desc = classDesc();
+        return String.format("%s %s", super.summary(), desc.isProxy() ? desc.interfaces() : desc.name());
+    }
+}
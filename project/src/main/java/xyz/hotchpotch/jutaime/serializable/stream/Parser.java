@@ -0,0 +1,479 @@
+package xyz.hotchpotch.jutaime.serializable.stream;
+
+import static java.io.ObjectStreamConstants.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * バイト配列を Java オブジェクト直列化ストリームの文法に従って一度だけ走査し、構文木を構築します。<br>
+ * 文字列データ、ブロックデータ、プリミティブ型の配列の要素は複製せず、位置のみを記録します。<br>
+ * <br>
+ * このクラスはスレッドセーフではありません。<br>
+ * 
+ * @since 1.5.0
+ * @author nmby
+ */
+/*package*/ final class Parser {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /**
+     * 修正 UTF-8 形式で符号化されたバイト列を復号します。<br>
+     * 
+     * @param bytes バイト配列
+     * @param offset 符号化された文字列の開始位置
+     * @param length 符号化された文字列のバイト数
+     * @return 復号された文字列
+     * @throws MalformedStreamException バイト列が修正 UTF-8 形式に従っていない場合
+     */
+    /*package*/ static String decodeUTF(byte[] bytes, int offset, int length) {
+        assert bytes != null;
+        assert 0 <= offset && 0 <= length && offset + length <= bytes.length;
+        
+        char[] chars = new char[length];
+        int n = 0;
+        int i = offset;
+        int end = offset + length;
+        while (i < end) {
+            int c = bytes[i] & 0xff;
+            if (c < 0x80) {
+                chars[n++] = (char) c;
+                i++;
+            } else if ((c >> 5) == 0x06 && i + 1 < end && (bytes[i + 1] & 0xc0) == 0x80) {
+                chars[n++] = (char) (((c & 0x1f) << 6) | (bytes[i + 1] & 0x3f));
+                i += 2;
+            } else if ((c >> 4) == 0x0e && i + 2 < end
+                    && (bytes[i + 1] & 0xc0) == 0x80 && (bytes[i + 2] & 0xc0) == 0x80) {
+                chars[n++] = (char) (((c & 0x0f) << 12) | ((bytes[i + 1] & 0x3f) << 6) | (bytes[i + 2] & 0x3f));
+                i += 3;
+            } else {
+                throw new MalformedStreamException(i, "malformed modified UTF-8");
+            }
+        }
+        return new String(chars, 0, n);
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final byte[] bytes;
+    private final int limit;
+    private int pos;
+    private final List<HandledContent> handles = new ArrayList<>();
+    
+    // 要素の入れ子の深さの上限と、現在の深さ、これまでの最大の深さ
+    private final int maxDepth;
+    private int depth;
+    private int deepest;
+    
+    /**
+     * @param bytes 構文解析するバイト配列
+     * @param maxDepth 要素の入れ子の深さの上限。これを超えた時点で構文解析を中止します。
+     */
+    /*package*/ Parser(byte[] bytes, int maxDepth) {
+        assert bytes != null;
+        assert 0 < maxDepth;
+        this.bytes = bytes;
+        this.limit = bytes.length;
+        this.maxDepth = maxDepth;
+    }
+    
+    /**
+     * これまでに構文解析した要素の入れ子の最大の深さを返します。最上位の要素の深さを {@code 1} とします。<br>
+     * 
+     * @return 要素の入れ子の最大の深さ
+     */
+    /*package*/ int deepest() {
+        return deepest;
+    }
+    
+    /**
+     * 要素の入れ子の深さが上限を超えたために構文解析を中止したかを返します。<br>
+     * 
+     * @return 上限を超えた場合は {@code true}
+     */
+    /*package*/ boolean isTooDeep() {
+        return maxDepth < deepest;
+    }
+    
+    /*package*/ SerialStream parse() {
+        if (limit < 4 || readShort() != STREAM_MAGIC) {
+            throw new MalformedStreamException(0, "invalid stream header");
+        }
+        if (readShort() != STREAM_VERSION) {
+            throw new MalformedStreamException(2, "unsupported stream version");
+        }
+        List<Content> contents = new ArrayList<>();
+        while (pos < limit) {
+            contents.add(content(true));
+        }
+        return new SerialStream(bytes, contents);
+    }
+    
+    private Content content(boolean allowBlockData) {
+        depth++;
+        if (deepest < depth) {
+            deepest = depth;
+            if (maxDepth < depth) {
+                throw new MalformedStreamException(pos, "nesting too deep: " + depth);
+            }
+        }
+        try {
+            return element(allowBlockData);
+        } finally {
+            depth--;
+        }
+    }
+    
+    private Content element(boolean allowBlockData) {
+        int offset = pos;
+        byte tag = readByte();
+        switch (tag) {
+        case TC_NULL:
+            return new NullContent(offset);
+        
+        case TC_REFERENCE: {
+            int index = readInt() - baseWireHandle;
+            if (index < 0 || handles.size() <= index) {
+                throw new MalformedStreamException(offset + 1, "invalid handle");
+            }
+            return new ReferenceContent(offset, handles.get(index));
+        }
+        
+        case TC_STRING:
+            return string(offset, tag, readUnsignedShort());
+        
+        case TC_LONGSTRING: {
+            long length = readLong();
+            if (length < 0 || limit - pos < length) {
+                throw new MalformedStreamException(offset + 1, "invalid string length: " + length);
+            }
+            return string(offset, tag, (int) length);
+        }
+        
+        case TC_CLASSDESC:
+            return classDesc(offset);
+        
+        case TC_PROXYCLASSDESC:
+            return proxyClassDesc(offset);
+        
+        case TC_OBJECT:
+            return object(offset);
+        
+        case TC_ARRAY:
+            return array(offset);
+        
+        case TC_ENUM: {
+            Content descContent = classDescContent();
+            EnumContent content = register(new EnumContent(offset, descContent, nextHandle()));
+            content.constantNameContent(stringContent());
+            content.end(pos);
+            return content;
+        }
+        
+        case TC_CLASS: {
+            Content descContent = classDescContent();
+            return register(new ClassContent(offset, descContent, nextHandle()));
+        }
+        
+        case TC_BLOCKDATA:
+        case TC_BLOCKDATALONG: {
+            if (!allowBlockData) {
+                throw new MalformedStreamException(offset, "unexpected block data");
+            }
+            int length = tag == TC_BLOCKDATA ? readUnsignedByte() : readInt();
+            if (length < 0) {
+                throw new MalformedStreamException(offset + 1, "invalid block data length: " + length);
+            }
+            int dataOffset = pos;
+            skip(length);
+            return new BlockDataContent(tag, offset, dataOffset, length);
+        }
+        
+        case TC_RESET:
+            handles.clear();
+            return new ResetContent(offset);
+        
+        case TC_EXCEPTION: {
+            handles.clear();
+            Content exception = content(false);
+            handles.clear();
+            return new ExceptionContent(offset, exception);
+        }
+        
+        default:
+            throw new MalformedStreamException(offset, "unexpected type code: " + Content.nameOf(tag));
+        }
+    }
+    
+    private int nextHandle() {
+        return baseWireHandle + handles.size();
+    }
+    
+    private <T extends HandledContent> T register(T content) {
+        assert content.handle() == nextHandle();
+        handles.add(content);
+        return content;
+    }
+    
+    private StringContent string(int offset, byte tag, int length) {
+        ensure(length);
+        StringContent content = register(new StringContent(tag, offset, nextHandle(), bytes, pos, length));
+        pos += length;
+        return content;
+    }
+    
+    /**
+     * 文字列または文字列への参照を読み込みます。<br>
+     */
+    private Content stringContent() {
+        int offset = pos;
+        Content content = content(false);
+        Content target = content instanceof ReferenceContent ? ((ReferenceContent) content).target() : content;
+        if (!(target instanceof StringContent)) {
+            throw new MalformedStreamException(offset, "string expected but was " + Content.nameOf(target.tag()));
+        }
+        return content;
+    }
+    
+    /**
+     * クラス記述子、クラス記述子への参照、または {@code null} 参照を読み込みます。<br>
+     */
+    private Content classDescContent() {
+        byte tag = peek();
+        if (tag != TC_CLASSDESC && tag != TC_PROXYCLASSDESC && tag != TC_NULL && tag != TC_REFERENCE) {
+            throw new MalformedStreamException(pos, "class descriptor expected but was " + Content.nameOf(tag));
+        }
+        Content content = content(false);
+        ClassDescContent.resolve(content);
+        return content;
+    }
+    
+    private ClassDescContent classDesc(int offset) {
+        String name = readUTF();
+        long serialVersionUID = readLong();
+        ClassDescContent desc = register(new ClassDescContent(offset, nextHandle(), name, serialVersionUID));
+        
+        int flagsOffset = pos;
+        desc.flags(flagsOffset, readByte());
+        int count = readShort();
+        if (count < 0) {
+            throw new MalformedStreamException(flagsOffset + 1, "invalid field count: " + count);
+        }
+        List<FieldDesc> fields = new ArrayList<>(Math.min(count, limit - pos));
+        for (int i = 0; i < count; i++) {
+            int fieldOffset = pos;
+            char type = (char) readUnsignedByte();
+            if (FieldDesc.sizeOf(type) < 0) {
+                throw new MalformedStreamException(fieldOffset, "invalid field type code: " + type);
+            }
+            String fieldName = readUTF();
+            Content typeContent = FieldDesc.sizeOf(type) == 0 ? stringContent() : null;
+            fields.add(new FieldDesc(fieldOffset, pos, type, fieldName, typeContent));
+        }
+        desc.fields(fields);
+        desc.annotations(annotations());
+        superClassDesc(desc);
+        return desc;
+    }
+    
+    private ClassDescContent proxyClassDesc(int offset) {
+        int handle = nextHandle();
+        int count = readInt();
+        if (count < 0) {
+            throw new MalformedStreamException(offset + 1, "invalid interface count: " + count);
+        }
+        List<String> interfaces = new ArrayList<>(Math.min(count, limit - pos));
+        for (int i = 0; i < count; i++) {
+            interfaces.add(readUTF());
+        }
+        ClassDescContent desc = register(new ClassDescContent(offset, handle, interfaces));
+        desc.annotations(annotations());
+        superClassDesc(desc);
+        return desc;
+    }
+    
+    /**
+     * スーパークラスの記述子を読み込み、クラス記述子を完成させます。<br>
+     * スーパークラスの連鎖が循環していないことを確認します。<br>
+     */
+    private void superClassDesc(ClassDescContent desc) {
+        int offset = pos;
+        Content superClassDescContent = classDescContent();
+        for (ClassDescContent d = ClassDescContent.resolve(superClassDescContent); d != null; d = d.superClassDesc()) {
+            if (d == desc) {
+                throw new MalformedStreamException(offset, "circular class hierarchy");
+            }
+        }
+        desc.superClassDescContent(superClassDescContent);
+        desc.end(pos);
+    }
+    
+    /**
+     * {@code TC_ENDBLOCKDATA} で終わる要素の並び（クラス注釈またはオブジェクト注釈）を読み込みます。<br>
+     */
+    private List<Content> annotations() {
+        if (peek() == TC_ENDBLOCKDATA) {
+            pos++;
+            return Collections.emptyList();
+        }
+        List<Content> contents = new ArrayList<>();
+        while (peek() != TC_ENDBLOCKDATA) {
+            contents.add(content(true));
+        }
+        pos++;
+        return contents;
+    }
+    
+    private ObjectContent object(int offset) {
+        Content descContent = classDescContent();
+        ClassDescContent desc = ClassDescContent.resolve(descContent);
+        if (desc == null) {
+            throw new MalformedStreamException(offset + 1, "null class descriptor");
+        }
+        ObjectContent object = register(new ObjectContent(offset, descContent, nextHandle()));
+        
+        List<ClassDescContent> hierarchy = desc.hierarchy();
+        List<ClassData> classData = new ArrayList<>(hierarchy.size());
+        for (ClassDescContent d : hierarchy) {
+            classData.add(classData(d));
+        }
+        object.classData(classData);
+        object.end(pos);
+        return object;
+    }
+    
+    private ClassData classData(ClassDescContent desc) {
+        int offset = pos;
+        byte flags = desc.flags();
+        List<FieldValue> values = Collections.emptyList();
+        List<Content> annotations = Collections.emptyList();
+        
+        if ((flags & SC_EXTERNALIZABLE) != 0) {
+            if ((flags & SC_BLOCK_DATA) == 0) {
+                throw new MalformedStreamException(offset,
+                        "externalizable data written in stream protocol version 1 is not supported: " + desc.name());
+            }
+            annotations = annotations();
+            return new ClassData(desc, offset, values, offset, annotations, pos);
+        }
+        
+        if (!desc.fields().isEmpty()) {
+            values = new ArrayList<>(desc.fields().size());
+            for (FieldDesc field : desc.fields()) {
+                values.add(value(field));
+            }
+        }
+        int valuesEnd = pos;
+        if ((flags & SC_WRITE_METHOD) != 0) {
+            annotations = annotations();
+        }
+        return new ClassData(desc, offset, values, valuesEnd, annotations, pos);
+    }
+    
+    private FieldValue value(FieldDesc field) {
+        int offset = pos;
+        switch (FieldDesc.sizeOf(field.type())) {
+        case 0:
+            return new FieldValue(field, content(false));
+        case 1:
+            return new FieldValue(field, offset, readByte());
+        case 2:
+            return new FieldValue(field, offset, readUnsignedShort());
+        case 4:
+            return new FieldValue(field, offset, readInt());
+        case 8:
+            return new FieldValue(field, offset, readLong());
+        default:
+            throw new AssertionError(field);
+        }
+    }
+    
+    private ArrayContent array(int offset) {
+        Content descContent = classDescContent();
+        ClassDescContent desc = ClassDescContent.resolve(descContent);
+        String name = desc == null ? null : desc.name();
+        if (name == null || name.length() < 2 || name.charAt(0) != '[' || FieldDesc.sizeOf(name.charAt(1)) < 0) {
+            throw new MalformedStreamException(offset + 1, "invalid array class descriptor: " + name);
+        }
+        char componentType = name.charAt(1);
+        int handle = nextHandle();
+        int size = readInt();
+        if (size < 0) {
+            throw new MalformedStreamException(pos - 4, "invalid array size: " + size);
+        }
+        ArrayContent array = register(new ArrayContent(offset, descContent, handle, componentType, size, pos));
+        
+        int width = FieldDesc.sizeOf(componentType);
+        if (0 < width) {
+            skip((long) size * width);
+        } else {
+            List<Content> elements = new ArrayList<>(Math.min(size, limit - pos));
+            for (int i = 0; i < size; i++) {
+                elements.add(content(false));
+            }
+            array.elements(elements);
+        }
+        array.end(pos);
+        return array;
+    }
+    
+    private void ensure(long n) {
+        if (limit - pos < n) {
+            throw new MalformedStreamException(pos, "unexpected end of stream");
+        }
+    }
+    
+    private void skip(long n) {
+        ensure(n);
+        pos += (int) n;
+    }
+    
+    private byte peek() {
+        ensure(1);
+        return bytes[pos];
+    }
+    
+    private byte readByte() {
+        ensure(1);
+        return bytes[pos++];
+    }
+    
+    private int readUnsignedByte() {
+        return readByte() & 0xff;
+    }
+    
+    private short readShort() {
+        return (short) readUnsignedShort();
+    }
+    
+    private int readUnsignedShort() {
+        ensure(2);
+        int v = ((bytes[pos] & 0xff) << 8) | (bytes[pos + 1] & 0xff);
+        pos += 2;
+        return v;
+    }
+    
+    private int readInt() {
+        ensure(4);
+        int v = ((bytes[pos] & 0xff) << 24) | ((bytes[pos + 1] & 0xff) << 16)
+                | ((bytes[pos + 2] & 0xff) << 8) | (bytes[pos + 3] & 0xff);
+        pos += 4;
+        return v;
+    }
+    
+    private long readLong() {
+        long high = readInt() & 0xffffffffL;
+        long low = readInt() & 0xffffffffL;
+        return (high << 32) | low;
+    }
+    
+    private String readUTF() {
+        int length = readUnsignedShort();
+        ensure(length);
+        String s = decodeUTF(bytes, pos, length);
+        pos += length;
+        return s;
+    }
+}
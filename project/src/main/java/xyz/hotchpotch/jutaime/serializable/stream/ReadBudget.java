@@ -0,0 +1,546 @@
+package xyz.hotchpotch.jutaime.serializable.stream;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.ObjectInputStream;
+import java.io.StreamCorruptedException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import xyz.hotchpotch.jutaime.internal.Workers;
+import xyz.hotchpotch.jutaime.serializable.FailToDeserializeException;
+
+/**
+ * デシリアライズに費やすことのできる資源の上限を表し、その上限の範囲内でデシリアライズを行うクラスです。<br>
+ * 入れ子の深さ、参照の数、配列の要素数、バイト数、経過時間の上限を指定できます。
+ * 次の例のように、デシリアライズに要した資源の量を検査するテストに利用できます。<br>
+ * <pre>
+ *     ReadBudget.Result&lt;MyDto&gt; result = ReadBudget.unlimited().read(STUtil.write(dto));
+ *     assertThat(result.usage().references() &lt;= 20, is(true));
+ * 
+ *     assertThat(of(() -&gt; ReadBudget.unlimited().maxDepth(50).read(hostileBytes)),
+ *             raise(FailToDeserializeException.class).rootCause(BudgetExceededException.class));
+ * </pre>
+ * <br>
+ * デシリアライズに先立ち、バイト列全体を {@link SerialStream} と同じ構文解析器で走査し、
+ * 入れ子の深さ、参照の数、配列の要素数、バイト数を検査します。
+ * このため、上限を超えるストリームに対しては、クラスのロードやオブジェクトの生成を一切行わずに失敗します。
+ * 入れ子の深さの検査は、上限を超えた時点で走査を中止するため、極端に深いストリームでもスタックを使い果たすことはありません。
+ * 入れ子の深さが {@link SerialStream#DEFAULT_MAX_DEPTH} を超えるストリームは、
+ * その大きさに見合ったスタックを持つ専用のスレッドで走査し、デシリアライズします。
+ * 入れ子の深さの上限は、{@link #unlimited()} の場合も含めて {@link #MAX_SUPPORTED_DEPTH} までです。<br>
+ * 経過時間の上限が指定された場合は、デシリアライズを専用のスレッドで実行し、呼び出し元のスレッドが監視します。
+ * 上限を超えた場合、呼び出し元のスレッドは直ちに失敗し、デシリアライズを実行中のスレッドには割り込みを行います。
+ * デシリアライズを実行中のスレッドは、次にストリームを読み込む時点で中止されますが、
+ * {@code readObject} メソッドの中などでストリームを読み込まずに計算を続けている間は中止されません。<br>
+ * <br>
+ * 検査はストリームの構造に対して行われます。
+ * {@code readObject} メソッドがブロックデータから読み込んだ値に基づいて行う内部的なメモリ割り当て
+ * （例えば {@link java.util.HashMap} の内部配列）は、配列の要素数の検査の対象となりません。<br>
+ * <br>
+ * このクラスのインスタンスは不変であり、スレッドセーフです。<br>
+ * 
+ * @since 1.5.0
+ * @author nmby
+ */
+public final class ReadBudget {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /**
+     * デシリアライズに費やす資源の種類です。<br>
+     * 
+     * @since 1.5.0
+     * @author nmby
+     */
+    public enum Resource {
+        
+        /** ストリームの要素の入れ子の深さ。最上位の要素の深さを {@code 1} とします。 */
+        DEPTH,
+        
+        /** ハンドルが割り当てられる要素（オブジェクト、配列、文字列、クラス記述子など）と、それらへの参照の数の合計。 */
+        REFERENCES,
+        
+        /** 配列の要素数の最大値。 */
+        ARRAY_LENGTH,
+        
+        /** ストリームのバイト数。 */
+        BYTES,
+        
+        /** 経過時間。 */
+        TIME;
+    }
+    
+    /**
+     * デシリアライズに要した資源の量です。<br>
+     * 
+     * @since 1.5.0
+     * @author nmby
+     */
+    public static final class Usage {
+        private final int depth;
+        private final long references;
+        private final int maxArrayLength;
+        private final long bytes;
+        private final Duration elapsedTime;
+        
+        private Usage(int depth, long references, int maxArrayLength, long bytes, Duration elapsedTime) {
+            this.depth = depth;
+            this.references = references;
+            this.maxArrayLength = maxArrayLength;
+            this.bytes = bytes;
+            this.elapsedTime = elapsedTime;
+        }
+        
+        /**
+         * ストリームの要素の入れ子の最大の深さを返します。<br>
+         * 
+         * @return 入れ子の最大の深さ
+         * @see Resource#DEPTH
+         */
+        public int depth() {
+            return depth;
+        }
+        
+        /**
+         * ハンドルが割り当てられた要素と、それらへの参照の数の合計を返します。<br>
+         * 
+         * @return 参照の数
+         * @see Resource#REFERENCES
+         */
+        public long references() {
+            return references;
+        }
+        
+        /**
+         * 配列の要素数の最大値を返します。配列を含まない場合は {@code 0} を返します。<br>
+         * 
+         * @return 配列の要素数の最大値
+         * @see Resource#ARRAY_LENGTH
+         */
+        public int maxArrayLength() {
+            return maxArrayLength;
+        }
+        
+        /**
+         * ストリームのバイト数を返します。<br>
+         * 
+         * @return バイト数
+         * @see Resource#BYTES
+         */
+        public long bytes() {
+            return bytes;
+        }
+        
+        /**
+         * 走査とデシリアライズに要した経過時間を返します。<br>
+         * 
+         * @return 経過時間
+         * @see Resource#TIME
+         */
+        public Duration elapsedTime() {
+            return elapsedTime;
+        }
+        
+        /**
+         * 次の形式の文字列を返します。
+         * <pre>    "depth=3, references=12, maxArrayLength=0, bytes=187, elapsedTime=PT0.0012S"</pre>
+         * 
+         * @return 文字列表現
+         */
+        @Override
+        public String toString() {
+            return String.format("depth=%d, references=%d, maxArrayLength=%d, bytes=%d, elapsedTime=%s",
+                    depth, references, maxArrayLength, bytes, elapsedTime);
+        }
+    }
+    
+    /**
+     * デシリアライズの結果と、それに要した資源の量の組です。<br>
+     * 
+     * @param <T> デシリアライズされたオブジェクトの型
+     * @since 1.5.0
+     * @author nmby
+     */
+    public static final class Result<T> {
+        private final T value;
+        private final Usage usage;
+        
+        private Result(T value, Usage usage) {
+            this.value = value;
+            this.usage = usage;
+        }
+        
+        /**
+         * デシリアライズされたオブジェクトを返します。<br>
+         * 
+         * @return デシリアライズされたオブジェクト
+         */
+        public T value() {
+            return value;
+        }
+        
+        /**
+         * デシリアライズに要した資源の量を返します。<br>
+         * 
+         * @return 資源の量
+         */
+        public Usage usage() {
+            return usage;
+        }
+    }
+    
+    /**
+     * 経過時間の上限を超えた場合に読み込みを中止する入力ストリームです。<br>
+     */
+    private static class WatchedInputStream extends FilterInputStream {
+        private volatile boolean expired;
+        
+        private WatchedInputStream(byte[] bytes) {
+            super(new ByteArrayInputStream(bytes));
+        }
+        
+        private void check() throws InterruptedIOException {
+            if (expired) {
+                throw new InterruptedIOException("deserialization timed out");
+            }
+        }
+        
+        @Override
+        public int read() throws IOException {
+            check();
+            return super.read();
+        }
+        
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            check();
+            return super.read(b, off, len);
+        }
+        
+        @Override
+        public long skip(long n) throws IOException {
+            check();
+            return super.skip(n);
+        }
+    }
+    
+    /**
+     * {@link #maxDepth(int)} に指定できる、入れ子の深さの上限の最大値です。{@link #unlimited()} の入れ子の深さの上限でもあります。<br>
+     * 深いストリームの走査とデシリアライズには、深さに比例した大きさのスタックを持つスレッドを用いるため、その大きさを制限するものです。<br>
+     */
+    public static final int MAX_SUPPORTED_DEPTH = 100_000;
+    
+    /** 深いストリームを扱うスレッドに、入れ子の深さひとつあたりに確保するスタックのバイト数 */
+    private static final long STACK_PER_LEVEL = 4 * 1024;
+    
+    /** 深いストリームを扱うスレッドに、入れ子の深さによらず確保するスタックのバイト数 */
+    private static final long BASE_STACK = 1024 * 1024;
+    
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+    
+    private static final ReadBudget UNLIMITED = new ReadBudget(MAX_SUPPORTED_DEPTH, Long.MAX_VALUE, Integer.MAX_VALUE, Long.MAX_VALUE, null);
+    
+    /**
+     * 上限のない {@code ReadBudget} を返します。<br>
+     * 各資源の上限は、{@link #maxDepth(int)} などのメソッドにより指定します。
+     * 上限のない {@code ReadBudget} も、デシリアライズに要した資源の量の計測に利用できます。
+     * ただし、入れ子の深さは {@link #MAX_SUPPORTED_DEPTH} を上限として検査されます。<br>
+     * 
+     * @return 上限のない {@code ReadBudget}
+     */
+    public static ReadBudget unlimited() {
+        return UNLIMITED;
+    }
+    
+    private static long millis(Duration duration) {
+        return duration.toMillis() + (duration.toNanos() % 1_000_000 == 0 ? 0 : 1);
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final int maxDepth;
+    private final long maxReferences;
+    private final int maxArrayLength;
+    private final long maxBytes;
+    private final Duration maxTime;
+    
+    private ReadBudget(int maxDepth, long maxReferences, int maxArrayLength, long maxBytes, Duration maxTime) {
+        this.maxDepth = maxDepth;
+        this.maxReferences = maxReferences;
+        this.maxArrayLength = maxArrayLength;
+        this.maxBytes = maxBytes;
+        this.maxTime = maxTime;
+    }
+    
+    /**
+     * 要素の入れ子の深さの上限を指定した新たな {@code ReadBudget} を返します。<br>
+     * 
+     * @param maxDepth 入れ子の深さの上限
+     * @return 新たな {@code ReadBudget}
+     * @throws IllegalArgumentException {@code maxDepth} が {@code 1} 未満の場合、または {@link #MAX_SUPPORTED_DEPTH} を超える場合
+     * @see Resource#DEPTH
+     */
+    public ReadBudget maxDepth(int maxDepth) {
+        if (maxDepth < 1 || MAX_SUPPORTED_DEPTH < maxDepth) {
+            throw new IllegalArgumentException(String.valueOf(maxDepth));
+        }
+        return new ReadBudget(maxDepth, maxReferences, maxArrayLength, maxBytes, maxTime);
+    }
+    
+    /**
+     * 参照の数の上限を指定した新たな {@code ReadBudget} を返します。<br>
+     * 
+     * @param maxReferences 参照の数の上限
+     * @return 新たな {@code ReadBudget}
+     * @throws IllegalArgumentException {@code maxReferences} が負の場合
+     * @see Resource#REFERENCES
+     */
+    public ReadBudget maxReferences(long maxReferences) {
+        if (maxReferences < 0) {
+            throw new IllegalArgumentException(String.valueOf(maxReferences));
+        }
+        return new ReadBudget(maxDepth, maxReferences, maxArrayLength, maxBytes, maxTime);
+    }
+    
+    /**
+     * 配列の要素数の上限を指定した新たな {@code ReadBudget} を返します。<br>
+     * 
+     * @param maxArrayLength 配列の要素数の上限
+     * @return 新たな {@code ReadBudget}
+     * @throws IllegalArgumentException {@code maxArrayLength} が負の場合
+     * @see Resource#ARRAY_LENGTH
+     */
+    public ReadBudget maxArrayLength(int maxArrayLength) {
+        if (maxArrayLength < 0) {
+            throw new IllegalArgumentException(String.valueOf(maxArrayLength));
+        }
+        return new ReadBudget(maxDepth, maxReferences, maxArrayLength, maxBytes, maxTime);
+    }
+    
+    /**
+     * ストリームのバイト数の上限を指定した新たな {@code ReadBudget} を返します。<br>
+     * 
+     * @param maxBytes バイト数の上限
+     * @return 新たな {@code ReadBudget}
+     * @throws IllegalArgumentException {@code maxBytes} が負の場合
+     * @see Resource#BYTES
+     */
+    public ReadBudget maxBytes(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException(String.valueOf(maxBytes));
+        }
+        return new ReadBudget(maxDepth, maxReferences, maxArrayLength, maxBytes, maxTime);
+    }
+    
+    /**
+     * 経過時間の上限を指定した新たな {@code ReadBudget} を返します。<br>
+     * 上限を超えた場合に {@link BudgetExceededException#limit()} が返す値は、ミリ秒単位に切り上げた値となります。<br>
+     * 
+     * @param maxTime 経過時間の上限
+     * @return 新たな {@code ReadBudget}
+     * @throws NullPointerException {@code maxTime} が {@code null} の場合
+     * @throws IllegalArgumentException {@code maxTime} が正でない場合
+     * @see Resource#TIME
+     */
+    public ReadBudget maxTime(Duration maxTime) {
+        Objects.requireNonNull(maxTime);
+        if (maxTime.isNegative() || maxTime.isZero()) {
+            throw new IllegalArgumentException(String.valueOf(maxTime));
+        }
+        return new ReadBudget(maxDepth, maxReferences, maxArrayLength, maxBytes, maxTime);
+    }
+    
+    /**
+     * 上限の範囲内でバイト配列をデシリアライズし、その結果と、要した資源の量を返します。<br>
+     * 
+     * @param <T> 戻り値のオブジェクトの型
+     * @param bytes バイト配列
+     * @return デシリアライズの結果と、要した資源の量
+     * @throws NullPointerException {@code bytes} が {@code null} の場合
+     * @throws FailToDeserializeException 資源の上限を超えた場合（cause は {@link BudgetExceededException}）、
+     *                                    バイト配列が直列化ストリームの文法に従っていない場合（cause は {@link StreamCorruptedException}）、
+     *                                    その他デシリアライズの過程で何らかの例外が発生した場合
+     */
+    public <T> Result<T> read(byte[] bytes) {
+        Objects.requireNonNull(bytes);
+        
+        long start = System.nanoTime();
+        if (maxBytes < bytes.length) {
+            throw new FailToDeserializeException(new BudgetExceededException(Resource.BYTES, maxBytes, bytes.length));
+        }
+        
+        // 大半のストリームは浅いため、まず呼び出し元のスレッドで SerialStream.DEFAULT_MAX_DEPTH まで走査する。
+        // それより深く、上限がそれを超える場合に限り、深さに見合ったスタックを持つ専用のスレッドで走査し直す。
+        // この場合はデシリアライズも同様に深く再帰するため、同じ大きさのスタックを持つスレッドで行う。
+        Parser parser = new Parser(bytes, Math.min(maxDepth, SerialStream.DEFAULT_MAX_DEPTH));
+        long stackSize = 0;
+        SerialStream stream;
+        try {
+            stream = parser.parse();
+        } catch (MalformedStreamException e) {
+            if (!parser.isTooDeep() || maxDepth <= SerialStream.DEFAULT_MAX_DEPTH) {
+                throw failure(parser, e);
+            }
+            stackSize = BASE_STACK + Math.min(maxDepth, bytes.length) * STACK_PER_LEVEL;
+            parser = new Parser(bytes, maxDepth);
+            stream = parseOnWorker(parser, stackSize);
+        }
+        
+        // 要素を保持することなく、走査しながら集計する。
+        long[] counts = new long[2];
+        stream.walk(content -> {
+            if (content instanceof HandledContent || content instanceof ReferenceContent) {
+                counts[0]++;
+            }
+            if (content instanceof ArrayContent) {
+                counts[1] = Math.max(counts[1], ((ArrayContent) content).size());
+            }
+        });
+        long references = counts[0];
+        int arrayLength = (int) counts[1];
+        if (maxReferences < references) {
+            throw new FailToDeserializeException(new BudgetExceededException(Resource.REFERENCES, maxReferences, references));
+        }
+        if (maxArrayLength < arrayLength) {
+            throw new FailToDeserializeException(new BudgetExceededException(Resource.ARRAY_LENGTH, maxArrayLength, arrayLength));
+        }
+        
+        T value = maxTime == null && stackSize == 0
+                ? deserialize(new WatchedInputStream(bytes))
+                : deserializeOnWorker(bytes, start, stackSize);
+        Usage usage = new Usage(parser.deepest(), references, arrayLength, bytes.length, Duration.ofNanos(System.nanoTime() - start));
+        return new Result<>(value, usage);
+    }
+    
+    private FailToDeserializeException failure(Parser parser, MalformedStreamException e) {
+        if (parser.isTooDeep()) {
+            return new FailToDeserializeException(new BudgetExceededException(Resource.DEPTH, maxDepth, parser.deepest()));
+        }
+        StreamCorruptedException cause = new StreamCorruptedException(e.getMessage());
+        cause.initCause(e);
+        return new FailToDeserializeException(cause);
+    }
+    
+    /**
+     * 指定された大きさのスタックを持つ専用のスレッドで構文解析を行います。<br>
+     */
+    private SerialStream parseOnWorker(Parser parser, long stackSize) {
+        SerialStream[] stream = new SerialStream[1];
+        Throwable[] thrown = new Throwable[1];
+        Thread worker = new Thread(null, () -> {
+            try {
+                stream[0] = parser.parse();
+            } catch (Throwable t) {
+                thrown[0] = t;
+            }
+        }, String.format("jutaime-budgeted-read-%d", SEQUENCE.incrementAndGet()), stackSize);
+        worker.setDaemon(true);
+        worker.start();
+        Workers.join(worker);
+        
+        // join によってワーカー・スレッドの書き込みは可視となる。
+        if (thrown[0] instanceof MalformedStreamException) {
+            throw failure(parser, (MalformedStreamException) thrown[0]);
+        } else if (thrown[0] instanceof RuntimeException) {
+            throw (RuntimeException) thrown[0];
+        } else if (thrown[0] instanceof Error) {
+            throw (Error) thrown[0];
+        }
+        return stream[0];
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T> T deserialize(WatchedInputStream in) {
+        try (ObjectInputStream ois = new ObjectInputStream(in)) {
+            return (T) ois.readObject();
+        } catch (Exception e) {
+            throw new FailToDeserializeException(e);
+        }
+    }
+    
+    /**
+     * 専用のスレッドでデシリアライズを行い、その終了を待ちます。経過時間の上限が指定されている場合は、上限まで待ちます。<br>
+     * {@code stackSize} が {@code 0} の場合は、スレッドのスタックの大きさは既定値となります。<br>
+     */
+    private <T> T deserializeOnWorker(byte[] bytes, long start, long stackSize) {
+        WatchedInputStream in = new WatchedInputStream(bytes);
+        Object[] value = new Object[1];
+        Throwable[] thrown = new Throwable[1];
+        Thread worker = new Thread(null, () -> {
+            try {
+                value[0] = deserialize(in);
+            } catch (Throwable t) {
+                thrown[0] = t;
+            }
+        }, String.format("jutaime-budgeted-read-%d", SEQUENCE.incrementAndGet()), stackSize);
+        worker.setDaemon(true);
+        worker.start();
+        
+        if (maxTime == null) {
+            Workers.join(worker);
+        } else {
+            long limit = millis(maxTime);
+            long remaining = maxTime.toNanos() - (System.nanoTime() - start);
+            try {
+                if (0 < remaining) {
+                    worker.join(remaining / 1_000_000, (int) (remaining % 1_000_000));
+                }
+            } catch (InterruptedException e) {
+                in.expired = true;
+                worker.interrupt();
+                Thread.currentThread().interrupt();
+                throw new FailToDeserializeException(e);
+            }
+            
+            if (worker.isAlive()) {
+                in.expired = true;
+                worker.interrupt();
+                long elapsed = (System.nanoTime() - start) / 1_000_000;
+                throw new FailToDeserializeException(new BudgetExceededException(Resource.TIME, limit, Math.max(elapsed, limit + 1)));
+            }
+        }
+        
+        // join によってワーカー・スレッドの書き込みは可視となる。
+        if (thrown[0] instanceof RuntimeException) {
+            throw (RuntimeException) thrown[0];
+        } else if (thrown[0] instanceof Error) {
+            throw (Error) thrown[0];
+        }
+        @SuppressWarnings("unchecked")
+        T t = (T) value[0];
+        return t;
+    }
+    
+    /**
+     * 次の形式の文字列を返します。上限のない資源は出力されません。
+     * <pre>    "ReadBudget [maxDepth=50, maxTime=PT1S]"</pre>
+     * 
+     * @return 文字列表現
+     */
+    @Override
+    public String toString() {
+        List<String> limits = new ArrayList<>();
+        if (maxDepth != MAX_SUPPORTED_DEPTH) {
+            limits.add("maxDepth=" + maxDepth);
+        }
+        if (maxReferences != Long.MAX_VALUE) {
+            limits.add("maxReferences=" + maxReferences);
+        }
+        if (maxArrayLength != Integer.MAX_VALUE) {
+            limits.add("maxArrayLength=" + maxArrayLength);
+        }
+        if (maxBytes != Long.MAX_VALUE) {
+            limits.add("maxBytes=" + maxBytes);
+        }
+        if (maxTime != null) {
+            limits.add("maxTime=" + maxTime);
+        }
+        return "ReadBudget " + limits;
+    }
+}
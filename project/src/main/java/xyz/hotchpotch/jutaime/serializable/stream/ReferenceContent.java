@@ -0,0 +1,48 @@
+package xyz.hotchpotch.jutaime.serializable.stream;
+
+import java.io.ObjectStreamConstants;
+
+/**
+ * 既出の要素への参照（{@link ObjectStreamConstants#TC_REFERENCE}）を表すノードです。<br>
+ * 
+ * @since 1.5.0
+ * @author nmby
+ */
+public final class ReferenceContent extends Content {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final HandledContent target;
+    
+    /*package*/ ReferenceContent(int offset, HandledContent target) {
+        super(ObjectStreamConstants.TC_REFERENCE, offset);
+        assert target != null;
+        this.target = target;
+        end(offset + 5);
+    }
+    
+    /**
+     * 参照先のハンドル番号を返します。<br>
+     * 
+     * @return 参照先のハンドル番号
+     */
+    public int handle() {
+        return target.handle();
+    }
+    
+    /**
+     * 参照先の要素を返します。<br>
+     * 
+     * @return 参照先の要素
+     */
+    public HandledContent target() {
+        return target;
+    }
+    
+    @Override
+    /*package*/ String summary() {
+        return String.format("%s 0x%08x -> %s", super.summary(), handle(), nameOf(target.tag()));
+    }
+}
@@ -0,0 +1,21 @@
+package xyz.hotchpotch.jutaime.serializable.stream;
+
+import java.io.ObjectStreamConstants;
+
+/**
+ * ハンドルのリセット（{@link ObjectStreamConstants#TC_RESET}）を表すノードです。<br>
+ * 
+ * @since 1.5.0
+ * @author nmby
+ */
+public final class ResetContent extends Content {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /*package*/ ResetContent(int offset) {
+        super(ObjectStreamConstants.TC_RESET, offset);
+        end(offset + 1);
+    }
+}
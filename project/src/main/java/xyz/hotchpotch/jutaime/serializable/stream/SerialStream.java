@@ -0,0 +1,188 @@
+package xyz.hotchpotch.jutaime.serializable.stream;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Java オブジェクト直列化ストリームを構文解析した結果の構文木です。<br>
+ * ストリームの先頭の固定 4 バイトに続く要素（{@link Content}）を、ストリーム内での出現順に保持します。
+ * 各要素は、ストリーム内での位置とハンドル番号を保持します。<br>
+ * <br>
+ * 構文解析は、バイト配列を一度だけ走査して行われます。
+ * 文字列データ、ブロックデータ、プリミティブ型の配列の要素は複製されず、必要になった時点で元のバイト配列から読み込まれます。
+ * このため、構文解析の後に元のバイト配列を変更してはなりません。<br>
+ * <br>
+ * このクラスのインスタンスは不変であり、スレッドセーフです。<br>
+ * 
+ * @since 1.5.0
+ * @author nmby
+ */
+public final class SerialStream {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /**
+     * {@link #parse(byte[])} が許容する、要素の入れ子の深さの上限です。最上位の要素の深さを {@code 1} とします。<br>
+     * 構文解析は入れ子の深さに比例してスタックを消費するため、
+     * これを超える深さのストリームはスタックを使い果たす前に {@link MalformedStreamException} により拒否されます。<br>
+     */
+    public static final int DEFAULT_MAX_DEPTH = 500;
+    
+    /**
+     * バイト配列を構文解析します。<br>
+     * 要素の入れ子の深さが {@link #DEFAULT_MAX_DEPTH} を超える場合は、構文解析を中止します。<br>
+     * 
+     * @param bytes {@link xyz.hotchpotch.jutaime.serializable.STUtil#write(Object)} などで得られたバイト配列
+     * @return 構文解析の結果
+     * @throws NullPointerException {@code bytes} が {@code null} の場合
+     * @throws MalformedStreamException {@code bytes} が直列化ストリームの文法に従っていない場合、
+     *                                  または要素の入れ子の深さが {@link #DEFAULT_MAX_DEPTH} を超える場合
+     */
+    public static SerialStream parse(byte[] bytes) {
+        return parse(bytes, DEFAULT_MAX_DEPTH);
+    }
+    
+    /**
+     * 要素の入れ子の深さの上限を指定して、バイト配列を構文解析します。<br>
+     * 構文解析は入れ子の深さに比例してスタックを消費します。
+     * {@link #DEFAULT_MAX_DEPTH} を超える上限を指定する場合は、十分なスタックを持つスレッドから呼び出す必要があります。<br>
+     * 
+     * @param bytes {@link xyz.hotchpotch.jutaime.serializable.STUtil#write(Object)} などで得られたバイト配列
+     * @param maxDepth 要素の入れ子の深さの上限
+     * @return 構文解析の結果
+     * @throws NullPointerException {@code bytes} が {@code null} の場合
+     * @throws IllegalArgumentException {@code maxDepth} が {@code 1} 未満の場合
+     * @throws MalformedStreamException {@code bytes} が直列化ストリームの文法に従っていない場合、
+     *                                  または要素の入れ子の深さが {@code maxDepth} を超える場合
+     */
+    public static SerialStream parse(byte[] bytes, int maxDepth) {
+        Objects.requireNonNull(bytes);
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException(String.valueOf(maxDepth));
+        }
+        return new Parser(bytes, maxDepth).parse();
+    }
+    
+    private static void dump(Content content, int depth, String label, StringBuilder str) {
+        indent(str, depth);
+        if (label != null) {
+            str.append(label).append(": ");
+        }
+        str.append(content).append('\n');
+        
+        if (content instanceof ObjectContent) {
+            ObjectContent object = (ObjectContent) content;
+            dump(object.classDescContent(), depth + 1, "classDesc", str);
+            for (ClassData data : object.classData()) {
+                for (FieldValue value : data.values()) {
+                    if (value.content() == null) {
+                        indent(str, depth + 1);
+                        str.append(value).append(String.format(" [%d, %d)", value.offset(), value.end())).append('\n');
+                    } else {
+                        dump(value.content(), depth + 1, value.field().name(), str);
+                    }
+                }
+                for (Content annotation : data.annotations()) {
+                    dump(annotation, depth + 1, "annotation", str);
+                }
+            }
+        } else {
+            for (Content child : content.children()) {
+                dump(child, depth + 1, null, str);
+            }
+        }
+    }
+    
+    private static void indent(StringBuilder str, int depth) {
+        for (int i = 0; i < depth; i++) {
+            str.append("  ");
+        }
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final byte[] bytes;
+    private final List<Content> contents;
+    
+    /*package*/ SerialStream(byte[] bytes, List<Content> contents) {
+        assert bytes != null;
+        assert contents != null;
+        
+        this.bytes = bytes;
+        this.contents = Collections.unmodifiableList(contents);
+    }
+    
+    /**
+     * 構文解析したバイト配列そのものを返します。<br>
+     * 
+     * @return 構文解析したバイト配列
+     */
+    /*package*/ byte[] bytes() {
+        return bytes;
+    }
+    
+    /**
+     * ストリームの最上位の要素を、出現順に返します。<br>
+     * 
+     * @return 最上位の要素の変更不能なリスト
+     */
+    public List<Content> contents() {
+        return contents;
+    }
+    
+    /**
+     * ストリームのバイト数を返します。<br>
+     * 
+     * @return ストリームのバイト数
+     */
+    public int length() {
+        return bytes.length;
+    }
+    
+    /**
+     * 全ての要素を、ストリーム内での出現順（深さ優先の先行順）に走査します。<br>
+     * {@link ReferenceContent} の参照先は辿りません。<br>
+     * 
+     * @param action 各要素に対して実行する処理
+     * @throws NullPointerException {@code action} が {@code null} の場合
+     */
+    public void walk(Consumer<? super Content> action) {
+        Objects.requireNonNull(action);
+        
+        Deque<Content> stack = new ArrayDeque<>();
+        for (int i = contents.size() - 1; 0 <= i; i--) {
+            stack.push(contents.get(i));
+        }
+        while (!stack.isEmpty()) {
+            Content content = stack.pop();
+            action.accept(content);
+            List<Content> children = content.children();
+            for (int i = children.size() - 1; 0 <= i; i--) {
+                stack.push(children.get(i));
+            }
+        }
+    }
+    
+    /**
+     * 構文木を、要素ごとに一行ずつ字下げして表した文字列を返します。<br>
+     * 各行には、要素の種類、ハンドル番号、ストリーム内での位置が含まれます。<br>
+     * 
+     * @return 構文木を表す複数行の文字列
+     */
+    public String dump() {
+        StringBuilder str = new StringBuilder();
+        for (Content content : contents) {
+            dump(content, 0, null, str);
+        }
+        return str.toString();
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("SerialStream (%d bytes, %d contents)", bytes.length, contents.size());
+    }
+}
@@ -0,0 +1,597 @@
+package xyz.hotchpotch.jutaime.serializable.stream;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import xyz.hotchpotch.jutaime.serializable.STUtil;
+
+/**
+ * シリアライズ形式のバイト数を、クラスごと、フィールドごとに集計した結果です。<br>
+ * 次の例のように、シリアライズ形式の大きさや構成を検査するテストに利用できます。<br>
+ * <pre>
+ *     SizeProfile profile = SizeProfile.of(orderEvent);
+ *     assertThat(profile.toString(), profile.totalBytes() &lt;= 400, is(true));
+ *     assertThat(profile.toString(), profile.duplicateStrings().isEmpty(), is(true));
+ * </pre>
+ * <br>
+ * ストリームの各バイトは、次の規則により、いずれかひとつのクラスに帰属します。
+ * このため、全てのクラスのバイト数の合計はストリームのバイト数と一致します。
+ * <ul>
+ *   <li>クラス記述子は、記述されるクラスの記述子のバイト数（{@link ClassStats#descriptorBytes()}）となります。
+ *       フィールドの型を表す文字列とその参照も、記述子に含まれます。スーパークラスの記述子は、スーパークラスに帰属します。</li>
+ *   <li>オブジェクト、配列、列挙型定数は、そのクラスのデータのバイト数（{@link ClassStats#dataBytes()}）となります。
+ *       プリミティブ型のフィールドの値や配列の要素、{@code writeObject} メソッドが書き込んだブロックデータを含みます。
+ *       参照型のフィールドの値や配列の要素は、それぞれの値の要素に帰属します。</li>
+ *   <li>文字列は {@code java.lang.String} のデータのバイト数となります。</li>
+ *   <li>既出の要素への参照（{@code TC_REFERENCE}）は、参照先の要素のクラスの参照のバイト数（{@link ClassStats#referenceBytes()}）となります。</li>
+ *   <li>ストリームの先頭の固定 4 バイトなど、いずれのクラスにも属さないバイトは、{@value #STREAM} に帰属します。</li>
+ * </ul>
+ * フィールドごとのバイト数（{@link FieldStats#bytes()}）は、フィールドの値の要素全体（入れ子になった要素を含む）のバイト数です。
+ * このため、フィールドごとのバイト数の合計は、ストリームのバイト数と一致しません。<br>
+ * <br>
+ * このクラスのインスタンスは不変であり、スレッドセーフです。<br>
+ * 
+ * @since 1.5.0
+ * @author nmby
+ */
+public final class SizeProfile {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /** いずれのクラスにも属さないバイトの帰属先を表す名前 */
+    public static final String STREAM = "(stream)";
+    
+    private static final String STRING = String.class.getName();
+    private static final String CLASS = Class.class.getName();
+    
+    /**
+     * ひとつのクラスに帰属するバイト数の集計結果です。<br>
+     * 
+     * @since 1.5.0
+     * @author nmby
+     */
+    public static final class ClassStats {
+        private final String name;
+        private int instances;
+        private long descriptorBytes;
+        private long dataBytes;
+        private long referenceBytes;
+        private int backReferences;
+        
+        private ClassStats(String name) {
+            this.name = name;
+        }
+        
+        /**
+         * クラスの名前を返します。<br>
+         * 配列クラスの名前は {@link Class#getName()} と同じ形式です。
+         * プロキシ・クラスの名前は {@code "$Proxy"} に続けてインタフェースの名前を並べたものです。<br>
+         * 
+         * @return クラスの名前
+         */
+        public String name() {
+            return name;
+        }
+        
+        /**
+         * ストリームに含まれる、このクラスのオブジェクト（配列、文字列、列挙型定数を含む）の数を返します。
+         * 既出のオブジェクトへの参照は数えません。<br>
+         * 
+         * @return オブジェクトの数
+         */
+        public int instances() {
+            return instances;
+        }
+        
+        /**
+         * このクラスに帰属するバイト数の合計を返します。<br>
+         * 
+         * @return バイト数
+         */
+        public long bytes() {
+            return descriptorBytes + dataBytes + referenceBytes;
+        }
+        
+        /**
+         * このクラスの記述子のバイト数を返します。<br>
+         * 
+         * @return 記述子のバイト数
+         */
+        public long descriptorBytes() {
+            return descriptorBytes;
+        }
+        
+        /**
+         * このクラスのオブジェクトのデータのバイト数を返します。<br>
+         * 
+         * @return データのバイト数
+         */
+        public long dataBytes() {
+            return dataBytes;
+        }
+        
+        /**
+         * このクラスのオブジェクトまたは記述子への、既出の要素としての参照のバイト数を返します。<br>
+         * 
+         * @return 参照のバイト数
+         */
+        public long referenceBytes() {
+            return referenceBytes;
+        }
+        
+        /**
+         * このクラスのオブジェクトまたは記述子への、既出の要素としての参照の数を返します。<br>
+         * 
+         * @return 参照の数
+         */
+        public int backReferences() {
+            return backReferences;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%s: %d bytes (%d instances)", name, bytes(), instances);
+        }
+    }
+    
+    /**
+     * ひとつのフィールドの値のバイト数の集計結果です。<br>
+     * 
+     * @since 1.5.0
+     * @author nmby
+     */
+    public static final class FieldStats {
+        private final String className;
+        private final String fieldName;
+        private final String signature;
+        private int values;
+        private long bytes;
+        
+        private FieldStats(String className, String fieldName, String signature) {
+            this.className = className;
+            this.fieldName = fieldName;
+            this.signature = signature;
+        }
+        
+        /**
+         * フィールドを宣言するクラスの名前を返します。<br>
+         * 
+         * @return クラスの名前
+         */
+        public String className() {
+            return className;
+        }
+        
+        /**
+         * フィールドの名前を返します。<br>
+         * 
+         * @return フィールドの名前
+         */
+        public String fieldName() {
+            return fieldName;
+        }
+        
+        /**
+         * フィールドの型を表すシグネチャを返します。<br>
+         * 
+         * @return シグネチャ（例：{@code "I"}、{@code "Ljava/lang/String;"}）
+         * @see FieldDesc#signature()
+         */
+        public String signature() {
+            return signature;
+        }
+        
+        /**
+         * ストリームに含まれる、このフィールドの値の数を返します。<br>
+         * 
+         * @return 値の数
+         */
+        public int values() {
+            return values;
+        }
+        
+        /**
+         * このフィールドの値のバイト数の合計を返します。値が参照型の場合は、入れ子になった要素を含みます。<br>
+         * 
+         * @return バイト数
+         */
+        public long bytes() {
+            return bytes;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%s.%s: %d bytes (%d values)", className, fieldName, bytes, values);
+        }
+    }
+    
+    /**
+     * オブジェクトをシリアライズし、その結果を集計します。<br>
+     * 
+     * @param obj シリアライズするオブジェクト
+     * @return 集計結果
+     * @throws xyz.hotchpotch.jutaime.serializable.FailToSerializeException シリアライズに失敗した場合
+     * @see STUtil#write(Object)
+     */
+    public static SizeProfile of(Object obj) {
+        return of(SerialStream.parse(STUtil.write(obj)));
+    }
+    
+    /**
+     * シリアライズ形式のバイト配列を集計します。<br>
+     * 
+     * @param bytes シリアライズ形式のバイト配列
+     * @return 集計結果
+     * @throws NullPointerException {@code bytes} が {@code null} の場合
+     * @throws MalformedStreamException {@code bytes} が直列化ストリームの文法に従っていない場合
+     */
+    public static SizeProfile ofSerialized(byte[] bytes) {
+        return of(SerialStream.parse(bytes));
+    }
+    
+    /**
+     * 構文解析済みのストリームを集計します。<br>
+     * 
+     * @param stream 構文解析済みのストリーム
+     * @return 集計結果
+     * @throws NullPointerException {@code stream} が {@code null} の場合
+     */
+    public static SizeProfile of(SerialStream stream) {
+        Objects.requireNonNull(stream);
+        return new SizeProfile(stream);
+    }
+    
+    /**
+     * 子要素を除いた、要素自身のバイト数を返します。<br>
+     */
+    private static int exclusiveLength(Content content) {
+        int length = content.length();
+        for (Content child : content.children()) {
+            length -= child.length();
+        }
+        return length;
+    }
+    
+    private static String nameOf(ClassDescContent desc) {
+        return desc.isProxy() ? "$Proxy" + desc.interfaces() : desc.name();
+    }
+    
+    /**
+     * 要素のクラスの名前を返します。<br>
+     */
+    private static String classOf(Content content) {
+        if (content instanceof ObjectContent) {
+            return nameOf(((ObjectContent) content).classDesc());
+        } else if (content instanceof ArrayContent) {
+            return ((ArrayContent) content).classDesc().name();
+        } else if (content instanceof EnumContent) {
+            return ((EnumContent) content).classDesc().name();
+        } else if (content instanceof ClassDescContent) {
+            return nameOf((ClassDescContent) content);
+        } else if (content instanceof StringContent) {
+            return STRING;
+        } else if (content instanceof ClassContent) {
+            return CLASS;
+        }
+        return STREAM;
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final long totalBytes;
+    private final Map<String, ClassStats> classes = new HashMap<>();
+    private final Map<String, FieldStats> fields = new HashMap<>();
+    private final Map<String, Integer> strings = new HashMap<>();
+    private int objects;
+    private int handles;
+    private int backReferences;
+    private int depth;
+    
+    // 集計後に確定する、整列済みの結果
+    private final List<ClassStats> sortedClasses;
+    private final List<FieldStats> sortedFields;
+    private final Map<String, Integer> duplicateStrings;
+    
+    private SizeProfile(SerialStream stream) {
+        assert stream != null;
+        
+        totalBytes = stream.length();
+        long remaining = totalBytes;
+        for (Content content : stream.contents()) {
+            visit(content, STREAM, false, 1);
+            remaining -= content.length();
+        }
+        stats(STREAM).dataBytes += remaining;
+        
+        List<ClassStats> classList = new ArrayList<>(classes.values());
+        classList.sort(Comparator.comparingLong(ClassStats::bytes).reversed().thenComparing(ClassStats::name));
+        sortedClasses = Collections.unmodifiableList(classList);
+        
+        List<FieldStats> fieldList = new ArrayList<>(fields.values());
+        fieldList.sort(Comparator.comparingLong(FieldStats::bytes).reversed()
+                .thenComparing(FieldStats::className)
+                .thenComparing(FieldStats::fieldName));
+        sortedFields = Collections.unmodifiableList(fieldList);
+        
+        List<Map.Entry<String, Integer>> duplicates = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : strings.entrySet()) {
+            if (1 < entry.getValue()) {
+                duplicates.add(entry);
+            }
+        }
+        duplicates.sort(Map.Entry.<String, Integer> comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        Map<String, Integer> duplicateMap = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : duplicates) {
+            duplicateMap.put(entry.getKey(), entry.getValue());
+        }
+        duplicateStrings = Collections.unmodifiableMap(duplicateMap);
+    }
+    
+    private ClassStats stats(String name) {
+        return classes.computeIfAbsent(name, ClassStats::new);
+    }
+    
+    /**
+     * 要素のバイト数を帰属先のクラスに加算し、子要素を走査します。<br>
+     * 
+     * @param content 要素
+     * @param owner 親要素のクラスの名前
+     * @param inDescriptor 親要素がクラス記述子の場合は {@code true}
+     * @param level オブジェクト・グラフ上の深さ
+     */
+    private void visit(Content content, String owner, boolean inDescriptor, int level) {
+        if (content instanceof ClassDescContent) {
+            ClassDescContent desc = (ClassDescContent) content;
+            String name = nameOf(desc);
+            handles++;
+            stats(name).descriptorBytes += exclusiveLength(desc);
+            for (FieldDesc field : desc.fields()) {
+                if (field.typeContent() != null) {
+                    stats(name).descriptorBytes += field.typeContent().length();
+                    if (field.typeContent() instanceof HandledContent) {
+                        handles++;
+                    }
+                }
+            }
+            for (Content annotation : desc.annotations()) {
+                visit(annotation, name, true, level);
+            }
+            visit(desc.superClassDescContent(), name, true, level);
+            return;
+        }
+        
+        if (content instanceof ReferenceContent) {
+            backReferences++;
+            if (inDescriptor) {
+                stats(owner).descriptorBytes += content.length();
+            } else {
+                ClassStats target = stats(classOf(((ReferenceContent) content).target()));
+                target.referenceBytes += content.length();
+                target.backReferences++;
+            }
+            return;
+        }
+        
+        if (content instanceof HandledContent) {
+            // オブジェクト、配列、列挙型定数、文字列、クラス
+            String name = classOf(content);
+            ClassStats stats = stats(name);
+            handles++;
+            objects++;
+            stats.instances++;
+            stats.dataBytes += exclusiveLength(content);
+            depth = Math.max(depth, level);
+            
+            if (content instanceof StringContent) {
+                strings.merge(((StringContent) content).value(), 1, Integer::sum);
+            }
+            if (content instanceof ObjectContent) {
+                visit(((ObjectContent) content).classDescContent(), name, false, level);
+                for (ClassData data : ((ObjectContent) content).classData()) {
+                    for (FieldValue value : data.values()) {
+                        FieldDesc field = value.field();
+                        String className = data.classDesc().name();
+                        FieldStats fieldStats = fields.computeIfAbsent(className + '.' + field.name(),
+                                k -> new FieldStats(className, field.name(), field.signature()));
+                        fieldStats.values++;
+                        fieldStats.bytes += value.end() - value.offset();
+                        if (value.content() != null) {
+                            visit(value.content(), name, false, level + 1);
+                        }
+                    }
+                    for (Content annotation : data.annotations()) {
+                        visit(annotation, name, false, level + 1);
+                    }
+                }
+            } else if (content instanceof ArrayContent) {
+                visit(((ArrayContent) content).classDescContent(), name, false, level);
+                for (Content element : ((ArrayContent) content).elements()) {
+                    visit(element, name, false, level + 1);
+                }
+            } else if (content instanceof EnumContent) {
+                visit(((EnumContent) content).classDescContent(), name, false, level);
+                
+                // 列挙型定数の名前は、文字列ではなく列挙型のデータとして扱う。
+                Content constantName = ((EnumContent) content).constantNameContent();
+                stats.dataBytes += constantName.length();
+                if (constantName instanceof HandledContent) {
+                    handles++;
+                } else if (constantName instanceof ReferenceContent) {
+                    backReferences++;
+                }
+            } else if (content instanceof ClassContent) {
+                visit(((ClassContent) content).classDescContent(), name, false, level);
+            }
+            return;
+        }
+        
+        if (content instanceof ExceptionContent) {
+            stats(STREAM).dataBytes += exclusiveLength(content);
+            visit(((ExceptionContent) content).exception(), STREAM, false, level);
+            return;
+        }
+        
+        // null、ブロックデータ、リセットは、親要素に帰属する。
+        if (inDescriptor) {
+            stats(owner).descriptorBytes += content.length();
+        } else {
+            stats(owner).dataBytes += content.length();
+        }
+    }
+    
+    /**
+     * ストリームのバイト数を返します。<br>
+     * 
+     * @return ストリームのバイト数
+     */
+    public long totalBytes() {
+        return totalBytes;
+    }
+    
+    /**
+     * ストリームに含まれるオブジェクト（配列、文字列、列挙型定数、クラスを含み、クラス記述子を含まない）の数を返します。
+     * 既出のオブジェクトへの参照は数えません。<br>
+     * 
+     * @return オブジェクトの数
+     */
+    public int objects() {
+        return objects;
+    }
+    
+    /**
+     * ストリーム内で割り当てられたハンドルの数を返します。<br>
+     * 
+     * @return ハンドルの数
+     */
+    public int handles() {
+        return handles;
+    }
+    
+    /**
+     * 既出の要素への参照（{@code TC_REFERENCE}）の数を返します。すなわち、ハンドルが再利用された回数です。<br>
+     * 
+     * @return 参照の数
+     */
+    public int backReferences() {
+        return backReferences;
+    }
+    
+    /**
+     * オブジェクト・グラフの深さを返します。最上位のオブジェクトの深さを {@code 1} とし、クラス記述子は数えません。<br>
+     * 
+     * @return オブジェクト・グラフの深さ（オブジェクトを含まない場合は {@code 0}）
+     */
+    public int depth() {
+        return depth;
+    }
+    
+    /**
+     * クラスごとの集計結果を、バイト数の降順に返します。バイト数が等しい場合はクラスの名前の順に並べます。<br>
+     * 
+     * @return クラスごとの集計結果の変更不能なリスト
+     */
+    public List<ClassStats> classes() {
+        return sortedClasses;
+    }
+    
+    /**
+     * 指定されたクラスの集計結果を返します。<br>
+     * 
+     * @param className クラスの名前
+     * @return 集計結果
+     * @throws NullPointerException {@code className} が {@code null} の場合
+     * @throws NoSuchElementException 指定されたクラスがストリームに含まれない場合
+     */
+    public ClassStats classStats(String className) {
+        Objects.requireNonNull(className);
+        ClassStats stats = classes.get(className);
+        if (stats == null) {
+            throw new NoSuchElementException(className);
+        }
+        return stats;
+    }
+    
+    /**
+     * 指定されたクラスの集計結果を返します。<br>
+     * 
+     * @param cls クラス
+     * @return 集計結果
+     * @throws NullPointerException {@code cls} が {@code null} の場合
+     * @throws NoSuchElementException 指定されたクラスがストリームに含まれない場合
+     */
+    public ClassStats classStats(Class<?> cls) {
+        Objects.requireNonNull(cls);
+        return classStats(cls.getName());
+    }
+    
+    /**
+     * フィールドごとの集計結果を、バイト数の降順に返します。
+     * バイト数が等しい場合はクラスの名前、フィールドの名前の順に並べます。<br>
+     * 
+     * @return フィールドごとの集計結果の変更不能なリスト
+     */
+    public List<FieldStats> fields() {
+        return sortedFields;
+    }
+    
+    /**
+     * ストリーム内に同じ値の文字列が別々のオブジェクトとして複数含まれる場合に、その値と出現回数を返します。
+     * 出現回数の降順、値の順に並べます。クラス記述子内のフィールドの型を表す文字列は対象としません。<br>
+     * 
+     * @return 文字列の値と出現回数の変更不能なマップ（重複がない場合は空のマップ）
+     */
+    public Map<String, Integer> duplicateStrings() {
+        return duplicateStrings;
+    }
+    
+    /**
+     * 集計結果を表形式で表した文字列を返します。<br>
+     * 次の例のように、全体の集計、クラスごとの集計、フィールドごとの集計、重複した文字列を順に出力します。
+     * <pre>
+     * 187 bytes, 5 objects, 7 handles, 2 back-references, depth 2
+     *      bytes  descriptor       data  reference  instances  class
+     *        120          96         22          2          1  com.example.OrderEvent
+     *         43           0         38          5          3  java.lang.String
+     * ...
+     *      bytes     values  field
+     *         15          2  com.example.OrderEvent.currency (Ljava/lang/String;)
+     * ...
+     * duplicate strings: "USD" x2
+     * </pre>
+     * 
+     * @return 集計結果の文字列表現
+     */
+    @Override
+    public String toString() {
+        StringBuilder str = new StringBuilder();
+        str.append(String.format("%d bytes, %d objects, %d handles, %d back-references, depth %d%n",
+                totalBytes, objects, handles, backReferences, depth));
+        str.append(String.format("%10s  %10s %10s %10s %10s  %s%n", "bytes", "descriptor", "data", "reference", "instances", "class"));
+        for (ClassStats stats : sortedClasses) {
+            str.append(String.format("%10d  %10d %10d %10d %10d  %s%n",
+                    stats.bytes(), stats.descriptorBytes, stats.dataBytes, stats.referenceBytes, stats.instances, stats.name));
+        }
+        if (!sortedFields.isEmpty()) {
+            str.append(String.format("%10s  %10s  %s%n", "bytes", "values", "field"));
+            for (FieldStats stats : sortedFields) {
+                str.append(String.format("%10d  %10d  %s.%s (%s)%n",
+                        stats.bytes, stats.values, stats.className, stats.fieldName, stats.signature));
+            }
+        }
+        if (!duplicateStrings.isEmpty()) {
+            str.append("duplicate strings:");
+            for (Map.Entry<String, Integer> entry : duplicateStrings.entrySet()) {
+                str.append(String.format(" \"%s\" x%d", entry.getKey(), entry.getValue()));
+            }
+            str.append(String.format("%n"));
+        }
+        return str.toString();
+    }
+}
@@ -0,0 +1,375 @@
+package xyz.hotchpotch.jutaime.serializable.stream;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import xyz.hotchpotch.jutaime.serializable.STUtil;
+
+/**
+ * 直列化ストリームを、その構造に基づいて編集するためのエディタです。<br>
+ * クラス名とフィールド名を指定したフィールド値の変更、クラス記述子のクラス名とシリアルバージョン UID の変更、
+ * フィールドの削除と追加を組み合わせた編集計画を表し、{@link #apply(byte[])} によってストリームを一度だけ走査して全ての編集を適用します。<br>
+ * 編集によって要素が追加または削除される場合でも、後続の要素のハンドル番号と参照は自動的に振り直されます。
+ * 削除された要素が後続の要素から参照されていた場合は、最初の参照の位置に削除された要素が改めて書き込まれます。<br>
+ * <br>
+ * {@code StreamEditor} は {@code Function<byte[], byte[]>} を実装しているため、
+ * {@link STUtil#writeModifyAndRead(Object, Function)} の {@code modifier} として直接利用できます。
+ * <pre>
+ *     StreamEditor editor = StreamEditor.create()
+ *             .setField(MyClass.class.getName(), "count", -1)
+ *             .dropField(MyClass.class.getName(), "cache");
+ * 
+ *     assertThat(Testee.of((){@code ->} STUtil.writeModifyAndRead(new MyClass(), editor)),
+ *             RaiseMatchers.raise(FailToDeserializeException.class)
+ *             .rootCause(InvalidObjectException.class));
+ * </pre>
+ * 編集の対象は、編集前のクラス名で指定します。
+ * 編集計画に含まれるいずれかの編集が、ストリーム内のどの要素にも該当しなかった場合は、編集の適用は失敗します。<br>
+ * <br>
+ * このクラスのインスタンスは不変であり、スレッドセーフです。<br>
+ * 
+ * @since 1.5.0
+ * @author nmby
+ */
+public final class StreamEditor implements Function<byte[], byte[]> {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /*package*/ static enum Kind {
+        SET_FIELD,
+        RENAME_CLASS,
+        SET_SERIAL_VERSION_UID,
+        DROP_FIELD,
+        ADD_FIELD;
+    }
+    
+    /**
+     * ひとつの編集を表します。<br>
+     */
+    /*package*/ static final class Edit {
+        /*package*/ final Kind kind;
+        /*package*/ final String className;
+        /*package*/ final String fieldName;
+        /*package*/ final String newName;
+        /*package*/ final long serialVersionUID;
+        /*package*/ final char type;
+        /*package*/ final String signature;
+        /*package*/ final Object value;
+        
+        // 参照型の値を書き込むための、値を単独でシリアライズしたストリーム
+        /*package*/ final SerialStream splice;
+        
+        private Edit(Kind kind, String className, String fieldName, String newName, long serialVersionUID,
+                char type, String signature, Object value) {
+            
+            this.kind = kind;
+            this.className = className;
+            this.fieldName = fieldName;
+            this.newName = newName;
+            this.serialVersionUID = serialVersionUID;
+            this.type = type;
+            this.signature = signature;
+            this.value = value;
+            this.splice = value == null || (kind != Kind.SET_FIELD && kind != Kind.ADD_FIELD)
+                    ? null
+                    : SerialStream.parse(STUtil.write(value));
+        }
+        
+        /*package*/ Content spliceContent() {
+            assert splice != null;
+            return splice.contents().get(0);
+        }
+        
+        @Override
+        public String toString() {
+            switch (kind) {
+            case SET_FIELD:
+                return String.format("setField(%s.%s = %s)", className, fieldName, value);
+            case RENAME_CLASS:
+                return String.format("renameClass(%s -> %s)", className, newName);
+            case SET_SERIAL_VERSION_UID:
+                return String.format("setSerialVersionUID(%s = %d)", className, serialVersionUID);
+            case DROP_FIELD:
+                return String.format("dropField(%s.%s)", className, fieldName);
+            case ADD_FIELD:
+                return String.format("addField(%s.%s : %s = %s)", className, fieldName, signature, value);
+            default:
+                throw new AssertionError(kind);
+            }
+        }
+    }
+    
+    /**
+     * ひとつのクラスに対する編集をまとめたものです。<br>
+     */
+    /*package*/ static final class ClassEdits {
+        /*package*/ Edit rename;
+        /*package*/ Edit serialVersionUID;
+        /*package*/ final Map<String, Edit> fields = new HashMap<>();
+        /*package*/ final List<Edit> additions = new ArrayList<>();
+    }
+    
+    private static final StreamEditor EMPTY = new StreamEditor(Collections.emptyList());
+    
+    /**
+     * 何も編集しない、空の編集計画を返します。<br>
+     * 
+     * @return 空の編集計画
+     */
+    public static StreamEditor create() {
+        return EMPTY;
+    }
+    
+    /**
+     * 型を表すシグネチャを返します。<br>
+     */
+    private static String signatureOf(Class<?> type) {
+        if (type.isArray()) {
+            return type.getName().replace('.', '/');
+        }
+        if (type.isPrimitive()) {
+            switch (type.getName()) {
+            case "byte":
+                return "B";
+            case "char":
+                return "C";
+            case "double":
+                return "D";
+            case "float":
+                return "F";
+            case "int":
+                return "I";
+            case "long":
+                return "J";
+            case "short":
+                return "S";
+            case "boolean":
+                return "Z";
+            default:
+                throw new IllegalArgumentException(type.getName());
+            }
+        }
+        return "L" + type.getName().replace('.', '/') + ";";
+    }
+    
+    /**
+     * フィールドの並び順を表す比較値を返します。<br>
+     * {@link java.io.ObjectStreamClass} と同様に、プリミティブ型のフィールドを先に、それぞれの中では名前の順に並べます。<br>
+     */
+    /*package*/ static int compareFields(boolean primitive1, String name1, boolean primitive2, String name2) {
+        if (primitive1 != primitive2) {
+            return primitive1 ? -1 : 1;
+        }
+        return name1.compareTo(name2);
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final List<Edit> edits;
+    private final Map<String, ClassEdits> index;
+    
+    private StreamEditor(List<Edit> edits) {
+        assert edits != null;
+        
+        this.edits = Collections.unmodifiableList(edits);
+        this.index = new HashMap<>();
+        for (Edit edit : edits) {
+            ClassEdits classEdits = index.computeIfAbsent(edit.className, k -> new ClassEdits());
+            switch (edit.kind) {
+            case RENAME_CLASS:
+                classEdits.rename = edit;
+                break;
+            case SET_SERIAL_VERSION_UID:
+                classEdits.serialVersionUID = edit;
+                break;
+            case ADD_FIELD:
+                classEdits.additions.add(edit);
+                classEdits.fields.put(edit.fieldName, edit);
+                break;
+            default:
+                classEdits.fields.put(edit.fieldName, edit);
+            }
+        }
+        for (ClassEdits classEdits : index.values()) {
+            classEdits.additions.sort((e1, e2) -> compareFields(
+                    e1.signature.length() == 1, e1.fieldName, e2.signature.length() == 1, e2.fieldName));
+        }
+    }
+    
+    private StreamEditor with(Edit edit) {
+        ClassEdits classEdits = index.get(edit.className);
+        if (classEdits != null) {
+            boolean conflict;
+            switch (edit.kind) {
+            case RENAME_CLASS:
+                conflict = classEdits.rename != null;
+                break;
+            case SET_SERIAL_VERSION_UID:
+                conflict = classEdits.serialVersionUID != null;
+                break;
+            default:
+                conflict = classEdits.fields.containsKey(edit.fieldName);
+            }
+            if (conflict) {
+                throw new IllegalArgumentException("conflicting edit: " + edit);
+            }
+        }
+        List<Edit> newEdits = new ArrayList<>(edits);
+        newEdits.add(edit);
+        return new StreamEditor(newEdits);
+    }
+    
+    /**
+     * 指定されたクラスのフィールドの値を変更する編集を追加した、新たな編集計画を返します。<br>
+     * ストリーム内の、指定されたクラスの全てのインスタンスのフィールドの値が変更されます。<br>
+     * プリミティブ型のフィールドの場合、{@code value} には対応するラッパークラスのインスタンスを指定します。
+     * 整数型のフィールドには任意の整数型のラッパークラスを、浮動小数点型のフィールドには任意の {@link Number} を指定でき、
+     * プリミティブ型の縮小変換と同様に変換されます。
+     * 参照型のフィールドの場合、{@code value} をシリアライズしたものがフィールドの値として書き込まれます。
+     * {@code value} のシリアライズ形式には、この編集計画は適用されません。<br>
+     * 
+     * @param className フィールドを宣言しているクラスの名前
+     * @param fieldName フィールド名
+     * @param value 新たな値（参照型のフィールドの場合は {@code null} が許容されます）
+     * @return 新たな編集計画
+     * @throws NullPointerException {@code className}、{@code fieldName} のいずれかが {@code null} の場合
+     * @throws IllegalArgumentException 同じフィールドに対する編集が既に含まれる場合
+     * @throws xyz.hotchpotch.jutaime.serializable.FailToSerializeException {@code value} のシリアライズに失敗した場合
+     */
+    public StreamEditor setField(String className, String fieldName, Object value) {
+        Objects.requireNonNull(className);
+        Objects.requireNonNull(fieldName);
+        return with(new Edit(Kind.SET_FIELD, className, fieldName, null, 0L, '\0', null, value));
+    }
+    
+    /**
+     * クラス記述子のクラス名を変更する編集を追加した、新たな編集計画を返します。<br>
+     * そのクラスの配列のクラス記述子と、そのクラスを型とするフィールドのシグネチャも変更されます。<br>
+     * 
+     * @param className 変更前のクラス名
+     * @param newName 変更後のクラス名
+     * @return 新たな編集計画
+     * @throws NullPointerException {@code className}、{@code newName} のいずれかが {@code null} の場合
+     * @throws IllegalArgumentException 同じクラスのクラス名を変更する編集が既に含まれる場合
+     */
+    public StreamEditor renameClass(String className, String newName) {
+        Objects.requireNonNull(className);
+        Objects.requireNonNull(newName);
+        return with(new Edit(Kind.RENAME_CLASS, className, null, newName, 0L, '\0', null, null));
+    }
+    
+    /**
+     * クラス記述子のシリアルバージョン UID を変更する編集を追加した、新たな編集計画を返します。<br>
+     * 
+     * @param className クラス名
+     * @param serialVersionUID 変更後のシリアルバージョン UID
+     * @return 新たな編集計画
+     * @throws NullPointerException {@code className} が {@code null} の場合
+     * @throws IllegalArgumentException 同じクラスのシリアルバージョン UID を変更する編集が既に含まれる場合
+     */
+    public StreamEditor setSerialVersionUID(String className, long serialVersionUID) {
+        Objects.requireNonNull(className);
+        return with(new Edit(Kind.SET_SERIAL_VERSION_UID, className, null, null, serialVersionUID, '\0', null, null));
+    }
+    
+    /**
+     * フィールドを削除する編集を追加した、新たな編集計画を返します。<br>
+     * クラス記述子からフィールド記述子が削除され、そのクラスの全てのインスタンスからフィールドの値が削除されます。<br>
+     * 
+     * @param className フィールドを宣言しているクラスの名前
+     * @param fieldName フィールド名
+     * @return 新たな編集計画
+     * @throws NullPointerException {@code className}、{@code fieldName} のいずれかが {@code null} の場合
+     * @throws IllegalArgumentException 同じフィールドに対する編集が既に含まれる場合
+     */
+    public StreamEditor dropField(String className, String fieldName) {
+        Objects.requireNonNull(className);
+        Objects.requireNonNull(fieldName);
+        return with(new Edit(Kind.DROP_FIELD, className, fieldName, null, 0L, '\0', null, null));
+    }
+    
+    /**
+     * フィールドを追加する編集を追加した、新たな編集計画を返します。<br>
+     * クラス記述子にフィールド記述子が追加され、そのクラスの全てのインスタンスに {@code value} が値として追加されます。
+     * フィールドは {@link java.io.ObjectStreamClass} と同じ規則で並べられた位置に追加されます。
+     * 参照型のフィールドの場合、{@code value} のシリアライズ形式には、この編集計画は適用されません。<br>
+     * 
+     * @param className フィールドを追加するクラスの名前
+     * @param fieldName フィールド名
+     * @param type フィールドの型
+     * @param value フィールドの値（参照型のフィールドの場合は {@code null} が許容されます）
+     * @return 新たな編集計画
+     * @throws NullPointerException {@code className}、{@code fieldName}、{@code type} のいずれかが {@code null} の場合、
+     *                              またはプリミティブ型のフィールドの {@code value} が {@code null} の場合
+     * @throws IllegalArgumentException {@code value} が {@code type} の値として不適切な場合、
+     *                                  または同じフィールドに対する編集が既に含まれる場合
+     * @throws xyz.hotchpotch.jutaime.serializable.FailToSerializeException {@code value} のシリアライズに失敗した場合
+     */
+    public StreamEditor addField(String className, String fieldName, Class<?> type, Object value) {
+        Objects.requireNonNull(className);
+        Objects.requireNonNull(fieldName);
+        Objects.requireNonNull(type);
+        if (type == void.class) {
+            throw new IllegalArgumentException(String.valueOf(type));
+        }
+        String signature = signatureOf(type);
+        if (type.isPrimitive()) {
+            Objects.requireNonNull(value);
+            if (!Emitter.isPrimitiveValue(signature.charAt(0), value)) {
+                throw new IllegalArgumentException(String.format("%s : %s", type, value));
+            }
+        } else if (value != null && !type.isInstance(value)) {
+            throw new IllegalArgumentException(String.format("%s : %s", type, value));
+        }
+        return with(new Edit(Kind.ADD_FIELD, className, fieldName, null, 0L, signature.charAt(0), signature, value));
+    }
+    
+    /**
+     * バイト配列を構文解析し、この編集計画を適用したバイト配列を返します。元のバイト配列は変更しません。<br>
+     * 
+     * @param bytes 直列化ストリームのバイト配列
+     * @return 編集後のバイト配列
+     * @throws NullPointerException {@code bytes} が {@code null} の場合
+     * @throws MalformedStreamException {@code bytes} が直列化ストリームの文法に従っていない場合
+     * @throws IllegalArgumentException 編集計画に含まれるいずれかの編集が、ストリーム内のどの要素にも該当しなかった場合、
+     *                                  またはプリミティブ型のフィールドに不適切な値を設定しようとした場合
+     */
+    @Override
+    public byte[] apply(byte[] bytes) {
+        Objects.requireNonNull(bytes);
+        return apply(SerialStream.parse(bytes));
+    }
+    
+    /**
+     * 構文解析済みのストリームに、この編集計画を適用したバイト配列を返します。<br>
+     * 
+     * @param stream 構文解析済みのストリーム
+     * @return 編集後のバイト配列
+     * @throws NullPointerException {@code stream} が {@code null} の場合
+     * @throws IllegalArgumentException 編集計画に含まれるいずれかの編集が、ストリーム内のどの要素にも該当しなかった場合、
+     *                                  またはプリミティブ型のフィールドに不適切な値を設定しようとした場合
+     */
+    public byte[] apply(SerialStream stream) {
+        Objects.requireNonNull(stream);
+        
+        Emitter emitter = new Emitter(stream.bytes(), index);
+        byte[] edited = emitter.emit(stream);
+        
+        List<Edit> unmatched = new ArrayList<>(edits);
+        unmatched.removeAll(emitter.matched());
+        if (!unmatched.isEmpty()) {
+            throw new IllegalArgumentException("no match: " + unmatched);
+        }
+        return edited;
+    }
+    
+    @Override
+    public String toString() {
+        return "StreamEditor " + edits;
+    }
+}
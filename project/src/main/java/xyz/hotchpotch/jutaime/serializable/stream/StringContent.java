@@ -0,0 +1,85 @@
+package xyz.hotchpotch.jutaime.serializable.stream;
+
+import java.io.ObjectStreamConstants;
+
+/**
+ * 文字列（{@link ObjectStreamConstants#TC_STRING}、{@link ObjectStreamConstants#TC_LONGSTRING}）を表すノードです。<br>
+ * 文字列の値は、{@link #value()} が初めて呼び出された時点で修正 UTF-8 形式から復号されます。<br>
+ * 
+ * @since 1.5.0
+ * @author nmby
+ */
+public final class StringContent extends HandledContent {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /**
+     * 文字列または文字列への参照を表す要素から、文字列の値を返します。<br>
+     * 
+     * @param content 文字列または文字列への参照を表す要素
+     * @return 文字列の値
+     * @throws MalformedStreamException {@code content} が文字列または文字列への参照ではない場合
+     */
+    /*package*/ static String valueOf(Content content) {
+        assert content != null;
+        
+        Content target = content instanceof ReferenceContent ? ((ReferenceContent) content).target() : content;
+        if (target instanceof StringContent) {
+            return ((StringContent) target).value();
+        }
+        throw new MalformedStreamException(content.offset(), "string expected but was " + nameOf(target.tag()));
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final byte[] source;
+    private final int utfOffset;
+    private volatile String value;
+    
+    /*package*/ StringContent(byte tag, int offset, int handle, byte[] source, int utfOffset, int utfLength) {
+        super(tag, offset, handle);
+        assert source != null;
+        this.source = source;
+        this.utfOffset = utfOffset;
+        end(utfOffset + utfLength);
+    }
+    
+    /**
+     * 修正 UTF-8 形式で符号化された文字列データの開始位置を返します。<br>
+     * 
+     * @return 文字列データの開始位置
+     */
+    public int utfOffset() {
+        return utfOffset;
+    }
+    
+    /**
+     * 修正 UTF-8 形式で符号化された文字列データのバイト数を返します。<br>
+     * 
+     * @return 文字列データのバイト数
+     */
+    public int utfLength() {
+        return end() - utfOffset;
+    }
+    
+    /**
+     * 文字列の値を返します。<br>
+     * 
+     * @return 文字列の値
+     * @throws MalformedStreamException 文字列データが修正 UTF-8 形式に従っていない場合
+     */
+    public String value() {
+        String v = value;
+        if (v == null) {
+            v = Parser.decodeUTF(source, utfOffset, utfLength());
+            value = v;
+        }
+        return v;
+    }
+    
+    @Override
+    /*package*/ String summary() {
+        String v = value();
+        return String.format("%s \"%s\"", super.summary(), v.length() <= 64 ? v : v.substring(0, 61) + "...");
+    }
+}
@@ -0,0 +1,17 @@
+/**
+ * シリアライズされたバイト列を、Java オブジェクト直列化ストリームの文法に従って構造的に扱うためのクラスを提供します。<br>
+ * {@link xyz.hotchpotch.jutaime.serializable.stream.SerialStream#parse(byte[])} メソッドは、
+ * バイト列を一度だけ走査し、各要素のバイト位置とハンドル番号を保持する構文木を構築します。
+ * <pre>
+ *     SerialStream stream = SerialStream.parse(STUtil.write(myObj));
+ *     System.out.println(stream.dump());
+ * 
+ *     ObjectContent obj = (ObjectContent) stream.contents().get(0);
+ *     assertThat(obj.classDesc().name(), is(MyClass.class.getName()));
+ *     assertThat(obj.value("count").primitiveValue(), is(3));
+ * </pre>
+ * 
+ * @since 1.5.0
+ * @author nmby
+ */
+package xyz.hotchpotch.jutaime.serializable.stream;
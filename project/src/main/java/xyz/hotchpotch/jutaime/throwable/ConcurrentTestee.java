@@ -0,0 +1,158 @@
+package xyz.hotchpotch.jutaime.throwable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+import xyz.hotchpotch.jutaime.internal.Workers;
+
+/**
+ * 検査対象のオペレーションを複数のスレッドで同時に実行し、各スレッドにおける実行結果を検査するための、オペレーションのラッパーです。<br>
+ * このクラスのインスタンスは {@link Testee#concurrently(int, UnsafeCallable)} または
+ * {@link Testee#concurrently(int, UnsafeRunnable)} により作成されます。<br>
+ * <br>
+ * 検査対象のオペレーションは、最初の評価時に、指定された数のスレッドで一度ずつ実行されます。
+ * 各スレッドは {@link CyclicBarrier} で待ち合わせた後に一斉にオペレーションを実行するため、
+ * オペレーションは実際の競合状態の下で実行されます。
+ * 各スレッドの実行結果は、そのスレッド上で実行済みの {@link Testee} として、ロックを用いずに収集されます。
+ * 2回目以降の評価では、1回目の評価時に収集された結果を参照します。<br>
+ * 次の例のように、{@link RaiseMatchers#raiseInAny(org.hamcrest.Matcher)} などの {@code Matcher} と組み合わせて利用します。<br>
+ * <pre>
+ *     assertThat(Testee.concurrently(8, () {@code ->} counter.increment()), raiseInNone());
+ *     assertThat(Testee.concurrently(8, () {@code ->} pool.acquire()), raiseInAny(PoolExhaustedException.class));
+ * </pre>
+ * <br>
+ * この実装はスレッドセーフです。<br>
+ * 
+ * @param <T> オペレーションの戻り値の型（戻り値を返さないオペレーションの場合は {@link Void}）
+ * @see Testee#concurrently(int, UnsafeCallable)
+ * @see Testee#concurrently(int, UnsafeRunnable)
+ * @since 1.5.0
+ * @author nmby
+ */
+public class ConcurrentTestee<T> {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private static final String MSG_NOT_TESTED = "I haven't yet been tested.";
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final Supplier<Testee<T>> factory;
+    private final int threads;
+    private volatile List<Testee<T>> results;
+    
+    /**
+     * @param factory 各スレッドで実行する未実行の {@code Testee} を作成する関数
+     * @param threads スレッド数
+     */
+    /*package*/ ConcurrentTestee(Supplier<Testee<T>> factory, int threads) {
+        assert factory != null;
+        assert 0 < threads;
+        
+        this.factory = factory;
+        this.threads = threads;
+    }
+    
+    private List<Testee<T>> resolve() {
+        List<Testee<T>> captured = results;
+        if (captured == null) {
+            synchronized (this) {
+                captured = results;
+                if (captured == null) {
+                    captured = execute();
+                    results = captured;
+                }
+            }
+        }
+        return captured;
+    }
+    
+    private List<Testee<T>> execute() {
+        // 各スレッドは自身のインデックスの要素にのみ書き込むため、収集にロックは不要である。
+        AtomicReferenceArray<Testee<T>> collected = new AtomicReferenceArray<>(threads);
+        CyclicBarrier barrier = new CyclicBarrier(threads);
+        List<Testee<T>> testees = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            testees.add(factory.get());
+        }
+        
+        Workers.run("concurrent", threads, index -> {
+            try {
+                barrier.await();
+            } catch (InterruptedException | BrokenBarrierException e) {
+                // 待ち合わせに失敗した場合も、オペレーションは実行する。
+            }
+            Testee<T> testee = testees.get(index);
+            testee.thrownChain();
+            collected.set(index, testee);
+        });
+        
+        List<Testee<T>> list = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            list.add(collected.get(i));
+        }
+        return Collections.unmodifiableList(list);
+    }
+    
+    /**
+     * オペレーションを同時に実行するスレッドの数を返します。<br>
+     * 
+     * @return スレッド数
+     */
+    public int threads() {
+        return threads;
+    }
+    
+    /**
+     * 検査対象のオペレーションを各スレッドで同時に実行し、各スレッドにおける実行結果を返します。<br>
+     * オペレーションの実行は最初の呼び出し時にのみ行われます。<br>
+     * 返されるリストの各要素は、対応するスレッド上で実行済みの {@link Testee} です。
+     * 各要素に対して {@link Testee#call()} や {@link Testee#thrownChain()} などを呼び出すと、そのスレッドにおける実行結果が得られます。<br>
+     * 
+     * @return 各スレッドにおける実行結果を表す、実行済みの {@code Testee} の変更不可能なリスト
+     */
+    public List<Testee<T>> results() {
+        return resolve();
+    }
+    
+    /**
+     * 検査対象のオペレーションを各スレッドで同時に実行し、例外またはエラーをスローしたスレッドの数を返します。<br>
+     * オペレーションの実行は最初の呼び出し時にのみ行われます。<br>
+     * 
+     * @return 例外またはエラーをスローしたスレッドの数
+     */
+    public int raisedCount() {
+        int count = 0;
+        for (Testee<T> testee : resolve()) {
+            if (testee.thrownChain() != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * 検査結果の文字列表現を返します。
+     * この値が JUnit の障害トレースビューの中で "actual" としてレポートされます。<br>
+     * <br>
+     * 次の形式の文字列を返します。各スレッドの実行結果の形式は {@link Testee#toString()} と同様です。
+     * <pre>    "4 threads, 1 raised: [<i>result0</i>, <i>result1</i>, <i>result2</i>, <i>result3</i>]"</pre>
+     * 検査対象のオペレーションが未実行の場合は、次の文字列を返します。
+     * <pre>    "I haven't yet been tested."</pre>
+     * 
+     * @return 検査結果の文字列表現
+     */
+    @Override
+    public String toString() {
+        List<Testee<T>> captured = results;
+        if (captured == null) {
+            return MSG_NOT_TESTED;
+        }
+        return String.format("%d threads, %d raised: %s", threads, raisedCount(), captured);
+    }
+}
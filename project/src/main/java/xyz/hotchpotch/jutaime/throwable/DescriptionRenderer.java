@@ -0,0 +1,260 @@
+package xyz.hotchpotch.jutaime.throwable;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * {@link Testee} の検査結果の文字列表現を、長さと要素数の上限付きで作成するためのクラスです。<br>
+ * 配列の文字列表現は {@link java.util.Arrays#toString(int[])} や {@link java.util.Arrays#deepToString(Object[])} と同じ形式ですが、
+ * 各配列の先頭から指定された要素数までのみを文字列化し、残りの要素は省略します。
+ * また、文字列表現全体が指定された長さを超える場合は、その時点で打ち切ります。<br>
+ * <br>
+ * 文字列化の方法は戻り値の型ごとに一度だけ決定され、{@link ClassValue} にキャッシュされます。<br>
+ * 
+ * @since 1.5.0
+ * @author nmby
+ */
+/*package*/ abstract class DescriptionRenderer {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /** 配列の要素を省略した場合に付加する文字列の書式 */
+    private static final String OMITTED = ", ... (%d more)";
+    
+    /** 文字列表現を打ち切った場合に付加する文字列 */
+    /*package*/ static final String TRUNCATED = "... (truncated)";
+    
+    /**
+     * 文字列表現を作成中の状態を保持するバッファです。<br>
+     */
+    private static class Buffer {
+        private final StringBuilder str = new StringBuilder();
+        private final int maxElements;
+        private final int maxLength;
+        
+        // Arrays.deepToString() と同様に、自分自身を含む配列を "[...]" と表すためのもの。
+        // 入れ子の配列が現れた時点で初めて生成する。
+        private Map<Object[], Boolean> dejaVu;
+        
+        private Buffer(int maxElements, int maxLength) {
+            this.maxElements = maxElements;
+            this.maxLength = maxLength;
+        }
+        
+        private boolean isFull() {
+            return maxLength <= str.length();
+        }
+        
+        /**
+         * 文字列を追記します。上限を超える部分は追記しません。<br>
+         * 巨大な文字列が渡された場合に備えて、上限を超えた部分はコピーしません。<br>
+         */
+        private Buffer append(String s) {
+            int room = maxLength - str.length() + 1;
+            if (0 < room) {
+                str.append(s, 0, Math.min(s.length(), room));
+            }
+            return this;
+        }
+        
+        private String complete() {
+            if (maxLength < str.length()) {
+                str.setLength(maxLength);
+                str.append(TRUNCATED);
+            }
+            return str.toString();
+        }
+    }
+    
+    /**
+     * 値をバッファに追記するための関数です。<br>
+     */
+    @FunctionalInterface
+    private static interface ValueAppender {
+        void append(Buffer buf, Object value);
+    }
+    
+    /**
+     * 配列の要素をひとつずつバッファに追記するための関数です。<br>
+     */
+    @FunctionalInterface
+    private static interface ElementAppender {
+        void append(Buffer buf, int index);
+    }
+    
+    private static final DescriptionRenderer OBJECT = of((buf, value) -> buf.append(String.valueOf(value)));
+    
+    private static final ClassValue<DescriptionRenderer> RENDERERS = new ClassValue<DescriptionRenderer>() {
+        @Override
+        protected DescriptionRenderer computeValue(Class<?> type) {
+            if (!type.isArray()) {
+                return OBJECT;
+            }
+            
+            Class<?> componentType = type.getComponentType();
+            if (!componentType.isPrimitive()) {
+                return of((buf, value) -> appendDeeply(buf, (Object[]) value));
+            } else if (componentType == int.class) {
+                return of((buf, value) -> {
+                    int[] a = (int[]) value;
+                    appendElements(buf, a.length, (b, i) -> b.str.append(a[i]));
+                });
+            } else if (componentType == long.class) {
+                return of((buf, value) -> {
+                    long[] a = (long[]) value;
+                    appendElements(buf, a.length, (b, i) -> b.str.append(a[i]));
+                });
+            } else if (componentType == byte.class) {
+                return of((buf, value) -> {
+                    byte[] a = (byte[]) value;
+                    appendElements(buf, a.length, (b, i) -> b.str.append(a[i]));
+                });
+            } else if (componentType == short.class) {
+                return of((buf, value) -> {
+                    short[] a = (short[]) value;
+                    appendElements(buf, a.length, (b, i) -> b.str.append(a[i]));
+                });
+            } else if (componentType == char.class) {
+                return of((buf, value) -> {
+                    char[] a = (char[]) value;
+                    appendElements(buf, a.length, (b, i) -> b.str.append(a[i]));
+                });
+            } else if (componentType == boolean.class) {
+                return of((buf, value) -> {
+                    boolean[] a = (boolean[]) value;
+                    appendElements(buf, a.length, (b, i) -> b.str.append(a[i]));
+                });
+            } else if (componentType == float.class) {
+                return of((buf, value) -> {
+                    float[] a = (float[]) value;
+                    appendElements(buf, a.length, (b, i) -> b.str.append(a[i]));
+                });
+            } else if (componentType == double.class) {
+                return of((buf, value) -> {
+                    double[] a = (double[]) value;
+                    appendElements(buf, a.length, (b, i) -> b.str.append(a[i]));
+                });
+            }
+            throw new AssertionError(type);
+        }
+    };
+    
+    private static DescriptionRenderer of(ValueAppender appender) {
+        assert appender != null;
+        return new DescriptionRenderer() {
+            @Override
+            /*package*/ void appendTo(Buffer buf, Object value) {
+                appender.append(buf, value);
+            }
+        };
+    }
+    
+    /**
+     * {@code "[e0, e1, ..., eN]"} の形式で配列の要素を追記します。<br>
+     * 要素数の上限を超えた要素、および長さの上限に達した後の要素は追記しません。<br>
+     */
+    private static void appendElements(Buffer buf, int length, ElementAppender appender) {
+        buf.str.append('[');
+        int n = Math.min(length, buf.maxElements);
+        int i = 0;
+        for (; i < n && !buf.isFull(); i++) {
+            if (0 < i) {
+                buf.str.append(", ");
+            }
+            appender.append(buf, i);
+        }
+        if (i < length) {
+            buf.append(String.format(OMITTED, length - i));
+        }
+        buf.str.append(']');
+    }
+    
+    private static void appendDeeply(Buffer buf, Object[] array) {
+        if (buf.dejaVu == null) {
+            buf.dejaVu = new IdentityHashMap<>();
+        }
+        buf.dejaVu.put(array, Boolean.TRUE);
+        
+        appendElements(buf, array.length, (b, i) -> {
+            Object element = array[i];
+            if (element == null) {
+                b.append("null");
+            } else if (element instanceof Object[] && b.dejaVu.containsKey(element)) {
+                b.append("[...]");
+            } else {
+                RENDERERS.get(element.getClass()).appendTo(b, element);
+            }
+        });
+        
+        buf.dejaVu.remove(array);
+    }
+    
+    /**
+     * オペレーションの戻り値の文字列表現を作成します。<br>
+     * 戻り値またはその要素の {@code toString()} が例外をスローした場合は、{@link Object#toString()} と同じ形式の文字列を返します。<br>
+     * 
+     * @param result オペレーションの戻り値（{@code null} が許容されます）
+     * @param maxElements 配列ごとに文字列化する要素の最大数
+     * @param maxLength 文字列表現の最大長
+     * @return 戻り値の文字列表現
+     */
+    /*package*/ static String renderResult(Object result, int maxElements, int maxLength) {
+        assert 0 < maxElements;
+        assert 0 < maxLength;
+        
+        if (result == null) {
+            return "null";
+        }
+        Buffer buf = new Buffer(maxElements, maxLength);
+        try {
+            RENDERERS.get(result.getClass()).appendTo(buf, result);
+            return buf.complete();
+        } catch (RuntimeException e) {
+            return result.getClass().getName() + "@" + Integer.toHexString(System.identityHashCode(result));
+        }
+    }
+    
+    /**
+     * 例外チェインの文字列表現を次の形式で作成します。<br>
+     * <pre>    "throw <i>ExceptionClassName</i> (<i>Message</i>): <i>CauseClassName1</i> (<i>Message</i>): ..."</pre>
+     * 
+     * @param chain オペレーションがスローした例外またはエラーの例外チェイン
+     * @param maxLength 文字列表現の最大長
+     * @return 例外チェインの文字列表現
+     */
+    /*package*/ static String renderThrown(ThrowableChain chain, int maxLength) {
+        assert chain != null;
+        assert 0 < maxLength;
+        
+        Buffer buf = new Buffer(Integer.MAX_VALUE, maxLength);
+        buf.append("throw ");
+        for (int i = 0; i < chain.size() && !buf.isFull(); i++) {
+            if (0 < i) {
+                buf.append(": ");
+            }
+            appendNode(buf, chain, i);
+        }
+        if (chain.isLooped()) {
+            buf.append(": ");
+            appendNode(buf, chain, chain.loopIndex());
+        }
+        if (!chain.isTerminated()) {
+            buf.append(": ...");
+        }
+        return buf.complete();
+    }
+    
+    private static void appendNode(Buffer buf, ThrowableChain chain, int index) {
+        buf.append(chain.typeAt(index).getName())
+                .append(" (")
+                .append(String.valueOf(chain.messageAt(index)))
+                .append(")");
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private DescriptionRenderer() {
+    }
+    
+    /*package*/ abstract void appendTo(Buffer buf, Object value);
+}
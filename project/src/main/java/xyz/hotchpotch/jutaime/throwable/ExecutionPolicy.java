@@ -0,0 +1,239 @@
+package xyz.hotchpotch.jutaime.throwable;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hamcrest.Matcher;
+import org.hamcrest.core.AllOf;
+import org.hamcrest.core.AnyOf;
+import org.hamcrest.core.DescribedAs;
+import org.hamcrest.core.Is;
+import org.hamcrest.core.IsAnything;
+import org.hamcrest.core.IsNot;
+
+import xyz.hotchpotch.jutaime.throwable.matchers.CompletesWithin;
+import xyz.hotchpotch.jutaime.throwable.matchers.FusedChainMatcher;
+import xyz.hotchpotch.jutaime.throwable.matchers.InChain;
+import xyz.hotchpotch.jutaime.throwable.matchers.InChainExact;
+import xyz.hotchpotch.jutaime.throwable.matchers.NoCause;
+import xyz.hotchpotch.jutaime.throwable.matchers.Raise;
+import xyz.hotchpotch.jutaime.throwable.matchers.RaiseExact;
+import xyz.hotchpotch.jutaime.throwable.matchers.RaiseNothing;
+import xyz.hotchpotch.jutaime.throwable.matchers.RaisesWithin;
+import xyz.hotchpotch.jutaime.throwable.matchers.RootCause;
+import xyz.hotchpotch.jutaime.throwable.matchers.RootCauseExact;
+
+/**
+ * {@link RaiseMatcher} が格納する複数の {@code Matcher} をどのように評価するかを表す実行ポリシーです。<br>
+ * 次の実行ポリシーが提供されます。<br>
+ * <ul>
+ *   <li>{@link #sequential()} ： 呼び出し元スレッドで、見積もりコストの低い順に逐次評価します。
+ *       不合格の {@code Matcher} が見つかった時点で評価を打ち切ります。（デフォルト）</li>
+ *   <li>{@link #parallel(int)} ： {@code Matcher} の個数が閾値以上の場合に限り、共通の
+ *       {@link java.util.concurrent.ForkJoinPool ForkJoinPool} を用いて並列に評価します。
+ *       閾値未満の場合は {@link #sequential()} と同様に評価します。</li>
+ *   <li>{@link #on(Executor)} ： 呼び出し元が指定した {@link Executor} 上で並列に評価します。
+ *       不合格の {@code Matcher} が見つかった時点で結果を確定させます。</li>
+ * </ul>
+ * 見積もりコストは {@code Matcher} の種類から決定されます。
+ * 例外チェインに対する検査をまとめた {@link FusedChainMatcher} が最も安価であり、
+ * 本ライブラリの {@link xyz.hotchpotch.jutaime.throwable.matchers} パッケージの {@code Matcher}、
+ * Hamcrest の標準の組み合わせ {@code Matcher}（{@code is}、{@code not}、{@code allOf}、{@code anyOf} など）、
+ * その他の任意の {@code Matcher} の順に高価であるとみなされます。<br>
+ * <br>
+ * このクラスは不変であり、スレッドセーフです。<br>
+ * 
+ * @see RaiseMatcher#executeWith(ExecutionPolicy)
+ * @since 1.5.0
+ * @author nmby
+ */
+public abstract class ExecutionPolicy {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private static final ExecutionPolicy SEQUENTIAL = new Sequential();
+    
+    /** 見積もりコストの低い順に {@code Matcher} を並べるための {@code Comparator} */
+    /*package*/ static final Comparator<Matcher<?>> BY_COST = Comparator.comparingInt(ExecutionPolicy::estimateCost);
+    
+    /**
+     * {@code Matcher} の評価コストを見積もります。<br>
+     * 
+     * @param matcher 任意の {@code Matcher}
+     * @return 見積もりコスト（小さいほど安価）
+     */
+    /*package*/ static int estimateCost(Matcher<?> matcher) {
+        assert matcher != null;
+        
+        if (matcher instanceof FusedChainMatcher) {
+            return 0;
+        }
+        if (matcher instanceof Raise || matcher instanceof RaiseExact
+                || matcher instanceof RootCause || matcher instanceof RootCauseExact
+                || matcher instanceof InChain || matcher instanceof InChainExact
+                || matcher instanceof NoCause || matcher instanceof RaiseNothing
+                || matcher instanceof RaisesWithin || matcher instanceof CompletesWithin) {
+            return 1;
+        }
+        if (matcher instanceof Is || matcher instanceof IsNot
+                || matcher instanceof AllOf || matcher instanceof AnyOf
+                || matcher instanceof DescribedAs || matcher instanceof IsAnything) {
+            return 2;
+        }
+        return 3;
+    }
+    
+    /**
+     * 呼び出し元スレッドで、見積もりコストの低い順に逐次評価する実行ポリシーを返します。<br>
+     * これは {@link RaiseMatcher} のデフォルトの実行ポリシーです。<br>
+     * 
+     * @return 逐次評価する実行ポリシー
+     */
+    public static ExecutionPolicy sequential() {
+        return SEQUENTIAL;
+    }
+    
+    /**
+     * {@code Matcher} の個数が {@code threshold} 以上の場合に限り、共通の {@code ForkJoinPool} を用いて並列に評価する
+     * 実行ポリシーを返します。<br>
+     * 
+     * @param threshold 並列評価を行う {@code Matcher} の最小個数
+     * @return 閾値以上の場合に並列評価する実行ポリシー
+     * @throws IllegalArgumentException {@code threshold} が {@code 2} 未満の場合
+     */
+    public static ExecutionPolicy parallel(int threshold) {
+        if (threshold < 2) {
+            throw new IllegalArgumentException(String.valueOf(threshold));
+        }
+        return new Parallel(threshold);
+    }
+    
+    /**
+     * 指定された {@code Executor} 上で {@code Matcher} を並列に評価する実行ポリシーを返します。<br>
+     * {@code Matcher} が1つだけの場合は、呼び出し元スレッドで評価します。<br>
+     * 
+     * @param executor {@code Matcher} を評価する {@code Executor}
+     * @return {@code executor} 上で並列評価する実行ポリシー
+     * @throws NullPointerException {@code executor} が {@code null} の場合
+     */
+    public static ExecutionPolicy on(Executor executor) {
+        Objects.requireNonNull(executor);
+        return new OnExecutor(executor);
+    }
+    
+    private static boolean allMatchSequentially(List<Matcher<Testee<?>>> matchers, Testee<?> testee) {
+        for (Matcher<Testee<?>> matcher : matchers) {
+            if (!matcher.matches(testee)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static class Sequential extends ExecutionPolicy {
+        
+        @Override
+        /*package*/ boolean allMatch(List<Matcher<Testee<?>>> matchers, Testee<?> testee) {
+            return allMatchSequentially(matchers, testee);
+        }
+        
+        @Override
+        public String toString() {
+            return "sequential";
+        }
+    }
+    
+    private static class Parallel extends ExecutionPolicy {
+        private final int threshold;
+        
+        private Parallel(int threshold) {
+            this.threshold = threshold;
+        }
+        
+        @Override
+        /*package*/ boolean allMatch(List<Matcher<Testee<?>>> matchers, Testee<?> testee) {
+            if (matchers.size() < threshold) {
+                return allMatchSequentially(matchers, testee);
+            }
+            return matchers.parallelStream().allMatch(x -> x.matches(testee));
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("parallel(%d)", threshold);
+        }
+    }
+    
+    private static class OnExecutor extends ExecutionPolicy {
+        private final Executor executor;
+        
+        private OnExecutor(Executor executor) {
+            this.executor = executor;
+        }
+        
+        @Override
+        /*package*/ boolean allMatch(List<Matcher<Testee<?>>> matchers, Testee<?> testee) {
+            if (matchers.size() < 2) {
+                return allMatchSequentially(matchers, testee);
+            }
+            
+            CompletableFuture<Boolean> result = new CompletableFuture<>();
+            AtomicInteger remaining = new AtomicInteger(matchers.size());
+            
+            for (Matcher<Testee<?>> matcher : matchers) {
+                executor.execute(() -> {
+                    // 既に結果が確定している場合は評価を省略する。
+                    if (result.isDone()) {
+                        return;
+                    }
+                    try {
+                        if (!matcher.matches(testee)) {
+                            result.complete(false);
+                        } else if (remaining.decrementAndGet() == 0) {
+                            result.complete(true);
+                        }
+                    } catch (Throwable t) {
+                        result.completeExceptionally(t);
+                    }
+                });
+            }
+            
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw e;
+            }
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("on(%s)", executor);
+        }
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private ExecutionPolicy() {
+    }
+    
+    /**
+     * 見積もりコストの低い順に並べられた {@code Matcher} 群で {@code testee} を検査し、全てが合格となるかを返します。<br>
+     * 
+     * @param matchers 見積もりコストの低い順に並べられた {@code Matcher} 群
+     * @param testee 検査対象の {@code Testee}
+     * @return 全ての {@code Matcher} が合格と判定した場合は {@code true}
+     */
+    /*package*/ abstract boolean allMatch(List<Matcher<Testee<?>>> matchers, Testee<?> testee);
+}
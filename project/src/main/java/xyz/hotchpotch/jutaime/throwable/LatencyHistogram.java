@@ -0,0 +1,155 @@
+package xyz.hotchpotch.jutaime.throwable;
+
+import java.time.Duration;
+
+/**
+ * 所要時間の分布を記録する、固定サイズのヒストグラムです。<br>
+ * 所要時間はナノ秒単位で記録され、相対誤差 1/64（約 1.6%）以内の精度で集計されます。
+ * {@code 0} 以上 {@value #LINEAR_RANGE} 未満の値は正確に記録されます。<br>
+ * 内部の配列はインスタンスの生成時に一度だけ確保されるため、値の記録は新たなオブジェクトを生成しません。<br>
+ * <br>
+ * このクラスのインスタンスは {@link RepeatedTestee} により作成され、記録の完了後に公開されます。
+ * 公開後のインスタンスは変更されないため、複数のスレッドから安全に参照することができます。<br>
+ * 
+ * @see RepeatedTestee#histogram()
+ * @since 1.5.0
+ * @author nmby
+ */
+public final class LatencyHistogram {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    // 値の最上位ビットの位置（指数）ごとに 64 個のバケットを割り当てる。
+    // 0 以上 128 未満の値は 1 バケットにつき 1 つの値、それ以上の値は 1 バケットにつき 2^exp 個の値を受け持つ。
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    
+    /** 正確に記録される値の範囲（この値未満の値は丸められずに記録されます） */
+    public static final int LINEAR_RANGE = SUB_BUCKETS * 2;
+    
+    private static final int BUCKETS = LINEAR_RANGE + (63 - SUB_BUCKET_BITS - 1) * SUB_BUCKETS;
+    
+    /*package*/ static int indexOf(long value) {
+        assert 0 <= value;
+        if (value < LINEAR_RANGE) {
+            return (int) value;
+        }
+        int exp = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return LINEAR_RANGE + (exp - 1) * SUB_BUCKETS + (int) (value >>> exp) - SUB_BUCKETS;
+    }
+    
+    /*package*/ static long highestValueOf(int index) {
+        assert 0 <= index && index < BUCKETS;
+        if (index < LINEAR_RANGE) {
+            return index;
+        }
+        int exp = (index - LINEAR_RANGE) / SUB_BUCKETS + 1;
+        long sub = (index - LINEAR_RANGE) % SUB_BUCKETS + SUB_BUCKETS;
+        long next = (sub + 1) << exp;
+        return next < 0 ? Long.MAX_VALUE : next - 1;
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+    private long sum;
+    
+    /*package*/ LatencyHistogram() {
+    }
+    
+    /**
+     * 所要時間を記録します。<br>
+     * 
+     * @param nanos 所要時間（ナノ秒）。負の値は {@code 0} として記録されます。
+     */
+    /*package*/ void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts[indexOf(value)]++;
+        count++;
+        sum += value;
+        if (value < min) {
+            min = value;
+        }
+        if (max < value) {
+            max = value;
+        }
+    }
+    
+    /**
+     * 記録された値の個数を返します。<br>
+     * 
+     * @return 記録された値の個数
+     */
+    public long count() {
+        return count;
+    }
+    
+    /**
+     * 記録された値の最小値を返します。<br>
+     * 
+     * @return 最小値（値が記録されていない場合は {@link Duration#ZERO}）
+     */
+    public Duration min() {
+        return count == 0 ? Duration.ZERO : Duration.ofNanos(min);
+    }
+    
+    /**
+     * 記録された値の最大値を返します。<br>
+     * 
+     * @return 最大値（値が記録されていない場合は {@link Duration#ZERO}）
+     */
+    public Duration max() {
+        return count == 0 ? Duration.ZERO : Duration.ofNanos(max);
+    }
+    
+    /**
+     * 記録された値の平均値を返します。<br>
+     * 
+     * @return 平均値（値が記録されていない場合は {@link Duration#ZERO}）
+     */
+    public Duration mean() {
+        return count == 0 ? Duration.ZERO : Duration.ofNanos(sum / count);
+    }
+    
+    /**
+     * 指定されたパーセンタイルの値を返します。<br>
+     * 記録された値のうち {@code percentile} パーセントがこの値以下となるような値を返します。
+     * 値はバケットの上限に丸められるため、真の値以上（かつ最大値以下）となります。<br>
+     * 
+     * @param percentile パーセンタイル（{@code 0} 以上 {@code 100} 以下）
+     * @return 指定されたパーセンタイルの値（値が記録されていない場合は {@link Duration#ZERO}）
+     * @throws IllegalArgumentException {@code percentile} が {@code 0} 以上 {@code 100} 以下でない場合
+     */
+    public Duration percentile(double percentile) {
+        if (!(0 <= percentile && percentile <= 100)) {
+            throw new IllegalArgumentException(String.valueOf(percentile));
+        }
+        if (count == 0) {
+            return Duration.ZERO;
+        }
+        
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long cumulative = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            cumulative += counts[i];
+            if (rank <= cumulative) {
+                return Duration.ofNanos(Math.min(Math.max(highestValueOf(i), min), max));
+            }
+        }
+        return Duration.ofNanos(max);
+    }
+    
+    /**
+     * このヒストグラムの文字列表現を返します。<br>
+     * 
+     * @return このヒストグラムの文字列表現
+     */
+    @Override
+    public String toString() {
+        return String.format("count=%d, min=%s, p50=%s, p90=%s, p99=%s, max=%s",
+                count, min(), percentile(50), percentile(90), percentile(99), max());
+    }
+}
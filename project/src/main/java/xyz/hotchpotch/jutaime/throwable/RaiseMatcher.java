@@ -1,6 +1,8 @@
 package xyz.hotchpotch.jutaime.throwable;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -9,11 +11,13 @@ import org.hamcrest.Description;
 import org.hamcrest.Matcher;
 import org.hamcrest.TypeSafeMatcher;
 
+import xyz.hotchpotch.jutaime.throwable.matchers.FusedChainMatcher;
 import xyz.hotchpotch.jutaime.throwable.matchers.InChain;
 import xyz.hotchpotch.jutaime.throwable.matchers.InChainExact;
 import xyz.hotchpotch.jutaime.throwable.matchers.NoCause;
 import xyz.hotchpotch.jutaime.throwable.matchers.Raise;
 import xyz.hotchpotch.jutaime.throwable.matchers.RaiseExact;
+import xyz.hotchpotch.jutaime.throwable.matchers.RaisesWithin;
 import xyz.hotchpotch.jutaime.throwable.matchers.RootCause;
 import xyz.hotchpotch.jutaime.throwable.matchers.RootCauseExact;
 
@@ -21,8 +25,26 @@ import xyz.hotchpotch.jutaime.throwable.matchers.RootCauseExact;
  * 複数の {@code Matcher} を and 条件で連結する、コンテナ {@code Matcher} です。<br>
  * このクラスのインスタンスは、{@link RaiseMatchers} クラスの static ファクトリメソッドにより提供されます。<br>
  * <br>
- * このクラスはスレッドセーフではありません。<br>
- * ひとつの {@code Matcher} オブジェクトが複数のスレッドから操作されることは想定されていません。<br>
+ * 格納された {@code Matcher} のうち例外チェインに対する検査を行うもの（{@code raise}、{@code rootCause}、{@code inChain}、
+ * {@code noCause} など）は、検査時に {@link FusedChainMatcher} へとまとめてコンパイルされ、
+ * 例外チェインを一度だけ走査して評価されます。
+ * {@link #and(Matcher)} で追加された {@code RaiseMatcher} は、それに格納されている {@code Matcher} 群に展開されます。<br>
+ * 評価は、デフォルトでは呼び出し元スレッドで見積もりコストの低い順に行われ、不合格が確定した時点で打ち切られます。
+ * 評価方法は {@link #executeWith(ExecutionPolicy)} で変更できます。<br>
+ * <br>
+ * このクラスは不変です。{@link #raise(Class)} や {@link #and(Matcher)} などの各メソッドはこのオブジェクトを変更せず、
+ * 検査を追加した新たな {@code RaiseMatcher} を返します。新たなオブジェクトは、追加前の {@code Matcher} 群を元のオブジェクトと共有します。<br>
+ * このため、格納された {@code Matcher} 群がスレッドセーフである限り、このクラスのオブジェクトは {@code static final} 定数として
+ * 複数のスレッドから共有することができます。{@link RaiseMatchers} が提供する {@code Matcher} はいずれもこの条件を満たします。<br>
+ * <br>
+ * バージョン 1.4.x までは、各メソッドはこのオブジェクト自体に検査を追加し、このオブジェクトを返していました。
+ * バージョン 1.5.0 からは戻り値を使用しない限り検査は追加されないため、次のように戻り値を無視するコードは、
+ * エラーとならずに実行されるものの、根本原因の検査を行わなくなります。戻り値を使用するように変更してください。<br>
+ * <pre>
+ *     RaiseMatcher m = raise(UncheckedIOException.class);
+ *     m.rootCause(FileNotFoundException.class);      // 1.5.0 以降は検査が追加されない
+ *     m = m.rootCause(FileNotFoundException.class);  // 戻り値を使用する
+ * </pre>
  * 
  * @since 1.0.0
  * @author nmby
@@ -31,13 +53,87 @@ public class RaiseMatcher extends TypeSafeMatcher<Testee<?>> {
     
     // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
     
+    /**
+     * 評価計画を作成します。<br>
+     * 例外チェインに対する検査を {@link FusedChainMatcher} にまとめ、それ以外の {@code Matcher} とともに
+     * 見積もりコストの低い順に並べます。<br>
+     */
+    private static List<Matcher<Testee<?>>> compile(List<Matcher<Testee<?>>> matchers) {
+        List<Matcher<Testee<?>>> fusible = new ArrayList<>();
+        List<Matcher<Testee<?>>> plan = new ArrayList<>();
+        for (Matcher<Testee<?>> matcher : matchers) {
+            (FusedChainMatcher.isFusible(matcher) ? fusible : plan).add(matcher);
+        }
+        if (!fusible.isEmpty()) {
+            plan.add(FusedChainMatcher.fuse(fusible));
+        }
+        
+        // 安定ソートのため、見積もりコストが同じ Matcher 同士は追加された順に評価される。
+        plan.sort(ExecutionPolicy.BY_COST);
+        return Collections.unmodifiableList(plan);
+    }
+    
     // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
     
-    private final List<Matcher<Testee<?>>> matchers = new ArrayList<>();
+    // 格納する Matcher 群は、末尾の Matcher から先頭に向かって prev を辿る永続的な連結リストとして保持する。
+    // 各メソッドは末尾に要素を加えた新たなオブジェクトを返すため、それまでの要素は全てのオブジェクトで共有される。
+    private final RaiseMatcher prev;
+    private final Matcher<Testee<?>> last;
+    private final int size;
+    private final ExecutionPolicy policy;
+    
+    // 評価計画は初回の検査時に作成する。
+    // 複数のスレッドが同時に作成した場合も結果は同一であるため、排他制御は行わない。
+    private volatile List<Matcher<Testee<?>>> plan;
     
     /*package*/ RaiseMatcher(Matcher<Testee<?>> matcher) {
+        this(null, matcher, ExecutionPolicy.sequential());
+    }
+    
+    private RaiseMatcher(RaiseMatcher prev, Matcher<Testee<?>> last, ExecutionPolicy policy) {
+        super(Testee.class);
+        assert last != null;
+        assert policy != null;
+        
+        this.prev = prev;
+        this.last = last;
+        this.size = prev == null ? 1 : prev.size + 1;
+        this.policy = policy;
+    }
+    
+    private RaiseMatcher add(Matcher<Testee<?>> matcher) {
         assert matcher != null;
-        matchers.add(matcher);
+        return new RaiseMatcher(this, matcher, policy);
+    }
+    
+    private RaiseMatcher addAll(RaiseMatcher other) {
+        assert other != null;
+        RaiseMatcher result = this;
+        for (Matcher<Testee<?>> matcher : other.matchers()) {
+            result = result.add(matcher);
+        }
+        return result;
+    }
+    
+    /**
+     * 格納された {@code Matcher} 群を、追加された順に返します。<br>
+     */
+    private List<Matcher<Testee<?>>> matchers() {
+        List<Matcher<Testee<?>>> matchers = new ArrayList<>(size);
+        for (RaiseMatcher node = this; node != null; node = node.prev) {
+            matchers.add(node.last);
+        }
+        Collections.reverse(matchers);
+        return matchers;
+    }
+    
+    private List<Matcher<Testee<?>>> plan() {
+        List<Matcher<Testee<?>>> p = plan;
+        if (p == null) {
+            p = compile(matchers());
+            plan = p;
+        }
+        return p;
     }
     
     /**
@@ -49,7 +145,27 @@ public class RaiseMatcher extends TypeSafeMatcher<Testee<?>> {
     @Override
     protected boolean matchesSafely(Testee<?> testee) {
         assert testee != null;
-        return matchers.parallelStream().allMatch(x -> x.matches(testee));
+        return policy.allMatch(plan(), testee);
+    }
+    
+    /**
+     * この {@code Matcher} と同じ検査を、指定された実行ポリシーで行う新たな {@code Matcher} を返します。<br>
+     * デフォルトの実行ポリシーは {@link ExecutionPolicy#sequential()} です。<br>
+     * 
+     * @param policy 実行ポリシー
+     * @return 指定された実行ポリシーで検査を行う新たな {@code Matcher}
+     * @throws NullPointerException {@code policy} が {@code null} の場合
+     * @see ExecutionPolicy
+     * @since 1.5.0
+     */
+    public RaiseMatcher executeWith(ExecutionPolicy policy) {
+        Objects.requireNonNull(policy);
+        if (policy == this.policy) {
+            return this;
+        }
+        RaiseMatcher result = new RaiseMatcher(prev, last, policy);
+        result.plan = plan;
+        return result;
     }
     
     /**
@@ -61,281 +177,277 @@ public class RaiseMatcher extends TypeSafeMatcher<Testee<?>> {
     public void describeTo(Description description) {
         if (description != null) {
             description.appendText(
-                    matchers.stream().map(Matcher::toString).collect(Collectors.joining(", ")));
+                    matchers().stream().map(Matcher::toString).collect(Collectors.joining(", ")));
         }
     }
     
     /**
-     * この {@code Matcher} に、{@link Raise#raise(Class)} で返される {@code Matcher} を追加します。<br>
+     * この {@code Matcher} に、{@link Raise#raise(Class)} で返される {@code Matcher} を追加した新たな {@code Matcher} を返します。<br>
      * 
      * @param expectedType 期待される例外の型
-     * @return この {@code Matcher} オブジェクト
+     * @return 検査を追加した新たな {@code Matcher}
      * @throws NullPointerException {@code expectedType} が {@code null} の場合
      * @see Raise#raise(Class)
      */
     public RaiseMatcher raise(Class<? extends Throwable> expectedType) {
         Objects.requireNonNull(expectedType);
-        matchers.add(Raise.raise(expectedType));
-        return this;
+        return add(RaiseMatchers.raise(expectedType).last);
     }
     
     /**
-     * この {@code Matcher} に、{@link RaiseExact#raiseExact(Class)} で返される {@code Matcher} を追加します。<br>
+     * この {@code Matcher} に、{@link RaiseExact#raiseExact(Class)} で返される {@code Matcher} を追加した新たな {@code Matcher} を返します。<br>
      * 
      * @param expectedType 期待される例外の型
-     * @return この {@code Matcher} オブジェクト
+     * @return 検査を追加した新たな {@code Matcher}
      * @throws NullPointerException {@code expectedType} が {@code null} の場合
      * @see RaiseExact#raiseExact(Class)
      */
     public RaiseMatcher raiseExact(Class<? extends Throwable> expectedType) {
         Objects.requireNonNull(expectedType);
-        matchers.add(RaiseExact.raiseExact(expectedType));
-        return this;
+        return add(RaiseMatchers.raiseExact(expectedType).last);
     }
     
     /**
-     * この {@code Matcher} に、{@link Raise#raise(Class, String)} で返される {@code Matcher} を追加します。<br>
+     * この {@code Matcher} に、{@link Raise#raise(Class, String)} で返される {@code Matcher} を追加した新たな {@code Matcher} を返します。<br>
      * 
      * @param expectedType 期待される例外の型
      * @param expectedMessage 期待されるメッセージ（{@code null} が許容されます）
-     * @return この {@code Matcher} オブジェクト
+     * @return 検査を追加した新たな {@code Matcher}
      * @throws NullPointerException {@code expectedType} が {@code null} の場合
      * @see Raise#raise(Class, String)
      */
     public RaiseMatcher raise(Class<? extends Throwable> expectedType, String expectedMessage) {
         Objects.requireNonNull(expectedType);
-        matchers.add(Raise.raise(expectedType, expectedMessage));
-        return this;
+        return add(Raise.raise(expectedType, expectedMessage));
     }
     
     /**
-     * この {@code Matcher} に、{@link RaiseExact#raiseExact(Class, String)} で返される {@code Matcher} を追加します。<br>
+     * この {@code Matcher} に、{@link RaiseExact#raiseExact(Class, String)} で返される {@code Matcher} を追加した新たな {@code Matcher} を返します。<br>
      * 
      * @param expectedType 期待される例外の型
      * @param expectedMessage 期待されるメッセージ（{@code null} が許容されます）
-     * @return この {@code Matcher} オブジェクト
+     * @return 検査を追加した新たな {@code Matcher}
      * @throws NullPointerException {@code expectedType} が {@code null} の場合
      * @see RaiseExact#raiseExact(Class, String)
      */
     public RaiseMatcher raiseExact(Class<? extends Throwable> expectedType, String expectedMessage) {
         Objects.requireNonNull(expectedType);
-        matchers.add(RaiseExact.raiseExact(expectedType, expectedMessage));
-        return this;
+        return add(RaiseExact.raiseExact(expectedType, expectedMessage));
     }
     
     /**
-     * この {@code Matcher} に、{@link Raise#raise(String)} で返される {@code Matcher} を追加します。<br>
+     * この {@code Matcher} に、{@link Raise#raise(String)} で返される {@code Matcher} を追加した新たな {@code Matcher} を返します。<br>
      * 
      * @param expectedMessage 期待されるメッセージ（{@code null} が許容されます）
-     * @return この {@code Matcher} オブジェクト
+     * @return 検査を追加した新たな {@code Matcher}
      * @see Raise#raise(String)
      * @since 1.1.0
      */
     public RaiseMatcher raise(String expectedMessage) {
-        matchers.add(Raise.raise(expectedMessage));
-        return this;
+        return add(Raise.raise(expectedMessage));
     }
     
     /**
-     * この {@code Matcher} に、{@link Raise#raise(Matcher)} で返される {@code Matcher} を追加します。<br>
+     * この {@code Matcher} に、{@link Raise#raise(Matcher)} で返される {@code Matcher} を追加した新たな {@code Matcher} を返します。<br>
      * 
      * @param matcher スローされた例外に対する判定を行うための {@code Matcher}
-     * @return この {@code Matcher} オブジェクト
+     * @return 検査を追加した新たな {@code Matcher}
      * @throws NullPointerException {@code matcher} が {@code null} の場合
      * @see Raise#raise(Matcher)
      */
     public RaiseMatcher raise(Matcher<Throwable> matcher) {
         Objects.requireNonNull(matcher);
-        matchers.add(Raise.raise(matcher));
-        return this;
+        return add(Raise.raise(matcher));
     }
     
     /**
-     * この {@code Matcher} に、{@link NoCause#noCause()} で返される {@code Matcher} を追加します。<br>
+     * この {@code Matcher} に、{@link NoCause#noCause()} で返される {@code Matcher} を追加した新たな {@code Matcher} を返します。<br>
      * 
-     * @return この {@code Matcher} オブジェクト
+     * @return 検査を追加した新たな {@code Matcher}
      * @see NoCause#noCause()
      */
     public RaiseMatcher noCause() {
-        matchers.add(NoCause.noCause());
-        return this;
+        return add(RaiseMatchers.noCause().last);
     }
     
     /**
-     * この {@code Matcher} に、{@link RootCause#rootCause(Class)} で返される {@code Matcher} を追加します。<br>
+     * この {@code Matcher} に、{@link RaisesWithin#raisesWithin(Duration)} で返される {@code Matcher} を追加した新たな {@code Matcher} を返します。<br>
+     * 
+     * @param limit 許容される経過時間の上限
+     * @return 検査を追加した新たな {@code Matcher}
+     * @throws NullPointerException {@code limit} が {@code null} の場合
+     * @throws IllegalArgumentException {@code limit} が負の場合
+     * @see RaisesWithin#raisesWithin(Duration)
+     * @since 1.5.0
+     */
+    public RaiseMatcher raisesWithin(Duration limit) {
+        return add(RaisesWithin.raisesWithin(limit));
+    }
+    
+    /**
+     * この {@code Matcher} に、{@link RootCause#rootCause(Class)} で返される {@code Matcher} を追加した新たな {@code Matcher} を返します。<br>
      * 
      * @param expectedType 期待される根本原因（root cause）の型
-     * @return この {@code Matcher} オブジェクト
+     * @return 検査を追加した新たな {@code Matcher}
      * @throws NullPointerException {@code expectedType} が {@code null} の場合
      * @see RootCause#rootCause(Class)
      */
     public RaiseMatcher rootCause(Class<? extends Throwable> expectedType) {
         Objects.requireNonNull(expectedType);
-        matchers.add(RootCause.rootCause(expectedType));
-        return this;
+        return add(RaiseMatchers.rootCause(expectedType).last);
     }
     
     /**
-     * この {@code Matcher} に、{@link RootCauseExact#rootCauseExact(Class)} で返される {@code Matcher} を追加します。<br>
+     * この {@code Matcher} に、{@link RootCauseExact#rootCauseExact(Class)} で返される {@code Matcher} を追加した新たな {@code Matcher} を返します。<br>
      * 
      * @param expectedType 期待される根本原因（root cause）の型
-     * @return この {@code Matcher} オブジェクト
+     * @return 検査を追加した新たな {@code Matcher}
      * @throws NullPointerException {@code expectedType} が {@code null} の場合
      * @see RootCauseExact#rootCauseExact(Class)
      */
     public RaiseMatcher rootCauseExact(Class<? extends Throwable> expectedType) {
         Objects.requireNonNull(expectedType);
-        matchers.add(RootCauseExact.rootCauseExact(expectedType));
-        return this;
+        return add(RaiseMatchers.rootCauseExact(expectedType).last);
     }
     
     /**
-     * この {@code Matcher} に、{@link RootCause#rootCause(Class, String)} で返される {@code Matcher} を追加します。<br>
+     * この {@code Matcher} に、{@link RootCause#rootCause(Class, String)} で返される {@code Matcher} を追加した新たな {@code Matcher} を返します。<br>
      * 
      * @param expectedType 期待される根本原因（root cause）の型
      * @param expectedMessage 期待される根本原因（root cause）のメッセージ（{@code null} が許容されます）
-     * @return この {@code Matcher} オブジェクト
+     * @return 検査を追加した新たな {@code Matcher}
      * @throws NullPointerException {@code expectedType} が {@code null} の場合
      * @see RootCause#rootCause(Class, String)
      */
     public RaiseMatcher rootCause(Class<? extends Throwable> expectedType, String expectedMessage) {
         Objects.requireNonNull(expectedType);
-        matchers.add(RootCause.rootCause(expectedType, expectedMessage));
-        return this;
+        return add(RootCause.rootCause(expectedType, expectedMessage));
     }
     
     /**
-     * この {@code Matcher} に、{@link RootCauseExact#rootCauseExact(Class, String)} で返される {@code Matcher} を追加します。<br>
+     * この {@code Matcher} に、{@link RootCauseExact#rootCauseExact(Class, String)} で返される {@code Matcher} を追加した新たな {@code Matcher} を返します。<br>
      * 
      * @param expectedType 期待される根本原因（root cause）の型
      * @param expectedMessage 期待される根本原因（root cause）のメッセージ（{@code null} が許容されます）
-     * @return この {@code Matcher} オブジェクト
+     * @return 検査を追加した新たな {@code Matcher}
      * @throws NullPointerException {@code expectedType} が {@code null} の場合
      * @see RootCauseExact#rootCauseExact(Class, String)
      */
     public RaiseMatcher rootCauseExact(Class<? extends Throwable> expectedType, String expectedMessage) {
         Objects.requireNonNull(expectedType);
-        matchers.add(RootCauseExact.rootCauseExact(expectedType, expectedMessage));
-        return this;
+        return add(RootCauseExact.rootCauseExact(expectedType, expectedMessage));
     }
     
     /**
-     * この {@code Matcher} に、{@link RootCause#rootCause(String)} で返される {@code Matcher} を追加します。<br>
+     * この {@code Matcher} に、{@link RootCause#rootCause(String)} で返される {@code Matcher} を追加した新たな {@code Matcher} を返します。<br>
      * 
      * @param expectedMessage 期待される根本原因（root cause）のメッセージ（{@code null} が許容されます）
-     * @return この {@code Matcher} オブジェクト
+     * @return 検査を追加した新たな {@code Matcher}
      * @see RootCause#rootCause(String)
      * @since 1.1.0
      */
     public RaiseMatcher rootCause(String expectedMessage) {
-        matchers.add(RootCause.rootCause(expectedMessage));
-        return this;
+        return add(RootCause.rootCause(expectedMessage));
     }
     
     /**
-     * この {@code Matcher} に、{@link RootCause#rootCause(Matcher)} で返される {@code Matcher} を追加します。<br>
+     * この {@code Matcher} に、{@link RootCause#rootCause(Matcher)} で返される {@code Matcher} を追加した新たな {@code Matcher} を返します。<br>
      * 
      * @param matcher 根本原因（root cause）に対する判定を行うための {@code Matcher}
-     * @return この {@code Matcher} オブジェクト
+     * @return 検査を追加した新たな {@code Matcher}
      * @throws NullPointerException {@code matcher} が {@code null} の場合
      * @see RootCause#rootCause(Matcher)
      */
     public RaiseMatcher rootCause(Matcher<Throwable> matcher) {
         Objects.requireNonNull(matcher);
-        matchers.add(RootCause.rootCause(matcher));
-        return this;
+        return add(RootCause.rootCause(matcher));
     }
     
     /**
-     * この {@code Matcher} に、{@link InChain#inChain(Class)} で返される {@code Matcher} を追加します。<br>
+     * この {@code Matcher} に、{@link InChain#inChain(Class)} で返される {@code Matcher} を追加した新たな {@code Matcher} を返します。<br>
      * 
      * @param expectedType 期待される例外の型
-     * @return この {@code Matcher} オブジェクト
+     * @return 検査を追加した新たな {@code Matcher}
      * @throws NullPointerException {@code expectedType} が {@code null} の場合
      * @see InChain#inChain(Class)
      */
     public RaiseMatcher inChain(Class<? extends Throwable> expectedType) {
         Objects.requireNonNull(expectedType);
-        matchers.add(InChain.inChain(expectedType));
-        return this;
+        return add(RaiseMatchers.inChain(expectedType).last);
     }
     
     /**
-     * この {@code Matcher} に、{@link InChainExact#inChainExact(Class)} で返される {@code Matcher} を追加します。<br>
+     * この {@code Matcher} に、{@link InChainExact#inChainExact(Class)} で返される {@code Matcher} を追加した新たな {@code Matcher} を返します。<br>
      * 
      * @param expectedType 期待される例外の型
-     * @return この {@code Matcher} オブジェクト
+     * @return 検査を追加した新たな {@code Matcher}
      * @throws NullPointerException {@code expectedType} が {@code null} の場合
      * @see InChainExact#inChainExact(Class)
      */
     public RaiseMatcher inChainExact(Class<? extends Throwable> expectedType) {
         Objects.requireNonNull(expectedType);
-        matchers.add(InChainExact.inChainExact(expectedType));
-        return this;
+        return add(RaiseMatchers.inChainExact(expectedType).last);
     }
     
     /**
-     * この {@code Matcher} に、{@link InChain#inChain(Class, String)} で返される {@code Matcher} を追加します。<br>
+     * この {@code Matcher} に、{@link InChain#inChain(Class, String)} で返される {@code Matcher} を追加した新たな {@code Matcher} を返します。<br>
      * 
      * @param expectedType 期待される例外の型
      * @param expectedMessage 期待されるメッセージ（{@code null} が許容されます）
-     * @return この {@code Matcher} オブジェクト
+     * @return 検査を追加した新たな {@code Matcher}
      * @throws NullPointerException {@code expectedType} が {@code null} の場合
      * @see InChain#inChain(Class, String)
      */
     public RaiseMatcher inChain(Class<? extends Throwable> expectedType, String expectedMessage) {
         Objects.requireNonNull(expectedType);
-        matchers.add(InChain.inChain(expectedType, expectedMessage));
-        return this;
+        return add(InChain.inChain(expectedType, expectedMessage));
     }
     
     /**
-     * この {@code Matcher} に、{@link InChainExact#inChainExact(Class, String)} で返される {@code Matcher} を追加します。<br>
+     * この {@code Matcher} に、{@link InChainExact#inChainExact(Class, String)} で返される {@code Matcher} を追加した新たな {@code Matcher} を返します。<br>
      * 
      * @param expectedType 期待される例外の型
      * @param expectedMessage 期待されるメッセージ（{@code null} が許容されます）
-     * @return この {@code Matcher} オブジェクト
+     * @return 検査を追加した新たな {@code Matcher}
      * @throws NullPointerException {@code expectedType} が {@code null} の場合
      * @see InChainExact#inChainExact(Class, String)
      */
     public RaiseMatcher inChainExact(Class<? extends Throwable> expectedType, String expectedMessage) {
         Objects.requireNonNull(expectedType);
-        matchers.add(InChainExact.inChainExact(expectedType, expectedMessage));
-        return this;
+        return add(InChainExact.inChainExact(expectedType, expectedMessage));
     }
     
     /**
-     * この {@code Matcher} に、{@link InChain#inChain(String)} で返される {@code Matcher} を追加します。<br>
+     * この {@code Matcher} に、{@link InChain#inChain(String)} で返される {@code Matcher} を追加した新たな {@code Matcher} を返します。<br>
      * 
      * @param expectedMessage 期待されるメッセージ（{@code null} が許容されます）
-     * @return この {@code Matcher} オブジェクト
+     * @return 検査を追加した新たな {@code Matcher}
      * @see InChain#inChain(String)
      * @since 1.1.0
      */
     public RaiseMatcher inChain(String expectedMessage) {
-        matchers.add(InChain.inChain(expectedMessage));
-        return this;
+        return add(InChain.inChain(expectedMessage));
     }
     
     /**
-     * この {@code Matcher} に、{@link InChain#inChain(Matcher)} で返される {@code Matcher} を追加します。<br>
+     * この {@code Matcher} に、{@link InChain#inChain(Matcher)} で返される {@code Matcher} を追加した新たな {@code Matcher} を返します。<br>
      * 
      * @param matcher 例外チェインの中の各例外に対する判定を行うための {@code Matcher}
-     * @return この {@code Matcher} オブジェクト
+     * @return 検査を追加した新たな {@code Matcher}
      * @throws NullPointerException {@code matcher} が {@code null} の場合
      * @see InChain#inChain(Matcher)
      */
     public RaiseMatcher inChain(Matcher<Throwable> matcher) {
         Objects.requireNonNull(matcher);
-        matchers.add(InChain.inChain(matcher));
-        return this;
+        return add(InChain.inChain(matcher));
     }
     
     /**
-     * この {@code Matcher} に任意の {@link Matcher} を追加します。<br>
+     * この {@code Matcher} に任意の {@link Matcher} を追加した新たな {@code Matcher} を返します。<br>
+     * {@code matcher} が {@code RaiseMatcher} の場合は、その時点で {@code matcher} に格納されている {@code Matcher} 群を追加した新たな {@code Matcher} を返します。<br>
      * 
      * @param matcher {@code Testee} に対する任意の検査を行う {@code Matcher}
-     * @return この {@code Matcher} オブジェクト
+     * @return 検査を追加した新たな {@code Matcher}
      * @throws NullPointerException {@code matcher} が {@code null} の場合
      * @throws IllegalArgumentException {@code matcher} がこの {@code Matcher} オブジェクト自身の場合
      */
@@ -344,18 +456,21 @@ public class RaiseMatcher extends TypeSafeMatcher<Testee<?>> {
         if (matcher == this) {
             throw new IllegalArgumentException("you are me.");
         }
+        if (matcher instanceof RaiseMatcher) {
+            // 入れ子の RaiseMatcher は展開し、例外チェインに対する検査をまとめて評価できるようにする。
+            return addAll((RaiseMatcher) matcher);
+        }
         // 間に別の Matcher を挟み多階層にすることでループになってしまう余地は残るが、
         // そこまで面倒見てられないので、ケアしないことにする。
-        matchers.add(matcher);
-        return this;
+        return add(matcher);
     }
     
     /**
      * この {@code Matcher} に、{@link org.hamcrest.CoreMatchers#not(Matcher) org.hamcrest.CoreMatchers.not(Matcher)}
-     * で返される {@code Matcher} を追加します。<br>
+     * で返される {@code Matcher} を追加した新たな {@code Matcher} を返します。<br>
      * 
      * @param matcher {@code Testee} に対する任意の {@code Matcher}
-     * @return この {@code Matcher} オブジェクト
+     * @return 検査を追加した新たな {@code Matcher}
      * @throws NullPointerException {@code matcher} が {@code null} の場合
      * @throws IllegalArgumentException {@code matcher} がこの {@code Matcher} オブジェクト自身の場合
      * @see org.hamcrest.CoreMatchers#not(Matcher) org.hamcrest.CoreMatchers.not(Matcher)
@@ -367,7 +482,6 @@ public class RaiseMatcher extends TypeSafeMatcher<Testee<?>> {
         }
         // 間に別の Matcher を挟み多階層にすることでループになってしまう余地は残るが、
         // そこまで面倒見てられないので、ケアしないことにする。
-        matchers.add(org.hamcrest.CoreMatchers.not(matcher));
-        return this;
+        return add(org.hamcrest.CoreMatchers.not(matcher));
     }
 }
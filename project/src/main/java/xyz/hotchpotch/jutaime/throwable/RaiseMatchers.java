@@ -1,15 +1,24 @@
 package xyz.hotchpotch.jutaime.throwable;
 
+import java.time.Duration;
 import java.util.Objects;
+import java.util.function.Function;
 
 import org.hamcrest.Matcher;
 
+import xyz.hotchpotch.jutaime.throwable.matchers.AllRaise;
+import xyz.hotchpotch.jutaime.throwable.matchers.CompletesWithin;
 import xyz.hotchpotch.jutaime.throwable.matchers.InChain;
 import xyz.hotchpotch.jutaime.throwable.matchers.InChainExact;
 import xyz.hotchpotch.jutaime.throwable.matchers.NoCause;
+import xyz.hotchpotch.jutaime.throwable.matchers.PercentileWithin;
 import xyz.hotchpotch.jutaime.throwable.matchers.Raise;
 import xyz.hotchpotch.jutaime.throwable.matchers.RaiseExact;
+import xyz.hotchpotch.jutaime.throwable.matchers.RaiseInAny;
+import xyz.hotchpotch.jutaime.throwable.matchers.RaiseInNone;
+import xyz.hotchpotch.jutaime.throwable.matchers.RaiseInNoRun;
 import xyz.hotchpotch.jutaime.throwable.matchers.RaiseNothing;
+import xyz.hotchpotch.jutaime.throwable.matchers.RaisesWithin;
 import xyz.hotchpotch.jutaime.throwable.matchers.RootCause;
 import xyz.hotchpotch.jutaime.throwable.matchers.RootCauseExact;
 
@@ -18,8 +27,9 @@ import xyz.hotchpotch.jutaime.throwable.matchers.RootCauseExact;
  * {@link Testee} と組み合わせた利用方法については、
  * {@link xyz.hotchpotch.jutaime.throwable xyz.hotchpotch.jutaime.throwable パッケージの説明}を参照してください。<br>
  * <br>
- * 一般に、このクラスの static ファクトリメソッドにより提供される {@code Matcher} オブジェクトはスレッドセーフではありません。<br>
- * ひとつの {@code Matcher} オブジェクトが複数のスレッドから操作されることは想定されていません。<br>
+ * このクラスの static ファクトリメソッドにより提供される {@link RaiseMatcher} オブジェクトは不変であり、スレッドセーフです。<br>
+ * 例外の型のみを指定するファクトリメソッド（{@link #raise(Class)}、{@link #rootCause(Class)}、{@link #inChain(Class)} など）
+ * および {@link #noCause()} は、同じ引数に対しては常に同一のオブジェクトを返します。<br>
  * 
  * @see xyz.hotchpotch.jutaime.throwable
  * @see Testee
@@ -31,6 +41,28 @@ public class RaiseMatchers {
     
     // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
     
+    // 例外の型のみを指定する RaiseMatcher は不変であるため、型ごとに一度だけ生成して共有する。
+    // ClassValue を用いることで、キャッシュが Class オブジェクトのアンロードを妨げないようにする。
+    private static final ClassValue<RaiseMatcher> RAISE = interned(Raise::raise);
+    private static final ClassValue<RaiseMatcher> RAISE_EXACT = interned(RaiseExact::raiseExact);
+    private static final ClassValue<RaiseMatcher> ROOT_CAUSE = interned(RootCause::rootCause);
+    private static final ClassValue<RaiseMatcher> ROOT_CAUSE_EXACT = interned(RootCauseExact::rootCauseExact);
+    private static final ClassValue<RaiseMatcher> IN_CHAIN = interned(InChain::inChain);
+    private static final ClassValue<RaiseMatcher> IN_CHAIN_EXACT = interned(InChainExact::inChainExact);
+    private static final RaiseMatcher NO_CAUSE = new RaiseMatcher(NoCause.noCause());
+    
+    private static ClassValue<RaiseMatcher> interned(Function<Class<? extends Throwable>, Matcher<Testee<?>>> factory) {
+        assert factory != null;
+        return new ClassValue<RaiseMatcher>() {
+            @SuppressWarnings("unchecked")
+            @Override
+            protected RaiseMatcher computeValue(Class<?> type) {
+                // 各ファクトリメソッドの引数の型により、type は Throwable のサブクラスであることが保証される。
+                return new RaiseMatcher(factory.apply((Class<? extends Throwable>) type));
+            }
+        };
+    }
+    
     /**
      * スローされた例外の型を検査する {@code Matcher} オブジェクトを返します。<br>
      * このメソッドにより返される {@code Matcher} オブジェクトは、スローされた例外の型が期待された型のサブクラスの場合も一致と判定します。<br>
@@ -46,7 +78,7 @@ public class RaiseMatchers {
      */
     public static RaiseMatcher raise(Class<? extends Throwable> expectedType) {
         Objects.requireNonNull(expectedType);
-        return new RaiseMatcher(Raise.raise(expectedType));
+        return RAISE.get(expectedType);
     }
     
     /**
@@ -64,7 +96,7 @@ public class RaiseMatchers {
      */
     public static RaiseMatcher raiseExact(Class<? extends Throwable> expectedType) {
         Objects.requireNonNull(expectedType);
-        return new RaiseMatcher(RaiseExact.raiseExact(expectedType));
+        return RAISE_EXACT.get(expectedType);
     }
     
     /**
@@ -212,7 +244,204 @@ public class RaiseMatchers {
      * @see NoCause#noCause()
      */
     public static RaiseMatcher noCause() {
-        return new RaiseMatcher(NoCause.noCause());
+        return NO_CAUSE;
+    }
+    
+    /**
+     * 検査対象のオペレーションが指定された時間内に例外やエラーをスローすることを検査する {@code Matcher} オブジェクトを返します。<br>
+     * このメソッドにより返される {@code Matcher} オブジェクトは、検査対象のオペレーションが例外やエラーをスローし、
+     * かつその実行に要した経過時間（{@link Testee#elapsedTime()}）が {@code limit} 以下である場合に合格と判定します。<br>
+     * 検査対象のオペレーションが正常終了した場合は、不合格と判定します。<br>
+     * 次の例のように、スローされる例外の検査と組み合わせて、失敗が速やかに報告されることを検査できます。<br>
+     * <pre>    assertThat(Testee.of(・・・), raise(TimeoutException.class).raisesWithin(Duration.ofSeconds(1)));</pre>
+     * <br>
+     * より具体的に説明すると、このメソッドは、{@link RaisesWithin#raisesWithin(Duration)} が返す {@code Matcher} を格納した
+     * {@link RaiseMatcher} オブジェクトを返します。<br>
+     * 
+     * @param limit 許容される経過時間の上限
+     * @return 検査対象のオペレーションが {@code limit} 以内に例外やエラーをスローすることを検査する {@code Matcher}
+     * @throws NullPointerException {@code limit} が {@code null} の場合
+     * @throws IllegalArgumentException {@code limit} が負の場合
+     * @see RaisesWithin#raisesWithin(Duration)
+     * @since 1.5.0
+     */
+    public static RaiseMatcher raisesWithin(Duration limit) {
+        return new RaiseMatcher(RaisesWithin.raisesWithin(limit));
+    }
+    
+    /**
+     * 検査対象のオペレーションが例外やエラーをスローせずに指定された時間内に正常終了することを検査する {@code Matcher} オブジェクトを返します。<br>
+     * このメソッドにより返される {@code Matcher} オブジェクトは、検査対象のオペレーションが例外やエラーをスローせずに終了し、
+     * かつその実行に要した経過時間（{@link Testee#elapsedTime()}）が {@code limit} 以下である場合に合格と判定します。<br>
+     * <br>
+     * より具体的に説明すると、このメソッドは、{@link CompletesWithin#completesWithin(Duration)} が返す {@code Matcher} オブジェクトを返します。<br>
+     * 
+     * @param limit 許容される経過時間の上限
+     * @return 検査対象のオペレーションが {@code limit} 以内に正常終了することを検査する {@code Matcher}
+     * @throws NullPointerException {@code limit} が {@code null} の場合
+     * @throws IllegalArgumentException {@code limit} が負の場合
+     * @see CompletesWithin#completesWithin(Duration)
+     * @since 1.5.0
+     */
+    public static Matcher<Testee<?>> completesWithin(Duration limit) {
+        return CompletesWithin.completesWithin(limit);
+    }
+    
+    /**
+     * 繰り返し実行されたオペレーションの所要時間の、指定されたパーセンタイルの値が上限以下であることを検査する {@code Matcher} オブジェクトを返します。<br>
+     * 次の例では、99 パーセンタイルの所要時間が 2 ミリ秒以下であり、かつ 100,000 回の実行で一度も例外がスローされないことを検査します。<br>
+     * <pre>
+     *     assertThat(Testee.of(・・・).repeated(1_000, 100_000),
+     *             allOf(percentileWithin(99, Duration.ofMillis(2)), raiseInNoRun()));
+     * </pre>
+     * <br>
+     * より具体的に説明すると、このメソッドは、{@link PercentileWithin#percentileWithin(double, Duration)} が返す {@code Matcher} オブジェクトを返します。<br>
+     * 
+     * @param percentile パーセンタイル（{@code 0} 以上 {@code 100} 以下）
+     * @param limit 許容される所要時間の上限
+     * @return 所要時間の {@code percentile} パーセンタイルの値が {@code limit} 以下であることを検査する {@code Matcher}
+     * @throws NullPointerException {@code limit} が {@code null} の場合
+     * @throws IllegalArgumentException {@code percentile} が {@code 0} 以上 {@code 100} 以下でない場合、
+     *                                  または {@code limit} が負の場合
+     * @see Testee#repeated(int, int)
+     * @see PercentileWithin#percentileWithin(double, Duration)
+     * @since 1.5.0
+     */
+    public static Matcher<RepeatedTestee<?>> percentileWithin(double percentile, Duration limit) {
+        return PercentileWithin.percentileWithin(percentile, limit);
+    }
+    
+    /**
+     * 繰り返し実行されたオペレーションが、一度も例外やエラーをスローしなかったことを検査する {@code Matcher} オブジェクトを返します。<br>
+     * <br>
+     * より具体的に説明すると、このメソッドは、{@link RaiseInNoRun#raiseInNoRun()} が返す {@code Matcher} オブジェクトを返します。<br>
+     * 
+     * @return 繰り返し実行されたオペレーションが一度も例外やエラーをスローしなかったことを検査する {@code Matcher}
+     * @see Testee#repeated(int, int)
+     * @see RaiseInNoRun#raiseInNoRun()
+     * @since 1.5.0
+     */
+    public static Matcher<RepeatedTestee<?>> raiseInNoRun() {
+        return RaiseInNoRun.raiseInNoRun();
+    }
+    
+    /**
+     * 複数のスレッドで同時に実行されたオペレーションが、少なくともひとつのスレッドで指定された型の例外をスローしたことを検査する
+     * {@code Matcher} オブジェクトを返します。<br>
+     * <br>
+     * より具体的に説明すると、このメソッドは、{@link RaiseInAny#raiseInAny(Class)} が返す {@code Matcher} オブジェクトを返します。<br>
+     * 
+     * @param expectedType 期待される例外の型
+     * @return 少なくともひとつのスレッドで指定された型の例外がスローされたことを検査する {@code Matcher}
+     * @throws NullPointerException {@code expectedType} が {@code null} の場合
+     * @see Testee#concurrently(int, UnsafeCallable)
+     * @see RaiseInAny#raiseInAny(Class)
+     * @since 1.5.0
+     */
+    public static Matcher<ConcurrentTestee<?>> raiseInAny(Class<? extends Throwable> expectedType) {
+        return RaiseInAny.raiseInAny(expectedType);
+    }
+    
+    /**
+     * 複数のスレッドで同時に実行されたオペレーションの、少なくともひとつのスレッドにおける実行結果が指定された {@code Matcher} に合格することを検査する
+     * {@code Matcher} オブジェクトを返します。<br>
+     * 次の例のように、{@link #raise(Class)} や {@link #rootCause(Class)} などが返す {@code Matcher} と組み合わせて利用します。<br>
+     * <pre>    assertThat(Testee.concurrently(8, ・・・), raiseInAny(raise(IllegalStateException.class).rootCause(TimeoutException.class)));</pre>
+     * <br>
+     * より具体的に説明すると、このメソッドは、{@link RaiseInAny#raiseInAny(Matcher)} が返す {@code Matcher} オブジェクトを返します。<br>
+     * 
+     * @param matcher 各スレッドにおける実行結果を検査する {@code Matcher}
+     * @return 少なくともひとつのスレッドにおける実行結果が {@code matcher} に合格することを検査する {@code Matcher}
+     * @throws NullPointerException {@code matcher} が {@code null} の場合
+     * @see Testee#concurrently(int, UnsafeCallable)
+     * @see RaiseInAny#raiseInAny(Matcher)
+     * @since 1.5.0
+     */
+    public static Matcher<ConcurrentTestee<?>> raiseInAny(Matcher<Testee<?>> matcher) {
+        return RaiseInAny.raiseInAny(matcher);
+    }
+    
+    /**
+     * 複数のスレッドで同時に実行されたオペレーションが、どのスレッドでも例外やエラーをスローしなかったことを検査する
+     * {@code Matcher} オブジェクトを返します。<br>
+     * <br>
+     * より具体的に説明すると、このメソッドは、{@link RaiseInNone#raiseInNone()} が返す {@code Matcher} オブジェクトを返します。<br>
+     * 
+     * @return どのスレッドでも例外やエラーがスローされなかったことを検査する {@code Matcher}
+     * @see Testee#concurrently(int, UnsafeCallable)
+     * @see RaiseInNone#raiseInNone()
+     * @since 1.5.0
+     */
+    public static Matcher<ConcurrentTestee<?>> raiseInNone() {
+        return RaiseInNone.raiseInNone();
+    }
+    
+    /**
+     * 複数のスレッドで同時に実行されたオペレーションが、どのスレッドでも指定された型の例外をスローしなかったことを検査する
+     * {@code Matcher} オブジェクトを返します。<br>
+     * <br>
+     * より具体的に説明すると、このメソッドは、{@link RaiseInNone#raiseInNone(Class)} が返す {@code Matcher} オブジェクトを返します。<br>
+     * 
+     * @param expectedType 期待されない例外の型
+     * @return どのスレッドでも指定された型の例外がスローされなかったことを検査する {@code Matcher}
+     * @throws NullPointerException {@code expectedType} が {@code null} の場合
+     * @see Testee#concurrently(int, UnsafeCallable)
+     * @see RaiseInNone#raiseInNone(Class)
+     * @since 1.5.0
+     */
+    public static Matcher<ConcurrentTestee<?>> raiseInNone(Class<? extends Throwable> expectedType) {
+        return RaiseInNone.raiseInNone(expectedType);
+    }
+    
+    /**
+     * 複数のスレッドで同時に実行されたオペレーションの、どのスレッドにおける実行結果も指定された {@code Matcher} に合格しないことを検査する
+     * {@code Matcher} オブジェクトを返します。<br>
+     * <br>
+     * より具体的に説明すると、このメソッドは、{@link RaiseInNone#raiseInNone(Matcher)} が返す {@code Matcher} オブジェクトを返します。<br>
+     * 
+     * @param matcher 各スレッドにおける実行結果を検査する {@code Matcher}
+     * @return どのスレッドにおける実行結果も {@code matcher} に合格しないことを検査する {@code Matcher}
+     * @throws NullPointerException {@code matcher} が {@code null} の場合
+     * @see Testee#concurrently(int, UnsafeCallable)
+     * @see RaiseInNone#raiseInNone(Matcher)
+     * @since 1.5.0
+     */
+    public static Matcher<ConcurrentTestee<?>> raiseInNone(Matcher<Testee<?>> matcher) {
+        return RaiseInNone.raiseInNone(matcher);
+    }
+    
+    /**
+     * 複数のスレッドで同時に実行されたオペレーションが、全てのスレッドで指定された型の例外をスローしたことを検査する
+     * {@code Matcher} オブジェクトを返します。<br>
+     * <br>
+     * より具体的に説明すると、このメソッドは、{@link AllRaise#allRaise(Class)} が返す {@code Matcher} オブジェクトを返します。<br>
+     * 
+     * @param expectedType 期待される例外の型
+     * @return 全てのスレッドで指定された型の例外がスローされたことを検査する {@code Matcher}
+     * @throws NullPointerException {@code expectedType} が {@code null} の場合
+     * @see Testee#concurrently(int, UnsafeCallable)
+     * @see AllRaise#allRaise(Class)
+     * @since 1.5.0
+     */
+    public static Matcher<ConcurrentTestee<?>> allRaise(Class<? extends Throwable> expectedType) {
+        return AllRaise.allRaise(expectedType);
+    }
+    
+    /**
+     * 複数のスレッドで同時に実行されたオペレーションの、全てのスレッドにおける実行結果が指定された {@code Matcher} に合格することを検査する
+     * {@code Matcher} オブジェクトを返します。<br>
+     * <br>
+     * より具体的に説明すると、このメソッドは、{@link AllRaise#allRaise(Matcher)} が返す {@code Matcher} オブジェクトを返します。<br>
+     * 
+     * @param matcher 各スレッドにおける実行結果を検査する {@code Matcher}
+     * @return 全てのスレッドにおける実行結果が {@code matcher} に合格することを検査する {@code Matcher}
+     * @throws NullPointerException {@code matcher} が {@code null} の場合
+     * @see Testee#concurrently(int, UnsafeCallable)
+     * @see AllRaise#allRaise(Matcher)
+     * @since 1.5.0
+     */
+    public static Matcher<ConcurrentTestee<?>> allRaise(Matcher<Testee<?>> matcher) {
+        return AllRaise.allRaise(matcher);
     }
     
     /**
@@ -234,7 +463,7 @@ public class RaiseMatchers {
      */
     public static RaiseMatcher rootCause(Class<? extends Throwable> expectedType) {
         Objects.requireNonNull(expectedType);
-        return new RaiseMatcher(RootCause.rootCause(expectedType));
+        return ROOT_CAUSE.get(expectedType);
     }
     
     /**
@@ -256,7 +485,7 @@ public class RaiseMatchers {
      */
     public static RaiseMatcher rootCauseExact(Class<? extends Throwable> expectedType) {
         Objects.requireNonNull(expectedType);
-        return new RaiseMatcher(RootCauseExact.rootCauseExact(expectedType));
+        return ROOT_CAUSE_EXACT.get(expectedType);
     }
     
     /**
@@ -366,7 +595,7 @@ public class RaiseMatchers {
      */
     public static RaiseMatcher inChain(Class<? extends Throwable> expectedType) {
         Objects.requireNonNull(expectedType);
-        return new RaiseMatcher(InChain.inChain(expectedType));
+        return IN_CHAIN.get(expectedType);
     }
     
     /**
@@ -388,7 +617,7 @@ public class RaiseMatchers {
      */
     public static RaiseMatcher inChainExact(Class<? extends Throwable> expectedType) {
         Objects.requireNonNull(expectedType);
-        return new RaiseMatcher(InChainExact.inChainExact(expectedType));
+        return IN_CHAIN_EXACT.get(expectedType);
     }
     
     /**
@@ -0,0 +1,173 @@
+package xyz.hotchpotch.jutaime.throwable;
+
+/**
+ * 検査対象のオペレーションを繰り返し実行し、その所要時間の分布と例外の発生状況を記録するための、オペレーションのラッパーです。<br>
+ * このクラスのインスタンスは {@link Testee#repeated(int, int)} により作成されます。<br>
+ * <br>
+ * 検査対象のオペレーションは、最初の評価時に、指定された回数のウォームアップ実行の後に指定された回数だけ実行されます。
+ * ウォームアップ実行の結果は記録されません。
+ * 各回の所要時間は {@link LatencyHistogram} に記録され、オペレーションが例外またはエラーをスローした回数も記録されます。
+ * 2回目以降の評価では、1回目の評価時に記録された結果を参照します。<br>
+ * 次の例のように、{@link RaiseMatchers#percentileWithin(double, java.time.Duration)} などの {@code Matcher} と組み合わせて利用します。<br>
+ * <pre>
+ *     assertThat(Testee.of(・・・).repeated(1_000, 100_000),
+ *             allOf(percentileWithin(99, Duration.ofMillis(2)), raiseInNoRun()));
+ * </pre>
+ * <br>
+ * この実装はスレッドセーフです。<br>
+ * 検査対象のオペレーションを繰り返し実行するのは最初に到達した1スレッドのみです。<br>
+ * 
+ * @param <T> オペレーションの戻り値の型（戻り値を返さないオペレーションの場合は {@link Void}）
+ * @see Testee#repeated(int, int)
+ * @see LatencyHistogram
+ * @since 1.5.0
+ * @author nmby
+ */
+public class RepeatedTestee<T> {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private static final String MSG_NOT_TESTED = "I haven't yet been tested.";
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /**
+     * 繰り返し実行の結果を保持するオブジェクトです。<br>
+     * 記録の完了後に {@code volatile} フィールドを介して公開され、以降は変更されません。<br>
+     */
+    private static class Record {
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private long raisedRuns;
+        private Throwable firstThrown;
+    }
+    
+    private final UnsafeCallable<? extends T> operation;
+    private final int warmupRuns;
+    private final int measuredRuns;
+    private volatile Record record;
+    
+    /*package*/ RepeatedTestee(UnsafeCallable<? extends T> operation, int warmupRuns, int measuredRuns) {
+        assert operation != null;
+        assert 0 <= warmupRuns;
+        assert 0 < measuredRuns;
+        
+        this.operation = operation;
+        this.warmupRuns = warmupRuns;
+        this.measuredRuns = measuredRuns;
+    }
+    
+    private Record resolve() {
+        Record captured = record;
+        if (captured == null) {
+            synchronized (this) {
+                captured = record;
+                if (captured == null) {
+                    captured = execute();
+                    record = captured;
+                }
+            }
+        }
+        return captured;
+    }
+    
+    private Record execute() {
+        for (int i = 0; i < warmupRuns; i++) {
+            try {
+                operation.call();
+            } catch (Throwable t) {
+                // ウォームアップ実行の結果は記録しない。
+            }
+        }
+        
+        Record captured = new Record();
+        for (int i = 0; i < measuredRuns; i++) {
+            long start = System.nanoTime();
+            try {
+                operation.call();
+                captured.histogram.record(System.nanoTime() - start);
+            } catch (Throwable t) {
+                captured.histogram.record(System.nanoTime() - start);
+                if (captured.raisedRuns++ == 0) {
+                    captured.firstThrown = t;
+                }
+            }
+        }
+        return captured;
+    }
+    
+    /**
+     * ウォームアップ実行の回数を返します。<br>
+     * 
+     * @return ウォームアップ実行の回数
+     */
+    public int warmupRuns() {
+        return warmupRuns;
+    }
+    
+    /**
+     * 所要時間を記録する実行の回数を返します。<br>
+     * 
+     * @return 所要時間を記録する実行の回数
+     */
+    public int measuredRuns() {
+        return measuredRuns;
+    }
+    
+    /**
+     * 検査対象のオペレーションを繰り返し実行し、各回の所要時間を記録したヒストグラムを返します。<br>
+     * オペレーションの実行は最初の呼び出し時にのみ行われます。<br>
+     * 
+     * @return 各回の所要時間を記録したヒストグラム
+     */
+    public LatencyHistogram histogram() {
+        return resolve().histogram;
+    }
+    
+    /**
+     * 検査対象のオペレーションを繰り返し実行し、例外またはエラーをスローした回数を返します。<br>
+     * オペレーションの実行は最初の呼び出し時にのみ行われます。<br>
+     * 
+     * @return 例外またはエラーをスローした回数（ウォームアップ実行を除く）
+     */
+    public long raisedRuns() {
+        return resolve().raisedRuns;
+    }
+    
+    /**
+     * 検査対象のオペレーションを繰り返し実行し、最初にスローされた例外またはエラーを返します。<br>
+     * オペレーションの実行は最初の呼び出し時にのみ行われます。<br>
+     * 
+     * @return 最初にスローされた例外またはエラー（ウォームアップ実行を除き、一度もスローされなかった場合は {@code null}）
+     */
+    public Throwable firstThrown() {
+        return resolve().firstThrown;
+    }
+    
+    /**
+     * 検査結果の文字列表現を返します。
+     * この値が JUnit の障害トレースビューの中で "actual" としてレポートされます。<br>
+     * <br>
+     * 次の形式の文字列を返します。
+     * <pre>    "100000 runs (1000 warmup), 0 raised, count=100000, min=..., p50=..., p90=..., p99=..., max=..."</pre>
+     * 例外またはエラーがスローされた場合は、最初にスローされたものの型とメッセージが付加されます。<br>
+     * 検査対象のオペレーションが未実行の場合は、次の文字列を返します。
+     * <pre>    "I haven't yet been tested."</pre>
+     * 
+     * @return 検査結果の文字列表現
+     */
+    @Override
+    public String toString() {
+        Record captured = record;
+        if (captured == null) {
+            return MSG_NOT_TESTED;
+        }
+        StringBuilder str = new StringBuilder()
+                .append(String.format("%d runs (%d warmup), %d raised, ", measuredRuns, warmupRuns, captured.raisedRuns))
+                .append(captured.histogram);
+        if (captured.firstThrown != null) {
+            str.append(String.format(", first raised %s (%s)",
+                    captured.firstThrown.getClass().getName(), captured.firstThrown.getMessage()));
+        }
+        return str.toString();
+    }
+}
@@ -1,11 +1,11 @@
 package xyz.hotchpotch.jutaime.throwable;
 
-import java.lang.reflect.Method;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * オペレーションによりスローされる例外およびエラーを検査するための、オペレーションのラッパーです。<br>
@@ -24,6 +24,15 @@ import java.util.stream.Collectors;
  * たとえば上の例における {@code allOf()} の実装によっては、
  * ひとつの {@code Testee} オブジェクトが複数のスレッド上の {@code Matcher} から操作・参照され得ます。
  * {@code Testee} クラスはそのような場合でも正しく動作するように設計されています。<br>
+ * 検査対象のオペレーションを実行するのは最初に到達した1スレッドのみであり、
+ * 2回目以降の評価はロックを取得せずにキャプチャ済みの結果を参照します。<br>
+ * <br>
+ * {@code Testee} はオペレーションの実行に要した経過時間（wall-clock time）と CPU 時間も記録します。
+ * これらは {@link #elapsedTime()} および {@link #cpuTime()} で参照でき、
+ * {@link RaiseMatchers#raisesWithin(Duration)} や {@link RaiseMatchers#completesWithin(Duration)} による検査に利用されます。<br>
+ * <br>
+ * 検査結果の文字列表現（{@link #toString()}）は、アサーションが失敗してそれが必要になった時点で初めて作成されます。
+ * 巨大な配列などを返すオペレーションに備えて、文字列表現の長さと配列の要素数には上限が設けられています。<br>
  * 
  * @param <T> オペレーションの戻り値の型（戻り値を返さないオペレーションの場合は {@link Void}）
  * @see xyz.hotchpotch.jutaime.throwable
@@ -39,6 +48,37 @@ public class Testee<T> implements UnsafeCallable<T> {
     private static final String MSG_COMPLETED_SAFELY = "Completed safely.";
     private static final String MSG_NOT_TESTED = "I haven't yet been tested.";
     
+    /**
+     * 検査結果の文字列表現において、配列ごとに文字列化する要素の最大数のデフォルト値
+     * 
+     * @since 1.5.0
+     */
+    public static final int DEFAULT_MAX_DESCRIPTION_ELEMENTS = 100;
+    
+    /**
+     * 検査結果の文字列表現の最大長のデフォルト値
+     * 
+     * @since 1.5.0
+     */
+    public static final int DEFAULT_MAX_DESCRIPTION_LENGTH = 10_000;
+    
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+    
+    /**
+     * 現在のスレッドの CPU 時間をナノ秒単位で返します。<br>
+     * 
+     * @return 現在のスレッドの CPU 時間（JVM が計測をサポートしていないか、無効化されている場合は {@code -1}）
+     */
+    private static long currentThreadCpuTime() {
+        try {
+            return THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported()
+                    ? THREAD_MX_BEAN.getCurrentThreadCpuTime()
+                    : -1;
+        } catch (UnsupportedOperationException e) {
+            return -1;
+        }
+    }
+    
     /**
      * 戻り値を返すタイプのオペレーションを検査するための {@code Testee} オブジェクトを返します。<br>
      * 
@@ -62,27 +102,183 @@ public class Testee<T> implements UnsafeCallable<T> {
         return new Testee<>(Objects.requireNonNull(operation));
     }
     
+    /**
+     * 戻り値を返すタイプのオペレーションを複数のスレッドで同時に実行して検査するための {@link ConcurrentTestee} オブジェクトを返します。<br>
+     * 返される {@code ConcurrentTestee} は、最初の評価時に {@code threads} 個のスレッドを起動し、
+     * 全てのスレッドが揃った時点で一斉にオペレーションを一度ずつ実行します。<br>
+     * 
+     * @param <T> オペレーションの戻り値の型
+     * @param threads オペレーションを同時に実行するスレッドの数
+     * @param operation 例外またはエラーをスローしうるオペレーション
+     * @return {@code operation} を複数のスレッドで同時に実行して検査するための {@code ConcurrentTestee}
+     * @throws NullPointerException {@code operation} が {@code null} の場合
+     * @throws IllegalArgumentException {@code threads} が {@code 1} 未満の場合
+     * @see ConcurrentTestee
+     * @since 1.5.0
+     */
+    public static <T> ConcurrentTestee<T> concurrently(int threads, UnsafeCallable<? extends T> operation) {
+        Objects.requireNonNull(operation);
+        if (threads < 1) {
+            throw new IllegalArgumentException(String.valueOf(threads));
+        }
+        return new ConcurrentTestee<>(() -> of(operation), threads);
+    }
+    
+    /**
+     * 戻り値を返さないタイプのオペレーションを複数のスレッドで同時に実行して検査するための {@link ConcurrentTestee} オブジェクトを返します。<br>
+     * 返される {@code ConcurrentTestee} は、最初の評価時に {@code threads} 個のスレッドを起動し、
+     * 全てのスレッドが揃った時点で一斉にオペレーションを一度ずつ実行します。<br>
+     * 
+     * @param threads オペレーションを同時に実行するスレッドの数
+     * @param operation 例外またはエラーをスローしうるオペレーション
+     * @return {@code operation} を複数のスレッドで同時に実行して検査するための {@code ConcurrentTestee}
+     * @throws NullPointerException {@code operation} が {@code null} の場合
+     * @throws IllegalArgumentException {@code threads} が {@code 1} 未満の場合
+     * @see ConcurrentTestee
+     * @since 1.5.0
+     */
+    public static ConcurrentTestee<Void> concurrently(int threads, UnsafeRunnable operation) {
+        Objects.requireNonNull(operation);
+        if (threads < 1) {
+            throw new IllegalArgumentException(String.valueOf(threads));
+        }
+        return new ConcurrentTestee<>(() -> of(operation), threads);
+    }
+    
     // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
     
+    /**
+     * オペレーションの実行結果を保持する不変オブジェクトです。<br>
+     * {@code volatile} フィールドを介して公開されるため、参照側はロックなしで安全に読み取ることができます。<br>
+     */
+    private static class Outcome<T> {
+        private final T result;
+        private final Throwable thrown;
+        private final ThrowableChain chain;
+        private final long elapsedNanos;
+        private final long cpuNanos;
+        
+        private Outcome(T result, Throwable thrown, ThrowableChain chain, long elapsedNanos, long cpuNanos) {
+            this.result = result;
+            this.thrown = thrown;
+            this.chain = chain;
+            this.elapsedNanos = elapsedNanos;
+            this.cpuNanos = cpuNanos;
+        }
+        
+        private T get() throws Throwable {
+            if (thrown != null) {
+                throw thrown;
+            } else {
+                return result;
+            }
+        }
+    }
+    
     private final UnsafeCallable<? extends T> operation;
     private final boolean isVoid;
+    private final int maxChainDepth;
+    private final int maxDescriptionElements;
+    private final int maxDescriptionLength;
+    
+    private final AtomicReference<Thread> runner = new AtomicReference<>();
+    private final CountDownLatch completed = new CountDownLatch(1);
+    private volatile Outcome<T> outcome;
     
-    private boolean isVirgin = true;
-    private T result;
-    private Throwable thrown;
-    private volatile String description = MSG_NOT_TESTED;
+    // 文字列表現は toString() の初回呼び出し時に作成する。
+    // 複数のスレッドが同時に作成した場合も結果は同一であるため、排他制御は行わない。
+    private volatile String description;
     
     private Testee(UnsafeCallable<? extends T> operation) {
-        this.operation = operation;
-        this.isVoid = false;
+        this(operation, false, ThrowableChain.DEFAULT_MAX_DEPTH,
+                DEFAULT_MAX_DESCRIPTION_ELEMENTS, DEFAULT_MAX_DESCRIPTION_LENGTH);
     }
     
     private Testee(UnsafeRunnable operation) {
-        this.operation = () -> {
+        this(() -> {
             operation.run();
             return null;
-        };
-        this.isVoid = true;
+        }, true, ThrowableChain.DEFAULT_MAX_DEPTH,
+                DEFAULT_MAX_DESCRIPTION_ELEMENTS, DEFAULT_MAX_DESCRIPTION_LENGTH);
+    }
+    
+    private Testee(
+            UnsafeCallable<? extends T> operation,
+            boolean isVoid,
+            int maxChainDepth,
+            int maxDescriptionElements,
+            int maxDescriptionLength) {
+        
+        this.operation = operation;
+        this.isVoid = isVoid;
+        this.maxChainDepth = maxChainDepth;
+        this.maxDescriptionElements = maxDescriptionElements;
+        this.maxDescriptionLength = maxDescriptionLength;
+    }
+    
+    /**
+     * 例外チェインを辿る最大深さを指定した、新たな {@code Testee} オブジェクトを返します。<br>
+     * 返される {@code Testee} は、この {@code Testee} と同じオペレーションを検査対象とする未実行の {@code Testee} です。<br>
+     * デフォルトの最大深さは {@link ThrowableChain#DEFAULT_MAX_DEPTH} です。<br>
+     * 
+     * @param maxDepth 例外チェインを辿る最大深さ
+     * @return 例外チェインを辿る最大深さを指定した {@code Testee}
+     * @throws IllegalArgumentException {@code maxDepth} が {@code 1} 未満の場合
+     * @see ThrowableChain#of(Throwable, int)
+     * @since 1.5.0
+     */
+    public Testee<T> withMaxChainDepth(int maxDepth) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException(String.valueOf(maxDepth));
+        }
+        return new Testee<>(operation, isVoid, maxDepth, maxDescriptionElements, maxDescriptionLength);
+    }
+    
+    /**
+     * 検査結果の文字列表現の上限を指定した、新たな {@code Testee} オブジェクトを返します。<br>
+     * 返される {@code Testee} は、この {@code Testee} と同じオペレーションを検査対象とする未実行の {@code Testee} です。<br>
+     * 戻り値が配列の場合、各配列（入れ子の配列を含む）の先頭から {@code maxElements} 個までの要素を文字列化し、残りの要素は省略します。
+     * また、文字列表現が {@code maxLength} 文字を超える場合は、その時点で打ち切ります。<br>
+     * デフォルトの上限は {@link #DEFAULT_MAX_DESCRIPTION_ELEMENTS} および {@link #DEFAULT_MAX_DESCRIPTION_LENGTH} です。<br>
+     * 
+     * @param maxElements 配列ごとに文字列化する要素の最大数
+     * @param maxLength 文字列表現の最大長
+     * @return 検査結果の文字列表現の上限を指定した {@code Testee}
+     * @throws IllegalArgumentException {@code maxElements} または {@code maxLength} が {@code 1} 未満の場合
+     * @see #toString()
+     * @since 1.5.0
+     */
+    public Testee<T> withDescriptionLimits(int maxElements, int maxLength) {
+        if (maxElements < 1) {
+            throw new IllegalArgumentException(String.valueOf(maxElements));
+        }
+        if (maxLength < 1) {
+            throw new IllegalArgumentException(String.valueOf(maxLength));
+        }
+        return new Testee<>(operation, isVoid, maxChainDepth, maxElements, maxLength);
+    }
+    
+    /**
+     * この {@code Testee} と同じオペレーションを繰り返し実行して検査するための {@link RepeatedTestee} オブジェクトを返します。<br>
+     * 返される {@code RepeatedTestee} は、最初の評価時にオペレーションを {@code warmupRuns} 回実行した後、
+     * さらに {@code measuredRuns} 回実行してその所要時間と例外の発生状況を記録します。<br>
+     * この {@code Testee} 自身の実行状態には影響しません。<br>
+     * 
+     * @param warmupRuns ウォームアップ実行の回数
+     * @param measuredRuns 所要時間を記録する実行の回数
+     * @return 同じオペレーションを繰り返し実行して検査するための {@code RepeatedTestee}
+     * @throws IllegalArgumentException {@code warmupRuns} が負の場合、または {@code measuredRuns} が {@code 1} 未満の場合
+     * @see RepeatedTestee
+     * @since 1.5.0
+     */
+    public RepeatedTestee<T> repeated(int warmupRuns, int measuredRuns) {
+        if (warmupRuns < 0) {
+            throw new IllegalArgumentException(String.valueOf(warmupRuns));
+        }
+        if (measuredRuns < 1) {
+            throw new IllegalArgumentException(String.valueOf(measuredRuns));
+        }
+        return new RepeatedTestee<>(operation, warmupRuns, measuredRuns);
     }
     
     /**
@@ -101,22 +297,130 @@ public class Testee<T> implements UnsafeCallable<T> {
      * @throws Throwable オペレーション実行時に例外またはエラーが発生した場合
      */
     @Override
-    public synchronized T call() throws Throwable {
-        if (isVirgin) {
-            isVirgin = false;
-            try {
-                result = operation.call();
-                description = descResult(result);
-            } catch (Throwable t) {
-                thrown = t;
-                description = descThrown(thrown);
-            }
+    public T call() throws Throwable {
+        Outcome<T> captured = resolve();
+        return captured == null ? null : captured.get();
+    }
+    
+    /**
+     * 検査対象のオペレーションを実行し、スローされた例外またはエラーの例外チェインのスナップショットを返します。<br>
+     * オペレーションの実行については {@link #call()} と同様に、最初の呼び出し時にのみ実行されます。<br>
+     * <br>
+     * スナップショットはオペレーションの実行時に一度だけ作成され、以降の呼び出しでは同一のインスタンスが返されます。
+     * {@link xyz.hotchpotch.jutaime.throwable.matchers} パッケージの各種 {@code Matcher} はこのスナップショットを共有して検査を行います。<br>
+     * 
+     * @return スローされた例外の例外チェインのスナップショット（オペレーションが正常終了した場合は {@code null}）
+     * @see ThrowableChain
+     * @since 1.5.0
+     */
+    public ThrowableChain thrownChain() {
+        Outcome<T> captured = resolve();
+        return captured == null ? null : captured.chain;
+    }
+    
+    /**
+     * 検査対象のオペレーションを実行し、その実行に要した経過時間（wall-clock time）を返します。<br>
+     * オペレーションの実行については {@link #call()} と同様に、最初の呼び出し時にのみ実行されます。<br>
+     * 経過時間は {@link System#nanoTime()} により計測され、オペレーションが例外やエラーをスローした場合も記録されます。<br>
+     * 
+     * @return オペレーションの実行に要した経過時間（オペレーションの中からこの {@code Testee} が呼び出された場合は {@code null}）
+     * @since 1.5.0
+     */
+    public Duration elapsedTime() {
+        Outcome<T> captured = resolve();
+        return captured == null ? null : Duration.ofNanos(captured.elapsedNanos);
+    }
+    
+    /**
+     * 検査対象のオペレーションを実行し、その実行に要した CPU 時間を返します。<br>
+     * オペレーションの実行については {@link #call()} と同様に、最初の呼び出し時にのみ実行されます。<br>
+     * CPU 時間は {@link ThreadMXBean#getCurrentThreadCpuTime()} により計測されます。
+     * オペレーションが他のスレッドに委譲した処理の CPU 時間は含まれません。<br>
+     * 
+     * @return オペレーションの実行に要した CPU 時間
+     *         （JVM が計測をサポートしていないか無効化されている場合、
+     *         およびオペレーションの中からこの {@code Testee} が呼び出された場合は {@code null}）
+     * @since 1.5.0
+     */
+    public Duration cpuTime() {
+        Outcome<T> captured = resolve();
+        return captured == null || captured.cpuNanos < 0 ? null : Duration.ofNanos(captured.cpuNanos);
+    }
+    
+    /**
+     * 検査対象のオペレーションの実行結果を返します。オペレーションが未実行の場合は実行します。<br>
+     * 
+     * @return オペレーションの実行結果（オペレーションの中からこの {@code Testee} が呼び出された場合は {@code null}）
+     */
+    private Outcome<T> resolve() {
+        Outcome<T> captured = outcome;
+        if (captured != null) {
+            return captured;
         }
         
-        if (thrown != null) {
-            throw thrown;
-        } else {
-            return result;
+        Thread current = Thread.currentThread();
+        if (runner.compareAndSet(null, current)) {
+            captured = execute();
+            outcome = captured;
+            completed.countDown();
+            return captured;
+        }
+        
+        // オペレーションの中から自分自身が呼び出された場合は、結果を待つとデッドロックになる。
+        // 従来の synchronized 実装と同様に、まだ結果が無いものとして扱う。
+        if (runner.get() == current) {
+            return null;
+        }
+        
+        return awaitOutcome();
+    }
+    
+    /**
+     * 検査対象のオペレーションを実行し、その結果を返します。<br>
+     * このメソッドは、{@link #runner} の獲得に成功したスレッドにより一度だけ実行されます。<br>
+     * 
+     * @return オペレーションの実行結果
+     */
+    private Outcome<T> execute() {
+        long cpuStart = currentThreadCpuTime();
+        long start = System.nanoTime();
+        T result = null;
+        Throwable thrown = null;
+        try {
+            result = operation.call();
+        } catch (Throwable t) {
+            thrown = t;
+        }
+        long elapsed = System.nanoTime() - start;
+        long cpuEnd = cpuStart < 0 ? -1 : currentThreadCpuTime();
+        long cpu = cpuEnd < 0 ? -1 : cpuEnd - cpuStart;
+        
+        return thrown == null
+                ? new Outcome<>(result, null, null, elapsed, cpu)
+                : new Outcome<>(null, thrown, ThrowableChain.of(thrown, maxChainDepth), elapsed, cpu);
+    }
+    
+    /**
+     * 他のスレッドで実行中のオペレーションが完了するのを待ち、その結果を返します。<br>
+     * 待機中に割り込まれた場合も待機を継続し、復帰前に割り込み状態を再設定します。<br>
+     * 
+     * @return オペレーションの実行結果
+     */
+    private Outcome<T> awaitOutcome() {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    completed.await();
+                    return outcome;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
         }
     }
     
@@ -131,12 +435,24 @@ public class Testee<T> implements UnsafeCallable<T> {
      * <pre>    "throw <i>ExceptionClassName</i> (<i>Message</i>): <i>CauseClassName1</i> (<i>Message</i>): <i>CauseClassName2</i> (<i>Message</i>): ..."</pre>
      * 検査対象のオペレーションが未実行の場合は、次の文字列を返します。
      * <pre>    "I haven't yet been tested."</pre>
+     * <br>
+     * 文字列表現はこのメソッドの初回呼び出し時に作成され、以降の呼び出しでは同じ文字列が返されます。
+     * 戻り値が配列の場合は各配列の要素数が、また、文字列表現全体の長さが {@link #withDescriptionLimits(int, int)} で指定された上限までに制限されます。<br>
      * 
      * @return 検査結果の文字列表現
      */
     @Override
     public String toString() {
-        return description;
+        Outcome<T> captured = outcome;
+        if (captured == null) {
+            return MSG_NOT_TESTED;
+        }
+        String desc = description;
+        if (desc == null) {
+            desc = captured.thrown == null ? descResult(captured.result) : descThrown(captured.chain);
+            description = desc;
+        }
+        return desc;
     }
     
     /**
@@ -146,62 +462,17 @@ public class Testee<T> implements UnsafeCallable<T> {
      * @return 検査結果の文字列表現
      */
     private String descResult(Object result) {
-        if (isVoid) {
-            return MSG_COMPLETED_SAFELY;
-        }
-        if (result == null || !result.getClass().isArray()) {
-            return Objects.toString(result);
-        }
-        
-        try {
-            if (result.getClass().getComponentType().isPrimitive()) {
-                Method method = Arrays.class.getMethod("toString", result.getClass());
-                return (String) method.invoke(null, result);
-            } else {
-                return Arrays.deepToString((Object[]) result);
-            }
-        } catch (Exception e) {
-            return Objects.toString(result);
-        }
+        return isVoid
+                ? MSG_COMPLETED_SAFELY
+                : DescriptionRenderer.renderResult(result, maxDescriptionElements, maxDescriptionLength);
     }
     
     /**
      * オペレーションが例外をスローして終了した場合の検査結果の文字列表現を返します。
-     * @param thrown オペレーションがスローした例外またはエラー
+     * @param chain オペレーションがスローした例外またはエラーの例外チェイン
      * @return 検査結果の文字列表現
      */
-    private String descThrown(Throwable thrown) {
-        List<Throwable> chain = new ArrayList<>();
-        boolean containsLoop = false;
-        Throwable t = thrown;
-        
-        while (t != null) {
-            
-            // 例外チェインがループ状になっている場合のための処置。
-            // ループ状の例外チェインが妥当であるはずがないし実装する輩がいるとは思えないが、
-            // 防御的に対処コードを実装しておく。
-            // 
-            // equals() がオーバーライドされている可能性が無くはないので
-            // List#contains() ではなく明示的に == で比較することにする。
-            Throwable t2 = t;
-            if (chain.stream().anyMatch(x -> x == t2)) {
-                chain.add(t);
-                containsLoop = true;
-                break;
-            }
-            
-            chain.add(t);
-            t = t.getCause();
-        }
-        String chainStr = chain.stream()
-                .map(x -> String.format("%s (%s)", x.getClass().getName(), x.getMessage()))
-                .collect(Collectors.joining(": "));
-                
-        StringBuilder str = new StringBuilder();
-        str.append("throw ")
-                .append(chainStr)
-                .append(containsLoop ? ": ..." : "");
-                
-        return str.toString();
+    private String descThrown(ThrowableChain chain) {
+        return DescriptionRenderer.renderThrown(chain, maxDescriptionLength);
     }
 }
@@ -0,0 +1,216 @@
+package xyz.hotchpotch.jutaime.throwable;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * スローされた例外またはエラーの例外チェインを、ある時点で一度だけ辿って記録した不変のスナップショットです。<br>
+ * 例外チェインを構成する各例外と、その型およびメッセージをインデックス付きで保持します。
+ * インデックス {@code 0} はスローされた例外そのものを、インデックス {@code size() - 1} は記録された最後の原因（cause）を表します。<br>
+ * <br>
+ * 例外チェインがループ状になっている場合は、同一インスタンスが再び現れた時点で記録を打ち切ります。
+ * 同一性の判定には {@link Object#equals(Object)} ではなく {@code ==} が用いられます。<br>
+ * また、例外チェインが指定された最大深さを超える場合も、その時点で記録を打ち切ります。<br>
+ * <br>
+ * {@link Testee} はスローされた例外に対してこのスナップショットを一度だけ作成し、
+ * 各種 {@code Matcher} はこれを共有して検査を行います。
+ * これにより、ひとつの {@code Testee} に複数の {@code Matcher} を適用する場合でも、
+ * {@link Throwable#getCause()} や {@link Throwable#getMessage()} の呼び出しは各例外につき一度だけとなります。<br>
+ * <br>
+ * このクラスは不変であり、スレッドセーフです。<br>
+ * 
+ * @see Testee#thrownChain()
+ * @since 1.5.0
+ * @author nmby
+ */
+public final class ThrowableChain {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /** 例外チェインを辿る最大深さのデフォルト値 */
+    public static final int DEFAULT_MAX_DEPTH = 1024;
+    
+    /**
+     * 例外チェインのスナップショットを、デフォルトの最大深さ（{@value #DEFAULT_MAX_DEPTH}）で作成します。<br>
+     * 
+     * @param thrown スローされた例外またはエラー
+     * @return {@code thrown} から始まる例外チェインのスナップショット
+     * @throws NullPointerException {@code thrown} が {@code null} の場合
+     */
+    public static ThrowableChain of(Throwable thrown) {
+        return of(thrown, DEFAULT_MAX_DEPTH);
+    }
+    
+    /**
+     * 例外チェインのスナップショットを、指定された最大深さで作成します。<br>
+     * 例外チェインが {@code maxDepth} 個を超える例外から成る場合は、先頭から {@code maxDepth} 個までを記録します。<br>
+     * 
+     * @param thrown スローされた例外またはエラー
+     * @param maxDepth 記録する例外の最大個数
+     * @return {@code thrown} から始まる例外チェインのスナップショット
+     * @throws NullPointerException {@code thrown} が {@code null} の場合
+     * @throws IllegalArgumentException {@code maxDepth} が {@code 1} 未満の場合
+     */
+    public static ThrowableChain of(Throwable thrown, int maxDepth) {
+        Objects.requireNonNull(thrown);
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException(String.valueOf(maxDepth));
+        }
+        return new ThrowableChain(thrown, maxDepth);
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final Throwable[] nodes;
+    private final Class<?>[] types;
+    private final String[] messages;
+    private final int size;
+    private final int loopIndex;
+    private final boolean truncated;
+    
+    private ThrowableChain(Throwable thrown, int maxDepth) {
+        assert thrown != null;
+        assert 0 < maxDepth;
+        
+        Throwable[] nodes = new Throwable[Math.min(maxDepth, 8)];
+        Map<Throwable, Integer> visited = null;
+        int size = 0;
+        int loopIndex = -1;
+        Throwable t = thrown;
+        
+        while (t != null && size < maxDepth) {
+            
+            // 例外チェインがループ状になっている場合のための処置。
+            // equals() がオーバーライドされている可能性が無くはないので、
+            // IdentityHashMap を用いて == で比較する。
+            // cause を持たない例外が大半であるため、Map は2つめの例外に到達した時点で初めて生成する。
+            if (visited == null && 0 < size) {
+                visited = new IdentityHashMap<>();
+                visited.put(nodes[0], 0);
+            }
+            if (visited != null) {
+                Integer prev = visited.putIfAbsent(t, size);
+                if (prev != null) {
+                    loopIndex = prev;
+                    break;
+                }
+            }
+            
+            if (size == nodes.length) {
+                Throwable[] grown = new Throwable[Math.min(maxDepth, size * 2)];
+                System.arraycopy(nodes, 0, grown, 0, size);
+                nodes = grown;
+            }
+            nodes[size++] = t;
+            t = t.getCause();
+        }
+        
+        this.size = size;
+        this.nodes = nodes;
+        this.loopIndex = loopIndex;
+        this.truncated = loopIndex == -1 && t != null;
+        this.types = new Class<?>[size];
+        this.messages = new String[size];
+        for (int i = 0; i < size; i++) {
+            types[i] = nodes[i].getClass();
+            messages[i] = nodes[i].getMessage();
+        }
+    }
+    
+    /**
+     * 記録された例外の個数を返します。<br>
+     * ループ状の例外チェインにおいて再び現れた例外は数えません。<br>
+     * 
+     * @return 記録された例外の個数（{@code 1} 以上）
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * 指定されたインデックスの例外を返します。<br>
+     * 
+     * @param index インデックス
+     * @return {@code index} 番目の例外
+     * @throws IndexOutOfBoundsException {@code index} が範囲外の場合
+     */
+    public Throwable get(int index) {
+        return nodes[checkIndex(index)];
+    }
+    
+    /**
+     * 指定されたインデックスの例外の実行時の型を返します。<br>
+     * 
+     * @param index インデックス
+     * @return {@code index} 番目の例外の実行時の型
+     * @throws IndexOutOfBoundsException {@code index} が範囲外の場合
+     */
+    public Class<?> typeAt(int index) {
+        return types[checkIndex(index)];
+    }
+    
+    /**
+     * 指定されたインデックスの例外の、スナップショット作成時点のメッセージを返します。<br>
+     * 
+     * @param index インデックス
+     * @return {@code index} 番目の例外のメッセージ（{@code null} の場合もあります）
+     * @throws IndexOutOfBoundsException {@code index} が範囲外の場合
+     */
+    public String messageAt(int index) {
+        return messages[checkIndex(index)];
+    }
+    
+    private int checkIndex(int index) {
+        if (index < 0 || size <= index) {
+            throw new IndexOutOfBoundsException(String.format("index : %d, size : %d", index, size));
+        }
+        return index;
+    }
+    
+    /**
+     * 例外チェインがループ状であるかを返します。<br>
+     * 
+     * @return 例外チェインがループ状の場合は {@code true}
+     */
+    public boolean isLooped() {
+        return 0 <= loopIndex;
+    }
+    
+    /**
+     * 例外チェインがループ状である場合に、最後に記録された例外の原因（cause）として再び現れた例外のインデックスを返します。<br>
+     * 
+     * @return 再び現れた例外のインデックス（ループ状でない場合は {@code -1}）
+     */
+    public int loopIndex() {
+        return loopIndex;
+    }
+    
+    /**
+     * 例外チェインが最大深さに達したために記録が打ち切られたかを返します。<br>
+     * 
+     * @return 最大深さで記録が打ち切られた場合は {@code true}
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+    
+    /**
+     * 例外チェインの末端（根本原因）まで記録されているかを返します。<br>
+     * ループ状である場合と最大深さで打ち切られた場合は {@code false} を返します。<br>
+     * 
+     * @return 末端まで記録されている場合は {@code true}
+     */
+    public boolean isTerminated() {
+        return loopIndex == -1 && !truncated;
+    }
+    
+    /**
+     * スローされた例外そのものが原因（cause）を持つかを返します。<br>
+     * 
+     * @return スローされた例外が原因（cause）を持つ場合は {@code true}
+     */
+    public boolean hasCause() {
+        return 1 < size || !isTerminated();
+    }
+}
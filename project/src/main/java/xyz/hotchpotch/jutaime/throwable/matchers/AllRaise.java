@@ -0,0 +1,75 @@
+package xyz.hotchpotch.jutaime.throwable.matchers;
+
+import java.util.Objects;
+
+import org.hamcrest.Matcher;
+
+import xyz.hotchpotch.jutaime.throwable.ConcurrentTestee;
+import xyz.hotchpotch.jutaime.throwable.Testee;
+
+/**
+ * 複数のスレッドで同時に実行されたオペレーションが、全てのスレッドで期待通りの例外をスローしたことを検査する {@code Matcher} です。<br>
+ * この {@code Matcher} は、{@link ConcurrentTestee#results()} の全ての要素が指定された {@code Matcher} に合格する場合に合格と判定します。<br>
+ * <br>
+ * このクラスは、各スレッドの実行結果を検査する {@code Matcher} がスレッドセーフな場合に限り、スレッドセーフです。<br>
+ * 
+ * @see ConcurrentTestee
+ * @see RaiseInAny
+ * @see RaiseInNone
+ * @since 1.5.0
+ * @author nmby
+ */
+public class AllRaise extends ConcurrentBase {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /**
+     * 全てのスレッドで指定された型の例外がスローされたことを検査する {@code Matcher} オブジェクトを返します。<br>
+     * 各スレッドにおける実行結果は {@link Raise#raise(Class)} により検査されます。<br>
+     * 
+     * @param expectedType 期待される例外の型
+     * @return 全てのスレッドで指定された型の例外がスローされたことを検査する {@code Matcher}
+     * @throws NullPointerException {@code expectedType} が {@code null} の場合
+     */
+    public static Matcher<ConcurrentTestee<?>> allRaise(Class<? extends Throwable> expectedType) {
+        Objects.requireNonNull(expectedType);
+        return new AllRaise(Raise.raise(expectedType));
+    }
+    
+    /**
+     * 全てのスレッドにおける実行結果が指定された {@code Matcher} に合格することを検査する {@code Matcher} オブジェクトを返します。<br>
+     * 
+     * @param matcher 各スレッドにおける実行結果を検査する {@code Matcher}
+     * @return 全てのスレッドにおける実行結果が {@code matcher} に合格することを検査する {@code Matcher}
+     * @throws NullPointerException {@code matcher} が {@code null} の場合
+     */
+    public static Matcher<ConcurrentTestee<?>> allRaise(Matcher<Testee<?>> matcher) {
+        Objects.requireNonNull(matcher);
+        return new AllRaise(matcher);
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private AllRaise(Matcher<Testee<?>> matcher) {
+        super(matcher);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean matchesSafely(ConcurrentTestee<?> testee) {
+        assert testee != null;
+        for (Testee<?> result : testee.results()) {
+            if (!matcher.matches(result)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    /*package*/ String descriptionTag() {
+        return "in all threads";
+    }
+}
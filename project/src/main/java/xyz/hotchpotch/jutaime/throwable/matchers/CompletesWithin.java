@@ -0,0 +1,83 @@
+package xyz.hotchpotch.jutaime.throwable.matchers;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeMatcher;
+
+import xyz.hotchpotch.jutaime.throwable.Testee;
+
+/**
+ * 検査対象のオペレーションが、例外やエラーをスローせずに指定された時間内に正常終了することを検査する {@code Matcher} です。<br>
+ * この {@code Matcher} は、検査対象オペレーションが正常終了し、かつ {@link Testee#elapsedTime()} が
+ * 指定された時間以下である場合に合格と判定します。<br>
+ * 検査対象のオペレーションが例外やエラーをスローした場合は、不合格と判定します。<br>
+ * <br>
+ * このクラスは不変であり、スレッドセーフです。<br>
+ * 
+ * @see RaisesWithin
+ * @since 1.5.0
+ * @author nmby
+ */
+public class CompletesWithin extends TypeSafeMatcher<Testee<?>> {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /**
+     * 検査対象のオペレーションが指定された時間内に正常終了することを検査する {@code Matcher} オブジェクトを返します。<br>
+     * 
+     * @param limit 許容される経過時間の上限
+     * @return 検査対象のオペレーションが {@code limit} 以内に正常終了することを検査する {@code Matcher}
+     * @throws NullPointerException {@code limit} が {@code null} の場合
+     * @throws IllegalArgumentException {@code limit} が負の場合
+     */
+    public static Matcher<Testee<?>> completesWithin(Duration limit) {
+        Objects.requireNonNull(limit);
+        if (limit.isNegative()) {
+            throw new IllegalArgumentException(String.valueOf(limit));
+        }
+        return new CompletesWithin(limit);
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final Duration limit;
+    
+    private CompletesWithin(Duration limit) {
+        super(Testee.class);
+        assert limit != null;
+        this.limit = limit;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean matchesSafely(Testee<?> testee) {
+        assert testee != null;
+        Duration elapsed = testee.elapsedTime();
+        return elapsed != null
+                && testee.thrownChain() == null
+                && elapsed.compareTo(limit) <= 0;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void describeMismatchSafely(Testee<?> testee, Description mismatchDescription) {
+        mismatchDescription.appendText(String.format("was <%s> after %s", testee, testee.elapsedTime()));
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void describeTo(Description description) {
+        if (description != null) {
+            description.appendText(String.format("completes within %s", limit));
+        }
+    }
+}
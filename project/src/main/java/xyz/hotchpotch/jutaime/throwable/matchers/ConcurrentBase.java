@@ -0,0 +1,71 @@
+package xyz.hotchpotch.jutaime.throwable.matchers;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeMatcher;
+
+import xyz.hotchpotch.jutaime.throwable.ConcurrentTestee;
+import xyz.hotchpotch.jutaime.throwable.Testee;
+
+/**
+ * 複数のスレッドで同時に実行されたオペレーションの、各スレッドにおける実行結果を検査する {@code Matcher} の基底クラスです。<br>
+ * 各スレッドにおける実行結果は、{@link Raise} や {@link RootCause} などの {@code Testee} 向けの {@code Matcher} により検査されます。<br>
+ * <br>
+ * このクラスは、各スレッドの実行結果を検査する {@code Matcher} がスレッドセーフな場合に限り、スレッドセーフです。<br>
+ * 
+ * @since 1.5.0
+ * @author nmby
+ */
+/*package*/ abstract class ConcurrentBase extends TypeSafeMatcher<ConcurrentTestee<?>> {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /*package*/ final Matcher<Testee<?>> matcher;
+    
+    /*package*/ ConcurrentBase(Matcher<Testee<?>> matcher) {
+        super(ConcurrentTestee.class);
+        assert matcher != null;
+        this.matcher = matcher;
+    }
+    
+    /**
+     * 各スレッドにおける実行結果のうち、{@code matcher} に合格したものの数を返します。<br>
+     * 
+     * @param testee 検査対象
+     * @return {@code matcher} に合格した実行結果の数
+     */
+    /*package*/ int countMatched(ConcurrentTestee<?> testee) {
+        assert testee != null;
+        int count = 0;
+        for (Testee<?> result : testee.results()) {
+            if (matcher.matches(result)) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void describeMismatchSafely(ConcurrentTestee<?> testee, Description mismatchDescription) {
+        mismatchDescription.appendText("was ")
+                .appendText(testee.toString())
+                .appendText(String.format(" (%d of %d threads matched)", countMatched(testee), testee.threads()));
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void describeTo(Description description) {
+        if (description != null) {
+            description.appendText(descriptionTag()).appendText(": ").appendDescriptionOf(matcher);
+        }
+    }
+    
+    /*package*/ abstract String descriptionTag();
+}
@@ -0,0 +1,187 @@
+package xyz.hotchpotch.jutaime.throwable.matchers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeMatcher;
+
+import xyz.hotchpotch.jutaime.throwable.Testee;
+import xyz.hotchpotch.jutaime.throwable.ThrowableChain;
+
+/**
+ * 例外チェインに対する複数の検査を、and 条件でひとつにまとめて評価する {@code Matcher} です。<br>
+ * {@link Raise}、{@link RootCause}、{@link InChain}、{@link NoCause} などのこのパッケージの {@code Matcher} を
+ * 検査の種類ごとに振り分けた評価計画にコンパイルし、例外チェインを一度だけ走査して全ての検査を行います。<br>
+ * <br>
+ * 評価は安価な検査から順に行われ、結果が確定した時点で打ち切られます。
+ * <ol>
+ *   <li>{@link NoCause} および根本原因（root cause）の有無に関する検査</li>
+ *   <li>スローされた例外そのものに対する検査（{@link Raise} など）</li>
+ *   <li>根本原因（root cause）に対する検査（{@link RootCause} など）</li>
+ *   <li>例外チェインの走査による検査（{@link InChain} など）。全ての検査が合格となった時点で走査を打ち切ります。</li>
+ * </ol>
+ * このクラスのインスタンスは {@link xyz.hotchpotch.jutaime.throwable.RaiseMatcher RaiseMatcher} により内部的に利用されます。<br>
+ * <br>
+ * このクラスは不変であり、スレッドセーフです。<br>
+ * 
+ * @since 1.5.0
+ * @author nmby
+ */
+public final class FusedChainMatcher extends TypeSafeMatcher<Testee<?>> {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /**
+     * 指定された {@code Matcher} が、このクラスにより統合可能な例外チェインに対する検査かを返します。<br>
+     * 
+     * @param matcher 任意の {@code Matcher}
+     * @return {@code matcher} が統合可能な場合は {@code true}
+     */
+    public static boolean isFusible(Matcher<?> matcher) {
+        return matcher instanceof ThrowableBaseMatcher || matcher instanceof NoCause;
+    }
+    
+    /**
+     * 指定された {@code Matcher} 群を統合した {@code Matcher} を返します。<br>
+     * 
+     * @param matchers 統合対象の {@code Matcher} 群
+     * @return {@code matchers} を and 条件で統合した {@code Matcher}
+     * @throws NullPointerException {@code matchers} が {@code null} の場合
+     * @throws IllegalArgumentException {@code matchers} が空の場合、
+     *                                  または統合できない {@code Matcher} が含まれる場合
+     * @see #isFusible(Matcher)
+     */
+    public static FusedChainMatcher fuse(List<? extends Matcher<Testee<?>>> matchers) {
+        Objects.requireNonNull(matchers);
+        if (matchers.isEmpty()) {
+            throw new IllegalArgumentException("empty");
+        }
+        for (Matcher<Testee<?>> matcher : matchers) {
+            if (!isFusible(matcher)) {
+                throw new IllegalArgumentException(String.valueOf(matcher));
+            }
+        }
+        return new FusedChainMatcher(matchers);
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final List<Matcher<Testee<?>>> clauses;
+    private final boolean noCause;
+    private final RaiseBase[] raises;
+    private final RootCauseBase[] rootCauses;
+    private final InChainBase[] inChains;
+    private final ThrowableBaseMatcher[] others;
+    
+    private FusedChainMatcher(List<? extends Matcher<Testee<?>>> matchers) {
+        super(Testee.class);
+        assert matchers != null;
+        
+        List<RaiseBase> raises = new ArrayList<>();
+        List<RootCauseBase> rootCauses = new ArrayList<>();
+        List<InChainBase> inChains = new ArrayList<>();
+        List<ThrowableBaseMatcher> others = new ArrayList<>();
+        boolean noCause = false;
+        
+        for (Matcher<Testee<?>> matcher : matchers) {
+            if (matcher instanceof NoCause) {
+                noCause = true;
+            } else if (matcher instanceof RaiseBase) {
+                raises.add((RaiseBase) matcher);
+            } else if (matcher instanceof RootCauseBase) {
+                rootCauses.add((RootCauseBase) matcher);
+            } else if (matcher instanceof InChainBase) {
+                inChains.add((InChainBase) matcher);
+            } else {
+                others.add((ThrowableBaseMatcher) matcher);
+            }
+        }
+        
+        this.clauses = new ArrayList<>(matchers);
+        this.noCause = noCause;
+        this.raises = raises.toArray(new RaiseBase[raises.size()]);
+        this.rootCauses = rootCauses.toArray(new RootCauseBase[rootCauses.size()]);
+        this.inChains = inChains.toArray(new InChainBase[inChains.size()]);
+        this.others = others.toArray(new ThrowableBaseMatcher[others.size()]);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean matchesSafely(Testee<?> testee) {
+        assert testee != null;
+        ThrowableChain chain = testee.thrownChain();
+        return chain != null && matches(chain);
+    }
+    
+    /*package*/ boolean matches(ThrowableChain chain) {
+        assert chain != null;
+        
+        if (noCause && chain.hasCause()) {
+            return false;
+        }
+        if (0 < rootCauses.length && !chain.isTerminated()) {
+            return false;
+        }
+        
+        for (RaiseBase raise : raises) {
+            if (!raise.matchesEach(chain, 0)) {
+                return false;
+            }
+        }
+        
+        int last = chain.size() - 1;
+        for (RootCauseBase rootCause : rootCauses) {
+            if (!rootCause.matchesEach(chain, last)) {
+                return false;
+            }
+        }
+        
+        if (0 < inChains.length && !scan(chain)) {
+            return false;
+        }
+        
+        for (ThrowableBaseMatcher other : others) {
+            if (!other.matchesWhole(chain)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * 例外チェインを一度だけ走査し、全ての {@code inChain} 系の検査が合格となるかを返します。<br>
+     * 全ての検査が合格となった時点で走査を打ち切ります。<br>
+     */
+    private boolean scan(ThrowableChain chain) {
+        boolean[] found = new boolean[inChains.length];
+        int pending = inChains.length;
+        
+        for (int i = 0; i < chain.size(); i++) {
+            for (int j = 0; j < inChains.length; j++) {
+                if (!found[j] && inChains[j].matchesEach(chain, i)) {
+                    found[j] = true;
+                    if (--pending == 0) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void describeTo(Description description) {
+        if (description != null) {
+            description.appendText(clauses.stream().map(Matcher::toString).collect(Collectors.joining(", ")));
+        }
+    }
+}
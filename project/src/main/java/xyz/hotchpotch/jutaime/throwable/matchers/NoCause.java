@@ -5,6 +5,7 @@ import org.hamcrest.Matcher;
 import org.hamcrest.TypeSafeMatcher;
 
 import xyz.hotchpotch.jutaime.throwable.Testee;
+import xyz.hotchpotch.jutaime.throwable.ThrowableChain;
 
 /**
  * スローされた例外やエラーが原因（cause）を持たないことを検査する {@code Matcher} です。<br>
@@ -12,8 +13,7 @@ import xyz.hotchpotch.jutaime.throwable.Testee;
  * {@code actual.getCause() == null} の場合に合格と判定します。<br>
  * 検査対象のオペレーションが正常終了した場合は、不合格と判定します。<br>
  * <br>
- * このクラスはスレッドセーフではありません。<br>
- * ひとつの {@code Matcher} オブジェクトが複数のスレッドから操作されることは想定されていません。<br>
+ * このクラスは不変であり、スレッドセーフです。<br>
  * 
  * @since 1.0.0
  * @author nmby
@@ -34,6 +34,7 @@ public class NoCause extends TypeSafeMatcher<Testee<?>> {
     // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
     
     private NoCause() {
+        super(Testee.class);
     }
     
     /**
@@ -42,12 +43,8 @@ public class NoCause extends TypeSafeMatcher<Testee<?>> {
     @Override
     protected boolean matchesSafely(Testee<?> testee) {
         assert testee != null;
-        try {
-            testee.call();
-            return false;
-        } catch (Throwable actual) {
-            return actual.getCause() == null;
-        }
+        ThrowableChain chain = testee.thrownChain();
+        return chain != null && !chain.hasCause();
     }
     
     /**
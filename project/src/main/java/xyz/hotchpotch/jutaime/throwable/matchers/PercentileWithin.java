@@ -0,0 +1,94 @@
+package xyz.hotchpotch.jutaime.throwable.matchers;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeMatcher;
+
+import xyz.hotchpotch.jutaime.throwable.RepeatedTestee;
+
+/**
+ * 繰り返し実行されたオペレーションの所要時間の、指定されたパーセンタイルの値が上限以下であることを検査する {@code Matcher} です。<br>
+ * この {@code Matcher} は、{@link RepeatedTestee#histogram()} の {@link xyz.hotchpotch.jutaime.throwable.LatencyHistogram#percentile(double)
+ * percentile(double)} が指定された時間以下である場合に合格と判定します。<br>
+ * 所要時間は例外やエラーをスローした回も含めて集計されます。
+ * 例外やエラーがスローされないことを併せて検査するには、{@link RaiseInNoRun} と組み合わせてください。<br>
+ * <br>
+ * このクラスは不変であり、スレッドセーフです。<br>
+ * 
+ * @see RepeatedTestee
+ * @see RaiseInNoRun
+ * @since 1.5.0
+ * @author nmby
+ */
+public class PercentileWithin extends TypeSafeMatcher<RepeatedTestee<?>> {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /**
+     * 所要時間の指定されたパーセンタイルの値が上限以下であることを検査する {@code Matcher} オブジェクトを返します。<br>
+     * 
+     * @param percentile パーセンタイル（{@code 0} 以上 {@code 100} 以下）
+     * @param limit 許容される所要時間の上限
+     * @return 所要時間の {@code percentile} パーセンタイルの値が {@code limit} 以下であることを検査する {@code Matcher}
+     * @throws NullPointerException {@code limit} が {@code null} の場合
+     * @throws IllegalArgumentException {@code percentile} が {@code 0} 以上 {@code 100} 以下でない場合、
+     *                                  または {@code limit} が負の場合
+     */
+    public static Matcher<RepeatedTestee<?>> percentileWithin(double percentile, Duration limit) {
+        Objects.requireNonNull(limit);
+        if (!(0 <= percentile && percentile <= 100)) {
+            throw new IllegalArgumentException(String.valueOf(percentile));
+        }
+        if (limit.isNegative()) {
+            throw new IllegalArgumentException(String.valueOf(limit));
+        }
+        return new PercentileWithin(percentile, limit);
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final double percentile;
+    private final Duration limit;
+    
+    private PercentileWithin(double percentile, Duration limit) {
+        super(RepeatedTestee.class);
+        assert limit != null;
+        this.percentile = percentile;
+        this.limit = limit;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean matchesSafely(RepeatedTestee<?> testee) {
+        assert testee != null;
+        return testee.histogram().percentile(percentile).compareTo(limit) <= 0;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void describeMismatchSafely(RepeatedTestee<?> testee, Description mismatchDescription) {
+        mismatchDescription.appendText(String.format("p%s was %s <%s>",
+                formatPercentile(), testee.histogram().percentile(percentile), testee));
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void describeTo(Description description) {
+        if (description != null) {
+            description.appendText(String.format("p%s within %s", formatPercentile(), limit));
+        }
+    }
+    
+    private String formatPercentile() {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+}
@@ -2,11 +2,13 @@ package xyz.hotchpotch.jutaime.throwable.matchers;
 
 import org.hamcrest.Matcher;
 
+import xyz.hotchpotch.jutaime.throwable.ThrowableChain;
+
 /**
  * スローされた例外が期待通りのものかを検査する {@code Matcher} の基底クラスです。<br>
  * <br>
- * このクラスはスレッドセーフではありません。<br>
- * ひとつの {@code Matcher} オブジェクトが複数のスレッドから操作されることは想定されていません。<br>
+ * このクラスは不変です。スローされた例外に対する判定を任意の {@code Matcher} に委ねる場合は、
+ * その {@code Matcher} がスレッドセーフな場合に限り、スレッドセーフです。<br>
  * 
  * @author nmby
  */
@@ -29,9 +31,9 @@ import org.hamcrest.Matcher;
     }
     
     @Override
-    /*package*/ boolean matchesWhole(Throwable actual) {
-        assert actual != null;
-        return matchesEach(actual);
+    /*package*/ boolean matchesWhole(ThrowableChain chain) {
+        assert chain != null;
+        return matchesEach(chain, 0);
     }
     
     @Override
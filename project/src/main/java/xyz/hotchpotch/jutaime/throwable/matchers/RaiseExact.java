@@ -13,8 +13,7 @@ import xyz.hotchpotch.jutaime.throwable.Testee;
  * <br>
  * この {@code Matcher} は、スローされた例外の型が期待された型と完全に同一の場合に一致と判定します。<br>
  * <br>
- * このクラスはスレッドセーフではありません。<br>
- * ひとつの {@code Matcher} オブジェクトが複数のスレッドから操作されることは想定されていません。<br>
+ * このクラスは不変であり、スレッドセーフです。<br>
  * 
  * @since 1.0.0
  * @author nmby
@@ -0,0 +1,75 @@
+package xyz.hotchpotch.jutaime.throwable.matchers;
+
+import java.util.Objects;
+
+import org.hamcrest.Matcher;
+
+import xyz.hotchpotch.jutaime.throwable.ConcurrentTestee;
+import xyz.hotchpotch.jutaime.throwable.Testee;
+
+/**
+ * 複数のスレッドで同時に実行されたオペレーションが、少なくともひとつのスレッドで期待通りの例外をスローしたことを検査する {@code Matcher} です。<br>
+ * この {@code Matcher} は、{@link ConcurrentTestee#results()} のいずれかの要素が指定された {@code Matcher} に合格する場合に合格と判定します。<br>
+ * <br>
+ * このクラスは、各スレッドの実行結果を検査する {@code Matcher} がスレッドセーフな場合に限り、スレッドセーフです。<br>
+ * 
+ * @see ConcurrentTestee
+ * @see RaiseInNone
+ * @see AllRaise
+ * @since 1.5.0
+ * @author nmby
+ */
+public class RaiseInAny extends ConcurrentBase {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /**
+     * 少なくともひとつのスレッドで指定された型の例外がスローされたことを検査する {@code Matcher} オブジェクトを返します。<br>
+     * 各スレッドにおける実行結果は {@link Raise#raise(Class)} により検査されます。<br>
+     * 
+     * @param expectedType 期待される例外の型
+     * @return 少なくともひとつのスレッドで指定された型の例外がスローされたことを検査する {@code Matcher}
+     * @throws NullPointerException {@code expectedType} が {@code null} の場合
+     */
+    public static Matcher<ConcurrentTestee<?>> raiseInAny(Class<? extends Throwable> expectedType) {
+        Objects.requireNonNull(expectedType);
+        return new RaiseInAny(Raise.raise(expectedType));
+    }
+    
+    /**
+     * 少なくともひとつのスレッドにおける実行結果が指定された {@code Matcher} に合格することを検査する {@code Matcher} オブジェクトを返します。<br>
+     * 
+     * @param matcher 各スレッドにおける実行結果を検査する {@code Matcher}
+     * @return 少なくともひとつのスレッドにおける実行結果が {@code matcher} に合格することを検査する {@code Matcher}
+     * @throws NullPointerException {@code matcher} が {@code null} の場合
+     */
+    public static Matcher<ConcurrentTestee<?>> raiseInAny(Matcher<Testee<?>> matcher) {
+        Objects.requireNonNull(matcher);
+        return new RaiseInAny(matcher);
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private RaiseInAny(Matcher<Testee<?>> matcher) {
+        super(matcher);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean matchesSafely(ConcurrentTestee<?> testee) {
+        assert testee != null;
+        for (Testee<?> result : testee.results()) {
+            if (matcher.matches(result)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    @Override
+    /*package*/ String descriptionTag() {
+        return "in any thread";
+    }
+}
@@ -0,0 +1,60 @@
+package xyz.hotchpotch.jutaime.throwable.matchers;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeMatcher;
+
+import xyz.hotchpotch.jutaime.throwable.RepeatedTestee;
+
+/**
+ * 繰り返し実行されたオペレーションが、一度も例外やエラーをスローしなかったことを検査する {@code Matcher} です。<br>
+ * この {@code Matcher} は、{@link RepeatedTestee#raisedRuns()} が {@code 0} の場合に合格と判定します。
+ * ウォームアップ実行でスローされた例外やエラーは考慮しません。<br>
+ * <br>
+ * このクラスは不変であり、スレッドセーフです。<br>
+ * 
+ * @see RepeatedTestee
+ * @see PercentileWithin
+ * @since 1.5.0
+ * @author nmby
+ */
+public class RaiseInNoRun extends TypeSafeMatcher<RepeatedTestee<?>> {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private static final RaiseInNoRun INSTANCE = new RaiseInNoRun();
+    
+    /**
+     * 繰り返し実行されたオペレーションが、一度も例外やエラーをスローしなかったことを検査する {@code Matcher} オブジェクトを返します。<br>
+     * 
+     * @return 繰り返し実行されたオペレーションが一度も例外やエラーをスローしなかったことを検査する {@code Matcher}
+     */
+    public static Matcher<RepeatedTestee<?>> raiseInNoRun() {
+        return INSTANCE;
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private RaiseInNoRun() {
+        super(RepeatedTestee.class);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean matchesSafely(RepeatedTestee<?> testee) {
+        assert testee != null;
+        return testee.raisedRuns() == 0;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void describeTo(Description description) {
+        if (description != null) {
+            description.appendText("raises in no run");
+        }
+    }
+}
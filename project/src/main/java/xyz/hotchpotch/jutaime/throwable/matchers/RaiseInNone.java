@@ -0,0 +1,85 @@
+package xyz.hotchpotch.jutaime.throwable.matchers;
+
+import java.util.Objects;
+
+import org.hamcrest.Matcher;
+
+import xyz.hotchpotch.jutaime.throwable.ConcurrentTestee;
+import xyz.hotchpotch.jutaime.throwable.Testee;
+
+/**
+ * 複数のスレッドで同時に実行されたオペレーションが、どのスレッドでも期待された例外をスローしなかったことを検査する {@code Matcher} です。<br>
+ * この {@code Matcher} は、{@link ConcurrentTestee#results()} のどの要素も指定された {@code Matcher} に合格しない場合に合格と判定します。<br>
+ * <br>
+ * このクラスは、各スレッドの実行結果を検査する {@code Matcher} がスレッドセーフな場合に限り、スレッドセーフです。<br>
+ * 
+ * @see ConcurrentTestee
+ * @see RaiseInAny
+ * @see AllRaise
+ * @since 1.5.0
+ * @author nmby
+ */
+public class RaiseInNone extends ConcurrentBase {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /**
+     * どのスレッドでも例外やエラーがスローされなかったことを検査する {@code Matcher} オブジェクトを返します。<br>
+     * 各スレッドにおける実行結果は {@code Raise.raise(Throwable.class)} により検査されます。<br>
+     * 
+     * @return どのスレッドでも例外やエラーがスローされなかったことを検査する {@code Matcher}
+     */
+    public static Matcher<ConcurrentTestee<?>> raiseInNone() {
+        return new RaiseInNone(Raise.raise(Throwable.class));
+    }
+    
+    /**
+     * どのスレッドでも指定された型の例外がスローされなかったことを検査する {@code Matcher} オブジェクトを返します。<br>
+     * 各スレッドにおける実行結果は {@link Raise#raise(Class)} により検査されます。<br>
+     * 
+     * @param expectedType 期待されない例外の型
+     * @return どのスレッドでも指定された型の例外がスローされなかったことを検査する {@code Matcher}
+     * @throws NullPointerException {@code expectedType} が {@code null} の場合
+     */
+    public static Matcher<ConcurrentTestee<?>> raiseInNone(Class<? extends Throwable> expectedType) {
+        Objects.requireNonNull(expectedType);
+        return new RaiseInNone(Raise.raise(expectedType));
+    }
+    
+    /**
+     * どのスレッドにおける実行結果も指定された {@code Matcher} に合格しないことを検査する {@code Matcher} オブジェクトを返します。<br>
+     * 
+     * @param matcher 各スレッドにおける実行結果を検査する {@code Matcher}
+     * @return どのスレッドにおける実行結果も {@code matcher} に合格しないことを検査する {@code Matcher}
+     * @throws NullPointerException {@code matcher} が {@code null} の場合
+     */
+    public static Matcher<ConcurrentTestee<?>> raiseInNone(Matcher<Testee<?>> matcher) {
+        Objects.requireNonNull(matcher);
+        return new RaiseInNone(matcher);
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private RaiseInNone(Matcher<Testee<?>> matcher) {
+        super(matcher);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean matchesSafely(ConcurrentTestee<?> testee) {
+        assert testee != null;
+        for (Testee<?> result : testee.results()) {
+            if (matcher.matches(result)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    /*package*/ String descriptionTag() {
+        return "in no thread";
+    }
+}
@@ -14,8 +14,8 @@ import xyz.hotchpotch.jutaime.throwable.Testee;
  * 検査対象のオペレーションが例外やエラーをスローせずに正常終了することを検査する {@code Matcher} です。<br>
  * この {@code Matcher} は、検査対象オペレーションが例外やエラーをスローせずに終了した場合に合格と判定します。<br>
  * <br>
- * このクラスはスレッドセーフではありません。<br>
- * ひとつの {@code Matcher} オブジェクトが複数のスレッドから操作されることは想定されていません。<br>
+ * このクラスは不変です。戻り値の検査を任意の {@code Matcher} に委ねる場合は、
+ * その {@code Matcher} がスレッドセーフな場合に限り、スレッドセーフです。<br>
  * 
  * @param <T> 検査対象のオペレーションの戻り値の型
  * @since 1.0.0
@@ -80,10 +80,12 @@ public class RaiseNothing<T> extends TypeSafeMatcher<Testee<T>> {
     private final Matcher<? super T> matcher;
     
     private RaiseNothing() {
+        super(Testee.class);
         matcher = null;
     }
     
     private RaiseNothing(Matcher<? super T> matcher) {
+        super(Testee.class);
         this.matcher = matcher;
     }
     
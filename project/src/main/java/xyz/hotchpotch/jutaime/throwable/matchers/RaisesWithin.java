@@ -0,0 +1,84 @@
+package xyz.hotchpotch.jutaime.throwable.matchers;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeMatcher;
+
+import xyz.hotchpotch.jutaime.throwable.Testee;
+
+/**
+ * 検査対象のオペレーションが、指定された時間内に例外やエラーをスローして終了することを検査する {@code Matcher} です。<br>
+ * この {@code Matcher} は、検査対象オペレーションが例外やエラーをスローし、かつ {@link Testee#elapsedTime()} が
+ * 指定された時間以下である場合に合格と判定します。<br>
+ * 検査対象のオペレーションが正常終了した場合は、不合格と判定します。<br>
+ * 例外の型などを併せて検査するには、{@link xyz.hotchpotch.jutaime.throwable.RaiseMatcher#raisesWithin(Duration)} を利用してください。<br>
+ * <br>
+ * このクラスは不変であり、スレッドセーフです。<br>
+ * 
+ * @see CompletesWithin
+ * @since 1.5.0
+ * @author nmby
+ */
+public class RaisesWithin extends TypeSafeMatcher<Testee<?>> {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /**
+     * 検査対象のオペレーションが指定された時間内に例外やエラーをスローすることを検査する {@code Matcher} オブジェクトを返します。<br>
+     * 
+     * @param limit 許容される経過時間の上限
+     * @return 検査対象のオペレーションが {@code limit} 以内に例外やエラーをスローすることを検査する {@code Matcher}
+     * @throws NullPointerException {@code limit} が {@code null} の場合
+     * @throws IllegalArgumentException {@code limit} が負の場合
+     */
+    public static Matcher<Testee<?>> raisesWithin(Duration limit) {
+        Objects.requireNonNull(limit);
+        if (limit.isNegative()) {
+            throw new IllegalArgumentException(String.valueOf(limit));
+        }
+        return new RaisesWithin(limit);
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final Duration limit;
+    
+    private RaisesWithin(Duration limit) {
+        super(Testee.class);
+        assert limit != null;
+        this.limit = limit;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean matchesSafely(Testee<?> testee) {
+        assert testee != null;
+        Duration elapsed = testee.elapsedTime();
+        return elapsed != null
+                && testee.thrownChain() != null
+                && elapsed.compareTo(limit) <= 0;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void describeMismatchSafely(Testee<?> testee, Description mismatchDescription) {
+        mismatchDescription.appendText(String.format("was <%s> after %s", testee, testee.elapsedTime()));
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void describeTo(Description description) {
+        if (description != null) {
+            description.appendText(String.format("raises within %s", limit));
+        }
+    }
+}
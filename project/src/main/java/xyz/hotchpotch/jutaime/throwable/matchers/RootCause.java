@@ -15,8 +15,8 @@ import xyz.hotchpotch.jutaime.throwable.Testee;
  * <br>
  * この {@code Matcher} は、根本原因（root cause）の型が期待された型のサブクラスの場合も一致と判定します。<br>
  * <br>
- * このクラスはスレッドセーフではありません。<br>
- * ひとつの {@code Matcher} オブジェクトが複数のスレッドから操作されることは想定されていません。<br>
+ * このクラスは不変です。スローされた例外に対する判定を任意の {@code Matcher} に委ねる場合は、
+ * その {@code Matcher} がスレッドセーフな場合に限り、スレッドセーフです。<br>
  * 
  * @since 1.0.0
  * @author nmby
@@ -1,15 +1,14 @@
 package xyz.hotchpotch.jutaime.throwable.matchers;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import org.hamcrest.Matcher;
 
+import xyz.hotchpotch.jutaime.throwable.ThrowableChain;
+
 /**
  * 根本原因（root cause）が期待通りのものかを検査する {@code Matcher} の基底クラスです。<br>
  * <br>
- * このクラスはスレッドセーフではありません。<br>
- * ひとつの {@code Matcher} オブジェクトが複数のスレッドから操作されることは想定されていません。<br>
+ * このクラスは不変です。スローされた例外に対する判定を任意の {@code Matcher} に委ねる場合は、
+ * その {@code Matcher} がスレッドセーフな場合に限り、スレッドセーフです。<br>
  * 
  * @author nmby
  */
@@ -32,28 +31,14 @@ import org.hamcrest.Matcher;
     }
     
     @Override
-    /*package*/ boolean matchesWhole(Throwable actual) {
-        assert actual != null;
-        List<Throwable> chain = new ArrayList<>();
-        Throwable t = actual;
+    /*package*/ boolean matchesWhole(ThrowableChain chain) {
+        assert chain != null;
         
-        while (t.getCause() != null) {
-            chain.add(t);
-            t = t.getCause();
-            
-            // 例外チェインがループ状になっている場合のための処置。
-            // ループ状の例外チェインが妥当であるはずがないし実装する輩がいるとは思えないが、
-            // 防御的に対処コードを実装しておく。
-            // 
-            // equals() がオーバーライドされている可能性が無くはないので
-            // List#contains() ではなく明示的に == で比較することにする。
-            Throwable t2 = t;
-            if (chain.stream().anyMatch(x -> x == t2)) {
-                // ループしている場合は不合格とする
-                return false;
-            }
+        // ループしている場合や最大深さで打ち切られた場合は、根本原因を特定できないため不合格とする
+        if (!chain.isTerminated()) {
+            return false;
         }
-        return matchesEach(t);
+        return matchesEach(chain, chain.size() - 1);
     }
     
     @Override
@@ -15,8 +15,7 @@ import xyz.hotchpotch.jutaime.throwable.Testee;
  * <br>
  * この {@code Matcher} は、根本原因（root cause）の型が期待された型と完全に同一の場合に一致と判定します。<br>
  * <br>
- * このクラスはスレッドセーフではありません。<br>
- * ひとつの {@code Matcher} オブジェクトが複数のスレッドから操作されることは想定されていません。<br>
+ * このクラスは不変であり、スレッドセーフです。<br>
  * 
  * @since 1.0.0
  * @author nmby
@@ -7,12 +7,13 @@ import org.hamcrest.Matcher;
 import org.hamcrest.TypeSafeMatcher;
 
 import xyz.hotchpotch.jutaime.throwable.Testee;
+import xyz.hotchpotch.jutaime.throwable.ThrowableChain;
 
 /**
  * スローされた例外またはエラーに対して何らかの検査を行う {@code Matcher} の基底クラスです。<br>
  * <br>
- * このクラスはスレッドセーフではありません。<br>
- * ひとつの {@code Matcher} オブジェクトが複数のスレッドから操作されることは想定されていません。<br>
+ * このクラスは不変です。スローされた例外に対する判定を任意の {@code Matcher} に委ねる場合は、
+ * その {@code Matcher} がスレッドセーフな場合に限り、スレッドセーフです。<br>
  * 
  * @author nmby
  */
@@ -22,59 +23,56 @@ import xyz.hotchpotch.jutaime.throwable.Testee;
     
     // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
     
+    // 型やメッセージによる判定の場合は、ThrowableChain にキャッシュされた型とメッセージを直接参照する。
+    // この場合は Throwable 用の Matcher を生成せず、matcher は null となる。
+    // 任意の Matcher による判定の場合は expectedType が null となる。
     private final Matcher<Throwable> matcher;
+    private final boolean exactly;
+    private final Class<? extends Throwable> expectedType;
+    private final boolean checksMessage;
+    private final String expectedMessage;
+    
+    // TypeSafeMatcher のデフォルトコンストラクタは、検査対象の型を ReflectiveTypeFinder によりリフレクションで探索する。
+    // Matcher は大量に生成されることがあるため、検査対象の型を明示的に指定してこれを回避する。
     
     /*package*/ ThrowableBaseMatcher(
             boolean exactly,
             Class<? extends Throwable> expectedType,
             String expectedMessage) {
             
+        super(Testee.class);
         assert expectedType != null;
         
-        matcher = new TypeSafeMatcher<Throwable>() {
-            @Override
-            protected boolean matchesSafely(Throwable actual) {
-                assert actual != null;
-                return (exactly
-                        ? expectedType.equals(actual.getClass())
-                        : expectedType.isAssignableFrom(actual.getClass()))
-                        && Objects.equals(expectedMessage, actual.getMessage());
-            }
-            
-            @Override
-            public void describeTo(Description description) {
-                assert description != null;
-                description.appendText(String.format("%s (%s)", expectedType.getName(), expectedMessage));
-            }
-        };
+        this.matcher = null;
+        this.exactly = exactly;
+        this.expectedType = expectedType;
+        this.checksMessage = true;
+        this.expectedMessage = expectedMessage;
     }
     
     /*package*/ ThrowableBaseMatcher(
             boolean exactly,
             Class<? extends Throwable> expectedType) {
             
+        super(Testee.class);
         assert expectedType != null;
         
-        matcher = new TypeSafeMatcher<Throwable>() {
-            @Override
-            protected boolean matchesSafely(Throwable actual) {
-                assert actual != null;
-                return (exactly
-                        ? expectedType.equals(actual.getClass())
-                        : expectedType.isAssignableFrom(actual.getClass()));
-            }
-            
-            @Override
-            public void describeTo(Description description) {
-                assert description != null;
-                description.appendText(expectedType.getName());
-            }
-        };
+        this.matcher = null;
+        this.exactly = exactly;
+        this.expectedType = expectedType;
+        this.checksMessage = false;
+        this.expectedMessage = null;
     }
     
     /*package*/ ThrowableBaseMatcher(Matcher<Throwable> matcher) {
+        super(Testee.class);
         assert matcher != null;
+        
         this.matcher = matcher;
+        this.exactly = false;
+        this.expectedType = null;
+        this.checksMessage = false;
+        this.expectedMessage = null;
     }
     
     /**
@@ -87,19 +85,26 @@ import xyz.hotchpotch.jutaime.throwable.Testee;
     @Override
     protected boolean matchesSafely(Testee<?> testee) {
         assert testee != null;
-        try {
-            testee.call();
-            return false;
-        } catch (Throwable actual) {
-            return matchesWhole(actual);
-        }
+        ThrowableChain chain = testee.thrownChain();
+        return chain != null && matchesWhole(chain);
     }
     
-    /*package*/ abstract boolean matchesWhole(Throwable actual);
+    /*package*/ abstract boolean matchesWhole(ThrowableChain chain);
+    
+    /*package*/ boolean matchesEach(ThrowableChain chain, int index) {
+        assert chain != null;
+        if (expectedType == null) {
+            return matcher.matches(chain.get(index));
+        }
+        return matchesEach(chain.typeAt(index), checksMessage ? chain.messageAt(index) : null);
+    }
     
-    /*package*/ boolean matchesEach(Throwable t) {
-        assert t != null;
-        return matcher.matches(t);
+    private boolean matchesEach(Class<?> actualType, String actualMessage) {
+        assert expectedType != null;
+        return (exactly
+                ? expectedType.equals(actualType)
+                : expectedType.isAssignableFrom(actualType))
+                && (!checksMessage || Objects.equals(expectedMessage, actualMessage));
     }
     
     /**
@@ -110,8 +115,17 @@ import xyz.hotchpotch.jutaime.throwable.Testee;
     @Override
     public void describeTo(Description description) {
         if (description != null) {
-            description.appendText(String.format("%s <%s>", descriptionTag(), matcher.toString()));
+            description.appendText(String.format("%s <%s>", descriptionTag(), describeExpected()));
+        }
+    }
+    
+    private String describeExpected() {
+        if (expectedType == null) {
+            return matcher.toString();
         }
+        return checksMessage
+                ? String.format("%s (%s)", expectedType.getName(), expectedMessage)
+                : expectedType.getName();
     }
     
     /*package*/ abstract String descriptionTag();
@@ -4,19 +4,48 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
+import xyz.hotchpotch.jutaime.serializable.BytePatternTest;
+import xyz.hotchpotch.jutaime.serializable.ByteDiffTest;
+import xyz.hotchpotch.jutaime.serializable.CorruptionSweepTest;
+import xyz.hotchpotch.jutaime.serializable.GoldenArchiveTest;
+import xyz.hotchpotch.jutaime.serializable.HexCodecTest;
+import xyz.hotchpotch.jutaime.serializable.PipedRoundTripTest;
 import xyz.hotchpotch.jutaime.serializable.STUtilTest;
+import xyz.hotchpotch.jutaime.serializable.SerializationSessionTest;
+import xyz.hotchpotch.jutaime.serializable.SerializedSizeTest;
+import xyz.hotchpotch.jutaime.serializable.TamperSuiteTest;
 import xyz.hotchpotch.jutaime.serializable.experimental.TestUtilTest;
+import xyz.hotchpotch.jutaime.serializable.stream.MutationFuzzerTest;
+import xyz.hotchpotch.jutaime.serializable.stream.ParserTest;
+import xyz.hotchpotch.jutaime.serializable.stream.ReadBudgetTest;
+import xyz.hotchpotch.jutaime.serializable.stream.SerialStreamTest;
+import xyz.hotchpotch.jutaime.serializable.stream.SizeProfileTest;
+import xyz.hotchpotch.jutaime.serializable.stream.StreamEditorTest;
+import xyz.hotchpotch.jutaime.throwable.ConcurrentTesteeTest;
+import xyz.hotchpotch.jutaime.throwable.DescriptionRendererTest;
+import xyz.hotchpotch.jutaime.throwable.ExecutionPolicyTest;
+import xyz.hotchpotch.jutaime.throwable.LatencyHistogramTest;
 import xyz.hotchpotch.jutaime.throwable.RaiseMatcherTest;
 import xyz.hotchpotch.jutaime.throwable.RaiseMatchersTest;
+import xyz.hotchpotch.jutaime.throwable.RepeatedTesteeTest;
 import xyz.hotchpotch.jutaime.throwable.TesteeTest;
+import xyz.hotchpotch.jutaime.throwable.ThrowableChainTest;
+import xyz.hotchpotch.jutaime.throwable.matchers.AllRaiseTest;
+import xyz.hotchpotch.jutaime.throwable.matchers.CompletesWithinTest;
+import xyz.hotchpotch.jutaime.throwable.matchers.FusedChainMatcherTest;
 import xyz.hotchpotch.jutaime.throwable.matchers.InChainBaseTest;
 import xyz.hotchpotch.jutaime.throwable.matchers.InChainExactTest;
 import xyz.hotchpotch.jutaime.throwable.matchers.InChainTest;
 import xyz.hotchpotch.jutaime.throwable.matchers.NoCauseTest;
+import xyz.hotchpotch.jutaime.throwable.matchers.PercentileWithinTest;
 import xyz.hotchpotch.jutaime.throwable.matchers.RaiseBaseTest;
 import xyz.hotchpotch.jutaime.throwable.matchers.RaiseExactTest;
+import xyz.hotchpotch.jutaime.throwable.matchers.RaiseInAnyTest;
+import xyz.hotchpotch.jutaime.throwable.matchers.RaiseInNoRunTest;
+import xyz.hotchpotch.jutaime.throwable.matchers.RaiseInNoneTest;
 import xyz.hotchpotch.jutaime.throwable.matchers.RaiseNothingTest;
 import xyz.hotchpotch.jutaime.throwable.matchers.RaiseTest;
+import xyz.hotchpotch.jutaime.throwable.matchers.RaisesWithinTest;
 import xyz.hotchpotch.jutaime.throwable.matchers.RootCauseBaseTest;
 import xyz.hotchpotch.jutaime.throwable.matchers.RootCauseExactTest;
 import xyz.hotchpotch.jutaime.throwable.matchers.RootCauseTest;
@@ -24,21 +53,50 @@ import xyz.hotchpotch.jutaime.throwable.matchers.ThrowableBaseMatcherTest;
 
 @RunWith(Suite.class)
 @SuiteClasses({
+    BytePatternTest.class,
+    ByteDiffTest.class,
+    CorruptionSweepTest.class,
+    GoldenArchiveTest.class,
+    HexCodecTest.class,
+    PipedRoundTripTest.class,
     STUtilTest.class,
+    SerializationSessionTest.class,
+    SerializedSizeTest.class,
+    TamperSuiteTest.class,
     TestUtilTest.class,
+    MutationFuzzerTest.class,
+    ParserTest.class,
+    ReadBudgetTest.class,
+    SerialStreamTest.class,
+    SizeProfileTest.class,
+    StreamEditorTest.class,
     
+    ConcurrentTesteeTest.class,
+    DescriptionRendererTest.class,
+    ExecutionPolicyTest.class,
+    LatencyHistogramTest.class,
     RaiseMatchersTest.class,
     RaiseMatcherTest.class,
+    RepeatedTesteeTest.class,
     TesteeTest.class,
+    ThrowableChainTest.class,
     
+    AllRaiseTest.class,
+    CompletesWithinTest.class,
+    FusedChainMatcherTest.class,
     InChainBaseTest.class,
     InChainExactTest.class,
     InChainTest.class,
     NoCauseTest.class,
+    PercentileWithinTest.class,
     RaiseBaseTest.class,
     RaiseExactTest.class,
+    RaiseInAnyTest.class,
+    RaiseInNoRunTest.class,
+    RaiseInNoneTest.class,
     RaiseNothingTest.class,
     RaiseTest.class,
+    RaisesWithinTest.class,
     RootCauseBaseTest.class,
     RootCauseExactTest.class,
     RootCauseTest.class,
@@ -0,0 +1,173 @@
+package xyz.hotchpotch.jutaime.serializable;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class ByteDiffTest {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /** 比較用の素朴な動的計画法による最小編集距離 */
+    private static int naiveDistance(byte[] a, byte[] b) {
+        int[][] lcs = new int[a.length + 1][b.length + 1];
+        for (int i = 1; i <= a.length; i++) {
+            for (int j = 1; j <= b.length; j++) {
+                lcs[i][j] = a[i - 1] == b[j - 1]
+                        ? lcs[i - 1][j - 1] + 1
+                        : Math.max(lcs[i - 1][j], lcs[i][j - 1]);
+            }
+        }
+        return a.length + b.length - 2 * lcs[a.length][b.length];
+    }
+    
+    /** 区間の列が a から b への正しい変換を表すことを検証し、編集距離を返す */
+    private static long verify(ByteDiff diff, byte[] a, byte[] b) {
+        ByteArrayOutputStream rebuilt = new ByteArrayOutputStream();
+        int aPos = 0;
+        int bPos = 0;
+        long distance = 0;
+        int prevKind = -1;
+        for (int i = 0; i < diff.runCount(); i++) {
+            int[] run = diff.run(i);
+            assertThat(run[3] > 0, is(true));
+            assertThat(run[1], is(aPos));
+            assertThat(run[2], is(bPos));
+            assertThat(run[0] != prevKind, is(true));
+            switch (run[0]) {
+            case ByteDiff.EQUAL:
+                for (int j = 0; j < run[3]; j++) {
+                    assertThat(a[aPos + j], is(b[bPos + j]));
+                }
+                rebuilt.write(a, aPos, run[3]);
+                aPos += run[3];
+                bPos += run[3];
+                break;
+            case ByteDiff.DELETE:
+                // 隣接する削除と挿入は、削除が先に置かれる
+                assertThat(prevKind, not(ByteDiff.INSERT));
+                aPos += run[3];
+                distance += run[3];
+                break;
+            case ByteDiff.INSERT:
+                rebuilt.write(b, bPos, run[3]);
+                bPos += run[3];
+                distance += run[3];
+                break;
+            default:
+                fail();
+            }
+            prevKind = run[0];
+        }
+        assertThat(aPos, is(a.length));
+        assertThat(bPos, is(b.length));
+        assertThat(rebuilt.toByteArray(), is(b));
+        assertThat(diff.distance(), is(distance));
+        return distance;
+    }
+    
+    private static byte[] random(Random random, int length, int range) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) random.nextInt(range);
+        }
+        return bytes;
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    @Test
+    public void testDistance() {
+        byte[] empty = {};
+        byte[] abc = { 1, 2, 3 };
+        assertThat(verify(new ByteDiff(empty, empty), empty, empty), is(0L));
+        assertThat(verify(new ByteDiff(abc, abc), abc, abc), is(0L));
+        assertThat(verify(new ByteDiff(empty, abc), empty, abc), is(3L));
+        assertThat(verify(new ByteDiff(abc, empty), abc, empty), is(3L));
+        
+        byte[] a = { 1, 2, 3, 1, 2, 2, 1 };
+        byte[] b = { 3, 2, 1, 2, 1, 3 };
+        assertThat(verify(new ByteDiff(a, b), a, b), is(5L));
+    }
+    
+    @Test
+    public void testDistanceRandomly() {
+        Random random = new Random(0);
+        for (int n = 0; n < 2000; n++) {
+            int range = 1 + random.nextInt(4);
+            byte[] a = random(random, random.nextInt(40), range);
+            byte[] b = random.nextBoolean()
+                    ? random(random, random.nextInt(40), range)
+                    : STUtil.replace(a, new byte[] { (byte) random.nextInt(range) }, random(random, random.nextInt(3), range));
+            
+            // 求めた差分は最小であり、a を b に変換する正しい手順である
+            assertThat(verify(new ByteDiff(a, b), a, b), is((long) naiveDistance(a, b)));
+        }
+    }
+    
+    @Test(timeout = 10000)
+    public void testLargeInput() {
+        Random random = new Random(0);
+        byte[] a = random(random, 4 * 1024 * 1024, 256);
+        byte[] b = a.clone();
+        for (int i = 0; i < 100; i++) {
+            b[random.nextInt(b.length)] ^= 0x5a;
+        }
+        byte[] c = STUtil.concat(STUtil.concat(new byte[] { 1, 2, 3 }, b), new byte[] { 4 });
+        
+        assertThat(verify(new ByteDiff(a, b), a, b) <= 200, is(true));
+        assertThat(verify(new ByteDiff(a, c), a, c) <= 204, is(true));
+    }
+    
+    @Test
+    public void testRender() {
+        byte[] a = STUtil.hexToBytes("ac ed 00 05 74 00 03 61 62 63");
+        byte[] b = STUtil.hexToBytes("ac ed 00 05 74 00 02 78 79");
+        
+        assertThat(new ByteDiff(a, a).render(16), is(""));
+        assertThat(new ByteDiff(a, b).render(2), is(
+                "@@ -00000004,6 +00000004,5 @@\n"
+                        + "  00000004 74 00\n"
+                        + "- 00000006 03 61 62 63\n"
+                        + "+ 00000006 02 78 79\n"));
+        assertThat(new ByteDiff(a, b).render(0), is(
+                "@@ -00000006,4 +00000006,3 @@\n"
+                        + "- 00000006 03 61 62 63\n"
+                        + "+ 00000006 02 78 79\n"));
+        
+        // 離れた変更箇所は別のハンクとなり、近い変更箇所は一つのハンクにまとめられる
+        byte[] c = new byte[40];
+        for (int i = 0; i < c.length; i++) {
+            c[i] = (byte) i;
+        }
+        byte[] d = c.clone();
+        d[5] = -1;
+        d[30] = -2;
+        d[34] = -3;
+        assertThat(new ByteDiff(c, d).render(2), is(
+                "@@ -00000003,5 +00000003,5 @@\n"
+                        + "  00000003 03 04\n"
+                        + "- 00000005 05\n"
+                        + "+ 00000005 ff\n"
+                        + "  00000006 06 07\n"
+                        + "@@ -0000001c,9 +0000001c,9 @@\n"
+                        + "  0000001c 1c 1d\n"
+                        + "- 0000001e 1e\n"
+                        + "+ 0000001e fe\n"
+                        + "  0000001f 1f 20 21\n"
+                        + "- 00000022 22\n"
+                        + "+ 00000022 fd\n"
+                        + "  00000023 23 24\n"));
+        
+        // 長い区間は16バイトごとに改行される
+        byte[] e = new byte[20];
+        assertThat(new ByteDiff(new byte[0], e).render(2), is(
+                "@@ -00000000,0 +00000000,20 @@\n"
+                        + "+ 00000000 00 00 00 00 00 00 00 00 00 00 00 00 00 00 00 00\n"
+                        + "+ 00000010 00 00 00 00\n"));
+    }
+}
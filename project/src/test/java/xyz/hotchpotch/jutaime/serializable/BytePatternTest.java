@@ -0,0 +1,89 @@
+package xyz.hotchpotch.jutaime.serializable;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class BytePatternTest {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /** 比較用の素朴な検索 */
+    private static int naiveIndexOf(byte[] bytes, byte[] pattern, int from) {
+        outer: for (int i = from; i <= bytes.length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (bytes[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    @Test
+    public void testIndexOf() {
+        BytePattern pattern = new BytePattern(new byte[] { 1, 2, 1 });
+        assertThat(pattern.indexOf(new byte[] {}, 0), is(-1));
+        assertThat(pattern.indexOf(new byte[] { 1, 2 }, 0), is(-1));
+        assertThat(pattern.indexOf(new byte[] { 1, 2, 1 }, 0), is(0));
+        assertThat(pattern.indexOf(new byte[] { 1, 2, 1 }, 1), is(-1));
+        assertThat(pattern.indexOf(new byte[] { 1, 2, 1, 2, 1 }, 1), is(2));
+        assertThat(pattern.indexOf(new byte[] { 0, 0, 0, 1, 2, 1 }, 0), is(3));
+        
+        BytePattern single = new BytePattern(new byte[] { -1 });
+        assertThat(single.indexOf(new byte[] { 0, -1, -1 }, 0), is(1));
+        assertThat(single.indexOf(new byte[] { 0, -1, -1 }, 2), is(2));
+        assertThat(single.indexOf(new byte[] { 0, -1, -1 }, 3), is(-1));
+    }
+    
+    @Test
+    public void testIndexOf2() {
+        // 小さなアルファベットのランダムな配列で、素朴な検索と結果が一致することを確認する
+        Random random = new Random(0);
+        for (int n = 0; n < 2_000; n++) {
+            byte[] bytes = new byte[random.nextInt(64)];
+            byte[] target = new byte[1 + random.nextInt(4)];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = (byte) (random.nextInt(3) - 1);
+            }
+            for (int i = 0; i < target.length; i++) {
+                target[i] = (byte) (random.nextInt(3) - 1);
+            }
+            BytePattern pattern = new BytePattern(target);
+            for (int from = 0; from <= bytes.length; from++) {
+                assertThat(pattern.indexOf(bytes, from), is(naiveIndexOf(bytes, target, from)));
+            }
+        }
+    }
+    
+    @Test
+    public void testReplace() {
+        BytePattern pattern = new BytePattern(new byte[] { 1, 1 });
+        byte[] original = { 1, 1, 1, 1, 1 };
+        assertThat(pattern.replace(original, new byte[] { 2 }, BytePattern.ALL), is(new byte[] { 2, 2, 1 }));
+        assertThat(pattern.replace(original, new byte[] { 2 }, 1), is(new byte[] { 2, 1, 1, 1 }));
+        assertThat(pattern.replace(original, new byte[] { 2 }, 2), is(new byte[] { 1, 1, 2, 1 }));
+        assertThat(pattern.replace(original, new byte[] { 2 }, 3), is(original));
+        assertThat(pattern.replace(original, new byte[] { 2 }, 3), not(sameInstance(original)));
+        
+        // 一致箇所の数が内部の初期容量を超える場合
+        byte[] many = new byte[100];
+        byte[] expected = new byte[150];
+        for (int i = 0; i < 50; i++) {
+            expected[i * 3] = 3;
+        }
+        assertThat(new BytePattern(new byte[] { 0, 0 }).replace(many, new byte[] { 3, 0, 0 }, BytePattern.ALL), is(expected));
+        
+        // パターンは生成時に複製される
+        byte[] target = { 5 };
+        BytePattern pattern2 = new BytePattern(target);
+        target[0] = 6;
+        assertThat(pattern2.indexOf(new byte[] { 6, 5 }, 0), is(1));
+    }
+}
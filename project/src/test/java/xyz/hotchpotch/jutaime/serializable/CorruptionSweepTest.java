@@ -0,0 +1,148 @@
+package xyz.hotchpotch.jutaime.serializable;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static xyz.hotchpotch.jutaime.throwable.RaiseMatchers.*;
+import static xyz.hotchpotch.jutaime.throwable.Testee.*;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.hamcrest.BaseMatcher;
+import org.hamcrest.Description;
+import org.junit.Test;
+
+import xyz.hotchpotch.jutaime.serializable.CorruptionSweep.Failure;
+import xyz.hotchpotch.jutaime.serializable.CorruptionSweep.Report;
+import xyz.hotchpotch.jutaime.throwable.Testee;
+
+public class CorruptionSweepTest {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private static class Point implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final int x = 1;
+        private final int y = 2;
+        private final String label = "point";
+    }
+    
+    private static List<String> cases(List<Failure> failures) {
+        List<String> cases = new ArrayList<>();
+        for (Failure failure : failures) {
+            cases.add(failure.offset() + ":" + failure.value());
+        }
+        return cases;
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    @Test
+    public void testOf() {
+        assertThat(of(() -> CorruptionSweep.ofSerialized(null)), raise(NullPointerException.class));
+        assertThat(of(() -> CorruptionSweep.of(new Object())), raise(FailToSerializeException.class));
+        
+        // 指定されたバイト配列は複製される
+        byte[] bytes = STUtil.write("abc");
+        CorruptionSweep sweep = CorruptionSweep.ofSerialized(bytes);
+        Arrays.fill(bytes, (byte) 0);
+        assertThat(sweep.truncations(raise(FailToDeserializeException.class)).isSuccessful(), is(true));
+    }
+    
+    @Test
+    public void testThreadsAndMaxFailures() {
+        CorruptionSweep sweep = CorruptionSweep.of("abc");
+        assertThat(of(() -> sweep.threads(0)), raise(IllegalArgumentException.class, "0"));
+        assertThat(of(() -> sweep.maxFailures(-1)), raise(IllegalArgumentException.class, "-1"));
+        assertThat(of(() -> sweep.threads(1).maxFailures(0)), raiseNothing());
+        assertThat(of(() -> sweep.truncations(null)), raise(NullPointerException.class));
+        assertThat(of(() -> sweep.substitutions(null)), raise(NullPointerException.class));
+    }
+    
+    @Test
+    public void testTruncations() {
+        byte[] bytes = STUtil.write(new Point());
+        Report report = CorruptionSweep.of(new Point()).truncations(raise(FailToDeserializeException.class));
+        
+        // 全ての真の接頭辞は、デシリアライズに失敗する
+        assertThat(report.toString(), report.isSuccessful(), is(true));
+        assertThat(report.cases(), is((long) bytes.length));
+        assertThat(report.failureCount(), is(0L));
+        assertThat(report.failedOffsets().isEmpty(), is(true));
+        assertThat(report.failures().isEmpty(), is(true));
+        assertThat(report.elapsedTime(), notNullValue());
+        assertThat(report.toString().startsWith(String.format("%d cases, 0 failed in PT", bytes.length)), is(true));
+        
+        // ac ed 00 05 74 00 03 61 62 63
+        Report failed = CorruptionSweep.of("abc").maxFailures(3).truncations(raiseNothing());
+        assertThat(failed.isSuccessful(), is(false));
+        assertThat(failed.cases(), is(10L));
+        assertThat(failed.failureCount(), is(10L));
+        assertThat(failed.failedOffsets(), is(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9)));
+        assertThat(failed.failures().size(), is(3));
+        assertThat(failed.failures().get(0).offset(), is(0));
+        assertThat(failed.failures().get(0).value(), is(-1));
+        assertThat(failed.failures().get(0).testee(), raise(FailToDeserializeException.class));
+        assertThat(failed.failures().get(2).toString().startsWith("truncated to 2 bytes: "), is(true));
+        assertThat(failed.toString().contains("\nfailed offsets: [0, 1, 2, 3, 4, 5, 6, 7, 8, 9]\ntruncated to 0 bytes: "), is(true));
+        assertThat(of(() -> failed.failures().clear()), raise(UnsupportedOperationException.class));
+        assertThat(of(() -> failed.failedOffsets().clear()), raise(UnsupportedOperationException.class));
+    }
+    
+    @Test
+    public void testSubstitutions() {
+        byte[] bytes = STUtil.write(new Point());
+        Report report = CorruptionSweep.of(new Point())
+                .substitutions(anyOf(raiseNothing(), raise(FailToDeserializeException.class)));
+        
+        assertThat(report.toString(), report.isSuccessful(), is(true));
+        assertThat(report.cases(), is(bytes.length * 255L));
+        
+        // 先頭の固定 4 バイトは、いずれの置換でもデシリアライズに失敗する
+        Report failed = CorruptionSweep.of("abc").maxFailures(1000).substitutions(raise(FailToDeserializeException.class));
+        assertThat(failed.cases(), is(10 * 255L));
+        assertThat(failed.failedOffsets().contains(0), is(false));
+        assertThat(failed.failedOffsets().contains(3), is(false));
+        assertThat(failed.failedOffsets().contains(7), is(true));
+        
+        // ac ed 00 05 74 00 03 61 62 63 の 'a' を 'b' に置換したもの
+        Failure failure = null;
+        for (Failure f : failed.failures()) {
+            if (f.offset() == 7 && f.value() == 0x62) {
+                failure = f;
+            }
+        }
+        assertThat(failure, notNullValue());
+        assertThat(failure.testee(), raiseNothing());
+        assertThat(failure.toString().startsWith("0x0007 -> 62: "), is(true));
+    }
+    
+    @Test
+    public void testDeterministic() {
+        // スレッド数によらず同じ結果が得られ、置換は各ケースの後に元に戻される
+        CorruptionSweep sweep = CorruptionSweep.of(new Point()).maxFailures(50);
+        Report single = sweep.threads(1).substitutions(raise(FailToDeserializeException.class));
+        Report parallel = sweep.threads(4).substitutions(raise(FailToDeserializeException.class));
+        
+        assertThat(single.failureCount() > 0, is(true));
+        assertThat(parallel.failureCount(), is(single.failureCount()));
+        assertThat(parallel.failedOffsets(), is(single.failedOffsets()));
+        assertThat(cases(parallel.failures()), is(cases(single.failures())));
+    }
+    
+    @Test
+    public void testAbort() {
+        assertThat(of(() -> CorruptionSweep.of("abc").truncations(new BaseMatcher<Testee<?>>() {
+            @Override
+            public boolean matches(Object item) {
+                throw new IllegalStateException("broken matcher");
+            }
+            
+            @Override
+            public void describeTo(Description description) {
+            }
+        })), raise(IllegalStateException.class, "broken matcher"));
+    }
+}
@@ -0,0 +1,199 @@
+package xyz.hotchpotch.jutaime.serializable;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static xyz.hotchpotch.jutaime.throwable.RaiseMatchers.*;
+import static xyz.hotchpotch.jutaime.throwable.Testee.*;
+
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import xyz.hotchpotch.jutaime.serializable.GoldenArchive.Entry;
+
+public class GoldenArchiveTest {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private static class Point implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final int x;
+        private final int y;
+        
+        private Point(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Point && ((Point) obj).x == x && ((Point) obj).y == y;
+        }
+        
+        @Override
+        public int hashCode() {
+            return 31 * x + y;
+        }
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    private Path write(GoldenArchive.Builder builder) throws IOException {
+        Path path = folder.newFile().toPath();
+        builder.writeTo(path);
+        return path;
+    }
+    
+    @Test
+    public void testWriteAndOpen() throws IOException {
+        Path path = write(GoldenArchive.builder()
+                .add(2, "abc")
+                .add(1, new Point(1, 2))
+                .add(1, "xyz")
+                .add(3, Arrays.asList(1, 2, 3)));
+        GoldenArchive archive = GoldenArchive.open(path);
+        
+        // クラス名、バージョンの順に整列される
+        assertThat(archive.entries().size(), is(4));
+        assertThat(archive.entries().get(0).className(), is("java.lang.String"));
+        assertThat(archive.entries().get(0).version(), is(1));
+        assertThat(archive.entries().get(1).version(), is(2));
+        assertThat(archive.entries().get(2).className(), is("java.util.Arrays$ArrayList"));
+        assertThat(archive.entries().get(3).className(), is(Point.class.getName()));
+        
+        Entry abc = archive.entry(String.class, 2);
+        assertThat(abc.read(), is("abc"));
+        assertThat(abc.size(), is(STUtil.write("abc").length));
+        assertThat(archive.entry(String.class, 1).read(), is("xyz"));
+        assertThat(archive.entry(Point.class, 1).read(), is(new Point(1, 2)));
+        assertThat(archive.entry("java.util.Arrays$ArrayList", 3).read(), is(Arrays.asList(1, 2, 3)));
+        
+        // バイト列はマップされたファイルを読み取り専用で直接参照する
+        ByteBuffer bytes = abc.bytes();
+        assertThat(bytes.isReadOnly(), is(true));
+        assertThat(bytes.isDirect(), is(true));
+        byte[] actual = new byte[bytes.remaining()];
+        bytes.get(actual);
+        assertThat(actual, is(STUtil.write("abc")));
+        
+        // 繰り返し読み込むことができる
+        assertThat(abc.read(), is("abc"));
+        
+        assertThat(of(() -> archive.entry(String.class, 3)), raise(NoSuchElementException.class));
+        assertThat(of(() -> archive.entry((String) null, 1)), raise(NullPointerException.class));
+        assertThat(of(() -> archive.entry((Class<?>) null, 1)), raise(NullPointerException.class));
+    }
+    
+    @Test
+    public void testEmpty() throws IOException {
+        GoldenArchive archive = GoldenArchive.open(write(GoldenArchive.builder()));
+        assertThat(archive.entries().isEmpty(), is(true));
+        assertThat(archive.verify().isEmpty(), is(true));
+    }
+    
+    @Test
+    public void testBuilder() {
+        GoldenArchive.Builder builder = GoldenArchive.builder().add(1, "abc");
+        assertThat(of(() -> builder.add(1, "xyz")), raise(IllegalArgumentException.class));
+        assertThat(of(() -> builder.add(-1, "xyz")), raise(IllegalArgumentException.class));
+        assertThat(of(() -> builder.add(1, null)), raise(NullPointerException.class));
+        assertThat(of(() -> builder.add(null, 1, new byte[0])), raise(NullPointerException.class));
+        assertThat(of(() -> builder.add("abc", 1, null)), raise(NullPointerException.class));
+        assertThat(of(() -> builder.add(1, new Object())), raise(FailToSerializeException.class));
+        assertThat(of(() -> builder.writeTo(null)), raise(NullPointerException.class));
+    }
+    
+    @Test
+    public void testOpenCorrupted() throws IOException {
+        assertThat(of(() -> GoldenArchive.open(null)), raise(NullPointerException.class));
+        
+        Path path = folder.newFile().toPath();
+        Files.write(path, new byte[] { 'J', 'U', 'G' });
+        assertThat(of(() -> GoldenArchive.open(path)), raise(StreamCorruptedException.class));
+        Files.write(path, new byte[] { 'A', 'B', 'C', 'D', 0, 1, 0, 0, 0, 0 });
+        assertThat(of(() -> GoldenArchive.open(path)), raise(StreamCorruptedException.class));
+        
+        // 途中で途切れたアーカイブ
+        byte[] bytes = Files.readAllBytes(write(GoldenArchive.builder().add(1, "abc")));
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThat(of(() -> GoldenArchive.open(path)), raise(StreamCorruptedException.class));
+        Files.write(path, Arrays.copyOf(bytes, 20));
+        assertThat(of(() -> GoldenArchive.open(path)), raise(StreamCorruptedException.class));
+        
+        // クラス名が修正 UTF-8 形式として不正なアーカイブ
+        byte[] malformed = bytes.clone();
+        malformed[12] = (byte) 0xff;
+        Files.write(path, malformed);
+        assertThat(of(() -> GoldenArchive.open(path)),
+                raise(StreamCorruptedException.class).rootCause(UTFDataFormatException.class));
+    }
+    
+    @Test
+    public void testVerify() throws IOException {
+        byte[] point = STUtil.write(new Point(1, 2));
+        byte[] incompatible = STUtil.replace(point, STUtil.bytes(1L), STUtil.bytes(2L));
+        
+        GoldenArchive.Builder builder = GoldenArchive.builder()
+                .add(Point.class.getName(), 1, point)
+                .add(Point.class.getName(), 2, incompatible)
+                .add("com.example.Missing", 1, STUtil.hexToBytes("ac ed 00 05 70"))
+                .add("com.example.Renamed", 1, STUtil.write("abc"));
+        for (int i = 0; i < 100; i++) {
+            builder.add(i, "string-" + i);
+        }
+        GoldenArchive archive = GoldenArchive.open(write(builder));
+        
+        Map<Entry, Throwable> failures = archive.verify();
+        assertThat(failures.size(), is(2));
+        assertThat(failures.keySet().toArray(), is(new Object[] {
+                archive.entry("com.example.Renamed", 1), archive.entry(Point.class, 2) }));
+        assertThat(failures.get(archive.entry(Point.class, 2)), instanceOf(FailToDeserializeException.class));
+        assertThat(failures.get(archive.entry(Point.class, 2)).getCause(), instanceOf(InvalidClassException.class));
+        assertThat(failures.get(archive.entry("com.example.Renamed", 1)), instanceOf(AssertionError.class));
+        
+        // 検査の結果も失敗として報告される
+        Map<Entry, Throwable> checked = archive.verify((entry, obj) -> {
+            if ("string-7".equals(obj)) {
+                throw new IllegalStateException(entry.toString());
+            }
+        });
+        assertThat(checked.size(), is(3));
+        assertThat(checked.get(archive.entry(String.class, 7)), instanceOf(IllegalStateException.class));
+        assertThat(checked.get(archive.entry("com.example.Renamed", 1)), instanceOf(AssertionError.class));
+        
+        // 例外以外のエラーも、検証を中止せずにそのエントリの失敗として報告される
+        Map<Entry, Throwable> errors = archive.verify((entry, obj) -> {
+            if ("string-3".equals(obj)) {
+                throw new ExceptionInInitializerError("string-3");
+            }
+            if ("string-5".equals(obj)) {
+                throw new NoClassDefFoundError("string-5");
+            }
+        });
+        assertThat(errors.size(), is(4));
+        assertThat(errors.get(archive.entry(String.class, 3)), instanceOf(ExceptionInInitializerError.class));
+        assertThat(errors.get(archive.entry(String.class, 5)), instanceOf(NoClassDefFoundError.class));
+        
+        // VirtualMachineError はそのままスローされる（並列ストリームは、同じ型のエラーでラップしてスローすることがある）
+        assertThat(of(() -> archive.verify((entry, obj) -> {
+            throw new OutOfMemoryError("vm");
+        })), raise(OutOfMemoryError.class).rootCause(OutOfMemoryError.class, "vm"));
+        
+        assertThat(of(() -> archive.verify(null)), raise(NullPointerException.class));
+    }
+}
@@ -0,0 +1,168 @@
+package xyz.hotchpotch.jutaime.serializable;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static xyz.hotchpotch.jutaime.throwable.RaiseMatchers.*;
+import static xyz.hotchpotch.jutaime.throwable.Testee.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class HexCodecTest {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /** 内部バッファの大きさを超える、全てのバイト値を含むバイト配列 */
+    private static byte[] largeBytes() {
+        byte[] bytes = new byte[20_000];
+        new Random(0).nextBytes(bytes);
+        for (int i = 0; i < 256; i++) {
+            bytes[i] = (byte) i;
+        }
+        return bytes;
+    }
+    
+    /** 比較用の素朴な実装 */
+    private static String naiveHex(byte[] bytes) {
+        StringBuilder str = new StringBuilder();
+        for (byte b : bytes) {
+            str.append(String.format(" %02x", b));
+        }
+        return 0 < bytes.length ? str.substring(1) : "";
+    }
+    
+    private static byte[] decode(String hex) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HexCodec.decode(new StringReader(hex), out);
+        return out.toByteArray();
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    @Test
+    public void testEncode() {
+        assertThat(HexCodec.encode(new byte[] {}), is(""));
+        assertThat(HexCodec.encode(new byte[] { 0, 15, 16, -1, -128, 127 }), is("00 0f 10 ff 80 7f"));
+        assertThat(HexCodec.encode(largeBytes()), is(naiveHex(largeBytes())));
+        
+        assertThat(of(() -> HexCodec.encode((byte[]) null)), raise(NullPointerException.class));
+    }
+    
+    @Test
+    public void testEncodeAppendable() throws IOException {
+        byte[] bytes = largeBytes();
+        StringWriter writer = new StringWriter();
+        HexCodec.encode(bytes, 0, bytes.length, writer);
+        assertThat(writer.toString(), is(naiveHex(bytes)));
+        
+        StringBuilder str = new StringBuilder("x");
+        HexCodec.encode(new byte[] { 1, 2, 3, 4 }, 1, 2, str);
+        assertThat(str.toString(), is("x02 03"));
+        HexCodec.encode(new byte[] { 1, 2, 3, 4 }, 4, 0, str);
+        assertThat(str.toString(), is("x02 03"));
+        
+        assertThat(of(() -> HexCodec.encode(null, 0, 0, str)), raise(NullPointerException.class));
+        assertThat(of(() -> HexCodec.encode(bytes, 0, 0, null)), raise(NullPointerException.class));
+        assertThat(of(() -> HexCodec.encode(new byte[2], -1, 1, str)), raise(IndexOutOfBoundsException.class));
+        assertThat(of(() -> HexCodec.encode(new byte[2], 0, -1, str)), raise(IndexOutOfBoundsException.class));
+        assertThat(of(() -> HexCodec.encode(new byte[2], 1, 2, str)), raise(IndexOutOfBoundsException.class));
+    }
+    
+    @Test
+    public void testEncodeInputStream() throws IOException {
+        byte[] bytes = largeBytes();
+        StringWriter writer = new StringWriter();
+        assertThat(HexCodec.encode(new ByteArrayInputStream(bytes), writer), is((long) bytes.length));
+        assertThat(writer.toString(), is(naiveHex(bytes)));
+        
+        StringBuilder str = new StringBuilder();
+        assertThat(HexCodec.encode(new ByteArrayInputStream(new byte[] {}), str), is(0L));
+        assertThat(str.toString(), is(""));
+        
+        assertThat(of(() -> HexCodec.encode(null, str)), raise(NullPointerException.class));
+        assertThat(of(() -> HexCodec.encode(new ByteArrayInputStream(bytes), null)), raise(NullPointerException.class));
+    }
+    
+    @Test
+    public void testDecode() {
+        assertThat(HexCodec.decode(""), is(new byte[] {}));
+        assertThat(HexCodec.decode("00 0f 10 ff 80 7f"), is(new byte[] { 0, 15, 16, -1, -128, 127 }));
+        assertThat(HexCodec.decode(naiveHex(largeBytes())), is(largeBytes()));
+        assertThat(HexCodec.decode(new StringBuilder("ab cd")), is(new byte[] { (byte) 0xab, (byte) 0xcd }));
+        
+        assertThat(of(() -> HexCodec.decode((CharSequence) null)), raise(NumberFormatException.class));
+        assertThat(of(() -> HexCodec.decode("0")), raise(NumberFormatException.class));
+        assertThat(of(() -> HexCodec.decode("00 ")), raise(NumberFormatException.class));
+        assertThat(of(() -> HexCodec.decode(" 00")), raise(NumberFormatException.class));
+        assertThat(of(() -> HexCodec.decode("00  01")), raise(NumberFormatException.class));
+        assertThat(of(() -> HexCodec.decode("0A")), raise(NumberFormatException.class));
+        assertThat(of(() -> HexCodec.decode("00-01")), raise(NumberFormatException.class));
+        assertThat(of(() -> HexCodec.decode("0g")), raise(NumberFormatException.class));
+        assertThat(of(() -> HexCodec.decode("٠١")), raise(NumberFormatException.class));
+    }
+    
+    @Test
+    public void testDecodeReader() throws IOException {
+        assertThat(decode(""), is(new byte[] {}));
+        assertThat(decode("00 0f 10 ff 80 7f"), is(new byte[] { 0, 15, 16, -1, -128, 127 }));
+        assertThat(decode(naiveHex(largeBytes())), is(largeBytes()));
+        
+        assertThat(of(() -> decode("0")), raise(NumberFormatException.class));
+        assertThat(of(() -> decode("00 ")), raise(NumberFormatException.class));
+        assertThat(of(() -> decode(" 00")), raise(NumberFormatException.class));
+        assertThat(of(() -> decode("00  01")), raise(NumberFormatException.class));
+        assertThat(of(() -> decode("0A")), raise(NumberFormatException.class));
+        assertThat(of(() -> decode(naiveHex(largeBytes()) + "x")), raise(NumberFormatException.class));
+        
+        assertThat(of(() -> HexCodec.decode(null, new ByteArrayOutputStream())), raise(NullPointerException.class));
+        assertThat(of(() -> HexCodec.decode(new StringReader(""), null)), raise(NullPointerException.class));
+    }
+    
+    @Test
+    public void testHexView() {
+        byte[] bytes = { 0x01, (byte) 0xab, (byte) 0xff };
+        CharSequence view = HexCodec.hexView(bytes);
+        assertThat(view.length(), is(8));
+        assertThat(view.toString(), is("01 ab ff"));
+        assertThat(view.charAt(0), is('0'));
+        assertThat(view.charAt(4), is('b'));
+        assertThat(view.charAt(5), is(' '));
+        assertThat(view.subSequence(3, 8).toString(), is("ab ff"));
+        assertThat(view.subSequence(3, 8).subSequence(1, 4).toString(), is("b f"));
+        assertThat(view.subSequence(2, 2).length(), is(0));
+        
+        // 元の配列を複製せずに参照する
+        bytes[0] = 0x10;
+        assertThat(view.toString(), is("10 ab ff"));
+        
+        assertThat(HexCodec.hexView(new byte[] {}).length(), is(0));
+        assertThat(HexCodec.hexView(largeBytes()).toString(), is(naiveHex(largeBytes())));
+        
+        assertThat(of(() -> HexCodec.hexView(null)), raise(NullPointerException.class));
+        assertThat(of(() -> view.charAt(-1)), raise(IndexOutOfBoundsException.class));
+        assertThat(of(() -> view.charAt(8)), raise(IndexOutOfBoundsException.class));
+        assertThat(of(() -> view.subSequence(-1, 2)), raise(IndexOutOfBoundsException.class));
+        assertThat(of(() -> view.subSequence(3, 2)), raise(IndexOutOfBoundsException.class));
+        assertThat(of(() -> view.subSequence(0, 9)), raise(IndexOutOfBoundsException.class));
+    }
+    
+    @Test
+    public void testIsHexFormat() {
+        assertThat(HexCodec.isHexFormat(""), is(true));
+        assertThat(HexCodec.isHexFormat("00"), is(true));
+        assertThat(HexCodec.isHexFormat("01 2a b3 ff"), is(true));
+        
+        assertThat(HexCodec.isHexFormat("00 1 23"), is(false));
+        assertThat(HexCodec.isHexFormat("12 "), is(false));
+        assertThat(HexCodec.isHexFormat(" 34"), is(false));
+        assertThat(HexCodec.isHexFormat("AB FF"), is(false));
+        assertThat(HexCodec.isHexFormat("00 1g"), is(false));
+        assertThat(HexCodec.isHexFormat("00_11"), is(false));
+    }
+}
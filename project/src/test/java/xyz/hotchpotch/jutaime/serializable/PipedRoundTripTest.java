@@ -0,0 +1,120 @@
+package xyz.hotchpotch.jutaime.serializable;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static xyz.hotchpotch.jutaime.throwable.RaiseMatchers.*;
+import static xyz.hotchpotch.jutaime.throwable.Testee.*;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class PipedRoundTripTest {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private static class Node implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final int value;
+        private Node next;
+        
+        private Node(int value) {
+            this.value = value;
+        }
+    }
+    
+    private static class Invalid implements Serializable {
+        private static final long serialVersionUID = 1L;
+        
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            throw new InvalidObjectException("invalid");
+        }
+    }
+    
+    private static class FailOnWrite implements Serializable {
+        private static final long serialVersionUID = 1L;
+        
+        private void writeObject(ObjectOutputStream out) throws IOException {
+            throw new IllegalStateException("write failed");
+        }
+    }
+    
+    private static long pipeThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(t -> t.getName().startsWith("jutaime-pipe-"))
+                .count();
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    @Test
+    public void testWriteAndRead() {
+        assertThat(PipedRoundTrip.writeAndRead(null, 1), nullValue());
+        assertThat(PipedRoundTrip.writeAndRead("abc", 1), is("abc"));
+        assertThat(PipedRoundTrip.writeAndRead(Arrays.asList(1, "x", 2.0), 16), is(Arrays.asList(1, "x", 2.0)));
+        
+        // 循環参照
+        Node first = new Node(1);
+        first.next = new Node(2);
+        first.next.next = first;
+        Node copy = PipedRoundTrip.writeAndRead(first, 7);
+        assertThat(copy.value, is(1));
+        assertThat(copy.next.value, is(2));
+        assertThat(copy.next.next, sameInstance(copy));
+    }
+    
+    @Test(timeout = 30000)
+    public void testLargerThanBuffer() {
+        // パイプの容量を大きく超えるシリアライズ形式も、パイプを介して受け渡される
+        byte[] data = new byte[3 << 20];
+        new Random(0).nextBytes(data);
+        List<Object> list = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            list.add("element " + i);
+        }
+        list.add(data);
+        
+        List<Object> actual = PipedRoundTrip.writeAndRead(list, 1024);
+        assertThat(actual.subList(0, 10_000), is(list.subList(0, 10_000)));
+        assertThat((byte[]) actual.get(10_000), is(data));
+    }
+    
+    @Test
+    public void testFailToSerialize() {
+        assertThat(of(() -> PipedRoundTrip.writeAndRead(new Object(), 64)),
+                raise(FailToSerializeException.class).rootCause(NotSerializableException.class));
+        assertThat(of(() -> PipedRoundTrip.writeAndRead(Arrays.asList("a", new FailOnWrite()), 64)),
+                raise(FailToSerializeException.class).rootCause(IllegalStateException.class, "write failed"));
+    }
+    
+    @Test
+    public void testFailToDeserialize() {
+        assertThat(of(() -> PipedRoundTrip.writeAndRead(new Invalid(), 64)),
+                raise(FailToDeserializeException.class).rootCause(InvalidObjectException.class, "invalid"));
+        
+        // デシリアライズに失敗した時点で書き込み側が待機していても、デッドロックせずに終了する
+        List<Object> list = new ArrayList<>();
+        list.add(new Invalid());
+        list.add(new byte[1 << 20]);
+        assertThat(of(() -> PipedRoundTrip.writeAndRead(list, 64)),
+                raise(FailToDeserializeException.class).rootCause(InvalidObjectException.class));
+    }
+    
+    @Test
+    public void testNoThreadLeak() {
+        PipedRoundTrip.writeAndRead("abc", 16);
+        assertThat(of(() -> PipedRoundTrip.writeAndRead(new Object(), 16)), raise(FailToSerializeException.class));
+        assertThat(of(() -> PipedRoundTrip.writeAndRead(new Invalid(), 16)), raise(FailToDeserializeException.class));
+        assertThat(pipeThreads(), is(0L));
+    }
+}
@@ -0,0 +1,172 @@
+package xyz.hotchpotch.jutaime.serializable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 大きなシリアライズ形式のバイト配列に対する {@link STUtil#replace(byte[], byte[], byte[])}、{@link STUtil#toHexString(byte[])}、
+ * {@link STUtil#hexToBytes(String)}、{@link STUtil#diff(byte[], byte[])} の性能と、小さなオブジェクトに対する {@link STUtil#writeAndRead(Object)} の性能を計測する簡易ベンチマークです。<br>
+ * 比較対象として、従来の実装と同等の {@code legacyReplace}、{@code legacyToHexString}、{@code legacyHexToBytes}、
+ * {@code legacyWriteAndRead} も計測します。<br>
+ * JUnit のテストスイートには含めず、{@code main} メソッドから手動で実行します。<br>
+ * <pre>
+ *     java xyz.hotchpotch.jutaime.serializable.STUtilBenchmark [elements] [rounds]
+ * </pre>
+ * 
+ * @author nmby
+ */
+public class STUtilBenchmark {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    // 計算結果が最適化により除去されないようにするための変数
+    private static volatile Object sink;
+    
+    public static void main(String[] args) {
+        int elements = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        
+        List<String> list = new ArrayList<>();
+        for (int i = 0; i < elements; i++) {
+            list.add("element-" + i);
+        }
+        byte[] original = STUtil.write(list);
+        byte[] target = STUtil.bytes("element-" + (elements / 2));
+        byte[] replacement = STUtil.bytes("ELEMENT-" + (elements / 2));
+        byte[] common = STUtil.bytes(elements); // 多数の一致箇所を持つ短いパターンの例として、要素数を表す int 値を用いる
+        
+        if (!Arrays.equals(STUtil.replace(original, target, replacement), legacyReplace(original, target, replacement))) {
+            throw new AssertionError();
+        }
+        
+        String hex = STUtil.toHexString(original);
+        if (!hex.equals(legacyToHexString(original)) || !Arrays.equals(STUtil.hexToBytes(hex), original)) {
+            throw new AssertionError();
+        }
+        
+        System.out.printf("bytes=%d, rounds=%d%n", original.length, rounds);
+        for (int round = 1; round <= rounds; round++) {
+            System.out.printf("round %2d : replace %8.2f ms, replaceFirst %8.2f ms, replace(short) %8.2f ms, legacy %8.2f ms%n",
+                    round,
+                    measure(() -> STUtil.replace(original, target, replacement)),
+                    measure(() -> STUtil.replaceFirst(original, target, replacement)),
+                    measure(() -> STUtil.replace(original, common, replacement)),
+                    measure(() -> legacyReplace(original, target, replacement)));
+        }
+        for (int round = 1; round <= rounds; round++) {
+            System.out.printf("round %2d : toHexString %8.2f ms, hexToBytes %8.2f ms, legacy toHexString %8.2f ms, legacy hexToBytes %8.2f ms%n",
+                    round,
+                    measure(() -> STUtil.toHexString(original)),
+                    measure(() -> STUtil.hexToBytes(hex)),
+                    measure(() -> legacyToHexString(original)),
+                    measure(() -> legacyHexToBytes(hex)));
+        }
+        
+        // 数メガバイトのシリアライズ形式のうち、中央の1要素のみが異なる場合の差分出力
+        byte[] replaced = STUtil.replace(original, target, replacement);
+        for (int round = 1; round <= rounds; round++) {
+            System.out.printf("round %2d : diff %8.2f ms%n",
+                    round,
+                    measure(() -> STUtil.diff(original, replaced)));
+        }
+        
+        ArrayList<Integer> small = new ArrayList<>(Arrays.asList(1, 2, 3));
+        int roundTrips = 100_000;
+        for (int round = 1; round <= rounds; round++) {
+            long[] session = measureRoundTrips(roundTrips, () -> STUtil.writeAndRead(small));
+            long[] legacy = measureRoundTrips(roundTrips, () -> legacyWriteAndRead(small));
+            System.out.printf("round %2d : writeAndRead %8.1f ns/op %8d B/op, legacy writeAndRead %8.1f ns/op %8d B/op%n",
+                    round,
+                    (double) session[0] / roundTrips, session[1] / roundTrips,
+                    (double) legacy[0] / roundTrips, legacy[1] / roundTrips);
+        }
+    }
+    
+    /**
+     * 処理を {@code count} 回繰り返し、経過時間（ナノ秒）と割り当てられたバイト数を返します。<br>
+     * 割り当てバイト数を取得できない環境では、割り当てバイト数として {@code -1} を返します。<br>
+     */
+    private static long[] measureRoundTrips(int count, Supplier<?> task) {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean sunBean = bean instanceof com.sun.management.ThreadMXBean
+                ? (com.sun.management.ThreadMXBean) bean
+                : null;
+        long id = Thread.currentThread().getId();
+        long allocated = sunBean == null ? 0 : sunBean.getThreadAllocatedBytes(id);
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            sink = task.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        return new long[] { elapsed, sunBean == null ? -count : sunBean.getThreadAllocatedBytes(id) - allocated };
+    }
+    
+    /** 従来の {@code STUtil#writeAndRead(Object)} と同じく、処理のたびにバッファとストリームを生成する比較用の実装 */
+    @SuppressWarnings("unchecked")
+    private static <T> T legacyWriteAndRead(T obj) {
+        try (ByteArrayOutputStream bos = new ByteArrayOutputStream();
+                ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject(obj);
+            oos.flush();
+            try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+                return (T) ois.readObject();
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    
+    private static double measure(Supplier<?> task) {
+        long start = System.nanoTime();
+        sink = task.get();
+        return (System.nanoTime() - start) / 1_000_000d;
+    }
+    
+    /** 従来の {@code STUtil#replace(byte[], byte[], byte[])} と同じく、16進表示形式の文字列を介して置換を行う比較用の実装 */
+    private static byte[] legacyReplace(byte[] original, byte[] target, byte[] replacement) {
+        String hexStr = legacyToHexString(original);
+        String hexStr2 = hexStr.replace(legacyToHexString(target), legacyToHexString(replacement))
+                .trim().replaceAll("[ ]{2,}", " ");
+        return legacyHexToBytes(hexStr2);
+    }
+    
+    /** 従来の {@code STUtil#hexToBytes(String)} と同じく、正規表現による検査と {@code Integer#parseInt} による変換を行う比較用の実装 */
+    private static byte[] legacyHexToBytes(String hexStr) {
+        if (!hexStr.matches("^$|^[0-9a-f]{2}( [0-9a-f]{2})*$")) {
+            throw new NumberFormatException();
+        }
+        if ("".equals(hexStr)) {
+            return new byte[] {};
+        }
+        String[] hexes = hexStr.split(" ");
+        byte[] bytes = new byte[hexes.length];
+        for (int i = 0; i < hexes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(hexes[i], 16);
+        }
+        return bytes;
+    }
+    
+    private static String legacyToHexString(byte[] bytes) {
+        StringBuilder str = new StringBuilder();
+        for (byte b : bytes) {
+            str.append(String.format(" %02x", b));
+        }
+        if (0 < bytes.length) {
+            str.deleteCharAt(0);
+        }
+        return str.toString();
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private STUtilBenchmark() {
+    }
+}
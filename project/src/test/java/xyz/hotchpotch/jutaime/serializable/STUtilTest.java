@@ -9,6 +9,8 @@ import static xyz.hotchpotch.jutaime.throwable.Testee.*;
 import java.io.InvalidClassException;
 import java.io.NotSerializableException;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
 import java.util.Arrays;
 import java.util.function.Function;
 
@@ -51,6 +53,29 @@ public class STUtilTest {
                 raise(FailToSerializeException.class).rootCause(NotSerializableException.class));
     }
     
+    @Test
+    public void testWriteAndReadStreaming() {
+        assertThat(writeAndReadStreaming(null), nullValue());
+        assertThat(writeAndReadStreaming("Hello, World !!"), is("Hello, World !!"));
+        assertThat(writeAndReadStreaming(TestEnum.TWO), sameInstance(TestEnum.TWO));
+        assertThat(writeAndReadStreaming(new boolean[] { true, false }, 1), is(new boolean[] { true, false }));
+        
+        assertThat(of(() -> writeAndReadStreaming("abc", 0)), raise(IllegalArgumentException.class, "0"));
+        assertThat(of(() -> writeAndReadStreaming(new NotWritable())),
+                raise(FailToSerializeException.class).rootCause(NotSerializableException.class));
+        assertThat(of(() -> writeAndReadStreaming(new NotWritable(), 16)),
+                raise(FailToSerializeException.class).rootCause(NotSerializableException.class));
+    }
+    
+    @Test
+    public void testSize() {
+        assertThat(size(null), is(5L));
+        assertThat(size("Hello, World !!"), is((long) write("Hello, World !!").length));
+        assertThat(size(new Writable()), is((long) write(new Writable()).length));
+        assertThat(of(() -> size(new NotWritable())),
+                raise(FailToSerializeException.class).rootCause(NotSerializableException.class));
+    }
+    
     @Test
     public void testRead() {
         assertThat(read(hexToBytes("ac ed 00 05 70")), nullValue());
@@ -62,12 +87,55 @@ public class STUtilTest {
         assertThat(read(write(new Writable())), instanceOf(Writable.class));
         assertThat(STUtil.<Integer>read(write(Integer.valueOf(1))).intValue(), is(1));
         
-        assertThat(of(() -> read(null)), raise(NullPointerException.class));
+        assertThat(of(() -> read((byte[]) null)), raise(NullPointerException.class));
         assertThat(of(() -> read(new byte[] {})), raise(FailToDeserializeException.class));
         assertThat(of(() -> read(new byte[] { 1, 2, 3 })), raise(FailToDeserializeException.class));
         assertThat(of(() -> STUtil.<Integer>read(write(String.valueOf("abc"))).intValue()), raise(ClassCastException.class));
     }
     
+    @Test
+    public void testWriteByteBuffer() {
+        ByteBuffer heap = ByteBuffer.allocate(256);
+        assertThat(write(null, heap), is(5));
+        assertThat(heap.position(), is(5));
+        heap.flip();
+        byte[] written = new byte[heap.remaining()];
+        heap.get(written);
+        assertThat(written, is(write(null)));
+        
+        ByteBuffer direct = ByteBuffer.allocateDirect(256);
+        int n = write("Hello, World !!", direct);
+        assertThat(n, is(write("Hello, World !!").length));
+        direct.flip();
+        assertThat(read(direct), is("Hello, World !!"));
+        
+        assertThat(of(() -> write("abc", null)), raise(NullPointerException.class));
+        assertThat(of(() -> write("abc", ByteBuffer.allocate(16).asReadOnlyBuffer())), raise(ReadOnlyBufferException.class));
+        assertThat(of(() -> write(new NotWritable(), ByteBuffer.allocate(256))),
+                raise(FailToSerializeException.class).rootCause(NotSerializableException.class));
+    }
+    
+    @Test
+    public void testReadRange() {
+        byte[] bytes = concat(concat(new byte[] { 1, 2, 3 }, write("abc")), new byte[] { 4, 5 });
+        assertThat(read(bytes, 3, bytes.length - 5), is("abc"));
+        
+        assertThat(of(() -> read((byte[]) null, 0, 0)), raise(NullPointerException.class));
+        assertThat(of(() -> read(bytes, -1, 1)), raise(IndexOutOfBoundsException.class));
+        assertThat(of(() -> read(bytes, 3, bytes.length)), raise(IndexOutOfBoundsException.class));
+        assertThat(of(() -> read(bytes, 0, bytes.length)), raise(FailToDeserializeException.class));
+    }
+    
+    @Test
+    public void testReadByteBuffer() {
+        assertThat(read(ByteBuffer.wrap(hexToBytes("ac ed 00 05 70"))), nullValue());
+        assertThat(read(ByteBuffer.wrap(write(TestEnum.TWO)).asReadOnlyBuffer()), sameInstance(TestEnum.TWO));
+        
+        assertThat(of(() -> read((ByteBuffer) null)), raise(NullPointerException.class));
+        assertThat(of(() -> read(ByteBuffer.allocate(0))), raise(FailToDeserializeException.class));
+        assertThat(of(() -> read(ByteBuffer.wrap(new byte[] { 1, 2, 3 }))), raise(FailToDeserializeException.class));
+    }
+    
     @Test
     public void testWriteAndRead() {
         assertThat(writeAndRead(null), nullValue());
@@ -249,6 +317,58 @@ public class STUtilTest {
         assertThat(replace(testArr2, "03", ""), is(new byte[] { 1, 1, 2, 2 }));
     }
     
+    @Test
+    public void testReplace3() {
+        // 置換例１、置換例２
+        assertThat(replace(new byte[] { 1, 1, 1, 1, 1, 1 }, new byte[] { 1, 1 }, new byte[] { 1 }), is(new byte[] { 1, 1, 1 }));
+        assertThat(replace(new byte[] { 1, 1, 1 }, new byte[] { 1, 1 }, new byte[] { 2 }), is(new byte[] { 2, 1 }));
+        
+        // 検索窓の移動量が最大となる場合や、配列の末尾で一致する場合
+        final byte[] testArr = { 9, 9, 9, 1, 2, 3, 9, 9, 1, 2, 3 };
+        assertThat(replace(testArr, new byte[] { 1, 2, 3 }, new byte[] { 4 }), is(new byte[] { 9, 9, 9, 4, 9, 9, 4 }));
+        assertThat(replace(testArr, new byte[] { 3, 9 }, new byte[] { 5, 5, 5 }), is(new byte[] { 9, 9, 9, 1, 2, 5, 5, 5, 9, 1, 2, 3 }));
+        assertThat(replace(testArr, new byte[] { 1, 2, 4 }, new byte[] { 0 }), is(testArr));
+        assertThat(replace(testArr, testArr, new byte[] { 0 }), is(new byte[] { 0 }));
+        assertThat(replace(new byte[] { 1, 2 }, new byte[] { 1, 2, 3 }, new byte[] { 0 }), is(new byte[] { 1, 2 }));
+        
+        // 負のバイト値
+        assertThat(replace(new byte[] { -1, -2, -1, -2 }, new byte[] { -2, -1 }, new byte[] { 0 }), is(new byte[] { -1, 0, -2 }));
+    }
+    
+    @Test
+    public void testReplaceFirst() {
+        final byte[] emptyArr = {};
+        assertThat(of(() -> replaceFirst(null, emptyArr, emptyArr)), raise(NullPointerException.class));
+        assertThat(of(() -> replaceFirst(emptyArr, null, emptyArr)), raise(NullPointerException.class));
+        assertThat(of(() -> replaceFirst(emptyArr, emptyArr, null)), raise(NullPointerException.class));
+        
+        final byte[] testArr1 = { 0, 1, 2, 0, 1, 2 };
+        assertThat(replaceFirst(testArr1, emptyArr, new byte[] { -1 }), is(testArr1));
+        assertThat(replaceFirst(testArr1, emptyArr, new byte[] { -1 }), not(sameInstance(testArr1)));
+        assertThat(replaceFirst(testArr1, new byte[] { 1, 2 }, new byte[] { 7, 8, 9 }), is(new byte[] { 0, 7, 8, 9, 0, 1, 2 }));
+        assertThat(replaceFirst(testArr1, new byte[] { 3 }, new byte[] { 7 }), is(testArr1));
+        assertThat(replaceFirst(testArr1, new byte[] { 3 }, new byte[] { 7 }), not(sameInstance(testArr1)));
+    }
+    
+    @Test
+    public void testReplaceNth() {
+        final byte[] emptyArr = {};
+        assertThat(of(() -> replaceNth(null, emptyArr, emptyArr, 1)), raise(NullPointerException.class));
+        assertThat(of(() -> replaceNth(emptyArr, null, emptyArr, 1)), raise(NullPointerException.class));
+        assertThat(of(() -> replaceNth(emptyArr, emptyArr, null, 1)), raise(NullPointerException.class));
+        assertThat(of(() -> replaceNth(emptyArr, emptyArr, emptyArr, 0)), raise(IllegalArgumentException.class));
+        
+        final byte[] testArr1 = { 0, 1, 2, 0, 1, 2, 0, 1, 2 };
+        assertThat(replaceNth(testArr1, new byte[] { 0, 1 }, new byte[] { 5 }, 1), is(new byte[] { 5, 2, 0, 1, 2, 0, 1, 2 }));
+        assertThat(replaceNth(testArr1, new byte[] { 0, 1 }, new byte[] { 5 }, 2), is(new byte[] { 0, 1, 2, 5, 2, 0, 1, 2 }));
+        assertThat(replaceNth(testArr1, new byte[] { 0, 1 }, new byte[] { 5 }, 3), is(new byte[] { 0, 1, 2, 0, 1, 2, 5, 2 }));
+        assertThat(replaceNth(testArr1, new byte[] { 0, 1 }, new byte[] { 5 }, 4), is(testArr1));
+        
+        // 一致箇所は重なりなく数える（置換例）
+        assertThat(replaceNth(new byte[] { 1, 1, 1, 1, 1 }, new byte[] { 1, 1 }, new byte[] { 2 }, 2), is(new byte[] { 1, 1, 2, 1 }));
+        assertThat(replaceNth(new byte[] { 1, 1, 1, 1, 1 }, new byte[] { 1, 1 }, new byte[] { 2 }, 3), is(new byte[] { 1, 1, 1, 1, 1 }));
+    }
+    
     @Test
     public void testConcat() {
         assertThat(of(() -> concat(null, new byte[] {})), raise(NullPointerException.class));
@@ -261,6 +381,27 @@ public class STUtilTest {
         assertThat(concat(new byte[] { 1, 2, 3 }, new byte[] { 4, 5 }), is(new byte[] { 1, 2, 3, 4, 5 }));
     }
     
+    @Test
+    public void testDiff() {
+        assertThat(of(() -> diff(null, new byte[] {})), raise(NullPointerException.class));
+        assertThat(of(() -> diff(new byte[] {}, null)), raise(NullPointerException.class));
+        assertThat(of(() -> diff(new byte[] {}, new byte[] {}, -1)), raise(IllegalArgumentException.class, "-1"));
+        
+        assertThat(diff(write("abc"), write("abc")), is(""));
+        
+        // 出力例
+        assertThat(diff(write("abc"), write("xy"), 2), is(
+                "@@ -00000004,6 +00000004,5 @@\n"
+                        + "  00000004 74 00\n"
+                        + "- 00000006 03 61 62 63\n"
+                        + "+ 00000006 02 78 79\n"));
+        assertThat(diff(write("abc"), write("abd")), is(
+                "@@ -00000000,10 +00000000,10 @@\n"
+                        + "  00000000 ac ed 00 05 74 00 03 61 62\n"
+                        + "- 00000009 63\n"
+                        + "+ 00000009 64\n"));
+    }
+    
     @Test
     public void testToHexString() {
         assertThat(toHexString(new byte[] {}), is(""));
@@ -0,0 +1,273 @@
+package xyz.hotchpotch.jutaime.serializable;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static xyz.hotchpotch.jutaime.throwable.RaiseMatchers.*;
+import static xyz.hotchpotch.jutaime.throwable.Testee.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+public class SerializationSessionTest {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private static class Node implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final String name;
+        private Node next;
+        
+        private Node(String name) {
+            this.name = name;
+        }
+    }
+    
+    /** シリアライズの過程で STUtil を再帰的に呼び出すクラス */
+    private static class Nested implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private byte[] inner;
+        
+        private void writeObject(ObjectOutputStream out) throws IOException {
+            inner = STUtil.write("inner");
+            out.defaultWriteObject();
+        }
+    }
+    
+    private static class NotWritable {
+    }
+    
+    /** 比較用に、新たなストリームでシリアライズする */
+    private static byte[] freshWrite(Object obj) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject(obj);
+        }
+        return bos.toByteArray();
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    @Test
+    public void testCurrent() throws InterruptedException {
+        SerializationSession session = SerializationSession.current();
+        assertThat(SerializationSession.current(), sameInstance(session));
+        
+        // スレッドごとに異なるセッションが返される
+        AtomicReference<SerializationSession> other = new AtomicReference<>();
+        Thread thread = new Thread(() -> other.set(SerializationSession.current()));
+        thread.start();
+        thread.join();
+        assertThat(other.get(), notNullValue());
+        assertThat(other.get(), not(sameInstance(session)));
+        
+        // 保持するスレッド以外からは利用できない
+        assertThat(of(() -> other.get().write("abc")), raise(IllegalStateException.class));
+        assertThat(of(() -> other.get().read(STUtil.write("abc"))), raise(IllegalStateException.class));
+        assertThat(of(() -> other.get().writeAndRead("abc")), raise(IllegalStateException.class));
+    }
+    
+    @Test
+    public void testWrite() throws IOException {
+        SerializationSession session = SerializationSession.current();
+        List<Object> objects = Arrays.asList(null, 1, "abc", new int[] { 1, 2 }, Arrays.asList("x", "y", "x"), new Node("a"));
+        
+        // 繰り返し書き込んでも、新たなストリームで書き込んだ場合と同じ結果となる
+        for (int i = 0; i < 3; i++) {
+            for (Object obj : objects) {
+                assertThat(session.write(obj), is(freshWrite(obj)));
+            }
+        }
+        
+        // バッファの初期サイズや保持する最大サイズを超える場合
+        byte[] large = new byte[3 << 20];
+        assertThat(session.write(large), is(freshWrite(large)));
+        assertThat(session.write("abc"), is(freshWrite("abc")));
+    }
+    
+    @Test
+    public void testRead() throws IOException {
+        SerializationSession session = SerializationSession.current();
+        for (int i = 0; i < 3; i++) {
+            assertThat(session.read(freshWrite("abc")), is("abc"));
+            assertThat(session.read(freshWrite(null)), nullValue());
+            assertThat(session.read(freshWrite(new int[] { 1, 2 })), is(new int[] { 1, 2 }));
+        }
+        
+        assertThat(of(() -> session.read((byte[]) null)), raise(NullPointerException.class));
+        assertThat(of(() -> session.read(new byte[] {})), raise(FailToDeserializeException.class));
+        assertThat(of(() -> session.read(new byte[] { 1, 2, 3, 4, 5 })), raise(FailToDeserializeException.class));
+        
+        // 途中で途切れたバイト配列を読み込んで失敗した後も、正しく読み込める
+        byte[] bytes = freshWrite("abcdef");
+        assertThat(of(() -> session.read(Arrays.copyOf(bytes, bytes.length - 2))), raise(FailToDeserializeException.class));
+        assertThat(session.read(bytes), is("abcdef"));
+    }
+    
+    @Test
+    public void testWriteByteBuffer() throws IOException {
+        SerializationSession session = SerializationSession.current();
+        List<Object> objects = Arrays.asList(null, 1, "abc", new int[] { 1, 2 }, Arrays.asList("x", "y", "x"), new Node("a"));
+        
+        // ヒープバッファ、ダイレクトバッファのいずれにも、新たなストリームで書き込んだ場合と同じ内容が書き込まれる
+        for (ByteBuffer dst : Arrays.asList(ByteBuffer.allocate(1024), ByteBuffer.allocateDirect(1024))) {
+            for (Object obj : objects) {
+                dst.clear();
+                dst.position(3);
+                byte[] expected = freshWrite(obj);
+                assertThat(session.write(obj, dst), is(expected.length));
+                assertThat(dst.position(), is(3 + expected.length));
+                
+                byte[] actual = new byte[expected.length];
+                dst.position(3);
+                dst.get(actual);
+                assertThat(actual, is(expected));
+            }
+        }
+        
+        // 容量が不足した場合は位置が元に戻され、その後も正しく処理を継続できる
+        ByteBuffer small = ByteBuffer.allocate(16);
+        small.position(2);
+        assertThat(of(() -> session.write("Hello, World !!", small)),
+                raise(FailToSerializeException.class).rootCause(BufferOverflowException.class));
+        assertThat(small.position(), is(2));
+        assertThat(of(() -> session.write("abc", ByteBuffer.allocate(2))), raise(FailToSerializeException.class));
+        assertThat(session.write("abc"), is(freshWrite("abc")));
+        assertThat(session.write("abc", small), is(freshWrite("abc").length));
+    }
+    
+    @Test
+    public void testSize() throws IOException {
+        SerializationSession session = SerializationSession.current();
+        List<Object> objects = Arrays.asList(null, 1, "abc", new int[] { 1, 2 }, Arrays.asList("x", "y", "x"), new Node("a"));
+        
+        // 繰り返し数えても、新たなストリームで書き込んだ場合の長さと一致する
+        for (int i = 0; i < 3; i++) {
+            for (Object obj : objects) {
+                assertThat(session.size(obj), is((long) freshWrite(obj).length));
+            }
+        }
+        
+        // バッファを保持する最大サイズを超える場合も、バッファを消費しない
+        byte[] large = new byte[3 << 20];
+        assertThat(session.size(large), is((long) freshWrite(large).length));
+        
+        // 失敗した後も正しく処理を継続できる
+        assertThat(of(() -> session.size(new NotWritable())),
+                raise(FailToSerializeException.class).rootCause(NotSerializableException.class));
+        assertThat(session.size("abc"), is((long) freshWrite("abc").length));
+        assertThat(session.write("abc"), is(freshWrite("abc")));
+        
+        // 再帰的に呼び出された場合
+        assertThat(session.size(new Nested()), is((long) freshWrite(new Nested()).length));
+    }
+    
+    @Test
+    public void testReadRange() throws IOException {
+        SerializationSession session = SerializationSession.current();
+        byte[] abc = freshWrite("abc");
+        byte[] bytes = STUtil.concat(STUtil.concat(new byte[] { 9, 9 }, abc), new byte[] { 9 });
+        for (int i = 0; i < 3; i++) {
+            assertThat(session.read(bytes, 2, abc.length), is("abc"));
+        }
+        
+        assertThat(of(() -> session.read(null, 0, 0)), raise(NullPointerException.class));
+        assertThat(of(() -> session.read(bytes, 2, bytes.length)), raise(IndexOutOfBoundsException.class));
+        assertThat(of(() -> session.read(bytes, 0, -1)), raise(IndexOutOfBoundsException.class));
+        assertThat(of(() -> session.read(bytes, 0, abc.length)), raise(FailToDeserializeException.class));
+        assertThat(of(() -> session.read(bytes, 2, abc.length - 1)), raise(FailToDeserializeException.class));
+        assertThat(session.read(bytes, 2, abc.length), is("abc"));
+    }
+    
+    @Test
+    public void testReadByteBuffer() {
+        SerializationSession session = SerializationSession.current();
+        List<Object> objects = Arrays.asList(null, 1, "abc", new int[] { 1, 2 }, Arrays.asList("x", "y", "x"));
+        
+        // 連続して書き込まれたオブジェクトを、順に読み込むことができる
+        for (ByteBuffer buffer : Arrays.asList(
+                ByteBuffer.allocate(1024), ByteBuffer.allocateDirect(1024))) {
+            
+            for (Object obj : objects) {
+                session.write(obj, buffer);
+            }
+            buffer.flip();
+            for (ByteBuffer src : Arrays.asList(buffer.duplicate(), buffer.asReadOnlyBuffer())) {
+                for (Object obj : objects) {
+                    assertThat(session.read(src), is(obj));
+                }
+                assertThat(src.hasRemaining(), is(false));
+            }
+        }
+        
+        // 失敗した場合は位置が変更されない
+        ByteBuffer truncated = ByteBuffer.wrap(STUtil.write("abcdef"), 0, 8);
+        assertThat(of(() -> session.read(truncated)), raise(FailToDeserializeException.class));
+        assertThat(truncated.position(), is(0));
+        ByteBuffer corrupted = ByteBuffer.wrap(new byte[] { 1, 2, 3, 4, 5 });
+        assertThat(of(() -> session.read(corrupted)), raise(FailToDeserializeException.class));
+        assertThat(corrupted.position(), is(0));
+        assertThat(of(() -> session.read((ByteBuffer) null)), raise(NullPointerException.class));
+        
+        ByteBuffer heap = ByteBuffer.wrap(STUtil.write("abc"));
+        assertThat(session.read(heap), is("abc"));
+        assertThat(heap.hasRemaining(), is(false));
+    }
+    
+    @Test
+    public void testWriteAndRead() {
+        SerializationSession session = SerializationSession.current();
+        
+        // オブジェクトグラフ内の共有参照や循環参照は保たれ、処理をまたいだ参照は共有されない
+        Node a = new Node("a");
+        Node b = new Node("b");
+        a.next = b;
+        b.next = a;
+        Node a2 = session.writeAndRead(a);
+        Node a3 = session.writeAndRead(a);
+        assertThat(a2.name, is("a"));
+        assertThat(a2.next.name, is("b"));
+        assertThat(a2.next.next, sameInstance(a2));
+        assertThat(a3, not(sameInstance(a2)));
+        assertThat(a3.next, not(sameInstance(a2.next)));
+        
+        List<Object> list = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            list.add("element-" + i);
+            assertThat(session.writeAndRead(list), is(list));
+        }
+    }
+    
+    @Test
+    public void testRecovery() {
+        SerializationSession session = SerializationSession.current();
+        
+        // 例外が発生した後も、正しく処理を継続できる
+        assertThat(of(() -> session.write(new NotWritable())),
+                raise(FailToSerializeException.class).rootCause(NotSerializableException.class));
+        assertThat(session.writeAndRead("abc"), is("abc"));
+        
+        assertThat(of(() -> session.writeAndRead(Arrays.asList(new NotWritable()))),
+                raise(FailToSerializeException.class).rootCause(NotSerializableException.class));
+        assertThat(session.writeAndRead("abc"), is("abc"));
+        assertThat(session.read(session.write("abc")), is("abc"));
+    }
+    
+    @Test
+    public void testNested() throws IOException {
+        // シリアライズの過程で再帰的に呼び出された場合も、正しく処理できる
+        Nested nested = SerializationSession.current().writeAndRead(new Nested());
+        assertThat(STUtil.read(nested.inner), is("inner"));
+        assertThat(STUtil.write(new Nested()), is(freshWrite(new Nested())));
+    }
+}
@@ -0,0 +1,107 @@
+package xyz.hotchpotch.jutaime.serializable;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static xyz.hotchpotch.jutaime.serializable.SerializedSize.*;
+
+import org.hamcrest.BaseMatcher;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+import org.junit.Test;
+
+public class SerializedSizeTest {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private static class NotWritable {
+    }
+    
+    private static Matcher<Integer> lessThan(int limit) {
+        return new BaseMatcher<Integer>() {
+            @Override
+            public boolean matches(Object item) {
+                return item instanceof Integer && (Integer) item < limit;
+            }
+            
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("less than " + limit);
+            }
+        };
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    @Test
+    public void testSerializedSizeAtMost() {
+        // インスタンス化の検査
+        assertThat(serializedSizeAtMost(0), instanceOf(SerializedSize.class));
+        assertThat(serializedSizeAtMost(Integer.MAX_VALUE), instanceOf(SerializedSize.class));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testSerializedSizeAtMost2() {
+        serializedSizeAtMost(-1);
+    }
+    
+    @Test
+    public void testSerializedSize() {
+        assertThat(serializedSize(is(5)), instanceOf(SerializedSize.class));
+    }
+    
+    @Test(expected = NullPointerException.class)
+    public void testSerializedSize2() {
+        serializedSize(null);
+    }
+    
+    @Test
+    public void testMatches() {
+        // ac ed 00 05 74 00 03 61 62 63
+        assertThat("abc", serializedSizeAtMost(10));
+        assertThat("abc", not(serializedSizeAtMost(9)));
+        assertThat(null, serializedSizeAtMost(5));
+        assertThat(null, not(serializedSizeAtMost(4)));
+        
+        assertThat("abc", serializedSize(is(10)));
+        assertThat("abc", serializedSize(lessThan(11)));
+        assertThat("abc", not(serializedSize(lessThan(10))));
+        
+        // 大きなオブジェクトも、シリアライズ形式を保持せずに検査できる
+        byte[] large = new byte[3 << 20];
+        assertThat(large, serializedSizeAtMost(STUtil.write(large).length));
+        assertThat(large, not(serializedSizeAtMost(STUtil.write(large).length - 1)));
+        
+        // シリアライズに失敗した場合は不合格と判定する。
+        assertThat(new NotWritable(), not(serializedSizeAtMost(Integer.MAX_VALUE)));
+        assertThat(new NotWritable(), not(serializedSize(anything())));
+    }
+    
+    @Test
+    public void testDescribeMismatch() {
+        StringDescription description = new StringDescription();
+        serializedSizeAtMost(9).describeMismatch("abc", description);
+        assertThat(description.toString(), is("serialized size was 10 bytes"));
+        
+        description = new StringDescription();
+        serializedSize(is(9)).describeMismatch("abc", description);
+        assertThat(description.toString(), is("serialized size was <10>"));
+        
+        description = new StringDescription();
+        serializedSizeAtMost(9).describeMismatch(new NotWritable(), description);
+        assertThat(description.toString().startsWith("failed to serialize: java.io.NotSerializableException"), is(true));
+    }
+    
+    @Test
+    public void testDescribeTo() {
+        assertThat(serializedSizeAtMost(400).toString(), is("serialized size at most 400 bytes"));
+        assertThat(serializedSize(is(10)).toString(), is("serialized size is <10>"));
+        
+        try {
+            // null を与えても安全に終了する。
+            serializedSizeAtMost(0).describeTo(null);
+        } catch (NullPointerException e) {
+            fail();
+        }
+    }
+}
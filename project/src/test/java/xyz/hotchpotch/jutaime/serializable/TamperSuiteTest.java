@@ -0,0 +1,228 @@
+package xyz.hotchpotch.jutaime.serializable;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static xyz.hotchpotch.jutaime.throwable.RaiseMatchers.*;
+import static xyz.hotchpotch.jutaime.throwable.Testee.*;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hamcrest.BaseMatcher;
+import org.hamcrest.Description;
+import org.junit.Test;
+
+import xyz.hotchpotch.jutaime.serializable.TamperSuite.Failure;
+import xyz.hotchpotch.jutaime.serializable.TamperSuite.Report;
+import xyz.hotchpotch.jutaime.serializable.stream.StreamEditor;
+import xyz.hotchpotch.jutaime.throwable.Testee;
+
+public class TamperSuiteTest {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private static class Point implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final int x;
+        private final int y;
+        
+        private Point(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+        
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            if (x < 0 || y < 0) {
+                throw new InvalidObjectException("negative");
+            }
+        }
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    @Test
+    public void testOf() {
+        assertThat(of(() -> TamperSuite.ofSerialized(null)), raise(NullPointerException.class));
+        assertThat(of(() -> TamperSuite.of(new Object())), raise(FailToSerializeException.class));
+        
+        // 指定されたバイト配列は複製される
+        byte[] bytes = STUtil.write("abc");
+        TamperSuite suite = TamperSuite.ofSerialized(bytes).modifier("identity", b -> b);
+        Arrays.fill(bytes, (byte) 0);
+        assertThat(suite.run(raiseNothing()).isSuccessful(), is(true));
+    }
+    
+    @Test
+    public void testModifier() {
+        TamperSuite suite = TamperSuite.of("abc");
+        assertThat(of(() -> suite.modifier(null, b -> b)), raise(NullPointerException.class));
+        assertThat(of(() -> suite.modifier("a", null)), raise(NullPointerException.class));
+        assertThat(of(() -> suite.modifier("a", b -> b, null)), raise(NullPointerException.class));
+        assertThat(of(() -> suite.modifier("a", b -> b).modifier("a", b -> b)), raise(IllegalArgumentException.class, "a"));
+        
+        // 不変である
+        TamperSuite added = suite.modifier("a", b -> b);
+        assertThat(suite.toString(), is("TamperSuite []"));
+        assertThat(added.toString(), is("TamperSuite [a]"));
+        assertThat(added.modifier("b", b -> b).toString(), is("TamperSuite [a, b]"));
+    }
+    
+    @Test
+    public void testThreads() {
+        TamperSuite suite = TamperSuite.of("abc");
+        assertThat(of(() -> suite.threads(0)), raise(IllegalArgumentException.class, "0"));
+        assertThat(of(() -> suite.threads(1)), raiseNothing());
+    }
+    
+    @Test
+    public void testRun() {
+        Report report = TamperSuite.of(new Point(1000, 2000))
+                .modifier("negative x", b -> STUtil.replace(b, STUtil.bytes(1000), STUtil.bytes(-1000)))
+                .modifier("negative y", b -> STUtil.replace(b, STUtil.bytes(2000), STUtil.bytes(-2000)))
+                .modifier("renamed class", StreamEditor.create().setSerialVersionUID(Point.class.getName(), 2L),
+                        raise(FailToDeserializeException.class).rootCause(InvalidClassException.class))
+                .modifier("empty", b -> new byte[0], raise(FailToDeserializeException.class))
+                .run(raise(FailToDeserializeException.class).rootCause(InvalidObjectException.class));
+        
+        assertThat(report.toString(), report.isSuccessful(), is(true));
+        assertThat(report.modifiers(), is(4));
+        assertThat(report.failures().isEmpty(), is(true));
+        assertThat(report.elapsedTime(), notNullValue());
+        assertThat(report.toString().startsWith("4 modifiers, 0 failed in PT"), is(true));
+        
+        assertThat(of(() -> TamperSuite.of("abc").run(null)), raise(NullPointerException.class));
+        
+        // 改竄が登録されていない場合
+        assertThat(TamperSuite.of("abc").run(raiseNothing()).modifiers(), is(0));
+    }
+    
+    @Test
+    public void testFailures() {
+        Report report = TamperSuite.of(new Point(1000, 2000))
+                .modifier("identity", b -> b)
+                .modifier("negative x", b -> STUtil.replace(b, STUtil.bytes(1000), STUtil.bytes(-1000)))
+                .modifier("truncated", b -> Arrays.copyOf(b, 10))
+                .modifier("throwing", b -> {
+                    throw new IllegalStateException("oops");
+                })
+                .modifier("null", b -> null)
+                .threads(2)
+                .run(raise(FailToDeserializeException.class).rootCause(InvalidObjectException.class));
+        
+        assertThat(report.isSuccessful(), is(false));
+        assertThat(report.modifiers(), is(5));
+        
+        // 全ての不合格が登録順に報告される
+        assertThat(report.failures().size(), is(4));
+        Failure identity = report.failures().get(0);
+        assertThat(identity.name(), is("identity"));
+        assertThat(identity.bytes(), is(STUtil.write(new Point(1000, 2000))));
+        assertThat(identity.testee(), raiseNothing());
+        assertThat(identity.toString().startsWith("identity: "), is(true));
+        
+        Failure truncated = report.failures().get(1);
+        assertThat(truncated.name(), is("truncated"));
+        assertThat(truncated.bytes().length, is(10));
+        assertThat(truncated.testee(), raise(FailToDeserializeException.class).rootCause(EOFException.class));
+        
+        Failure throwing = report.failures().get(2);
+        assertThat(throwing.toString(), is("throwing: modifier threw java.lang.IllegalStateException: oops"));
+        assertThat(throwing.bytes(), nullValue());
+        assertThat(throwing.testee(), nullValue());
+        
+        assertThat(report.failures().get(3).toString(), is("null: modifier returned null"));
+        
+        String str = report.toString();
+        assertThat(str.startsWith("5 modifiers, 4 failed in PT"), is(true));
+        assertThat(str.contains("\nidentity: "), is(true));
+        assertThat(str.contains("\nnull: modifier returned null"), is(true));
+        assertThat(of(() -> report.failures().clear()), raise(UnsupportedOperationException.class));
+    }
+    
+    @Test
+    public void testModifierErrors() {
+        // 改竄処理がスローしたエラーも、残りの改竄を中止することなく不合格として報告される
+        Report report = TamperSuite.of(new Point(1000, 2000))
+                .modifier("overflow", b -> {
+                    throw new StackOverflowError();
+                })
+                .modifier("assertion", b -> {
+                    throw new AssertionError("bad modifier");
+                })
+                .modifier("identity", b -> b)
+                .threads(1)
+                .run(raiseNothing());
+        
+        assertThat(report.modifiers(), is(3));
+        assertThat(report.failures().size(), is(2));
+        assertThat(report.failures().get(0).toString(), is("overflow: modifier threw java.lang.StackOverflowError"));
+        assertThat(report.failures().get(1).toString(), is("assertion: modifier threw java.lang.AssertionError: bad modifier"));
+        
+        // その他の VirtualMachineError は、実行を中止してスローされる
+        assertThat(of(() -> TamperSuite.of("abc").modifier("oom", b -> {
+            throw new OutOfMemoryError("oom");
+        }).run(raiseNothing())), raise(OutOfMemoryError.class, "oom"));
+    }
+    
+    @Test
+    public void testIndependentCopies() {
+        // 各改竄は独立した複製を受け取るため、複製を直接書き換えても他の改竄に影響しない
+        byte[] original = STUtil.write(new Point(1000, 2000));
+        TamperSuite suite = TamperSuite.of(new Point(1000, 2000));
+        for (int i = 0; i < 64; i++) {
+            suite = suite.modifier("fill " + i, b -> {
+                assertThat(b, is(original));
+                Arrays.fill(b, (byte) 0);
+                return original;
+            });
+        }
+        Report report = suite.threads(8).run(raiseNothing());
+        assertThat(report.toString(), report.isSuccessful(), is(true));
+    }
+    
+    @Test
+    public void testParallel() {
+        Set<String> threadNames = ConcurrentHashMap.newKeySet();
+        TamperSuite suite = TamperSuite.of("abc");
+        for (int i = 0; i < 16; i++) {
+            suite = suite.modifier("sleep " + i, b -> {
+                threadNames.add(Thread.currentThread().getName());
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+                return b;
+            });
+        }
+        Report report = suite.threads(4).run(raiseNothing());
+        assertThat(report.isSuccessful(), is(true));
+        assertThat(threadNames.size(), is(4));
+        for (String name : threadNames) {
+            assertThat(name.startsWith("jutaime-tamper-"), is(true));
+        }
+    }
+    
+    @Test
+    public void testAbort() {
+        TamperSuite suite = TamperSuite.of("abc").modifier("a", b -> b).modifier("b", b -> b);
+        assertThat(of(() -> suite.run(new BaseMatcher<Testee<?>>() {
+            @Override
+            public boolean matches(Object item) {
+                throw new IllegalStateException("broken matcher");
+            }
+            
+            @Override
+            public void describeTo(Description description) {
+            }
+        })), raise(IllegalStateException.class, "broken matcher"));
+    }
+}
@@ -0,0 +1,223 @@
+package xyz.hotchpotch.jutaime.serializable.stream;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static xyz.hotchpotch.jutaime.throwable.RaiseMatchers.*;
+import static xyz.hotchpotch.jutaime.throwable.Testee.*;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import xyz.hotchpotch.jutaime.serializable.FailToDeserializeException;
+import xyz.hotchpotch.jutaime.serializable.STUtil;
+import xyz.hotchpotch.jutaime.serializable.stream.MutationFuzzer.Failure;
+import xyz.hotchpotch.jutaime.serializable.stream.MutationFuzzer.Mutation;
+import xyz.hotchpotch.jutaime.serializable.stream.MutationFuzzer.Report;
+import xyz.hotchpotch.jutaime.throwable.Testee;
+
+public class MutationFuzzerTest {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    // 変異により巨大な配列が割り当てられないよう、配列やコレクションを含まないシードを用いる
+    private static class Node implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final String label;
+        private final Thread.State state;
+        private final Node next;
+        private final Object shared;
+        
+        private Node(String label, Thread.State state, Node next, Object shared) {
+            this.label = label;
+            this.state = state;
+            this.next = next;
+            this.shared = shared;
+        }
+    }
+    
+    private static final Node SEED;
+    
+    static {
+        String shared = "shared";
+        Node node = null;
+        for (int i = 0; i < 5; i++) {
+            node = new Node("node-" + i, Thread.State.values()[i], node, shared);
+        }
+        SEED = node;
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    @Test
+    public void testRun() {
+        Report report = MutationFuzzer.of(SEED)
+                .cases(20_000)
+                .threads(4)
+                .run(anyOf(raiseNothing(), raise(FailToDeserializeException.class)));
+        
+        // 変異したバイト列のデシリアライズは、成功するか FailToDeserializeException をスローする
+        assertThat(report.toString(), report.isSuccessful(), is(true));
+        assertThat(report.cases(), is(20_000L));
+        assertThat(report.failureCount(), is(0L));
+        assertThat(report.failures().isEmpty(), is(true));
+        assertThat(report.toString().startsWith("20000 cases, 0 failed in PT"), is(true));
+    }
+    
+    @Test
+    public void testFailures() {
+        MutationFuzzer fuzzer = MutationFuzzer.of(SEED).cases(5_000).maxFailures(3);
+        Report report1 = fuzzer.threads(1).run(raiseNothing());
+        Report report4 = fuzzer.threads(4).run(raiseNothing());
+        
+        // 結果はスレッド数によらない
+        assertThat(0L < report1.failureCount() && report1.failureCount() < 5_000L, is(true));
+        assertThat(report4.failureCount(), is(report1.failureCount()));
+        assertThat(report1.failures().size(), is(3));
+        for (int i = 0; i < 3; i++) {
+            Failure failure1 = report1.failures().get(i);
+            Failure failure4 = report4.failures().get(i);
+            assertThat(failure4.caseNumber(), is(failure1.caseNumber()));
+            assertThat(failure4.mutation(), is(failure1.mutation()));
+            assertThat(failure4.bytes(), is(failure1.bytes()));
+            
+            // 不合格のケースは再現できる
+            assertThat(fuzzer.mutate(failure1.caseNumber()), is(failure1.bytes()));
+            assertThat(of(() -> STUtil.read(failure1.bytes())), raise(FailToDeserializeException.class));
+            assertThat(failure1.testee().thrownChain(), notNullValue());
+            assertThat(report1.toString(), containsString(failure1.toString()));
+        }
+        assertThat(report1.failures().get(0).caseNumber() < report1.failures().get(1).caseNumber(), is(true));
+        
+        assertThat(fuzzer.maxFailures(0).run(raiseNothing()).failures().isEmpty(), is(true));
+    }
+    
+    @Test
+    public void testMutations() {
+        byte[] seed = STUtil.write(SEED);
+        MutationFuzzer fuzzer = MutationFuzzer.of(SEED);
+        
+        // 切り詰め以外の変異は長さを変えない
+        for (Mutation mutation : Arrays.asList(Mutation.BIT_FLIP, Mutation.BYTE_SUBSTITUTION,
+                Mutation.HANDLE_CORRUPTION, Mutation.LENGTH_INFLATION)) {
+            MutationFuzzer single = fuzzer.mutations(mutation);
+            int changed = 0;
+            for (long i = 0; i < 200; i++) {
+                byte[] mutated = single.mutate(i);
+                assertThat(mutated.length, is(seed.length));
+                if (!Arrays.equals(mutated, seed)) {
+                    changed++;
+                }
+            }
+            assertThat(mutation.toString(), 150 < changed, is(true));
+        }
+        
+        // 1ビットの反転
+        MutationFuzzer flip = fuzzer.mutations(Mutation.BIT_FLIP);
+        for (long i = 0; i < 100; i++) {
+            byte[] mutated = flip.mutate(i);
+            int bits = 0;
+            for (int j = 0; j < seed.length; j++) {
+                bits += Integer.bitCount((mutated[j] ^ seed[j]) & 0xff);
+            }
+            assertThat(bits, is(1));
+        }
+        
+        // 切り詰め
+        MutationFuzzer truncation = fuzzer.mutations(Mutation.TRUNCATION);
+        for (long i = 0; i < 100; i++) {
+            byte[] mutated = truncation.mutate(i);
+            assertThat(mutated.length < seed.length, is(true));
+            assertThat(mutated, is(Arrays.copyOf(seed, mutated.length)));
+        }
+        
+        // 変異は乱数の種によって決まる
+        assertThat(fuzzer.randomSeed(1).mutate(0), is(fuzzer.randomSeed(1).mutate(0)));
+        List<byte[]> mutated = new ArrayList<>();
+        for (long s = 0; s < 10; s++) {
+            mutated.add(fuzzer.randomSeed(s).mutate(0));
+        }
+        assertThat(mutated.stream().map(Arrays::toString).distinct().count() > 1, is(true));
+        
+        // 該当する位置のない変異は行わない
+        MutationFuzzer noRef = MutationFuzzer.of("abc").mutations(Mutation.HANDLE_CORRUPTION);
+        assertThat(noRef.mutate(0), is(STUtil.write("abc")));
+        assertThat(noRef.cases(10).run(raiseNothing()).isSuccessful(), is(true));
+    }
+    
+    @Test
+    public void testHugeLengths() {
+        Object[] seed = { new int[] { 1, 2, 3 }, new long[4], "abc", new String[] { "x", "y" } };
+        byte[] bytes = STUtil.write(seed);
+        List<Integer> sizeSites = new ArrayList<>();
+        SerialStream.parse(bytes).walk(c -> {
+            if (c instanceof ArrayContent) {
+                sizeSites.add(((ArrayContent) c).dataOffset() - 4);
+            }
+        });
+        
+        // 既定では、配列の要素数は 65536 を超えて増やされない
+        MutationFuzzer fuzzer = MutationFuzzer.of(seed);
+        long maxSize = 0;
+        for (long i = 0; i < 5_000; i++) {
+            byte[] mutated = fuzzer.mutate(i);
+            for (int pos : sizeSites) {
+                if (pos + 4 <= mutated.length) {
+                    maxSize = Math.max(maxSize, (mutated[pos] & 0xffL) << 24 | (mutated[pos + 1] & 0xff) << 16
+                            | (mutated[pos + 2] & 0xff) << 8 | (mutated[pos + 3] & 0xff));
+                }
+            }
+        }
+        assertThat(String.valueOf(maxSize), 256 < maxSize && maxSize <= 65_536 + 4, is(true));
+        
+        // 配列を含むシードでも、OutOfMemoryError による不合格は生じず、結果はスレッド数によらない
+        Report report1 = fuzzer.cases(20_000).threads(1).run(anyOf(raiseNothing(), raise(FailToDeserializeException.class)));
+        Report report4 = fuzzer.cases(20_000).threads(4).run(anyOf(raiseNothing(), raise(FailToDeserializeException.class)));
+        assertThat(report1.toString(), report1.isSuccessful(), is(true));
+        assertThat(report4.toString(), report4.isSuccessful(), is(true));
+        
+        // 巨大な長さによる変異を有効にした場合は、要素数の上位バイトも変異の対象となる
+        MutationFuzzer huge = fuzzer.hugeLengths(true).mutations(Mutation.LENGTH_INFLATION, Mutation.BIT_FLIP);
+        boolean inflated = false;
+        for (long i = 0; i < 5_000 && !inflated; i++) {
+            byte[] mutated = huge.mutate(i);
+            for (int pos : sizeSites) {
+                inflated |= mutated[pos] != bytes[pos] || mutated[pos + 1] != bytes[pos + 1];
+            }
+        }
+        assertThat(inflated, is(true));
+        assertThat(fuzzer.hugeLengths(false).mutate(123), is(fuzzer.mutate(123)));
+    }
+    
+    @Test
+    public void testArguments() {
+        MutationFuzzer fuzzer = MutationFuzzer.of(SEED);
+        assertThat(of(() -> MutationFuzzer.ofSerialized(null)), raise(NullPointerException.class));
+        assertThat(of(() -> MutationFuzzer.ofSerialized(new byte[] { 1, 2, 3 })), raise(MalformedStreamException.class));
+        assertThat(of(() -> fuzzer.cases(-1)), raise(IllegalArgumentException.class, "-1"));
+        assertThat(of(() -> fuzzer.threads(0)), raise(IllegalArgumentException.class, "0"));
+        assertThat(of(() -> fuzzer.maxFailures(-1)), raise(IllegalArgumentException.class, "-1"));
+        assertThat(of(() -> fuzzer.mutate(-1)), raise(IllegalArgumentException.class, "-1"));
+        assertThat(of(() -> fuzzer.mutations(null)), raise(NullPointerException.class));
+        assertThat(of(() -> fuzzer.run(null)), raise(NullPointerException.class));
+        
+        assertThat(MutationFuzzer.ofSerialized(STUtil.write(SEED)).mutate(7), is(fuzzer.mutate(7)));
+        assertThat(fuzzer.cases(0).run(raiseNothing()).cases(), is(0L));
+        
+        // Matcher がスローした例外はそのままスローされる
+        org.hamcrest.Matcher<Testee<?>> broken = new org.hamcrest.BaseMatcher<Testee<?>>() {
+            @Override
+            public boolean matches(Object item) {
+                throw new IllegalStateException("broken");
+            }
+            
+            @Override
+            public void describeTo(org.hamcrest.Description description) {
+            }
+        };
+        assertThat(of(() -> fuzzer.cases(100).run(broken)), raise(IllegalStateException.class, "broken"));
+    }
+}
@@ -0,0 +1,87 @@
+package xyz.hotchpotch.jutaime.serializable.stream;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static xyz.hotchpotch.jutaime.throwable.RaiseMatchers.*;
+import static xyz.hotchpotch.jutaime.throwable.Testee.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import xyz.hotchpotch.jutaime.serializable.STUtil;
+
+public class ParserTest {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private static byte[] utf(String str) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        new DataOutputStream(bos).writeUTF(str);
+        return bos.toByteArray();
+    }
+    
+    /** {@code Object[]} が {@code depth} 段入れ子になったストリーム */
+    private static byte[] nestedArrays(int depth) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] first = STUtil.hexToBytes("ac ed 00 05 75 72 00 13 5b 4c 6a 61 76 61 2e 6c 61 6e 67 2e 4f 62 6a 65 63 74 3b "
+                + "90 ce 58 9f 10 73 29 6c 02 00 00 78 70 00 00 00 01");
+        byte[] nested = STUtil.hexToBytes("75 71 00 7e 00 00 00 00 00 01");
+        bytes.write(first, 0, first.length);
+        for (int i = 1; i < depth; i++) {
+            bytes.write(nested, 0, nested.length);
+        }
+        bytes.write(0x70);
+        return bytes.toByteArray();
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    @Test
+    public void testDecodeUTF() throws IOException {
+        for (String str : new String[] { "", "abc", "\u0000", "é߿", "ࠀあ￿", "😀" }) {
+            byte[] bytes = utf(str);
+            assertThat(Parser.decodeUTF(bytes, 2, bytes.length - 2), is(str));
+        }
+        
+        assertThat(of(() -> Parser.decodeUTF(new byte[] { 'a', (byte) 0x80 }, 0, 2)),
+                raise(MalformedStreamException.class, "offset 1: malformed modified UTF-8"));
+        assertThat(of(() -> Parser.decodeUTF(new byte[] { (byte) 0xc3 }, 0, 1)), raise(MalformedStreamException.class));
+        assertThat(of(() -> Parser.decodeUTF(new byte[] { (byte) 0xe3, (byte) 0x81 }, 0, 2)), raise(MalformedStreamException.class));
+        assertThat(of(() -> Parser.decodeUTF(new byte[] { (byte) 0xe3, (byte) 0x81, 'a' }, 0, 3)), raise(MalformedStreamException.class));
+        assertThat(of(() -> Parser.decodeUTF(new byte[] { (byte) 0xf0, (byte) 0x9f, (byte) 0x98, (byte) 0x80 }, 0, 4)),
+                raise(MalformedStreamException.class));
+    }
+    
+    @Test
+    public void testDepth() {
+        // 最内の配列の要素（null）の深さは、入れ子の段数 + 1 となる
+        Parser parser = new Parser(nestedArrays(99), 100);
+        assertThat(parser.parse().contents().size(), is(1));
+        assertThat(parser.deepest(), is(100));
+        assertThat(parser.isTooDeep(), is(false));
+        
+        Parser tooDeep = new Parser(nestedArrays(100), 100);
+        assertThat(of(() -> tooDeep.parse()), raise(MalformedStreamException.class, "offset 1025: nesting too deep: 101"));
+        assertThat(tooDeep.deepest(), is(101));
+        assertThat(tooDeep.isTooDeep(), is(true));
+    }
+    
+    @Test
+    public void testDeepStream() {
+        // 極端に深いストリームは、スタックを使い果たす前に MalformedStreamException となる
+        byte[] deep = nestedArrays(20_000);
+        assertThat(of(() -> SerialStream.parse(deep)),
+                raise(MalformedStreamException.class, "offset 5025: nesting too deep: 501"));
+        assertThat(of(() -> SizeProfile.ofSerialized(deep)), raise(MalformedStreamException.class));
+        assertThat(of(() -> StreamEditor.create().apply(deep)), raise(MalformedStreamException.class));
+        assertThat(of(() -> MutationFuzzer.ofSerialized(deep)), raise(MalformedStreamException.class));
+        
+        byte[] limit = nestedArrays(SerialStream.DEFAULT_MAX_DEPTH - 1);
+        assertThat(SerialStream.parse(limit).length(), is(limit.length));
+        assertThat(of(() -> SerialStream.parse(limit, SerialStream.DEFAULT_MAX_DEPTH - 1)), raise(MalformedStreamException.class));
+        assertThat(of(() -> SerialStream.parse(limit, 0)), raise(IllegalArgumentException.class, "0"));
+    }
+}
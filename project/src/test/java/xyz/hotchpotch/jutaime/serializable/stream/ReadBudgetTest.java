@@ -0,0 +1,222 @@
+package xyz.hotchpotch.jutaime.serializable.stream;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static xyz.hotchpotch.jutaime.throwable.RaiseMatchers.*;
+import static xyz.hotchpotch.jutaime.throwable.Testee.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import xyz.hotchpotch.jutaime.serializable.FailToDeserializeException;
+import xyz.hotchpotch.jutaime.serializable.STUtil;
+import xyz.hotchpotch.jutaime.serializable.stream.ReadBudget.Resource;
+import xyz.hotchpotch.jutaime.serializable.stream.ReadBudget.Result;
+
+public class ReadBudgetTest {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private static class Slow implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final String name = "slow";
+        
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                // 割り込まれた場合は、続きを読み込む
+            }
+            in.defaultReadObject();
+        }
+    }
+    
+    /** {@code Object[]} が {@code depth} 段入れ子になったストリーム */
+    private static byte[] nestedArrays(int depth) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] first = STUtil.hexToBytes("ac ed 00 05 75 72 00 13 5b 4c 6a 61 76 61 2e 6c 61 6e 67 2e 4f 62 6a 65 63 74 3b "
+                + "90 ce 58 9f 10 73 29 6c 02 00 00 78 70 00 00 00 01");
+        byte[] nested = STUtil.hexToBytes("75 71 00 7e 00 00 00 00 00 01");
+        bytes.write(first, 0, first.length);
+        for (int i = 1; i < depth; i++) {
+            bytes.write(nested, 0, nested.length);
+        }
+        bytes.write(0x70);
+        return bytes.toByteArray();
+    }
+    
+    /** 要素のハッシュコードの計算に指数関数的な時間を要する、入れ子になった {@code HashSet} */
+    private static Set<Object> hashSetBomb(int depth) {
+        Set<Object> root = new HashSet<>();
+        Set<Object> s1 = root;
+        Set<Object> s2 = new HashSet<>();
+        for (int i = 0; i < depth; i++) {
+            Set<Object> t1 = new HashSet<>();
+            Set<Object> t2 = new HashSet<>();
+            t1.add("foo");
+            s1.add(t1);
+            s1.add(t2);
+            s2.add(t1);
+            s2.add(t2);
+            s1 = t1;
+            s2 = t2;
+        }
+        return root;
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    @Test
+    public void testUsage() {
+        List<Object> list = new ArrayList<>(Arrays.asList("a", "a", new int[7], Thread.State.NEW));
+        byte[] bytes = STUtil.write(list);
+        Result<List<Object>> result = ReadBudget.unlimited().read(bytes);
+        
+        assertThat(result.value().get(0), is("a"));
+        assertThat(result.value().get(1), sameInstance(result.value().get(0)));
+        assertThat((int[]) result.value().get(2), is(new int[7]));
+        
+        ReadBudget.Usage usage = result.usage();
+        assertThat(usage.bytes(), is((long) bytes.length));
+        assertThat(usage.maxArrayLength(), is(7));
+        
+        // 深さはクラス記述子などを含む、構文木の要素の入れ子の深さである
+        assertThat(usage.depth() > 3, is(true));
+        
+        // ハンドルが割り当てられる要素と、参照の数は、構文木と一致する
+        long[] expected = { 0 };
+        SerialStream.parse(bytes).walk(c -> {
+            if (c instanceof HandledContent || c instanceof ReferenceContent) {
+                expected[0]++;
+            }
+        });
+        assertThat(usage.references(), is(expected[0]));
+        assertThat(usage.elapsedTime().isNegative(), is(false));
+        assertThat(usage.toString().startsWith(String.format("depth=%d, references=%d, maxArrayLength=7, bytes=%d, elapsedTime=PT",
+                usage.depth(), expected[0], bytes.length)), is(true));
+        
+        // 上限の範囲内であれば成功する
+        ReadBudget exact = ReadBudget.unlimited()
+                .maxDepth(usage.depth())
+                .maxReferences(expected[0])
+                .maxArrayLength(7)
+                .maxBytes(bytes.length)
+                .maxTime(Duration.ofSeconds(10));
+        assertThat(exact.<List<Object>> read(bytes).value().get(3), is((Object) Thread.State.NEW));
+        assertThat(STUtil.<List<Object>> read(bytes, exact).get(3), is((Object) Thread.State.NEW));
+        assertThat(of(() -> exact.maxDepth(usage.depth() - 1).read(bytes)),
+                raise(FailToDeserializeException.class).rootCause(BudgetExceededException.class));
+    }
+    
+    @Test
+    public void testLimits() {
+        byte[] bytes = STUtil.write(new ArrayList<>(Arrays.asList("a", "a", new int[7])));
+        long references = ReadBudget.unlimited().read(bytes).usage().references();
+        
+        assertThat(of(() -> ReadBudget.unlimited().maxDepth(2).read(bytes)),
+                raise(FailToDeserializeException.class).rootCause(BudgetExceededException.class, "DEPTH: 3 > 2"));
+        assertThat(of(() -> ReadBudget.unlimited().maxReferences(references - 1).read(bytes)),
+                raise(FailToDeserializeException.class).rootCause(BudgetExceededException.class,
+                        String.format("REFERENCES: %d > %d", references, references - 1)));
+        assertThat(of(() -> ReadBudget.unlimited().maxArrayLength(6).read(bytes)),
+                raise(FailToDeserializeException.class).rootCause(BudgetExceededException.class, "ARRAY_LENGTH: 7 > 6"));
+        assertThat(of(() -> STUtil.read(bytes, ReadBudget.unlimited().maxBytes(10))),
+                raise(FailToDeserializeException.class).rootCause(BudgetExceededException.class,
+                        String.format("BYTES: %d > 10", bytes.length)));
+        
+        try {
+            ReadBudget.unlimited().maxArrayLength(6).read(bytes);
+            fail();
+        } catch (FailToDeserializeException e) {
+            BudgetExceededException cause = (BudgetExceededException) e.getCause();
+            assertThat(cause.resource(), is(Resource.ARRAY_LENGTH));
+            assertThat(cause.limit(), is(6L));
+            assertThat(cause.actual(), is(7L));
+        }
+        
+        // 文法に従っていないストリーム
+        assertThat(of(() -> ReadBudget.unlimited().read(new byte[] { 1, 2, 3, 4 })),
+                raise(FailToDeserializeException.class).inChain(StreamCorruptedException.class));
+        assertThat(of(() -> ReadBudget.unlimited().read(Arrays.copyOf(bytes, bytes.length - 1))),
+                raise(FailToDeserializeException.class).inChain(StreamCorruptedException.class));
+    }
+    
+    @Test
+    public void testHostileStreams() {
+        // 極端に深いストリームも、スタックを使い果たすことなく拒否される
+        byte[] deep = nestedArrays(200_000);
+        assertThat(of(() -> ReadBudget.unlimited().maxDepth(100).read(deep)),
+                raise(FailToDeserializeException.class).rootCause(BudgetExceededException.class, "DEPTH: 101 > 100"));
+        assertThat(ReadBudget.unlimited().read(nestedArrays(100)).usage().depth(), is(101));
+        
+        // 上限を指定しない場合は、ReadBudget.MAX_SUPPORTED_DEPTH を超えて走査することはない
+        assertThat(of(() -> ReadBudget.unlimited().read(deep)),
+                raise(FailToDeserializeException.class).rootCause(BudgetExceededException.class, "DEPTH: 100001 > 100000"));
+        assertThat(of(() -> ReadBudget.unlimited().maxDepth(1_000).read(deep)),
+                raise(FailToDeserializeException.class).rootCause(BudgetExceededException.class, "DEPTH: 1001 > 1000"));
+        
+        // SerialStream.DEFAULT_MAX_DEPTH を超える深さのストリームも、上限の範囲内であればデシリアライズできる
+        assertThat(ReadBudget.unlimited().read(nestedArrays(499)).usage().depth(), is(500));
+        Result<Object[]> result = ReadBudget.unlimited().read(nestedArrays(5_000));
+        assertThat(result.usage().depth(), is(5_001));
+        int depth = 0;
+        for (Object[] array = result.value(); array != null; array = (Object[]) array[0]) {
+            depth++;
+        }
+        assertThat(depth, is(5_000));
+        
+        // HashSet の入れ子による攻撃は、オブジェクトを生成する前に拒否される
+        byte[] bomb = STUtil.write(hashSetBomb(100));
+        assertThat(of(() -> ReadBudget.unlimited().maxDepth(50).read(bomb)),
+                raise(FailToDeserializeException.class).rootCause(BudgetExceededException.class).raisesWithin(Duration.ofSeconds(1)));
+    }
+    
+    @Test
+    public void testMaxTime() {
+        byte[] bytes = STUtil.write(Arrays.asList(new Slow(), "x"));
+        
+        try {
+            ReadBudget.unlimited().maxTime(Duration.ofMillis(100)).read(bytes);
+            fail();
+        } catch (FailToDeserializeException e) {
+            BudgetExceededException cause = (BudgetExceededException) e.getCause();
+            assertThat(cause.resource(), is(Resource.TIME));
+            assertThat(cause.limit(), is(100L));
+            assertThat(cause.actual() > 100L, is(true));
+            assertThat(cause.actual() < 5_000L, is(true));
+        }
+        
+        assertThat(ReadBudget.unlimited().maxTime(Duration.ofSeconds(10)).read(STUtil.write("abc")).value(), is((Object) "abc"));
+        assertThat(of(() -> ReadBudget.unlimited().maxTime(Duration.ofSeconds(10)).read(STUtil.hexToBytes("ac ed 00 05 73"))),
+                raise(FailToDeserializeException.class).inChain(StreamCorruptedException.class));
+    }
+    
+    @Test
+    public void testArguments() {
+        ReadBudget budget = ReadBudget.unlimited();
+        assertThat(of(() -> budget.read(null)), raise(NullPointerException.class));
+        assertThat(of(() -> STUtil.read(new byte[0], (ReadBudget) null)), raise(NullPointerException.class));
+        assertThat(of(() -> budget.maxDepth(0)), raise(IllegalArgumentException.class, "0"));
+        assertThat(of(() -> budget.maxDepth(ReadBudget.MAX_SUPPORTED_DEPTH + 1)), raise(IllegalArgumentException.class, "100001"));
+        assertThat(of(() -> budget.maxReferences(-1)), raise(IllegalArgumentException.class, "-1"));
+        assertThat(of(() -> budget.maxArrayLength(-1)), raise(IllegalArgumentException.class, "-1"));
+        assertThat(of(() -> budget.maxBytes(-1)), raise(IllegalArgumentException.class, "-1"));
+        assertThat(of(() -> budget.maxTime(null)), raise(NullPointerException.class));
+        assertThat(of(() -> budget.maxTime(Duration.ZERO)), raise(IllegalArgumentException.class, "PT0S"));
+        
+        assertThat(budget.toString(), is("ReadBudget []"));
+        assertThat(budget.maxDepth(50).maxTime(Duration.ofSeconds(1)).toString(), is("ReadBudget [maxDepth=50, maxTime=PT1S]"));
+        assertThat(budget.maxDepth(50), not(sameInstance(budget)));
+    }
+}
@@ -0,0 +1,58 @@
+package xyz.hotchpotch.jutaime.serializable.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import xyz.hotchpotch.jutaime.serializable.STUtil;
+
+/**
+ * 大きなシリアライズ形式のバイト配列に対する {@link SerialStream#parse(byte[])} の性能を計測する簡易ベンチマークです。<br>
+ * 巨大なプリミティブ型の配列を含むストリームと、多数の小さな要素から成るストリームを計測します。<br>
+ * JUnit のテストスイートには含めず、{@code main} メソッドから手動で実行します。<br>
+ * <pre>
+ *     java xyz.hotchpotch.jutaime.serializable.stream.SerialStreamBenchmark [megabytes] [elements] [rounds]
+ * </pre>
+ * 
+ * @author nmby
+ */
+public class SerialStreamBenchmark {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    // 計算結果が最適化により除去されないようにするための変数
+    private static volatile Object sink;
+    
+    public static void main(String[] args) {
+        int megabytes = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int elements = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        
+        List<Object> large = new ArrayList<>();
+        large.add("header");
+        large.add(new byte[megabytes << 20]);
+        large.add(new long[1024]);
+        byte[] largeBytes = STUtil.write(large);
+        
+        List<String> many = new ArrayList<>();
+        for (int i = 0; i < elements; i++) {
+            many.add("element-" + i);
+        }
+        byte[] manyBytes = STUtil.write(many);
+        
+        System.out.printf("large=%d bytes, many=%d bytes, rounds=%d%n", largeBytes.length, manyBytes.length, rounds);
+        for (int round = 1; round <= rounds; round++) {
+            System.out.printf("round %2d : parse(large) %8.3f ms, parse(many) %8.2f ms, toHexString(many) %8.2f ms%n",
+                    round,
+                    measure(() -> SerialStream.parse(largeBytes)),
+                    measure(() -> SerialStream.parse(manyBytes)),
+                    measure(() -> STUtil.toHexString(manyBytes)));
+        }
+    }
+    
+    private static double measure(Supplier<?> task) {
+        long start = System.nanoTime();
+        sink = task.get();
+        return (System.nanoTime() - start) / 1_000_000.0;
+    }
+}
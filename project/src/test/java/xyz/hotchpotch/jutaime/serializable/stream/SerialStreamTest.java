@@ -0,0 +1,297 @@
+package xyz.hotchpotch.jutaime.serializable.stream;
+
+import static java.io.ObjectStreamConstants.*;
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static xyz.hotchpotch.jutaime.throwable.RaiseMatchers.*;
+import static xyz.hotchpotch.jutaime.throwable.Testee.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import xyz.hotchpotch.jutaime.serializable.STUtil;
+
+public class SerialStreamTest {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private static enum TestEnum {
+        ONE,
+        TWO;
+    }
+    
+    private static class Parent implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private int x = 1;
+        private String name = "parent";
+    }
+    
+    private static class Child extends Parent {
+        private static final long serialVersionUID = 2L;
+        private String name = "child";
+        private double d = 2.5;
+        private boolean flag = true;
+        private char c = 'あ';
+        private Object self = this;
+        
+        private void writeObject(ObjectOutputStream out) throws IOException {
+            out.defaultWriteObject();
+            out.writeInt(123);
+            out.writeObject("annotation");
+        }
+    }
+    
+    private static class Ext implements Externalizable {
+        private static final long serialVersionUID = 1L;
+        
+        public Ext() {
+        }
+        
+        @Override
+        public void writeExternal(ObjectOutput out) throws IOException {
+            out.writeUTF("external");
+            out.writeObject(TestEnum.ONE);
+        }
+        
+        @Override
+        public void readExternal(ObjectInput in) throws IOException {
+        }
+    }
+    
+    private static class Handler implements InvocationHandler, Serializable {
+        private static final long serialVersionUID = 1L;
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            return null;
+        }
+    }
+    
+    private static Content parseSingle(Object obj) {
+        List<Content> contents = SerialStream.parse(STUtil.write(obj)).contents();
+        assertThat(contents.size(), is(1));
+        return contents.get(0);
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    @Test
+    public void testNullAndString() {
+        Content nullContent = parseSingle(null);
+        assertThat(nullContent, instanceOf(NullContent.class));
+        assertThat(nullContent.offset(), is(4));
+        assertThat(nullContent.end(), is(5));
+        
+        StringContent str = (StringContent) parseSingle("abc\u0000あ");
+        assertThat(str.tag(), is(TC_STRING));
+        assertThat(str.handle(), is(baseWireHandle));
+        assertThat(str.value(), is("abc\u0000あ"));
+        assertThat(str.utfOffset(), is(7));
+        assertThat(str.utfLength(), is(3 + 2 + 3));
+        
+        char[] chars = new char[70_000];
+        Arrays.fill(chars, 'x');
+        StringContent longStr = (StringContent) parseSingle(new String(chars));
+        assertThat(longStr.tag(), is(TC_LONGSTRING));
+        assertThat(longStr.utfOffset(), is(4 + 1 + 8));
+        assertThat(longStr.value().length(), is(70_000));
+    }
+    
+    @Test
+    public void testObject() {
+        byte[] bytes = STUtil.write(new Child());
+        SerialStream stream = SerialStream.parse(bytes);
+        ObjectContent obj = (ObjectContent) stream.contents().get(0);
+        assertThat(obj.end(), is(bytes.length));
+        
+        ClassDescContent desc = obj.classDesc();
+        assertThat(desc.handle(), is(baseWireHandle));
+        assertThat(desc.name(), is(Child.class.getName()));
+        assertThat(desc.serialVersionUID(), is(2L));
+        assertThat(desc.flags(), is((byte) (SC_SERIALIZABLE | SC_WRITE_METHOD)));
+        assertThat(bytes[desc.flagsOffset()], is(desc.flags()));
+        assertThat(desc.field("self").signature(), is("Ljava/lang/Object;"));
+        assertThat(desc.field("d").type(), is('D'));
+        assertThat(desc.field("x"), nullValue());
+        assertThat(desc.superClassDesc().name(), is(Parent.class.getName()));
+        assertThat(desc.superClassDesc().superClassDesc(), nullValue());
+        
+        // クラスデータは最上位のスーパークラスから順に並ぶ
+        assertThat(obj.classData().size(), is(2));
+        ClassData parent = obj.classData().get(0);
+        ClassData child = obj.classData().get(1);
+        assertThat(parent.classDesc(), sameInstance(desc.superClassDesc()));
+        assertThat(parent.value("x").primitiveValue(), is(1));
+        assertThat(((StringContent) parent.value("name").content()).value(), is("parent"));
+        assertThat(parent.hasAnnotations(), is(false));
+        
+        assertThat(child.value("d").primitiveValue(), is(2.5));
+        assertThat(child.value("flag").primitiveValue(), is(true));
+        assertThat(child.value("c").primitiveValue(), is('あ'));
+        assertThat(((ReferenceContent) child.value("self").content()).target(), sameInstance(obj));
+        assertThat(obj.value("name"), sameInstance(child.value("name")));
+        assertThat(obj.classData(Parent.class.getName()), sameInstance(parent));
+        
+        // writeObject メソッドが書き込んだデータはオブジェクト注釈となる
+        assertThat(child.hasAnnotations(), is(true));
+        assertThat(child.annotations().size(), is(2));
+        BlockDataContent block = (BlockDataContent) child.annotations().get(0);
+        assertThat(block.dataLength(), is(4));
+        assertThat(Arrays.copyOfRange(bytes, block.dataOffset(), block.end()), is(STUtil.bytes(123)));
+        assertThat(((StringContent) child.annotations().get(1)).value(), is("annotation"));
+        assertThat(child.valuesEnd(), is(block.offset()));
+        assertThat(child.end(), is(bytes.length));
+        assertThat(bytes[child.end() - 1], is(TC_ENDBLOCKDATA));
+        
+        // 値の位置はバイト配列上の位置を指す
+        FieldValue x = parent.value("x");
+        assertThat(Arrays.copyOfRange(bytes, x.offset(), x.end()), is(STUtil.bytes(1)));
+    }
+    
+    @Test
+    public void testReference() {
+        String shared = "shared";
+        List<Content> elements = ((ArrayContent) parseSingle(new Object[] { shared, shared, null })).elements();
+        assertThat(elements.size(), is(3));
+        StringContent str = (StringContent) elements.get(0);
+        ReferenceContent ref = (ReferenceContent) elements.get(1);
+        assertThat(ref.target(), sameInstance(str));
+        assertThat(ref.handle(), is(str.handle()));
+        assertThat(ref.length(), is(5));
+        assertThat(elements.get(2), instanceOf(NullContent.class));
+    }
+    
+    @Test
+    public void testArray() {
+        byte[] bytes = STUtil.write(new int[] { 1, 2, 3 });
+        ArrayContent array = (ArrayContent) SerialStream.parse(bytes).contents().get(0);
+        assertThat(array.classDesc().name(), is("[I"));
+        assertThat(array.componentType(), is('I'));
+        assertThat(array.size(), is(3));
+        assertThat(array.elements().isEmpty(), is(true));
+        assertThat(array.end(), is(bytes.length));
+        assertThat(array.dataOffset(), is(bytes.length - 12));
+        assertThat(array.handle(), is(baseWireHandle + 1));
+        
+        ArrayContent nested = (ArrayContent) parseSingle(new String[][] { { "a" }, {} });
+        assertThat(nested.componentType(), is('['));
+        assertThat(nested.elements().size(), is(2));
+        assertThat(((ArrayContent) nested.elements().get(0)).classDesc().name(), is("[Ljava.lang.String;"));
+        assertThat(((ArrayContent) nested.elements().get(1)).classDescContent(), instanceOf(ReferenceContent.class));
+    }
+    
+    @Test
+    public void testEnumAndClass() {
+        EnumContent e = (EnumContent) parseSingle(TestEnum.TWO);
+        assertThat(e.constantName(), is("TWO"));
+        assertThat(e.classDesc().name(), is(TestEnum.class.getName()));
+        assertThat(e.classDesc().flags() & SC_ENUM, is((int) SC_ENUM));
+        assertThat(e.classDesc().superClassDesc().name(), is("java.lang.Enum"));
+        
+        ClassContent c = (ClassContent) parseSingle(String.class);
+        assertThat(c.classDesc().name(), is("java.lang.String"));
+        assertThat(c.handle(), is(baseWireHandle + 1));
+    }
+    
+    @Test
+    public void testExternalizableAndProxy() {
+        ObjectContent ext = (ObjectContent) parseSingle(new Ext());
+        assertThat(ext.classDesc().flags(), is((byte) (SC_EXTERNALIZABLE | SC_BLOCK_DATA)));
+        ClassData data = ext.classData().get(0);
+        assertThat(data.values().isEmpty(), is(true));
+        assertThat(data.annotations().size(), is(2));
+        assertThat(data.annotations().get(0), instanceOf(BlockDataContent.class));
+        assertThat(((EnumContent) data.annotations().get(1)).constantName(), is("ONE"));
+        
+        Object proxy = Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Runnable.class }, new Handler());
+        ObjectContent obj = (ObjectContent) parseSingle(proxy);
+        assertThat(obj.classDesc().isProxy(), is(true));
+        assertThat(obj.classDesc().interfaces(), is(Arrays.asList("java.lang.Runnable")));
+        assertThat(obj.classDesc().name(), nullValue());
+        assertThat(obj.classDesc().superClassDesc().name(), is("java.lang.reflect.Proxy"));
+        assertThat(((ObjectContent) obj.value("h").content()).classDesc().name(), is(Handler.class.getName()));
+    }
+    
+    @Test
+    public void testMultipleContentsAndReset() throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject("abc");
+            oos.writeObject("abc");
+            oos.reset();
+            oos.writeInt(7);
+            oos.writeObject("abc");
+        }
+        List<Content> contents = SerialStream.parse(bos.toByteArray()).contents();
+        assertThat(contents.size(), is(5));
+        assertThat(contents.get(1), instanceOf(ReferenceContent.class));
+        assertThat(contents.get(2), instanceOf(ResetContent.class));
+        assertThat(contents.get(3), instanceOf(BlockDataContent.class));
+        assertThat(((StringContent) contents.get(4)).handle(), is(baseWireHandle));
+    }
+    
+    @Test
+    public void testWalkAndDump() {
+        SerialStream stream = SerialStream.parse(STUtil.write(new ArrayList<>(Arrays.asList("a", "b"))));
+        List<Content> walked = new ArrayList<>();
+        stream.walk(walked::add);
+        
+        // 出現順に走査される
+        for (int i = 1; i < walked.size(); i++) {
+            assertThat(walked.get(i - 1).offset() < walked.get(i).offset(), is(true));
+        }
+        assertThat(walked.get(0), instanceOf(ObjectContent.class));
+        assertThat(walked.get(walked.size() - 1), instanceOf(StringContent.class));
+        
+        String dump = stream.dump();
+        assertThat(dump, containsString("TC_OBJECT 0x007e0001 java.util.ArrayList"));
+        assertThat(dump, containsString("I size = 2"));
+        assertThat(dump, containsString("TC_STRING 0x007e0003 \"b\""));
+        
+        assertThat(of(() -> stream.walk(null)), raise(NullPointerException.class));
+    }
+    
+    @Test
+    public void testMalformed() {
+        assertThat(of(() -> SerialStream.parse(null)), raise(NullPointerException.class));
+        assertThat(of(() -> SerialStream.parse(new byte[0])), raise(MalformedStreamException.class));
+        assertThat(of(() -> SerialStream.parse(STUtil.hexToBytes("ac ed 00 06"))), raise(MalformedStreamException.class));
+        assertThat(SerialStream.parse(STUtil.hexToBytes("ac ed 00 05")).contents().isEmpty(), is(true));
+        
+        assertThat(of(() -> SerialStream.parse(STUtil.hexToBytes("ac ed 00 05 71 00 7e 00 00"))),
+                raise(MalformedStreamException.class, "offset 5: invalid handle"));
+        assertThat(of(() -> SerialStream.parse(STUtil.hexToBytes("ac ed 00 05 78"))),
+                raise(MalformedStreamException.class, "offset 4: unexpected type code: TC_ENDBLOCKDATA"));
+        
+        // 途中で途切れたバイト配列と、1 バイトを改竄したバイト配列は、いずれも MalformedStreamException となるか正常に解析される
+        byte[] bytes = STUtil.write(new Object[] { new Child(), new Ext(), TestEnum.ONE, new int[] { 1 }, String.class });
+        for (int i = 5; i < bytes.length; i++) {
+            byte[] truncated = Arrays.copyOf(bytes, i);
+            assertThat(of(() -> SerialStream.parse(truncated)), raise(MalformedStreamException.class));
+        }
+        for (int i = 5; i < bytes.length; i++) {
+            for (int delta : new int[] { 1, 0x40, 0x80 }) {
+                byte[] corrupted = bytes.clone();
+                corrupted[i] += delta;
+                try {
+                    SerialStream.parse(corrupted).dump();
+                } catch (MalformedStreamException e) {
+                    assertThat(0 <= e.offset() && e.offset() <= bytes.length, is(true));
+                }
+            }
+        }
+    }
+}
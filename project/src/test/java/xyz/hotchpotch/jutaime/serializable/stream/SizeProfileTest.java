@@ -0,0 +1,216 @@
+package xyz.hotchpotch.jutaime.serializable.stream;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static xyz.hotchpotch.jutaime.throwable.RaiseMatchers.*;
+import static xyz.hotchpotch.jutaime.throwable.Testee.*;
+
+import java.io.Serializable;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+import xyz.hotchpotch.jutaime.serializable.STUtil;
+import xyz.hotchpotch.jutaime.serializable.stream.SizeProfile.ClassStats;
+import xyz.hotchpotch.jutaime.serializable.stream.SizeProfile.FieldStats;
+
+public class SizeProfileTest {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private static class Base implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final long id = 42L;
+    }
+    
+    private static class OrderEvent extends Base {
+        private static final long serialVersionUID = 1L;
+        private final int quantity;
+        private final String currency;
+        private final String note;
+        private final DayOfWeek day = DayOfWeek.MONDAY;
+        private OrderEvent next;
+        
+        private OrderEvent(int quantity, String currency, String note) {
+            this.quantity = quantity;
+            this.currency = currency;
+            this.note = note;
+        }
+    }
+    
+    private static long sum(SizeProfile profile) {
+        long sum = 0;
+        for (ClassStats stats : profile.classes()) {
+            sum += stats.bytes();
+        }
+        return sum;
+    }
+    
+    private static FieldStats field(SizeProfile profile, String fieldName) {
+        for (FieldStats stats : profile.fields()) {
+            if (stats.fieldName().equals(fieldName)) {
+                return stats;
+            }
+        }
+        throw new AssertionError(fieldName);
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    @Test
+    public void testOf() {
+        assertThat(of(() -> SizeProfile.of((SerialStream) null)), raise(NullPointerException.class));
+        assertThat(of(() -> SizeProfile.ofSerialized(null)), raise(NullPointerException.class));
+        assertThat(of(() -> SizeProfile.ofSerialized(new byte[] { 1, 2, 3, 4 })), raise(MalformedStreamException.class));
+        
+        byte[] bytes = STUtil.write("abc");
+        assertThat(SizeProfile.of("abc").toString(), is(SizeProfile.ofSerialized(bytes).toString()));
+        assertThat(SizeProfile.of(SerialStream.parse(bytes)).toString(), is(SizeProfile.ofSerialized(bytes).toString()));
+    }
+    
+    @Test
+    public void testString() {
+        SizeProfile profile = SizeProfile.of("abc");
+        
+        // ac ed 00 05 | 74 00 03 61 62 63
+        assertThat(profile.totalBytes(), is(10L));
+        assertThat(profile.objects(), is(1));
+        assertThat(profile.handles(), is(1));
+        assertThat(profile.backReferences(), is(0));
+        assertThat(profile.depth(), is(1));
+        assertThat(profile.classes().size(), is(2));
+        assertThat(profile.classStats(String.class).bytes(), is(6L));
+        assertThat(profile.classStats(String.class).dataBytes(), is(6L));
+        assertThat(profile.classStats(String.class).instances(), is(1));
+        assertThat(profile.classStats(SizeProfile.STREAM).bytes(), is(4L));
+        assertThat(profile.fields().isEmpty(), is(true));
+        assertThat(profile.duplicateStrings().isEmpty(), is(true));
+    }
+    
+    @Test
+    public void testClassStats() {
+        SizeProfile profile = SizeProfile.of(new OrderEvent(3, "JPY", "first"));
+        
+        assertThat(sum(profile), is(profile.totalBytes()));
+        assertThat(profile.totalBytes(), is((long) STUtil.write(new OrderEvent(3, "JPY", "first")).length));
+        
+        ClassStats event = profile.classStats(OrderEvent.class);
+        assertThat(event.instances(), is(1));
+        assertThat(event.descriptorBytes() > 0, is(true));
+        // tag(1) + id(8) + quantity(4) + next の TC_NULL(1)
+        assertThat(event.dataBytes(), is(14L));
+        assertThat(event.bytes(), is(event.descriptorBytes() + event.dataBytes() + event.referenceBytes()));
+        
+        // スーパークラスの記述子はスーパークラスに帰属し、フィールドの値はオブジェクトのクラスに帰属する
+        ClassStats base = profile.classStats(Base.class);
+        assertThat(base.instances(), is(0));
+        assertThat(base.descriptorBytes() > 0, is(true));
+        assertThat(base.dataBytes(), is(0L));
+        
+        assertThat(profile.classStats(String.class).instances(), is(2));
+        assertThat(profile.classStats(DayOfWeek.class).instances(), is(1));
+        assertThat(profile.classStats(Enum.class).instances(), is(0));
+        
+        assertThat(of(() -> profile.classStats((String) null)), raise(NullPointerException.class));
+        assertThat(of(() -> profile.classStats((Class<?>) null)), raise(NullPointerException.class));
+        assertThat(of(() -> profile.classStats(Integer.class)), raise(NoSuchElementException.class, "java.lang.Integer"));
+        
+        // バイト数の降順
+        List<ClassStats> classes = profile.classes();
+        for (int i = 1; i < classes.size(); i++) {
+            assertThat(classes.get(i - 1).bytes() >= classes.get(i).bytes(), is(true));
+        }
+        assertThat(of(() -> classes.clear()), raise(UnsupportedOperationException.class));
+    }
+    
+    @Test
+    public void testFields() {
+        SizeProfile profile = SizeProfile.of(new OrderEvent(3, "JPY", "first"));
+        
+        FieldStats id = field(profile, "id");
+        assertThat(id.className(), is(Base.class.getName()));
+        assertThat(id.signature(), is("J"));
+        assertThat(id.values(), is(1));
+        assertThat(id.bytes(), is(8L));
+        
+        assertThat(field(profile, "quantity").bytes(), is(4L));
+        // 74 00 03 4a 50 59
+        assertThat(field(profile, "currency").bytes(), is(6L));
+        assertThat(field(profile, "currency").signature(), is("Ljava/lang/String;"));
+        assertThat(field(profile, "note").bytes(), is(8L));
+        assertThat(field(profile, "next").bytes(), is(1L));
+        
+        List<FieldStats> fields = profile.fields();
+        for (int i = 1; i < fields.size(); i++) {
+            assertThat(fields.get(i - 1).bytes() >= fields.get(i).bytes(), is(true));
+        }
+    }
+    
+    @Test
+    public void testReferences() {
+        OrderEvent first = new OrderEvent(1, "USD", "a");
+        OrderEvent second = new OrderEvent(2, "USD", "b");
+        first.next = second;
+        second.next = first;
+        SizeProfile profile = SizeProfile.of(first);
+        
+        assertThat(sum(profile), is(profile.totalBytes()));
+        ClassStats event = profile.classStats(OrderEvent.class);
+        assertThat(event.instances(), is(2));
+        // 2 つめのオブジェクトのクラス記述子への参照、および最初のオブジェクトへの参照
+        assertThat(event.backReferences(), is(2));
+        assertThat(event.referenceBytes(), is(10L));
+        assertThat(profile.depth(), is(3));
+        
+        // 同じ String インスタンスは参照として書き込まれる
+        assertThat(profile.duplicateStrings().isEmpty(), is(true));
+        assertThat(profile.classStats(String.class).instances(), is(3));
+        assertThat(profile.classStats(String.class).backReferences(), is(1));
+        
+        // 同じ値でも別々のインスタンスの場合は重複として検出される
+        OrderEvent third = new OrderEvent(3, new String("USD"), "c");
+        OrderEvent fourth = new OrderEvent(4, new String("USD"), "c");
+        third.next = fourth;
+        SizeProfile duplicated = SizeProfile.of(third);
+        assertThat(duplicated.duplicateStrings().size(), is(1));
+        assertThat(duplicated.duplicateStrings().get("USD"), is(2));
+        assertThat(duplicated.toString().contains("duplicate strings: \"USD\" x2"), is(true));
+    }
+    
+    @Test
+    public void testArrays() {
+        List<Object> list = new ArrayList<>(Arrays.asList(new int[] { 1, 2, 3 }, new String[] { "x", "y" }, null));
+        list.add(list.get(0));
+        SizeProfile profile = SizeProfile.of(list);
+        
+        assertThat(sum(profile), is(profile.totalBytes()));
+        
+        ClassStats ints = profile.classStats(int[].class);
+        assertThat(ints.instances(), is(1));
+        // tag(1) + size(4) + 3 * 4
+        assertThat(ints.dataBytes(), is(17L));
+        assertThat(ints.backReferences(), is(1));
+        assertThat(profile.classStats(String[].class).instances(), is(1));
+        assertThat(profile.classStats(String.class).instances(), is(2));
+        assertThat(profile.depth(), is(3));
+    }
+    
+    @Test
+    public void testToString() {
+        SizeProfile profile = SizeProfile.of(new OrderEvent(3, "JPY", "first"));
+        String str = profile.toString();
+        
+        assertThat(str.startsWith(String.format("%d bytes, %d objects, %d handles, %d back-references, depth %d%n",
+                profile.totalBytes(), profile.objects(), profile.handles(), profile.backReferences(), profile.depth())), is(true));
+        assertThat(str.contains(OrderEvent.class.getName()), is(true));
+        assertThat(str.contains(Base.class.getName() + ".id (J)"), is(true));
+        assertThat(str.contains("duplicate strings"), is(false));
+        
+        assertThat(profile.classStats(String.class).toString(), is("java.lang.String: " + profile.classStats(String.class).bytes() + " bytes (2 instances)"));
+        assertThat(field(profile, "id").toString(), is(Base.class.getName() + ".id: 8 bytes (1 values)"));
+    }
+}
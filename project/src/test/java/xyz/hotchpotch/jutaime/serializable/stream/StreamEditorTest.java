@@ -0,0 +1,266 @@
+package xyz.hotchpotch.jutaime.serializable.stream;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static xyz.hotchpotch.jutaime.throwable.RaiseMatchers.*;
+import static xyz.hotchpotch.jutaime.throwable.Testee.*;
+
+import java.io.InvalidClassException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import xyz.hotchpotch.jutaime.serializable.FailToDeserializeException;
+import xyz.hotchpotch.jutaime.serializable.FailToSerializeException;
+import xyz.hotchpotch.jutaime.serializable.STUtil;
+
+public class StreamEditorTest {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private static final String POINT = Point.class.getName();
+    private static final String PAIR = Pair.class.getName();
+    
+    private static class Point implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private int x;
+        private long y;
+        private String label;
+        
+        private Point(int x, long y, String label) {
+            this.x = x;
+            this.y = y;
+            this.label = label;
+        }
+    }
+    
+    private static class OtherPoint implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private int x;
+        private long y;
+        private String label;
+    }
+    
+    private static class Pair implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private Object first;
+        private Object second;
+        
+        private Pair(Object first, Object second) {
+            this.first = first;
+            this.second = second;
+        }
+    }
+    
+    private static class NotSerializable {
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    @Test
+    public void testEmpty() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("a", new Point(1, 2, "a"));
+        map.put("b", Arrays.asList(new int[] { 1, 2 }, Thread.State.NEW, String.class, "a"));
+        for (Object obj : Arrays.asList(null, "abc", map, new Object[] { map, map })) {
+            byte[] bytes = STUtil.write(obj);
+            
+            // 編集しない場合は、元のバイト配列と同じ内容となる
+            assertThat(StreamEditor.create().apply(bytes), is(bytes));
+            assertThat(StreamEditor.create().apply(bytes), not(sameInstance(bytes)));
+        }
+        assertThat(of(() -> StreamEditor.create().apply((byte[]) null)), raise(NullPointerException.class));
+        assertThat(of(() -> StreamEditor.create().apply((SerialStream) null)), raise(NullPointerException.class));
+        assertThat(of(() -> StreamEditor.create().apply(new byte[] { 1, 2, 3 })), raise(MalformedStreamException.class));
+    }
+    
+    @Test
+    public void testSetField() {
+        StreamEditor editor = StreamEditor.create()
+                .setField(POINT, "x", 10)
+                .setField(POINT, "y", 20)
+                .setField(POINT, "label", "edited");
+        
+        Point p = STUtil.writeModifyAndRead(new Point(1, 2, "original"), editor);
+        assertThat(p.x, is(10));
+        assertThat(p.y, is(20L));
+        assertThat(p.label, is("edited"));
+        
+        // 全てのインスタンスのフィールドが変更される
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            points.add(new Point(i, i, "p" + i));
+        }
+        List<Point> edited = STUtil.writeModifyAndRead(points, editor);
+        for (Point point : edited) {
+            assertThat(point.x, is(10));
+            assertThat(point.label, is("edited"));
+        }
+        assertThat(edited.get(0).label, not(sameInstance(edited.get(1).label)));
+        
+        // null と、元の値と異なる型の値
+        Point nullLabel = STUtil.writeModifyAndRead(new Point(1, 2, "original"), StreamEditor.create().setField(POINT, "label", null));
+        assertThat(nullLabel.label, nullValue());
+        assertThat(of(() -> STUtil.writeModifyAndRead(new Point(1, 2, "original"),
+                StreamEditor.create().setField(POINT, "label", 123))),
+                raise(FailToDeserializeException.class).rootCause(ClassCastException.class));
+        
+        assertThat(of(() -> StreamEditor.create().setField(POINT, "x", "abc").apply(STUtil.write(new Point(1, 2, "a")))),
+                raise(IllegalArgumentException.class));
+        assertThat(of(() -> StreamEditor.create().setField(POINT, "x", 1.5).apply(STUtil.write(new Point(1, 2, "a")))),
+                raise(IllegalArgumentException.class));
+        assertThat(of(() -> StreamEditor.create().setField(POINT, "label", new NotSerializable())),
+                raise(FailToSerializeException.class));
+    }
+    
+    @Test
+    public void testHandles() {
+        // 削除された値への後続の参照は、参照先を改めて書き出すことで保たれる
+        String shared = "shared";
+        Pair pair = new Pair(shared, Arrays.asList(shared, shared));
+        Pair edited = STUtil.writeModifyAndRead(pair, StreamEditor.create().setField(PAIR, "first", new Point(1, 2, "new")));
+        assertThat(((Point) edited.first).label, is("new"));
+        List<?> second = (List<?>) edited.second;
+        assertThat(second.get(0), is("shared"));
+        assertThat(second.get(1), sameInstance(second.get(0)));
+        
+        // 要素が増える場合も、後続の参照は正しい参照先を指す
+        Point point = new Point(1, 2, "p");
+        Pair pointPair = new Pair("q", new Object[] { point, point, "p" });
+        Pair edited2 = STUtil.writeModifyAndRead(pointPair,
+                StreamEditor.create().setField(PAIR, "first", Arrays.asList("x", "y", new HashMap<>())));
+        Object[] array = (Object[]) edited2.second;
+        assertThat(edited2.first, is((Object) Arrays.asList("x", "y", new HashMap<>())));
+        assertThat(array[1], sameInstance(array[0]));
+        assertThat(array[2], is("p"));
+        assertThat(((Point) array[0]).label, is("p"));
+        assertThat(array[2], sameInstance(((Point) array[0]).label));
+        
+        // 循環参照
+        Pair cyclic = new Pair(null, null);
+        cyclic.first = cyclic;
+        cyclic.second = "abc";
+        Pair edited3 = STUtil.writeModifyAndRead(cyclic, StreamEditor.create().setField(PAIR, "second", "xyz"));
+        assertThat(edited3.first, sameInstance(edited3));
+        assertThat(edited3.second, is("xyz"));
+    }
+    
+    @Test
+    public void testRenameClass() {
+        StreamEditor editor = StreamEditor.create().renameClass(POINT, OtherPoint.class.getName());
+        
+        OtherPoint p = STUtil.writeModifyAndRead(new Point(1, 2, "a"), editor);
+        assertThat(p.x, is(1));
+        assertThat(p.label, is("a"));
+        
+        // 配列のクラス名とフィールドのシグネチャも変更される
+        Point[][] points = { { new Point(1, 2, "a") } };
+        OtherPoint[][] others = STUtil.writeModifyAndRead(points, editor);
+        assertThat(others[0][0].y, is(2L));
+        
+        Pair pair = STUtil.writeModifyAndRead(new Pair(new Point[] { new Point(5, 6, "b") }, null), editor);
+        assertThat(((OtherPoint[]) pair.first)[0].x, is(5));
+        
+        SerialStream stream = SerialStream.parse(StreamEditor.create()
+                .renameClass("java.lang.String", "java.lang.Str")
+                .apply(STUtil.write(new Point(1, 2, "a"))));
+        assertThat(((ObjectContent) stream.contents().get(0)).classDesc().field("label").signature(), is("Ljava/lang/Str;"));
+        
+        assertThat(of(() -> StreamEditor.create().renameClass("com.example.Missing", "x").apply(STUtil.write(new Point(1, 2, "a")))),
+                raise(IllegalArgumentException.class, "no match: [renameClass(com.example.Missing -> x)]"));
+    }
+    
+    @Test
+    public void testSetSerialVersionUID() {
+        byte[] bytes = StreamEditor.create().setSerialVersionUID(POINT, 12345L).apply(STUtil.write(new Point(1, 2, "a")));
+        assertThat(((ObjectContent) SerialStream.parse(bytes).contents().get(0)).classDesc().serialVersionUID(), is(12345L));
+        assertThat(of(() -> STUtil.read(bytes)),
+                raise(FailToDeserializeException.class).rootCause(InvalidClassException.class));
+    }
+    
+    @Test
+    public void testDropAndAddField() {
+        // 削除されたフィールドは、デシリアライズ時に既定値となる
+        Point dropped = STUtil.writeModifyAndRead(new Point(1, 2, "a"),
+                StreamEditor.create().dropField(POINT, "x").dropField(POINT, "label"));
+        assertThat(dropped.x, is(0));
+        assertThat(dropped.y, is(2L));
+        assertThat(dropped.label, nullValue());
+        
+        // 削除したフィールドを、別の値で追加し直す
+        byte[] bytes = StreamEditor.create().dropField(POINT, "x").dropField(POINT, "label")
+                .apply(STUtil.write(new Point(1, 2, "a")));
+        StreamEditor adder = StreamEditor.create()
+                .addField(POINT, "x", int.class, 7)
+                .addField(POINT, "label", String.class, "added")
+                .addField(POINT, "extra", List.class, Arrays.asList(1, 2));
+        byte[] added = adder.apply(bytes);
+        Point p = STUtil.read(added);
+        assertThat(p.x, is(7));
+        assertThat(p.y, is(2L));
+        assertThat(p.label, is("added"));
+        
+        // フィールドは ObjectStreamClass と同じ規則で並ぶ
+        ClassDescContent desc = ((ObjectContent) SerialStream.parse(added).contents().get(0)).classDesc();
+        List<String> names = new ArrayList<>();
+        desc.fields().forEach(f -> names.add(f.name()));
+        assertThat(names, is(Arrays.asList("x", "y", "extra", "label")));
+        
+        // 削除された値への後続の参照は保たれる
+        String shared = "shared";
+        Pair pair = STUtil.writeModifyAndRead(new Pair(shared, shared), StreamEditor.create().dropField(PAIR, "first"));
+        assertThat(pair.first, nullValue());
+        assertThat(pair.second, is("shared"));
+        
+        assertThat(of(() -> adder.apply(STUtil.write(new Point(1, 2, "a")))), raise(IllegalArgumentException.class));
+        assertThat(of(() -> StreamEditor.create().dropField(POINT, "z").apply(STUtil.write(new Point(1, 2, "a")))),
+                raise(IllegalArgumentException.class));
+        assertThat(of(() -> StreamEditor.create().addField(POINT, "z", int.class, "abc")), raise(IllegalArgumentException.class));
+        assertThat(of(() -> StreamEditor.create().addField(POINT, "z", int.class, null)), raise(NullPointerException.class));
+        assertThat(of(() -> StreamEditor.create().addField(POINT, "z", String.class, 1)), raise(IllegalArgumentException.class));
+        assertThat(of(() -> StreamEditor.create().addField(POINT, "z", void.class, null)), raise(IllegalArgumentException.class));
+    }
+    
+    @Test(timeout = 10000)
+    public void testSelfTypedValue() {
+        // 差し込む値が編集対象のクラスのインスタンスを含む場合も、値には編集計画が適用されない
+        Pair set = STUtil.writeModifyAndRead(new Pair("a", "b"),
+                StreamEditor.create().setField(PAIR, "first", new Pair("inner", null)));
+        assertThat(set.first, instanceOf(Pair.class));
+        assertThat(((Pair) set.first).first, is("inner"));
+        assertThat(((Pair) set.first).second, nullValue());
+        assertThat(set.second, is("b"));
+        
+        byte[] dropped = StreamEditor.create().dropField(PAIR, "first").apply(STUtil.write(new Pair("a", "b")));
+        Pair added = STUtil.read(StreamEditor.create()
+                .addField(PAIR, "first", Object.class, new Pair("inner", null)).apply(dropped));
+        assertThat(added.first, instanceOf(Pair.class));
+        assertThat(((Pair) added.first).first, is("inner"));
+        assertThat(((Pair) added.first).second, nullValue());
+        assertThat(added.second, is("b"));
+    }
+    
+    @Test
+    public void testConflicts() {
+        StreamEditor editor = StreamEditor.create().setField(POINT, "x", 1).renameClass(POINT, "A").setSerialVersionUID(POINT, 1L);
+        assertThat(of(() -> editor.setField(POINT, "x", 2)), raise(IllegalArgumentException.class));
+        assertThat(of(() -> editor.dropField(POINT, "x")), raise(IllegalArgumentException.class));
+        assertThat(of(() -> editor.addField(POINT, "x", int.class, 1)), raise(IllegalArgumentException.class));
+        assertThat(of(() -> editor.renameClass(POINT, "B")), raise(IllegalArgumentException.class));
+        assertThat(of(() -> editor.setSerialVersionUID(POINT, 2L)), raise(IllegalArgumentException.class));
+        
+        // 編集計画は不変である
+        assertThat(editor.dropField(POINT, "y"), not(sameInstance(editor)));
+        assertThat(editor.toString(), is("StreamEditor [setField(" + POINT + ".x = 1), renameClass(" + POINT
+                + " -> A), setSerialVersionUID(" + POINT + " = 1)]"));
+        
+        assertThat(of(() -> editor.setField(null, "x", 1)), raise(NullPointerException.class));
+        assertThat(of(() -> editor.setField(POINT, null, 1)), raise(NullPointerException.class));
+        assertThat(of(() -> editor.renameClass(PAIR, null)), raise(NullPointerException.class));
+    }
+}
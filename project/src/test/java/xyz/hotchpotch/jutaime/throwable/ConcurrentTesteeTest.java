@@ -0,0 +1,121 @@
+package xyz.hotchpotch.jutaime.throwable;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class ConcurrentTesteeTest {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private static final String MSG_NOT_TESTED = "I haven't yet been tested.";
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    @Test
+    public void testConcurrently() throws Throwable {
+        AtomicInteger count = new AtomicInteger();
+        ConcurrentTestee<Integer> testee = Testee.concurrently(4, count::incrementAndGet);
+        
+        // 最初の評価時にのみ実行される
+        assertThat(count.get(), is(0));
+        assertThat(testee.threads(), is(4));
+        List<Testee<Integer>> results = testee.results();
+        assertThat(count.get(), is(4));
+        assertThat(results.size(), is(4));
+        assertThat(testee.results(), sameInstance(results));
+        assertThat(count.get(), is(4));
+        
+        // 各スレッドの結果は実行済みの Testee として収集される
+        Set<Integer> values = new HashSet<>();
+        for (Testee<Integer> result : results) {
+            values.add(result.call());
+        }
+        assertThat(count.get(), is(4));
+        assertThat(values.size(), is(4));
+        
+        try {
+            results.set(0, null);
+            fail();
+        } catch (UnsupportedOperationException e) {
+            // OK
+        }
+    }
+    
+    @Test
+    public void testConcurrently2() {
+        // 全てのスレッドが揃ってから一斉に実行される
+        CountDownLatch latch = new CountDownLatch(8);
+        ConcurrentTestee<Void> testee = Testee.concurrently(8, () -> {
+            latch.countDown();
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException();
+            }
+        });
+        assertThat(testee.raisedCount(), is(0));
+        
+        // 各スレッドで実行される
+        Set<Thread> threads = new HashSet<>();
+        ConcurrentTestee<Thread> testee2 = Testee.concurrently(8, Thread::currentThread);
+        for (Testee<Thread> result : testee2.results()) {
+            try {
+                threads.add(result.call());
+            } catch (Throwable t) {
+                fail();
+            }
+        }
+        assertThat(threads.size(), is(8));
+        assertThat(threads.contains(Thread.currentThread()), is(false));
+    }
+    
+    @Test
+    public void testConcurrently3() {
+        try {
+            Testee.concurrently(0, () -> {});
+            fail();
+        } catch (IllegalArgumentException e) {
+            // OK
+        }
+        try {
+            Testee.concurrently(1, (UnsafeRunnable) null);
+            fail();
+        } catch (NullPointerException e) {
+            // OK
+        }
+        try {
+            Testee.concurrently(1, (UnsafeCallable<?>) null);
+            fail();
+        } catch (NullPointerException e) {
+            // OK
+        }
+    }
+    
+    @Test
+    public void testRaisedCount() {
+        AtomicInteger count = new AtomicInteger();
+        ConcurrentTestee<Void> testee = Testee.concurrently(6, () -> {
+            if (count.incrementAndGet() % 3 == 0) {
+                throw new IllegalStateException();
+            }
+        });
+        assertThat(testee.raisedCount(), is(2));
+        assertThat(count.get(), is(6));
+    }
+    
+    @Test
+    public void testToString() {
+        ConcurrentTestee<Void> testee = Testee.concurrently(2, () -> { throw new Error("msg"); });
+        assertThat(testee.toString(), is(MSG_NOT_TESTED));
+        
+        testee.results();
+        assertThat(testee.toString(), is("2 threads, 2 raised: [throw java.lang.Error (msg), throw java.lang.Error (msg)]"));
+    }
+}
@@ -0,0 +1,94 @@
+package xyz.hotchpotch.jutaime.throwable;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class DescriptionRendererTest {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private static final String TRUNCATED = DescriptionRenderer.TRUNCATED;
+    
+    private static String render(Object result) {
+        return DescriptionRenderer.renderResult(result, 100, 10_000);
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    @Test
+    public void testRenderResult1() {
+        // 上限以内の場合は Arrays.toString() および Arrays.deepToString() と同じ形式となる
+        assertThat(render(null), is("null"));
+        assertThat(render("abc"), is("abc"));
+        assertThat(render(new boolean[] { true, false }), is(Arrays.toString(new boolean[] { true, false })));
+        assertThat(render(new byte[] { -1, 2 }), is(Arrays.toString(new byte[] { -1, 2 })));
+        assertThat(render(new char[] { 'a', 'b' }), is(Arrays.toString(new char[] { 'a', 'b' })));
+        assertThat(render(new double[] { 1.5d, Double.NaN }), is(Arrays.toString(new double[] { 1.5d, Double.NaN })));
+        assertThat(render(new float[] { 1.5f, -0f }), is(Arrays.toString(new float[] { 1.5f, -0f })));
+        assertThat(render(new int[] {}), is(Arrays.toString(new int[] {})));
+        assertThat(render(new long[] { Long.MIN_VALUE }), is(Arrays.toString(new long[] { Long.MIN_VALUE })));
+        assertThat(render(new short[] { 1, 2 }), is(Arrays.toString(new short[] { 1, 2 })));
+        
+        Object[] nested = { new int[] { 1 }, new String[] { "a", null }, null, new Object[][] { {} } };
+        assertThat(render(nested), is(Arrays.deepToString(nested)));
+    }
+    
+    @Test
+    public void testRenderResult2() {
+        // 自分自身を含む配列
+        Object[] array = new Object[2];
+        array[0] = "a";
+        array[1] = array;
+        assertThat(render(array), is(Arrays.deepToString(array)));
+        assertThat(render(array), is("[a, [...]]"));
+    }
+    
+    @Test
+    public void testRenderResult3() {
+        // 要素数の上限
+        assertThat(DescriptionRenderer.renderResult(new int[] { 1, 2, 3, 4 }, 2, 10_000), is("[1, 2, ... (2 more)]"));
+        assertThat(DescriptionRenderer.renderResult(new int[] { 1, 2 }, 2, 10_000), is("[1, 2]"));
+        assertThat(DescriptionRenderer.renderResult(new Object[] { new int[] { 1, 2, 3 }, "a", "b" }, 2, 10_000),
+                is("[[1, 2, ... (1 more)], a, ... (1 more)]"));
+    }
+    
+    @Test
+    public void testRenderResult4() {
+        // 長さの上限
+        assertThat(DescriptionRenderer.renderResult("abcdef", 100, 6), is("abcdef"));
+        assertThat(DescriptionRenderer.renderResult("abcdef", 100, 3), is("abc" + TRUNCATED));
+        assertThat(DescriptionRenderer.renderResult(new int[] { 10, 20, 30 }, 100, 5), is("[10, " + TRUNCATED));
+        
+        char[] large = new char[1_000_000];
+        Arrays.fill(large, 'x');
+        String rendered = DescriptionRenderer.renderResult(new Object[] { new String(large) }, 100, 10);
+        assertThat(rendered, is("[xxxxxxxxx" + TRUNCATED));
+    }
+    
+    @Test
+    public void testRenderResult5() {
+        // toString() が例外をスローする場合
+        Object obj = new Object() {
+            @Override
+            public String toString() {
+                throw new RuntimeException();
+            }
+        };
+        Object[] array = { obj };
+        assertThat(render(array), is(array.getClass().getName() + "@" + Integer.toHexString(System.identityHashCode(array))));
+    }
+    
+    @Test
+    public void testRenderThrown() {
+        assertThat(DescriptionRenderer.renderThrown(ThrowableChain.of(new Error("a", new Exception())), 10_000),
+                is("throw java.lang.Error (a): java.lang.Exception (null)"));
+        assertThat(DescriptionRenderer.renderThrown(ThrowableChain.of(new Error("a", new Exception()), 1), 10_000),
+                is("throw java.lang.Error (a): ..."));
+        assertThat(DescriptionRenderer.renderThrown(ThrowableChain.of(new Error("a", new Exception())), 10),
+                is("throw java" + TRUNCATED));
+    }
+}
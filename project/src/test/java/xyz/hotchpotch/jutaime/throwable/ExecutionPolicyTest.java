@@ -0,0 +1,155 @@
+package xyz.hotchpotch.jutaime.throwable;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeMatcher;
+import org.junit.Test;
+
+import xyz.hotchpotch.jutaime.throwable.matchers.FusedChainMatcher;
+import xyz.hotchpotch.jutaime.throwable.matchers.Raise;
+import xyz.hotchpotch.jutaime.throwable.matchers.RootCause;
+
+public class ExecutionPolicyTest {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private static class TestMatcher extends TypeSafeMatcher<Testee<?>> {
+        private final List<String> log;
+        private final String name;
+        private final boolean result;
+        
+        private TestMatcher(List<String> log, String name, boolean result) {
+            this.log = log;
+            this.name = name;
+            this.result = result;
+        }
+        
+        @Override
+        protected boolean matchesSafely(Testee<?> testee) {
+            log.add(name);
+            return result;
+        }
+        
+        @Override
+        public void describeTo(Description description) {
+            description.appendText(name);
+        }
+    }
+    
+    private static class FailingMatcher extends TypeSafeMatcher<Testee<?>> {
+        @Override
+        protected boolean matchesSafely(Testee<?> testee) {
+            throw new IllegalStateException("failing");
+        }
+        
+        @Override
+        public void describeTo(Description description) {
+            description.appendText("failing");
+        }
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    @Test
+    public void testEstimateCost() {
+        Matcher<Testee<?>> fused = FusedChainMatcher.fuse(Arrays.asList(Raise.raise(Error.class)));
+        Matcher<Testee<?>> own = Raise.raise(Error.class);
+        Matcher<Testee<?>> own2 = RootCause.rootCause(Error.class);
+        Matcher<Testee<?>> hamcrest = not(Raise.raise(Error.class));
+        Matcher<Testee<?>> hamcrest2 = anyOf(Raise.raise(Error.class), RootCause.rootCause(Error.class));
+        Matcher<Testee<?>> custom = new TestMatcher(new ArrayList<>(), "custom", true);
+        
+        List<Matcher<Testee<?>>> matchers = new ArrayList<>(Arrays.asList(custom, hamcrest2, own2, hamcrest, own, fused));
+        matchers.sort(ExecutionPolicy.BY_COST);
+        assertThat(matchers, is(Arrays.asList(fused, own2, own, hamcrest2, hamcrest, custom)));
+    }
+    
+    @Test
+    public void testSequential() {
+        // 不合格が見つかった時点で打ち切られる
+        List<String> log = new ArrayList<>();
+        List<Matcher<Testee<?>>> matchers = Arrays.asList(
+                new TestMatcher(log, "1", true),
+                new TestMatcher(log, "2", false),
+                new TestMatcher(log, "3", true));
+        
+        assertThat(ExecutionPolicy.sequential().allMatch(matchers, Testee.of(() -> {})), is(false));
+        assertThat(log, is(Arrays.asList("1", "2")));
+        assertThat(ExecutionPolicy.sequential().allMatch(Collections.emptyList(), Testee.of(() -> {})), is(true));
+    }
+    
+    @Test
+    public void testParallel() {
+        List<String> log = Collections.synchronizedList(new ArrayList<>());
+        List<Matcher<Testee<?>>> matchers = Arrays.asList(
+                new TestMatcher(log, "1", true),
+                new TestMatcher(log, "2", true));
+        
+        assertThat(ExecutionPolicy.parallel(3).allMatch(matchers, Testee.of(() -> {})), is(true));
+        assertThat(ExecutionPolicy.parallel(2).allMatch(matchers, Testee.of(() -> {})), is(true));
+        assertThat(ExecutionPolicy.parallel(2).allMatch(
+                Arrays.asList(new TestMatcher(log, "3", true), new TestMatcher(log, "4", false)),
+                Testee.of(() -> {})), is(false));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testParallel2() {
+        ExecutionPolicy.parallel(1);
+    }
+    
+    @Test
+    public void testOn() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            ExecutionPolicy policy = ExecutionPolicy.on(executor);
+            List<String> log = Collections.synchronizedList(new ArrayList<>());
+            
+            assertThat(policy.allMatch(Arrays.asList(
+                    new TestMatcher(log, "1", true),
+                    new TestMatcher(log, "2", true),
+                    new TestMatcher(log, "3", true)), Testee.of(() -> {})), is(true));
+            assertThat(policy.allMatch(Arrays.asList(
+                    new TestMatcher(log, "4", true),
+                    new TestMatcher(log, "5", false)), Testee.of(() -> {})), is(false));
+            
+            try {
+                policy.allMatch(Arrays.asList(new TestMatcher(log, "6", true), new FailingMatcher()), Testee.of(() -> {}));
+                fail();
+            } catch (IllegalStateException e) {
+                assertThat(e.getMessage(), is("failing"));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test(expected = NullPointerException.class)
+    public void testOn2() {
+        ExecutionPolicy.on(null);
+    }
+    
+    @Test
+    public void testRaiseMatcherExecuteWith() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            RaiseMatcher matcher = RaiseMatchers.raise(Error.class)
+                    .not(RaiseMatchers.rootCause(IllegalStateException.class))
+                    .executeWith(ExecutionPolicy.on(executor));
+            
+            assertThat(Testee.of(() -> { throw new Error(new IllegalArgumentException()); }), matcher);
+            assertThat(Testee.of(() -> { throw new Error(new IllegalStateException()); }), not(matcher));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
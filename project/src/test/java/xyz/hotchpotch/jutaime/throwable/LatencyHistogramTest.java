@@ -0,0 +1,97 @@
+package xyz.hotchpotch.jutaime.throwable;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.time.Duration;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    @Test
+    public void testIndexOf() {
+        // LINEAR_RANGE 未満の値は正確に記録される
+        for (long v = 0; v < LatencyHistogram.LINEAR_RANGE; v++) {
+            assertThat(LatencyHistogram.highestValueOf(LatencyHistogram.indexOf(v)), is(v));
+        }
+        
+        // それ以上の値は、相対誤差 1/64 以内のバケットに記録される
+        Random random = new Random(0);
+        for (int i = 0; i < 100_000; i++) {
+            long v = (random.nextLong() >>> 1) >>> random.nextInt(63);
+            long highest = LatencyHistogram.highestValueOf(LatencyHistogram.indexOf(v));
+            assertThat(v <= highest, is(true));
+            assertThat((highest - v) <= v / 64, is(true));
+        }
+        assertThat(LatencyHistogram.highestValueOf(LatencyHistogram.indexOf(Long.MAX_VALUE)), is(Long.MAX_VALUE));
+        
+        // インデックスは値に対して単調増加する
+        int prev = -1;
+        for (long v = 0; v < 100_000; v++) {
+            int index = LatencyHistogram.indexOf(v);
+            assertThat(prev <= index, is(true));
+            prev = index;
+        }
+    }
+    
+    @Test
+    public void testEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        
+        assertThat(histogram.count(), is(0L));
+        assertThat(histogram.min(), is(Duration.ZERO));
+        assertThat(histogram.max(), is(Duration.ZERO));
+        assertThat(histogram.mean(), is(Duration.ZERO));
+        assertThat(histogram.percentile(99), is(Duration.ZERO));
+    }
+    
+    @Test
+    public void testRecord() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 100; v++) {
+            histogram.record(v);
+        }
+        histogram.record(-5);
+        
+        assertThat(histogram.count(), is(101L));
+        assertThat(histogram.min(), is(Duration.ZERO));
+        assertThat(histogram.max(), is(Duration.ofNanos(100)));
+        assertThat(histogram.mean(), is(Duration.ofNanos(5050 / 101)));
+        assertThat(histogram.percentile(0), is(Duration.ZERO));
+        assertThat(histogram.percentile(50), is(Duration.ofNanos(50)));
+        assertThat(histogram.percentile(100), is(Duration.ofNanos(100)));
+    }
+    
+    @Test
+    public void testPercentile() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 990; i++) {
+            histogram.record(1_000);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(1_000_000);
+        }
+        
+        // 値はバケットの上限に丸められるが、最大値を超えることはない
+        long p99 = histogram.percentile(99).toNanos();
+        assertThat(1_000 <= p99 && p99 <= 1_000 + 1_000 / 64, is(true));
+        assertThat(histogram.percentile(99.9), is(Duration.ofNanos(1_000_000)));
+        assertThat(histogram.percentile(100), is(Duration.ofNanos(1_000_000)));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testPercentile2() {
+        new LatencyHistogram().percentile(100.1);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testPercentile3() {
+        new LatencyHistogram().percentile(Double.NaN);
+    }
+}
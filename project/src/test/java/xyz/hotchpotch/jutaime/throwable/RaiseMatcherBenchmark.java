@@ -0,0 +1,87 @@
+package xyz.hotchpotch.jutaime.throwable;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * {@link RaiseMatcher} の実行ポリシーごとのスループットを計測する簡易ベンチマークです。<br>
+ * JUnit のテストクラスが並列実行される状況を模して、複数のスレッドからそれぞれ独立したアサーションを繰り返し評価します。<br>
+ * JUnit のテストスイートには含めず、{@code main} メソッドから手動で実行します。<br>
+ * <pre>
+ *     java xyz.hotchpotch.jutaime.throwable.RaiseMatcherBenchmark [threads] [assertionsPerThread] [rounds]
+ * </pre>
+ * 
+ * @author nmby
+ */
+public class RaiseMatcherBenchmark {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private interface PolicySupplier {
+        ExecutionPolicy get();
+    }
+    
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int assertions = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            System.out.printf("threads=%d, assertionsPerThread=%d, rounds=%d%n", threads, assertions, rounds);
+            for (int round = 1; round <= rounds; round++) {
+                System.out.printf("round %2d : sequential %8.1f ns/assert, parallel(2) %8.1f ns/assert, on(executor) %8.1f ns/assert%n",
+                        round,
+                        measure(threads, assertions, ExecutionPolicy::sequential),
+                        measure(threads, assertions, () -> ExecutionPolicy.parallel(2)),
+                        measure(threads, assertions, () -> ExecutionPolicy.on(executor)));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    /**
+     * 2つの安価な {@code Matcher} 句と1つの {@code not()} 句から成るアサーションを各スレッドで繰り返し評価します。<br>
+     * 
+     * @return 1アサーションあたりの平均所要時間（ナノ秒）
+     */
+    private static double measure(int threads, int assertions, PolicySupplier policy) throws Exception {
+        CyclicBarrier barrier = new CyclicBarrier(threads + 1);
+        Thread[] workers = new Thread[threads];
+        
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(() -> {
+                try {
+                    barrier.await();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                for (int n = 0; n < assertions; n++) {
+                    Testee<?> testee = Testee.of(() -> { throw new IllegalStateException("msg", new ArithmeticException()); });
+                    RaiseMatcher matcher = RaiseMatchers.raise(IllegalStateException.class, "msg")
+                            .rootCause(ArithmeticException.class)
+                            .not(RaiseMatchers.inChain(NullPointerException.class))
+                            .executeWith(policy.get());
+                    if (!matcher.matches(testee)) {
+                        throw new AssertionError();
+                    }
+                }
+            });
+            workers[i].start();
+        }
+        
+        barrier.await();
+        long start = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return (double) (System.nanoTime() - start) / ((long) threads * assertions);
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private RaiseMatcherBenchmark() {
+    }
+}
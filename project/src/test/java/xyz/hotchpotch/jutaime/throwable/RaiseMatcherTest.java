@@ -5,11 +5,17 @@ import static org.junit.Assert.*;
 
 import java.io.IOError;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Test;
 
 import xyz.hotchpotch.jutaime.throwable.matchers.InChainExact;
 import xyz.hotchpotch.jutaime.throwable.matchers.Raise;
+import xyz.hotchpotch.jutaime.throwable.matchers.RaiseExact;
 import xyz.hotchpotch.jutaime.throwable.matchers.RootCause;
 
 public class RaiseMatcherTest {
@@ -271,6 +277,69 @@ public class RaiseMatcherTest {
                 not(RaiseMatchers.inChain(Exception.class).and(RaiseMatchers.raiseExact(Error.class))));
     }
     
+    @Test
+    public void testAnd3() {
+        // 入れ子の RaiseMatcher は展開される
+        RaiseMatcher inner = RaiseMatchers.rootCause(Exception.class).inChain(IOException.class);
+        RaiseMatcher outer = RaiseMatchers.raiseExact(Error.class).and(inner);
+        
+        assertThat(outer.toString(), is(String.join(", ",
+                RaiseExact.raiseExact(Error.class).toString(),
+                inner.toString())));
+        assertThat(Testee.of(() -> { throw new Error(new IOException(new Exception())); }), outer);
+        assertThat(Testee.of(() -> { throw new Error(new IOException(new Error())); }), not(outer));
+        
+        // inner に対する以降の呼び出しは outer に影響しない
+        inner.noCause();
+        assertThat(Testee.of(() -> { throw new Error(new IOException(new Exception())); }), outer);
+    }
+    
+    @Test
+    public void testImmutable() {
+        // 各メソッドは元のオブジェクトを変更せず、新たなオブジェクトを返す
+        RaiseMatcher base = RaiseMatchers.raise(Exception.class);
+        RaiseMatcher derived1 = base.rootCause(IOException.class);
+        RaiseMatcher derived2 = base.noCause();
+        
+        assertThat(derived1, not(sameInstance(base)));
+        assertThat(derived2, not(sameInstance(derived1)));
+        assertThat(base.toString(), is(Raise.raise(Exception.class).toString()));
+        
+        Testee<?> testee = Testee.of(() -> { throw new Exception(new IOException()); });
+        assertThat(testee, base);
+        assertThat(testee, derived1);
+        assertThat(testee, not(derived2));
+        
+        // 実行ポリシーの変更も新たなオブジェクトを返す
+        RaiseMatcher parallel = derived1.executeWith(ExecutionPolicy.parallel(2));
+        assertThat(parallel, not(sameInstance(derived1)));
+        assertThat(parallel.toString(), is(derived1.toString()));
+        assertThat(testee, parallel);
+        assertThat(derived1.executeWith(ExecutionPolicy.sequential()), sameInstance(derived1));
+    }
+    
+    @Test
+    public void testShared() throws Exception {
+        // 共有されたオブジェクトを複数のスレッドから同時に利用できる
+        RaiseMatcher shared = RaiseMatchers.raise(IllegalStateException.class).inChain(IOException.class).rootCause(Error.class);
+        Testee<?> pass = Testee.of(() -> { throw new IllegalStateException(new IOException(new Error())); });
+        Testee<?> fail = Testee.of(() -> { throw new IllegalStateException(new IOException()); });
+        
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                futures.add(executor.submit(() -> shared.matches(pass) && !shared.matches(fail)
+                        && !shared.noCause().matches(pass)));
+            }
+            for (Future<Boolean> future : futures) {
+                assertThat(future.get(), is(true));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
     @Test(expected = IllegalArgumentException.class)
     public void testAnd2() {
         RaiseMatcher matcher = RaiseMatchers.inChain(Exception.class);
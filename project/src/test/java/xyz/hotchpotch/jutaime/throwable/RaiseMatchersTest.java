@@ -5,6 +5,7 @@ import static org.junit.Assert.*;
 
 import java.io.IOError;
 import java.io.IOException;
+import java.time.Duration;
 
 import org.junit.Test;
 
@@ -26,6 +27,22 @@ public class RaiseMatchersTest {
                 not(RaiseMatchers.raise(Exception.class)));
     }
     
+    @Test
+    public void testInterned() {
+        // 例外の型のみを指定する RaiseMatcher は型ごとに共有される
+        assertThat(RaiseMatchers.raise(Exception.class), sameInstance(RaiseMatchers.raise(Exception.class)));
+        assertThat(RaiseMatchers.raiseExact(Exception.class), sameInstance(RaiseMatchers.raiseExact(Exception.class)));
+        assertThat(RaiseMatchers.rootCause(Exception.class), sameInstance(RaiseMatchers.rootCause(Exception.class)));
+        assertThat(RaiseMatchers.rootCauseExact(Exception.class), sameInstance(RaiseMatchers.rootCauseExact(Exception.class)));
+        assertThat(RaiseMatchers.inChain(Exception.class), sameInstance(RaiseMatchers.inChain(Exception.class)));
+        assertThat(RaiseMatchers.inChainExact(Exception.class), sameInstance(RaiseMatchers.inChainExact(Exception.class)));
+        assertThat(RaiseMatchers.noCause(), sameInstance(RaiseMatchers.noCause()));
+        
+        assertThat(RaiseMatchers.raise(Exception.class), not(sameInstance(RaiseMatchers.raise(Error.class))));
+        assertThat(RaiseMatchers.raise(Exception.class), not(sameInstance(RaiseMatchers.raiseExact(Exception.class))));
+        assertThat(RaiseMatchers.raise(Exception.class, "msg"), not(sameInstance(RaiseMatchers.raise(Exception.class, "msg"))));
+    }
+    
     @Test
     public void testRaiseExactClass() {
         assertThat(RaiseMatchers.raiseExact(Exception.class), instanceOf(RaiseMatcher.class));
@@ -116,6 +133,39 @@ public class RaiseMatchersTest {
                 not(RaiseMatchers.noCause()));
     }
     
+    @Test
+    public void testRaisesWithin() {
+        assertThat(RaiseMatchers.raisesWithin(Duration.ofMinutes(1)), instanceOf(RaiseMatcher.class));
+        
+        assertThat(Testee.of(() -> { throw new IOException(); }),
+                RaiseMatchers.raisesWithin(Duration.ofMinutes(1)));
+        assertThat(Testee.of(() -> {}),
+                not(RaiseMatchers.raisesWithin(Duration.ofMinutes(1))));
+        
+        // 例外の型の検査と組み合わせる
+        assertThat(Testee.of(() -> { throw new IOException(); }),
+                RaiseMatchers.raise(IOException.class).raisesWithin(Duration.ofMinutes(1)));
+        assertThat(Testee.of(() -> {
+            Thread.sleep(50);
+            throw new IOException();
+        }), not(RaiseMatchers.raise(IOException.class).raisesWithin(Duration.ofMillis(10))));
+    }
+    
+    @Test
+    public void testCompletesWithin() {
+        assertThat(Testee.of(() -> 1), RaiseMatchers.completesWithin(Duration.ofMinutes(1)));
+        assertThat(Testee.of(() -> { throw new IOException(); }),
+                not(RaiseMatchers.completesWithin(Duration.ofMinutes(1))));
+    }
+    
+    @Test
+    public void testPercentileWithin() {
+        assertThat(Testee.of(() -> {}).repeated(100, 1_000),
+                allOf(RaiseMatchers.percentileWithin(99, Duration.ofSeconds(10)), RaiseMatchers.raiseInNoRun()));
+        assertThat(Testee.of(() -> { throw new IOException(); }).repeated(0, 10),
+                not(allOf(RaiseMatchers.percentileWithin(99, Duration.ofSeconds(10)), RaiseMatchers.raiseInNoRun())));
+    }
+    
     @Test
     public void testRootCauseClass() {
         assertThat(RaiseMatchers.rootCause(Exception.class), instanceOf(RaiseMatcher.class));
@@ -0,0 +1,76 @@
+package xyz.hotchpotch.jutaime.throwable;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class RepeatedTesteeTest {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private static final String MSG_NOT_TESTED = "I haven't yet been tested.";
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    @Test
+    public void testRepeated() {
+        AtomicInteger count = new AtomicInteger();
+        RepeatedTestee<?> testee = Testee.of(count::incrementAndGet).repeated(10, 100);
+        
+        // 最初の評価時にのみ実行される
+        assertThat(count.get(), is(0));
+        assertThat(testee.warmupRuns(), is(10));
+        assertThat(testee.measuredRuns(), is(100));
+        assertThat(testee.histogram().count(), is(100L));
+        assertThat(count.get(), is(110));
+        assertThat(testee.raisedRuns(), is(0L));
+        assertThat(testee.firstThrown(), nullValue());
+        assertThat(count.get(), is(110));
+    }
+    
+    @Test
+    public void testRepeated2() {
+        // 例外をスローした回も記録される。ウォームアップ実行は記録されない。
+        AtomicInteger count = new AtomicInteger();
+        RepeatedTestee<?> testee = Testee.of(() -> {
+            int n = count.incrementAndGet();
+            if (n % 2 == 0) {
+                throw new IllegalStateException(String.valueOf(n));
+            }
+        }).repeated(2, 10);
+        
+        assertThat(testee.histogram().count(), is(10L));
+        assertThat(testee.raisedRuns(), is(5L));
+        assertThat(testee.firstThrown(), instanceOf(IllegalStateException.class));
+        assertThat(testee.firstThrown().getMessage(), is("4"));
+    }
+    
+    @Test
+    public void testRepeated3() {
+        try {
+            Testee.of(() -> {}).repeated(-1, 1);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // OK
+        }
+        try {
+            Testee.of(() -> {}).repeated(0, 0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // OK
+        }
+    }
+    
+    @Test
+    public void testToString() {
+        RepeatedTestee<?> testee = Testee.of(() -> { throw new Error("msg"); }).repeated(0, 3);
+        assertThat(testee.toString(), is(MSG_NOT_TESTED));
+        
+        testee.histogram();
+        assertThat(testee.toString(), is(String.format("3 runs (0 warmup), 3 raised, %s, first raised java.lang.Error (msg)",
+                testee.histogram())));
+    }
+}
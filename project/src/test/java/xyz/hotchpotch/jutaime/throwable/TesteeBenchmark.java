@@ -0,0 +1,108 @@
+package xyz.hotchpotch.jutaime.throwable;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.function.Supplier;
+
+/**
+ * ひとつの {@link Testee} を多数のスレッドから同時に評価した場合のスループットを計測する簡易ベンチマークです。<br>
+ * JUnit のテストスイートには含めず、{@code main} メソッドから手動で実行します。<br>
+ * <pre>
+ *     java xyz.hotchpotch.jutaime.throwable.TesteeBenchmark [threads] [callsPerThread] [rounds]
+ * </pre>
+ * 比較対象として、従来の {@code synchronized} 実装と同等のメモ化を行う {@code SynchronizedCallable} も計測します。<br>
+ * 
+ * @author nmby
+ */
+public class TesteeBenchmark {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /** 従来の {@code Testee#call()} と同じく、モニタで保護されたメモ化を行う比較用の実装 */
+    private static class SynchronizedCallable<T> implements UnsafeCallable<T> {
+        private final UnsafeCallable<? extends T> operation;
+        private boolean isVirgin = true;
+        private T result;
+        private Throwable thrown;
+        
+        private SynchronizedCallable(UnsafeCallable<? extends T> operation) {
+            this.operation = operation;
+        }
+        
+        @Override
+        public synchronized T call() throws Throwable {
+            if (isVirgin) {
+                isVirgin = false;
+                try {
+                    result = operation.call();
+                } catch (Throwable t) {
+                    thrown = t;
+                }
+            }
+            if (thrown != null) {
+                throw thrown;
+            } else {
+                return result;
+            }
+        }
+    }
+    
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int calls = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        
+        System.out.printf("threads=%d, callsPerThread=%d, rounds=%d%n", threads, calls, rounds);
+        for (int round = 1; round <= rounds; round++) {
+            long lockFree = measure(threads, calls, () -> Testee.of(() -> { throw new IllegalStateException(); }));
+            long monitor = measure(threads, calls,
+                    () -> new SynchronizedCallable<>(() -> { throw new IllegalStateException(); }));
+            System.out.printf("round %2d : lock-free %8.2f ns/call, synchronized %8.2f ns/call%n",
+                    round, (double) lockFree / calls, (double) monitor / calls);
+        }
+    }
+    
+    /**
+     * {@code threads} 個のスレッドを同時に開始し、共有された1つの {@code UnsafeCallable} を各 {@code calls} 回ずつ評価します。<br>
+     * 
+     * @return 全スレッドの経過時間（ナノ秒）の最大値
+     */
+    private static long measure(int threads, int calls, Supplier<UnsafeCallable<?>> factory) throws Exception {
+        UnsafeCallable<?> target = factory.get();
+        CyclicBarrier barrier = new CyclicBarrier(threads);
+        long[] elapsed = new long[threads];
+        Thread[] workers = new Thread[threads];
+        
+        for (int i = 0; i < threads; i++) {
+            int idx = i;
+            workers[i] = new Thread(() -> {
+                try {
+                    barrier.await();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                long start = System.nanoTime();
+                for (int n = 0; n < calls; n++) {
+                    try {
+                        target.call();
+                    } catch (Throwable expected) {
+                        // 例外がスローされることを前提とした計測であるため、無視する。
+                    }
+                }
+                elapsed[idx] = System.nanoTime() - start;
+            });
+            workers[i].start();
+        }
+        
+        long max = 0;
+        for (int i = 0; i < threads; i++) {
+            workers[i].join();
+            max = Math.max(max, elapsed[i]);
+        }
+        return max;
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private TesteeBenchmark() {
+    }
+}
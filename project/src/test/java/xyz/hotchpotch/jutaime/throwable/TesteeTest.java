@@ -4,12 +4,20 @@ import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.*;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
 import java.util.Date;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Test;
 
@@ -151,6 +159,157 @@ public class TesteeTest {
         assertThat(thrown1.getMessage(), is(thrown2.getMessage()));
     }
     
+    @Test
+    public void testCall8() throws Throwable {
+        // 複数スレッドから同時に呼び出されてもオペレーションは一度だけ実行されることの確認
+        int threads = 16;
+        AtomicInteger count = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        Testee<Integer> testee = Testee.of(() -> {
+            Thread.sleep(10);
+            return count.incrementAndGet();
+        });
+        
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            Future<?>[] futures = new Future<?>[threads];
+            for (int i = 0; i < threads; i++) {
+                futures[i] = executor.submit(() -> {
+                    start.await();
+                    try {
+                        return testee.call();
+                    } catch (Throwable t) {
+                        throw new AssertionError(t);
+                    }
+                });
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                assertThat(future.get(), is(1));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(count.get(), is(1));
+        assertThat(testee.toString(), is("1"));
+    }
+    
+    @Test
+    public void testThrownChain() {
+        // 正常終了の場合は null
+        assertThat(Testee.of(() -> {}).thrownChain(), nullValue());
+        assertThat(Testee.of(() -> 1).thrownChain(), nullValue());
+        
+        // 例外スローの場合はスナップショットが一度だけ作成される。
+        Throwable t = new Error("1", new Exception("2"));
+        Testee<?> testee = Testee.of(() -> { throw t; });
+        ThrowableChain chain = testee.thrownChain();
+        assertThat(chain.size(), is(2));
+        assertThat(chain.get(0), sameInstance(t));
+        assertThat(testee.thrownChain(), sameInstance(chain));
+    }
+    
+    @Test
+    public void testWithMaxChainDepth() throws Throwable {
+        Throwable t = new Error("1", new Exception("2", new RuntimeException("3")));
+        Testee<?> testee = Testee.of(() -> { throw t; }).withMaxChainDepth(2);
+        
+        assertThat(testee.thrownChain().size(), is(2));
+        assertThat(testee.thrownChain().isTruncated(), is(true));
+        innerTestToString4(testee, "throw java.lang.Error (1): java.lang.Exception (2): ...");
+        
+        try {
+            Testee.of(() -> {}).withMaxChainDepth(0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // OK
+        }
+    }
+    
+    @Test
+    public void testWithDescriptionLimits() throws Throwable {
+        int[] large = new int[1_000_000];
+        innerTestToString2(Testee.of(() -> large).withDescriptionLimits(3, 100), "[0, 0, 0, ... (999997 more)]");
+        innerTestToString2(Testee.of(() -> "abcdefghij").withDescriptionLimits(3, 5), "abcde" + DescriptionRenderer.TRUNCATED);
+        innerTestToString4(Testee.of(() -> { throw new Error("abcdefghij"); }).withDescriptionLimits(3, 20),
+                "throw java.lang.Erro" + DescriptionRenderer.TRUNCATED);
+        
+        try {
+            Testee.of(() -> {}).withDescriptionLimits(0, 1);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // OK
+        }
+        try {
+            Testee.of(() -> {}).withDescriptionLimits(1, 0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // OK
+        }
+    }
+    
+    @Test
+    public void testToStringLazily() throws Throwable {
+        // 文字列表現は toString() の初回呼び出し時にのみ作成される
+        AtomicInteger count = new AtomicInteger();
+        Object result = new Object() {
+            @Override
+            public String toString() {
+                return String.valueOf(count.incrementAndGet());
+            }
+        };
+        Testee<?> testee = Testee.of(() -> result);
+        
+        testee.call();
+        testee.call();
+        assertThat(count.get(), is(0));
+        assertThat(testee.toString(), is("1"));
+        assertThat(testee.toString(), is("1"));
+        assertThat(count.get(), is(1));
+    }
+    
+    @Test
+    public void testElapsedTime() throws Throwable {
+        // 正常終了、例外スローのいずれの場合も記録される
+        Testee<?> testee1 = Testee.of(() -> Thread.sleep(20));
+        assertThat(testee1.elapsedTime().toMillis() >= 20, is(true));
+        assertThat(testee1.elapsedTime(), is(testee1.elapsedTime()));
+        
+        Testee<?> testee2 = Testee.of(() -> {
+            Thread.sleep(20);
+            throw new Exception();
+        });
+        assertThat(testee2.elapsedTime().toMillis() >= 20, is(true));
+        assertThat(testee2.thrownChain(), notNullValue());
+        
+        // オペレーションの中から呼び出された場合は null
+        AtomicReference<Testee<?>> self = new AtomicReference<>();
+        AtomicReference<Duration> inner = new AtomicReference<>(Duration.ZERO);
+        Testee<?> testee3 = Testee.of(() -> inner.set(self.get().elapsedTime()));
+        self.set(testee3);
+        testee3.call();
+        assertThat(inner.get(), nullValue());
+    }
+    
+    @Test
+    public void testCpuTime() throws Throwable {
+        Testee<?> testee = Testee.of(() -> {
+            long sum = 0;
+            for (int i = 0; i < 1_000_000; i++) {
+                sum += i;
+            }
+            return sum;
+        });
+        Duration cpu = testee.cpuTime();
+        if (ManagementFactory.getThreadMXBean().isCurrentThreadCpuTimeSupported()
+                && ManagementFactory.getThreadMXBean().isThreadCpuTimeEnabled()) {
+            assertThat(cpu, notNullValue());
+            assertThat(cpu.isNegative(), is(false));
+        } else {
+            assertThat(cpu, nullValue());
+        }
+    }
+    
     @Test
     public void testToString1() {
         // 未実行の場合
@@ -0,0 +1,97 @@
+package xyz.hotchpotch.jutaime.throwable;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+public class ThrowableChainTest {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    @Test(expected = NullPointerException.class)
+    public void testOf1() {
+        ThrowableChain.of(null);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testOf2() {
+        ThrowableChain.of(new Error(), 0);
+    }
+    
+    @Test
+    public void testNoCause() {
+        Throwable t = new IOException("1");
+        ThrowableChain chain = ThrowableChain.of(t);
+        
+        assertThat(chain.size(), is(1));
+        assertThat(chain.get(0), sameInstance(t));
+        assertThat(chain.typeAt(0), sameInstance((Object) IOException.class));
+        assertThat(chain.messageAt(0), is("1"));
+        assertThat(chain.isLooped(), is(false));
+        assertThat(chain.loopIndex(), is(-1));
+        assertThat(chain.isTruncated(), is(false));
+        assertThat(chain.isTerminated(), is(true));
+        assertThat(chain.hasCause(), is(false));
+    }
+    
+    @Test
+    public void testLinear() {
+        Throwable t3 = new IllegalArgumentException((String) null);
+        Throwable t2 = new UnsupportedOperationException("2", t3);
+        Throwable t1 = new IOException("1", t2);
+        ThrowableChain chain = ThrowableChain.of(t1);
+        
+        assertThat(chain.size(), is(3));
+        assertThat(chain.get(1), sameInstance(t2));
+        assertThat(chain.get(2), sameInstance(t3));
+        assertThat(chain.messageAt(2), nullValue());
+        assertThat(chain.isTerminated(), is(true));
+        assertThat(chain.hasCause(), is(true));
+    }
+    
+    @Test
+    public void testLoop() {
+        // 1 -> 2 -> 3 -> 2... というループの場合
+        Throwable t1 = new IOException("1");
+        Throwable t2 = new UnsupportedOperationException("2");
+        Throwable t3 = new IllegalArgumentException("3");
+        t1.initCause(t2);
+        t2.initCause(t3);
+        t3.initCause(t2);
+        ThrowableChain chain = ThrowableChain.of(t1);
+        
+        assertThat(chain.size(), is(3));
+        assertThat(chain.isLooped(), is(true));
+        assertThat(chain.loopIndex(), is(1));
+        assertThat(chain.isTruncated(), is(false));
+        assertThat(chain.isTerminated(), is(false));
+    }
+    
+    @Test
+    public void testMaxDepth() {
+        Throwable t = new Error("3");
+        for (int i = 0; i < 20; i++) {
+            t = new Error(String.valueOf(i), t);
+        }
+        
+        ThrowableChain chain = ThrowableChain.of(t, 5);
+        assertThat(chain.size(), is(5));
+        assertThat(chain.isTruncated(), is(true));
+        assertThat(chain.isTerminated(), is(false));
+        assertThat(chain.hasCause(), is(true));
+        
+        assertThat(ThrowableChain.of(t).size(), is(21));
+        assertThat(ThrowableChain.of(t, 21).isTruncated(), is(false));
+        assertThat(ThrowableChain.of(new Error(new Error()), 1).hasCause(), is(true));
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGet() {
+        ThrowableChain.of(new Error()).get(1);
+    }
+}
@@ -0,0 +1,75 @@
+package xyz.hotchpotch.jutaime.throwable.matchers;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hamcrest.Matcher;
+import org.junit.Test;
+
+import xyz.hotchpotch.jutaime.throwable.ConcurrentTestee;
+import xyz.hotchpotch.jutaime.throwable.RaiseMatchers;
+import xyz.hotchpotch.jutaime.throwable.Testee;
+
+public class AllRaiseTest {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    @Test
+    public void testAllRaise() {
+        // インスタンス化の検査
+        assertThat(AllRaise.allRaise(Exception.class), instanceOf(AllRaise.class));
+        assertThat(AllRaise.allRaise(Raise.raise(Exception.class)), instanceOf(AllRaise.class));
+        
+        try {
+            AllRaise.allRaise((Class<? extends Throwable>) null);
+            fail();
+        } catch (NullPointerException e) {
+            // OK
+        }
+        try {
+            AllRaise.allRaise((Matcher<Testee<?>>) null);
+            fail();
+        } catch (NullPointerException e) {
+            // OK
+        }
+    }
+    
+    @Test
+    public void testMatchesSafelyTestee() {
+        assertThat(Testee.concurrently(4, () -> { throw new IllegalStateException(); }),
+                AllRaise.allRaise(RuntimeException.class));
+        assertThat(Testee.concurrently(4, () -> { throw new IllegalStateException(); }),
+                not(AllRaise.allRaise(NullPointerException.class)));
+        assertThat(Testee.concurrently(4, () -> {}), not(AllRaise.allRaise(Throwable.class)));
+        
+        // 1 スレッドだけ正常終了した場合は不合格と判定する
+        AtomicInteger count = new AtomicInteger();
+        ConcurrentTestee<Void> testee = Testee.concurrently(4, () -> {
+            if (count.incrementAndGet() != 1) {
+                throw new IllegalStateException();
+            }
+        });
+        assertThat(testee, not(AllRaise.allRaise(IllegalStateException.class)));
+        
+        // RaiseMatcher と組み合わせることができる
+        assertThat(Testee.concurrently(4, () -> { throw new RuntimeException(new InterruptedException()); }),
+                AllRaise.allRaise(RaiseMatchers.raise(RuntimeException.class).rootCause(InterruptedException.class)));
+    }
+    
+    @Test
+    public void testDescribeTo() {
+        assertThat(AllRaise.allRaise(RuntimeException.class).toString(),
+                is("in all threads: throw <java.lang.RuntimeException>"));
+        
+        try {
+            // null を与えても安全に終了する。
+            AllRaise.allRaise(RuntimeException.class).describeTo(null);
+        } catch (NullPointerException e) {
+            fail();
+        }
+    }
+}
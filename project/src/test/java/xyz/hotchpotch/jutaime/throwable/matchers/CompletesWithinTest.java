@@ -0,0 +1,69 @@
+package xyz.hotchpotch.jutaime.throwable.matchers;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.time.Duration;
+
+import org.hamcrest.StringDescription;
+import org.junit.Test;
+
+import xyz.hotchpotch.jutaime.throwable.Testee;
+
+public class CompletesWithinTest {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    @Test
+    public void testCompletesWithin() {
+        // インスタンス化の検査
+        assertThat(CompletesWithin.completesWithin(Duration.ZERO), instanceOf(CompletesWithin.class));
+        assertThat(CompletesWithin.completesWithin(Duration.ofSeconds(1)), instanceOf(CompletesWithin.class));
+    }
+    
+    @Test(expected = NullPointerException.class)
+    public void testCompletesWithin2() {
+        CompletesWithin.completesWithin(null);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompletesWithin3() {
+        CompletesWithin.completesWithin(Duration.ofMillis(-1));
+    }
+    
+    @Test
+    public void testMatchesSafelyTestee() {
+        // 時間内に正常終了した場合は合格と判定する。
+        assertThat(Testee.of(() -> {}), CompletesWithin.completesWithin(Duration.ofMinutes(1)));
+        assertThat(Testee.of(() -> 1 + 2), CompletesWithin.completesWithin(Duration.ofMinutes(1)));
+        
+        // 時間を超過した場合は不合格と判定する。
+        assertThat(Testee.of(() -> Thread.sleep(50)), not(CompletesWithin.completesWithin(Duration.ofMillis(10))));
+        
+        // 例外スローの場合は時間内であっても不合格と判定する。
+        assertThat(Testee.of(() -> { throw new Exception(); }), not(CompletesWithin.completesWithin(Duration.ofMinutes(1))));
+    }
+    
+    @Test
+    public void testDescribeMismatch() {
+        Testee<?> testee = Testee.of(() -> 123);
+        testee.elapsedTime();
+        StringDescription description = new StringDescription();
+        CompletesWithin.completesWithin(Duration.ZERO).describeMismatch(testee, description);
+        assertThat(description.toString(), is(String.format("was <123> after %s", testee.elapsedTime())));
+    }
+    
+    @Test
+    public void testDescribeTo() {
+        assertThat(CompletesWithin.completesWithin(Duration.ofMillis(1500)).toString(), is("completes within PT1.5S"));
+        
+        try {
+            // null を与えても安全に終了する。
+            CompletesWithin.completesWithin(Duration.ZERO).describeTo(null);
+        } catch (NullPointerException e) {
+            fail();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package xyz.hotchpotch.jutaime.throwable.matchers;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeMatcher;
+import org.junit.Test;
+
+import xyz.hotchpotch.jutaime.throwable.Testee;
+
+public class FusedChainMatcherTest {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private static class TestMatcher extends TypeSafeMatcher<Throwable> {
+        private final List<Throwable> given = new ArrayList<>();
+        private final Class<?> type;
+        
+        private TestMatcher(Class<?> type) {
+            this.type = type;
+        }
+        
+        @Override
+        protected boolean matchesSafely(Throwable t) {
+            given.add(t);
+            return type.isInstance(t);
+        }
+        
+        @Override
+        public void describeTo(Description description) {
+            description.appendText("I'm TestMatcher.");
+        }
+    }
+    
+    // 可変長引数の配列を他のメソッドに渡さないよう、要素をリストに詰め替えてから渡す。
+    @SafeVarargs
+    private static FusedChainMatcher fuse(Matcher<Testee<?>>... matchers) {
+        List<Matcher<Testee<?>>> list = new ArrayList<>(matchers.length);
+        for (Matcher<Testee<?>> matcher : matchers) {
+            list.add(matcher);
+        }
+        return FusedChainMatcher.fuse(list);
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    @Test
+    public void testIsFusible() {
+        assertThat(FusedChainMatcher.isFusible(Raise.raise(Exception.class)), is(true));
+        assertThat(FusedChainMatcher.isFusible(RootCauseExact.rootCauseExact(Exception.class)), is(true));
+        assertThat(FusedChainMatcher.isFusible(InChain.inChain("msg")), is(true));
+        assertThat(FusedChainMatcher.isFusible(NoCause.noCause()), is(true));
+        assertThat(FusedChainMatcher.isFusible(RaiseNothing.raiseNothing()), is(false));
+        assertThat(FusedChainMatcher.isFusible(not(Raise.raise(Exception.class))), is(false));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testFuse1() {
+        FusedChainMatcher.fuse(Collections.emptyList());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testFuse2() {
+        fuse(Raise.raise(Exception.class), RaiseNothing.raiseNothing());
+    }
+    
+    @Test
+    public void testMatchesSafely1() {
+        Testee<?> testee = Testee.of(() -> { throw new Error("1", new IOException("2", new IllegalStateException("3"))); });
+        
+        assertThat(testee, fuse(Raise.raise(Error.class, "1"),
+                InChain.inChain(IOException.class),
+                InChainExact.inChainExact(IllegalStateException.class, "3"),
+                RootCause.rootCause(RuntimeException.class)));
+        
+        assertThat(testee, not(fuse(Raise.raise(IOException.class), InChain.inChain(IOException.class))));
+        assertThat(testee, not(fuse(InChain.inChain(IOException.class), InChain.inChain(NullPointerException.class))));
+        assertThat(testee, not(fuse(InChain.inChain(IOException.class), RootCause.rootCause("2"))));
+        assertThat(testee, not(fuse(Raise.raise(Error.class), NoCause.noCause())));
+        
+        // 正常終了時は不合格
+        assertThat(Testee.of(() -> {}), not(fuse(InChain.inChain(Throwable.class))));
+    }
+    
+    @Test
+    public void testMatchesSafely2() {
+        // 全ての inChain 検査が合格した時点で走査を打ち切る
+        Throwable t3 = new IllegalStateException("3");
+        Throwable t2 = new IOException("2", t3);
+        Throwable t1 = new Error("1", t2);
+        TestMatcher testMatcher1 = new TestMatcher(Error.class);
+        TestMatcher testMatcher2 = new TestMatcher(IOException.class);
+        
+        assertThat(Testee.of(() -> { throw t1; }),
+                fuse(InChain.inChain(testMatcher1), InChain.inChain(testMatcher2)));
+        assertThat(testMatcher1.given, is(Arrays.asList(t1)));
+        assertThat(testMatcher2.given, is(Arrays.asList(t1, t2)));
+    }
+    
+    @Test
+    public void testMatchesSafely3() {
+        // ループしている場合は rootCause は不合格、inChain は重複なく評価される
+        Throwable t1 = new IOException("1");
+        Throwable t2 = new UnsupportedOperationException("2");
+        t1.initCause(t2);
+        t2.initCause(t1);
+        
+        assertThat(Testee.of(() -> { throw t1; }), not(fuse(RootCause.rootCause(Throwable.class))));
+        assertThat(Testee.of(() -> { throw t1; }), not(fuse(NoCause.noCause())));
+        assertThat(Testee.of(() -> { throw t1; }), fuse(Raise.raise(IOException.class), InChain.inChain("2")));
+    }
+    
+    @Test
+    public void testDescribeTo() {
+        assertThat(fuse(Raise.raise(Exception.class), NoCause.noCause()).toString(),
+                is(Raise.raise(Exception.class).toString() + ", " + NoCause.noCause().toString()));
+        
+        try {
+            // null を与えても安全に終了する。
+            fuse(NoCause.noCause()).describeTo(null);
+        } catch (RuntimeException e) {
+            fail();
+        }
+    }
+}
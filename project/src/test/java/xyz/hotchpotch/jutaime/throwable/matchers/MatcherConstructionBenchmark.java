@@ -0,0 +1,101 @@
+package xyz.hotchpotch.jutaime.throwable.matchers;
+
+import java.util.Objects;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeMatcher;
+
+import xyz.hotchpotch.jutaime.throwable.RaiseMatchers;
+import xyz.hotchpotch.jutaime.throwable.Testee;
+import xyz.hotchpotch.jutaime.throwable.ThrowableChain;
+
+/**
+ * 大量の {@code Matcher} を生成する際のコストを計測する簡易ベンチマークです。<br>
+ * パラメータ化されたテストが {@code raise(...)}、{@code rootCause(...)}、{@code inChain(...)} を
+ * 繰り返し呼び出す状況を模しています。<br>
+ * 比較の基準として、検査対象の型をリフレクションで探索していた 1.5.0 より前の {@code raise(...)} の生成処理も計測します。<br>
+ * JUnit のテストスイートには含めず、{@code main} メソッドから手動で実行します。<br>
+ * <pre>
+ *     java xyz.hotchpotch.jutaime.throwable.matchers.MatcherConstructionBenchmark [matchers] [rounds]
+ * </pre>
+ * 
+ * @author nmby
+ */
+public class MatcherConstructionBenchmark {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    // 生成した Matcher が最適化により除去されないようにするための変数
+    private static volatile Object sink;
+    
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 3_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        
+        System.out.printf("matchers=%d, rounds=%d%n", count, rounds);
+        for (int round = 1; round <= rounds; round++) {
+            System.out.printf("round %2d : baseline %6.1f ns/matcher, raise %6.1f ns/matcher, rootCause %6.1f ns/matcher, inChain %6.1f ns/matcher, chained %6.1f ns/matcher%n",
+                    round,
+                    measure(count, () -> new ReflectiveRaise(IllegalArgumentException.class, "msg")),
+                    measure(count, () -> Raise.raise(IllegalArgumentException.class, "msg")),
+                    measure(count, () -> RootCause.rootCause(IllegalStateException.class)),
+                    measure(count, () -> InChain.inChain(NullPointerException.class)),
+                    measure(count, () -> RaiseMatchers.raise(IllegalArgumentException.class)
+                            .rootCause(IllegalStateException.class)
+                            .inChain(NullPointerException.class)));
+        }
+    }
+    
+    private interface MatcherFactory {
+        Matcher<Testee<?>> create();
+    }
+    
+    private static double measure(int count, MatcherFactory factory) {
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            sink = factory.create();
+        }
+        return (double) (System.nanoTime() - start) / count;
+    }
+    
+    /**
+     * 1.5.0 より前の {@code raise(Class, String)} の生成処理を再現した {@code Matcher} です。<br>
+     * 外側の {@code Matcher} と、型とメッセージを検査する内側の {@code Matcher} の両方を {@code TypeSafeMatcher} のデフォルトコンストラクタで生成するため、
+     * 生成のたびに検査対象の型がリフレクションで探索されます。<br>
+     */
+    private static class ReflectiveRaise extends TypeSafeMatcher<Testee<?>> {
+        private final Matcher<Throwable> matcher;
+        
+        private ReflectiveRaise(Class<? extends Throwable> expectedType, String expectedMessage) {
+            matcher = new TypeSafeMatcher<Throwable>() {
+                @Override
+                protected boolean matchesSafely(Throwable actual) {
+                    return expectedType.isAssignableFrom(actual.getClass())
+                            && Objects.equals(expectedMessage, actual.getMessage());
+                }
+                
+                @Override
+                public void describeTo(Description description) {
+                    description.appendText(String.format("%s (%s)", expectedType.getName(), expectedMessage));
+                }
+            };
+        }
+        
+        @Override
+        protected boolean matchesSafely(Testee<?> testee) {
+            ThrowableChain chain = testee.thrownChain();
+            return chain != null && matcher.matches(chain.get(0));
+        }
+        
+        @Override
+        public void describeTo(Description description) {
+            description.appendText(String.format("raise <%s>", matcher));
+        }
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private MatcherConstructionBenchmark() {
+    }
+}
@@ -0,0 +1,62 @@
+package xyz.hotchpotch.jutaime.throwable.matchers;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.time.Duration;
+
+import org.junit.Test;
+
+import xyz.hotchpotch.jutaime.throwable.Testee;
+
+public class PercentileWithinTest {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    @Test
+    public void testPercentileWithin() {
+        // インスタンス化の検査
+        assertThat(PercentileWithin.percentileWithin(0, Duration.ZERO), instanceOf(PercentileWithin.class));
+        assertThat(PercentileWithin.percentileWithin(100, Duration.ofSeconds(1)), instanceOf(PercentileWithin.class));
+    }
+    
+    @Test(expected = NullPointerException.class)
+    public void testPercentileWithin2() {
+        PercentileWithin.percentileWithin(99, null);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testPercentileWithin3() {
+        PercentileWithin.percentileWithin(-1, Duration.ZERO);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testPercentileWithin4() {
+        PercentileWithin.percentileWithin(99, Duration.ofMillis(-1));
+    }
+    
+    @Test
+    public void testMatchesSafelyTestee() {
+        assertThat(Testee.of(() -> {}).repeated(10, 100), PercentileWithin.percentileWithin(99, Duration.ofSeconds(10)));
+        assertThat(Testee.of(() -> Thread.sleep(2)).repeated(0, 5), not(PercentileWithin.percentileWithin(50, Duration.ofMillis(1))));
+        
+        // 例外をスローした回も集計される
+        assertThat(Testee.of(() -> { throw new Exception(); }).repeated(0, 10),
+                PercentileWithin.percentileWithin(99, Duration.ofSeconds(10)));
+    }
+    
+    @Test
+    public void testDescribeTo() {
+        assertThat(PercentileWithin.percentileWithin(99, Duration.ofMillis(2)).toString(), is("p99 within PT0.002S"));
+        assertThat(PercentileWithin.percentileWithin(99.9, Duration.ofMillis(2)).toString(), is("p99.9 within PT0.002S"));
+        
+        try {
+            // null を与えても安全に終了する。
+            PercentileWithin.percentileWithin(99, Duration.ZERO).describeTo(null);
+        } catch (NullPointerException e) {
+            fail();
+        }
+    }
+}
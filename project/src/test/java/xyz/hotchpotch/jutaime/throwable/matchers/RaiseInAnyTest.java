@@ -0,0 +1,89 @@
+package xyz.hotchpotch.jutaime.throwable.matchers;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+import org.junit.Test;
+
+import xyz.hotchpotch.jutaime.throwable.ConcurrentTestee;
+import xyz.hotchpotch.jutaime.throwable.RaiseMatchers;
+import xyz.hotchpotch.jutaime.throwable.Testee;
+
+public class RaiseInAnyTest {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private static ConcurrentTestee<Void> raisingOnce(int threads, Throwable thrown) {
+        AtomicInteger count = new AtomicInteger();
+        return Testee.concurrently(threads, () -> {
+            if (count.incrementAndGet() == 1) {
+                throw thrown;
+            }
+        });
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    @Test
+    public void testRaiseInAny() {
+        // インスタンス化の検査
+        assertThat(RaiseInAny.raiseInAny(Exception.class), instanceOf(RaiseInAny.class));
+        assertThat(RaiseInAny.raiseInAny(Raise.raise(Exception.class)), instanceOf(RaiseInAny.class));
+        
+        try {
+            RaiseInAny.raiseInAny((Class<? extends Throwable>) null);
+            fail();
+        } catch (NullPointerException e) {
+            // OK
+        }
+        try {
+            RaiseInAny.raiseInAny((Matcher<Testee<?>>) null);
+            fail();
+        } catch (NullPointerException e) {
+            // OK
+        }
+    }
+    
+    @Test
+    public void testMatchesSafelyTestee() {
+        assertThat(raisingOnce(4, new IllegalStateException()), RaiseInAny.raiseInAny(IllegalStateException.class));
+        assertThat(raisingOnce(4, new IllegalStateException()), RaiseInAny.raiseInAny(RuntimeException.class));
+        assertThat(raisingOnce(4, new IllegalStateException()), not(RaiseInAny.raiseInAny(NullPointerException.class)));
+        assertThat(Testee.concurrently(4, () -> {}), not(RaiseInAny.raiseInAny(Throwable.class)));
+        
+        // RaiseMatcher と組み合わせることができる
+        assertThat(raisingOnce(4, new RuntimeException(new InterruptedException())),
+                RaiseInAny.raiseInAny(RaiseMatchers.raise(RuntimeException.class).rootCause(InterruptedException.class)));
+        assertThat(raisingOnce(4, new RuntimeException()),
+                not(RaiseInAny.raiseInAny(RaiseMatchers.raise(RuntimeException.class).rootCause(InterruptedException.class))));
+    }
+    
+    @Test
+    public void testDescribeTo() {
+        assertThat(RaiseInAny.raiseInAny(RuntimeException.class).toString(),
+                is("in any thread: throw <java.lang.RuntimeException>"));
+        
+        try {
+            // null を与えても安全に終了する。
+            RaiseInAny.raiseInAny(RuntimeException.class).describeTo(null);
+        } catch (NullPointerException e) {
+            fail();
+        }
+    }
+    
+    @Test
+    public void testDescribeMismatch() {
+        ConcurrentTestee<Void> testee = Testee.concurrently(2, () -> {});
+        Matcher<ConcurrentTestee<?>> matcher = RaiseInAny.raiseInAny(RuntimeException.class);
+        assertThat(matcher.matches(testee), is(false));
+        
+        StringDescription description = new StringDescription();
+        matcher.describeMismatch(testee, description);
+        assertThat(description.toString(),
+                is("was 2 threads, 0 raised: [Completed safely., Completed safely.] (0 of 2 threads matched)"));
+    }
+}
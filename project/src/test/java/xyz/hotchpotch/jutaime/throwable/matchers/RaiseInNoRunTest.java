@@ -0,0 +1,57 @@
+package xyz.hotchpotch.jutaime.throwable.matchers;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import xyz.hotchpotch.jutaime.throwable.Testee;
+
+public class RaiseInNoRunTest {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    @Test
+    public void testRaiseInNoRun() {
+        // インスタンス化の検査
+        assertThat(RaiseInNoRun.raiseInNoRun(), instanceOf(RaiseInNoRun.class));
+    }
+    
+    @Test
+    public void testMatchesSafelyTestee() {
+        assertThat(Testee.of(() -> {}).repeated(0, 100), RaiseInNoRun.raiseInNoRun());
+        assertThat(Testee.of(() -> { throw new Exception(); }).repeated(0, 100), not(RaiseInNoRun.raiseInNoRun()));
+        
+        // ウォームアップ実行でスローされた例外は考慮しない
+        AtomicInteger count = new AtomicInteger();
+        assertThat(Testee.of(() -> {
+            if (count.incrementAndGet() <= 10) {
+                throw new Exception();
+            }
+        }).repeated(10, 100), RaiseInNoRun.raiseInNoRun());
+        
+        // 100 回中 1 回だけスローされた場合も不合格と判定する
+        AtomicInteger count2 = new AtomicInteger();
+        assertThat(Testee.of(() -> {
+            if (count2.incrementAndGet() == 50) {
+                throw new Exception();
+            }
+        }).repeated(0, 100), not(RaiseInNoRun.raiseInNoRun()));
+    }
+    
+    @Test
+    public void testDescribeTo() {
+        assertThat(RaiseInNoRun.raiseInNoRun().toString(), is("raises in no run"));
+        
+        try {
+            // null を与えても安全に終了する。
+            RaiseInNoRun.raiseInNoRun().describeTo(null);
+        } catch (NullPointerException e) {
+            fail();
+        }
+    }
+}
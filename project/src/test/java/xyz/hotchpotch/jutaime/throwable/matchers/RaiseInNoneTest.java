@@ -0,0 +1,79 @@
+package xyz.hotchpotch.jutaime.throwable.matchers;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hamcrest.Matcher;
+import org.junit.Test;
+
+import xyz.hotchpotch.jutaime.throwable.ConcurrentTestee;
+import xyz.hotchpotch.jutaime.throwable.RaiseMatchers;
+import xyz.hotchpotch.jutaime.throwable.Testee;
+
+public class RaiseInNoneTest {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private static ConcurrentTestee<Void> raisingOnce(int threads, Throwable thrown) {
+        AtomicInteger count = new AtomicInteger();
+        return Testee.concurrently(threads, () -> {
+            if (count.incrementAndGet() == 1) {
+                throw thrown;
+            }
+        });
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    @Test
+    public void testRaiseInNone() {
+        // インスタンス化の検査
+        assertThat(RaiseInNone.raiseInNone(), instanceOf(RaiseInNone.class));
+        assertThat(RaiseInNone.raiseInNone(Exception.class), instanceOf(RaiseInNone.class));
+        assertThat(RaiseInNone.raiseInNone(Raise.raise(Exception.class)), instanceOf(RaiseInNone.class));
+        
+        try {
+            RaiseInNone.raiseInNone((Class<? extends Throwable>) null);
+            fail();
+        } catch (NullPointerException e) {
+            // OK
+        }
+        try {
+            RaiseInNone.raiseInNone((Matcher<Testee<?>>) null);
+            fail();
+        } catch (NullPointerException e) {
+            // OK
+        }
+    }
+    
+    @Test
+    public void testMatchesSafelyTestee() {
+        assertThat(Testee.concurrently(4, () -> {}), RaiseInNone.raiseInNone());
+        assertThat(Testee.concurrently(4, () -> {}), RaiseInNone.raiseInNone(Throwable.class));
+        
+        // 1 スレッドだけスローした場合も不合格と判定する
+        assertThat(raisingOnce(4, new Error()), not(RaiseInNone.raiseInNone()));
+        assertThat(raisingOnce(4, new IllegalStateException()), not(RaiseInNone.raiseInNone(RuntimeException.class)));
+        assertThat(raisingOnce(4, new IllegalStateException()), RaiseInNone.raiseInNone(NullPointerException.class));
+        
+        // RaiseMatcher と組み合わせることができる
+        assertThat(raisingOnce(4, new RuntimeException()),
+                RaiseInNone.raiseInNone(RaiseMatchers.raise(RuntimeException.class).rootCause(InterruptedException.class)));
+    }
+    
+    @Test
+    public void testDescribeTo() {
+        assertThat(RaiseInNone.raiseInNone().toString(), is("in no thread: throw <java.lang.Throwable>"));
+        assertThat(RaiseInNone.raiseInNone(RuntimeException.class).toString(),
+                is("in no thread: throw <java.lang.RuntimeException>"));
+        
+        try {
+            // null を与えても安全に終了する。
+            RaiseInNone.raiseInNone().describeTo(null);
+        } catch (NullPointerException e) {
+            fail();
+        }
+    }
+}
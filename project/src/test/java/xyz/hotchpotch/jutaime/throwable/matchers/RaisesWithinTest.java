@@ -0,0 +1,74 @@
+package xyz.hotchpotch.jutaime.throwable.matchers;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.time.Duration;
+
+import org.hamcrest.StringDescription;
+import org.junit.Test;
+
+import xyz.hotchpotch.jutaime.throwable.Testee;
+
+public class RaisesWithinTest {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    @Test
+    public void testRaisesWithin() {
+        // インスタンス化の検査
+        assertThat(RaisesWithin.raisesWithin(Duration.ZERO), instanceOf(RaisesWithin.class));
+        assertThat(RaisesWithin.raisesWithin(Duration.ofSeconds(1)), instanceOf(RaisesWithin.class));
+    }
+    
+    @Test(expected = NullPointerException.class)
+    public void testRaisesWithin2() {
+        RaisesWithin.raisesWithin(null);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testRaisesWithin3() {
+        RaisesWithin.raisesWithin(Duration.ofMillis(-1));
+    }
+    
+    @Test
+    public void testMatchesSafelyTestee() {
+        // 時間内に例外をスローした場合は合格と判定する。
+        assertThat(Testee.of(() -> { throw new Exception(); }), RaisesWithin.raisesWithin(Duration.ofMinutes(1)));
+        assertThat(Testee.of(() -> { throw new Error(new Exception()); }), RaisesWithin.raisesWithin(Duration.ofMinutes(1)));
+        
+        // 時間を超過した場合は不合格と判定する。
+        assertThat(Testee.of(() -> {
+            Thread.sleep(50);
+            throw new Exception();
+        }), not(RaisesWithin.raisesWithin(Duration.ofMillis(10))));
+        
+        // 正常終了の場合は時間内であっても不合格と判定する。
+        assertThat(Testee.of(() -> {}), not(RaisesWithin.raisesWithin(Duration.ofMinutes(1))));
+        assertThat(Testee.of(() -> 1 + 2), not(RaisesWithin.raisesWithin(Duration.ofMinutes(1))));
+    }
+    
+    @Test
+    public void testDescribeMismatch() {
+        Testee<?> testee = Testee.of(() -> { throw new Error("msg"); });
+        testee.elapsedTime();
+        StringDescription description = new StringDescription();
+        RaisesWithin.raisesWithin(Duration.ZERO).describeMismatch(testee, description);
+        assertThat(description.toString(),
+                is(String.format("was <throw java.lang.Error (msg)> after %s", testee.elapsedTime())));
+    }
+    
+    @Test
+    public void testDescribeTo() {
+        assertThat(RaisesWithin.raisesWithin(Duration.ofSeconds(30)).toString(), is("raises within PT30S"));
+        
+        try {
+            // null を与えても安全に終了する。
+            RaisesWithin.raisesWithin(Duration.ZERO).describeTo(null);
+        } catch (NullPointerException e) {
+            fail();
+        }
+    }
+}
@@ -11,13 +11,14 @@ import org.hamcrest.TypeSafeMatcher;
 import org.junit.Test;
 
 import xyz.hotchpotch.jutaime.throwable.Testee;
+import xyz.hotchpotch.jutaime.throwable.ThrowableChain;
 
 public class ThrowableBaseMatcherTest {
     
     // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
     
     private static class TestOuterMatcher extends ThrowableBaseMatcher {
-        private Throwable givenViaMatchesWhole;
+        private ThrowableChain givenViaMatchesWhole;
         
         private TestOuterMatcher(boolean exactly, Class<? extends Throwable> expectedType, String expectedMessage) {
             super(exactly, expectedType, expectedMessage);
@@ -32,8 +33,8 @@ public class ThrowableBaseMatcherTest {
         }
         
         @Override
-        boolean matchesWhole(Throwable actual) {
-            givenViaMatchesWhole = actual;
+        boolean matchesWhole(ThrowableChain chain) {
+            givenViaMatchesWhole = chain;
             return false;
         }
         
@@ -78,12 +79,22 @@ public class ThrowableBaseMatcherTest {
     
     @Test
     public void testMatchesSafely2() {
-        // 例外スロー時 ： スローされた例外がサブクラスに渡される。
+        // 例外スロー時 ： スローされた例外の例外チェインがサブクラスに渡される。
         TestOuterMatcher matcher = new TestOuterMatcher(true, Exception.class, "test");
         Throwable t = new IllegalArgumentException("test msg");
-        matcher.matchesSafely(Testee.of(() -> { throw t; }));
+        Testee<?> testee = Testee.of(() -> { throw t; });
+        matcher.matchesSafely(testee);
         
-        assertThat(matcher.givenViaMatchesWhole, sameInstance(t));
+        assertThat(matcher.givenViaMatchesWhole, sameInstance(testee.thrownChain()));
+        assertThat(matcher.givenViaMatchesWhole.get(0), sameInstance(t));
+    }
+    
+    @Test
+    public void testMatches() {
+        // 検査対象の型が明示的に指定されているため、Testee 以外のオブジェクトは不合格となる。
+        assertThat(new TestOuterMatcher(true, Exception.class, "test").matches("test"), is(false));
+        assertThat(new TestOuterMatcher(false, Exception.class).matches(new Exception()), is(false));
+        assertThat(new TestOuterMatcher(new TestInnerMatcher()).matches(null), is(false));
     }
     
     @Test
@@ -91,18 +102,18 @@ public class ThrowableBaseMatcherTest {
         ThrowableBaseMatcher matcher = new TestOuterMatcher(true, IllegalArgumentException.class, "test");
         
         // メッセージが適切に評価される。
-        assertThat(matcher.matchesEach(new IllegalArgumentException("test")), is(true));
-        assertThat(matcher.matchesEach(new IllegalArgumentException("diff")), is(false));
-        assertThat(matcher.matchesEach(new IllegalArgumentException((String) null)), is(false));
-        assertThat(matcher.matchesEach(new IllegalArgumentException()), is(false));
+        assertThat(matcher.matchesEach(ThrowableChain.of(new IllegalArgumentException("test")), 0), is(true));
+        assertThat(matcher.matchesEach(ThrowableChain.of(new IllegalArgumentException("diff")), 0), is(false));
+        assertThat(matcher.matchesEach(ThrowableChain.of(new IllegalArgumentException((String) null)), 0), is(false));
+        assertThat(matcher.matchesEach(ThrowableChain.of(new IllegalArgumentException()), 0), is(false));
         
         // 例外の型が適切に評価される。
-        assertThat(matcher.matchesEach(new RuntimeException("test")), is(false));
-        assertThat(matcher.matchesEach(new NumberFormatException("test")), is(false));
+        assertThat(matcher.matchesEach(ThrowableChain.of(new RuntimeException("test")), 0), is(false));
+        assertThat(matcher.matchesEach(ThrowableChain.of(new NumberFormatException("test")), 0), is(false));
         
         // cause ではなく最表層の例外が評価される。
-        assertThat(matcher.matchesEach(new IllegalArgumentException("test", new Error("diff"))), is(true));
-        assertThat(matcher.matchesEach(new Error("diff", new IllegalArgumentException("test"))), is(false));
+        assertThat(matcher.matchesEach(ThrowableChain.of(new IllegalArgumentException("test", new Error("diff"))), 0), is(true));
+        assertThat(matcher.matchesEach(ThrowableChain.of(new Error("diff", new IllegalArgumentException("test"))), 0), is(false));
     }
     
     @Test
@@ -110,8 +121,8 @@ public class ThrowableBaseMatcherTest {
         ThrowableBaseMatcher matcher = new TestOuterMatcher(false, IllegalArgumentException.class, "test");
         
         // 例外の型が適切に評価される - 第一引数 false の場合はサブクラス例外も一致と評価される。
-        assertThat(matcher.matchesEach(new RuntimeException("test")), is(false));
-        assertThat(matcher.matchesEach(new NumberFormatException("test")), is(true));
+        assertThat(matcher.matchesEach(ThrowableChain.of(new RuntimeException("test")), 0), is(false));
+        assertThat(matcher.matchesEach(ThrowableChain.of(new NumberFormatException("test")), 0), is(true));
     }
     
     @Test
@@ -119,9 +130,9 @@ public class ThrowableBaseMatcherTest {
         ThrowableBaseMatcher matcher = new TestOuterMatcher(true, IllegalArgumentException.class, null);
         
         // メッセージに null を指定した場合も適切に評価される。
-        assertThat(matcher.matchesEach(new IllegalArgumentException("test")), is(false));
-        assertThat(matcher.matchesEach(new IllegalArgumentException((String) null)), is(true));
-        assertThat(matcher.matchesEach(new IllegalArgumentException()), is(new IllegalArgumentException().getMessage() == null));
+        assertThat(matcher.matchesEach(ThrowableChain.of(new IllegalArgumentException("test")), 0), is(false));
+        assertThat(matcher.matchesEach(ThrowableChain.of(new IllegalArgumentException((String) null)), 0), is(true));
+        assertThat(matcher.matchesEach(ThrowableChain.of(new IllegalArgumentException()), 0), is(new IllegalArgumentException().getMessage() == null));
     }
     
     @Test
@@ -129,17 +140,17 @@ public class ThrowableBaseMatcherTest {
         ThrowableBaseMatcher matcher = new TestOuterMatcher(true, IllegalArgumentException.class);
         
         // メッセージを指定しない場合は無視される。
-        assertThat(matcher.matchesEach(new IllegalArgumentException("test")), is(true));
-        assertThat(matcher.matchesEach(new IllegalArgumentException((String) null)), is(true));
-        assertThat(matcher.matchesEach(new IllegalArgumentException()), is(true));
+        assertThat(matcher.matchesEach(ThrowableChain.of(new IllegalArgumentException("test")), 0), is(true));
+        assertThat(matcher.matchesEach(ThrowableChain.of(new IllegalArgumentException((String) null)), 0), is(true));
+        assertThat(matcher.matchesEach(ThrowableChain.of(new IllegalArgumentException()), 0), is(true));
         
         // 例外の型は適切に評価される。
-        assertThat(matcher.matchesEach(new RuntimeException("test")), is(false));
-        assertThat(matcher.matchesEach(new NumberFormatException("test")), is(false));
+        assertThat(matcher.matchesEach(ThrowableChain.of(new RuntimeException("test")), 0), is(false));
+        assertThat(matcher.matchesEach(ThrowableChain.of(new NumberFormatException("test")), 0), is(false));
         
         // cause ではなく最表層の例外が評価される。
-        assertThat(matcher.matchesEach(new IllegalArgumentException("test", new Error("diff"))), is(true));
-        assertThat(matcher.matchesEach(new Error("diff", new IllegalArgumentException("test"))), is(false));
+        assertThat(matcher.matchesEach(ThrowableChain.of(new IllegalArgumentException("test", new Error("diff"))), 0), is(true));
+        assertThat(matcher.matchesEach(ThrowableChain.of(new Error("diff", new IllegalArgumentException("test"))), 0), is(false));
     }
     
     @Test
@@ -147,8 +158,8 @@ public class ThrowableBaseMatcherTest {
         ThrowableBaseMatcher matcher = new TestOuterMatcher(false, IllegalArgumentException.class);
         
         // 例外の型が適切に評価される - 第一引数 false の場合はサブクラス例外も一致と評価される。
-        assertThat(matcher.matchesEach(new RuntimeException("test")), is(false));
-        assertThat(matcher.matchesEach(new NumberFormatException("test")), is(true));
+        assertThat(matcher.matchesEach(ThrowableChain.of(new RuntimeException("test")), 0), is(false));
+        assertThat(matcher.matchesEach(ThrowableChain.of(new NumberFormatException("test")), 0), is(true));
     }
     
     @Test
@@ -156,12 +167,29 @@ public class ThrowableBaseMatcherTest {
         TestInnerMatcher inner = new TestInnerMatcher();
         ThrowableBaseMatcher matcher = new TestOuterMatcher(inner);
         Throwable t = new IllegalArgumentException("test");
-        matcher.matchesEach(t);
+        matcher.matchesEach(ThrowableChain.of(t), 0);
         
         // スローされた例外が inner に渡される。
         assertThat(inner.givenViaMatchesSafely, sameInstance(t));
     }
     
+    @Test
+    public void testMatchesEach7() {
+        // 例外チェインの任意の位置の例外が評価される。
+        Throwable t = new IllegalArgumentException("test", new NumberFormatException("cause"));
+        ThrowableChain chain = ThrowableChain.of(t);
+        
+        assertThat(new TestOuterMatcher(true, IllegalArgumentException.class, "test").matchesEach(chain, 0), is(true));
+        assertThat(new TestOuterMatcher(true, IllegalArgumentException.class, "diff").matchesEach(chain, 0), is(false));
+        assertThat(new TestOuterMatcher(true, IllegalArgumentException.class).matchesEach(chain, 1), is(false));
+        assertThat(new TestOuterMatcher(false, IllegalArgumentException.class).matchesEach(chain, 1), is(true));
+        assertThat(new TestOuterMatcher(false, IllegalArgumentException.class, null).matchesEach(chain, 1), is(false));
+        
+        TestInnerMatcher inner = new TestInnerMatcher();
+        new TestOuterMatcher(inner).matchesEach(chain, 1);
+        assertThat(inner.givenViaMatchesSafely, sameInstance(t.getCause()));
+    }
+    
     @Test
     public void testDescribeTo1() {
         ThrowableBaseMatcher matcher1 = new TestOuterMatcher(true, Error.class, "testMsg");